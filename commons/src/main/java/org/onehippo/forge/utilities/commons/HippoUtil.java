@@ -16,14 +16,14 @@
 
 package org.onehippo.forge.utilities.commons;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import com.google.common.base.Joiner;
 
@@ -45,7 +45,11 @@ public final class HippoUtil {
 
     /**
      * Map from mime type to common file extension, e.g. "application/pdf" to "pdf".
+     *
+     * @deprecated no longer used by {@link #getExtensionFromMimeType(String)} and {@link #simplifyMimeType(String)},
+     * use {@link MimeTypeRegistry}, which can be extended with a mime.types file at the root of the classpath
      */
+    @Deprecated
     public static final Map<String, String> MIME_TYPE_TO_EXTENSION_MAP =
         new HashMap<String , String>() {
             private static final long serialVersionUID = -3566373789286953339L;
@@ -78,60 +82,133 @@ public final class HippoUtil {
 
     private static final String DEFAULT_APPEND_TEXT = " ...";
 
+    /**
+     * Characters after which {@link #abbreviateText(String, int)} cuts a text: space, dot, comma, question mark and
+     * exclamation mark.
+     */
+    public static final String ABBREVIATION_BOUNDARY_CHARS = " .,?!";
+
     /**
      * Abbreviate a text to _approximately_ some number of characters, trying to
      * find a nice word end and then appending some string (defaulting to three dots).
      */
     public static String abbreviateText(final String text, final int numberOfCharacters, final String appendText) {
+        return abbreviateText(text, numberOfCharacters, appendText, ABBREVIATION_BOUNDARY_CHARS);
+    }
 
-        int nrChars = numberOfCharacters;
-
-        if (nrChars > 0 && text != null && text.length() > nrChars) {
+    /**
+     * Abbreviate a text to _approximately_ some number of characters, trying to
+     * find a nice word end and then appending three dots.
+     */
+    public static String abbreviateText(final String text, final int numberOfCharacters) {
+        return abbreviateText(text, numberOfCharacters, null);
+    }
 
-            // search a nice word end, _backwards_ from nrChars
+    /**
+     * Abbreviate a text to _approximately_ some number of characters, cutting it at the last boundary character at
+     * or before that number and then appending some string (defaulting to three dots). Without boundary character
+     * in range only the appended string remains.
+     *
+     * @param text               text to abbreviate, returned as is if null or not longer than numberOfCharacters
+     * @param numberOfCharacters approximate maximum number of characters, zero or less for no abbreviation
+     * @param appendText         text to append to an abbreviated text, null for three dots
+     * @param boundaryChars      characters at which the text may be cut, e.g. {@link #ABBREVIATION_BOUNDARY_CHARS}
+     * @return abbreviated text
+     */
+    public static String abbreviateText(final String text, final int numberOfCharacters, final String appendText,
+            final String boundaryChars) {
+        if (numberOfCharacters > 0 && text != null && text.length() > numberOfCharacters) {
+            final String append = appendText != null ? appendText : DEFAULT_APPEND_TEXT;
+            final int end = findAbbreviationEnd(text, numberOfCharacters, boundaryChars);
+            return new StringBuilder(end + append.length()).append(text, 0, end).append(append).toString();
+        }
+        return text;
+    }
 
-            int spaceIndex = text.lastIndexOf(' ', nrChars);
-            int dotIndex = text.lastIndexOf('.', nrChars);
-            int commaIndex = text.lastIndexOf(',', nrChars);
-            int questionIndex = text.lastIndexOf('?', nrChars);
-            int exclamationIndex = text.lastIndexOf('!', nrChars);
+    /**
+     * Appends an abbreviated text to a builder, like {@link #abbreviateText(String, int, String, String)} but
+     * without creating intermediate strings. A null text appends nothing.
+     *
+     * @return the builder
+     */
+    public static StringBuilder appendAbbreviatedText(final StringBuilder builder, final CharSequence text,
+            final int numberOfCharacters, final String appendText, final String boundaryChars) {
+        if (text == null) {
+            return builder;
+        }
+        if (numberOfCharacters > 0 && text.length() > numberOfCharacters) {
+            builder.append(text, 0, findAbbreviationEnd(text, numberOfCharacters, boundaryChars));
+            builder.append(appendText != null ? appendText : DEFAULT_APPEND_TEXT);
+        } else {
+            builder.append(text);
+        }
+        return builder;
+    }
 
-            // set index to last space
-            nrChars = spaceIndex;
+    /**
+     * Appends an abbreviated text to an appendable, for instance a writer, like
+     * {@link #abbreviateText(String, int, String, String)}. A null text appends nothing.
+     *
+     * @return the appendable
+     * @throws IOException if appending fails
+     */
+    public static Appendable appendAbbreviatedText(final Appendable appendable, final CharSequence text,
+            final int numberOfCharacters, final String appendText, final String boundaryChars) throws IOException {
+        if (text == null) {
+            return appendable;
+        }
+        if (numberOfCharacters > 0 && text.length() > numberOfCharacters) {
+            appendable.append(text, 0, findAbbreviationEnd(text, numberOfCharacters, boundaryChars));
+            appendable.append(appendText != null ? appendText : DEFAULT_APPEND_TEXT);
+        } else {
+            appendable.append(text);
+        }
+        return appendable;
+    }
 
-            if (dotIndex > nrChars) {
-                nrChars = dotIndex;
-            }
-            if (commaIndex > nrChars) {
-                nrChars = commaIndex;
-            }
-            if (questionIndex > nrChars) {
-                nrChars = questionIndex;
-            }
-            if (exclamationIndex > nrChars) {
-                nrChars = exclamationIndex;
-            }
-            // final check for < 0
-            if (nrChars < 0) {
-                nrChars = 0;
-            }
+    /**
+     * Abbreviates a list of texts, for instance the teasers of a listing, like {@link #abbreviateText(String, int)}.
+     *
+     * @return new list with the abbreviated texts in the same order, null texts stay null
+     */
+    public static List<String> abbreviateTexts(final List<String> texts, final int numberOfCharacters) {
+        return abbreviateTexts(texts, numberOfCharacters, null, ABBREVIATION_BOUNDARY_CHARS);
+    }
 
-            if (appendText != null) {
-                return text.substring(0, nrChars) + appendText;
-            }
-            else {
-                return text.substring(0, nrChars) + DEFAULT_APPEND_TEXT;
+    /**
+     * Abbreviates a list of texts like {@link #abbreviateText(String, int, String, String)}.
+     *
+     * @return new list with the abbreviated texts in the same order, null texts stay null
+     */
+    public static List<String> abbreviateTexts(final List<String> texts, final int numberOfCharacters,
+            final String appendText, final String boundaryChars) {
+        final List<String> abbreviated = new ArrayList<String>(texts.size());
+        final StringBuilder builder = new StringBuilder();
+        for (String text : texts) {
+            if (numberOfCharacters > 0 && text != null && text.length() > numberOfCharacters) {
+                builder.setLength(0);
+                abbreviated.add(appendAbbreviatedText(builder, text, numberOfCharacters, appendText, boundaryChars)
+                        .toString());
+            } else {
+                abbreviated.add(text);
             }
         }
-        return text;
+        return abbreviated;
     }
 
     /**
-     * Abbreviate a text to _approximately_ some number of characters, trying to
-     * find a nice word end and then appending three dots.
+     * Scans backwards from numberOfCharacters for a boundary character.
+     *
+     * @return the index of the last boundary character at or before numberOfCharacters, or 0 if there is none
      */
-    public static String abbreviateText(final String text, final int numberOfCharacters) {
-        return abbreviateText(text, numberOfCharacters, null);
+    private static int findAbbreviationEnd(final CharSequence text, final int numberOfCharacters,
+            final String boundaryChars) {
+        for (int i = Math.min(numberOfCharacters, text.length() - 1); i > 0; i--) {
+            if (boundaryChars.indexOf(text.charAt(i)) >= 0) {
+                return i;
+            }
+        }
+        return 0;
     }
 
     /**
@@ -195,58 +272,51 @@ public final class HippoUtil {
 
     /**
      * Replaces <strong>{@code ${variableName}}</strong> variable in a template with the replacement value provided.
+     * The template is not cached, because callers replacing one variable at a time pass intermediate strings.
      *
      * @param variableName     variable name
      * @param replacementValue replacement value
      * @param template         string which contains variable e.g
      *                         <strong>{@code My name is ${username} and my login is ${login}}</strong>
      * @return string (template with string replacements)
+     * @see PlaceHolderTemplate
      */
     public static String replacePlaceHolders(final String variableName, final String replacementValue,
             final String template) {
-        Pattern pattern = Pattern.compile("(\\$\\{" + variableName + "*\\})");
-        Matcher matcher = pattern.matcher(template);
-        StringBuffer buffer = new StringBuffer();
-        while ((matcher.find())) {
-            matcher.appendReplacement(buffer, replacementValue);
-        }
-        matcher.appendTail(buffer);
-        return buffer.toString();
+        return PlaceHolderTemplate.parse(template).render(
+                Collections.singletonMap(variableName, replacementValue));
+    }
+
+    /**
+     * Replaces all <strong>{@code ${variableName}}</strong> variables in a template with their values in a single
+     * pass. Variables without a value are left as they are.
+     *
+     * @param values   variable values by name
+     * @param template string which contains variables e.g
+     *                 <strong>{@code My name is ${username} and my login is ${login}}</strong>
+     * @return string (template with string replacements)
+     * @see PlaceHolderTemplate
+     */
+    public static String replacePlaceHolders(final Map<String, ?> values, final String template) {
+        return PlaceHolderTemplate.compile(template).render(values);
     }
 
     /**
      * Simplify a genuine mime type into a simple one like "pdf", "image" or an extension like "doc".
+     *
+     * @see MimeTypeRegistry#getCategory(String)
      */
     public static String simplifyMimeType(final String mimeType) {
-
-        String simplified = "";
-        if (mimeType != null) {
-
-            final String extension = getExtensionFromMimeType(mimeType);
-            if (extension != null) {
-                simplified = extension;
-            }
-            else if (mimeType.startsWith("image/")) {
-                simplified = "image";
-            }
-            else if (mimeType.indexOf("pdf") > -1) {
-                simplified = "pdf";
-            }
-        }
-
-        return simplified;
+        return MimeTypeRegistry.getDefault().getCategory(mimeType);
     }
 
     /**
      * Get an extension from a mime type.
+     *
+     * @see MimeTypeRegistry#getExtension(String)
      */
     public static String getExtensionFromMimeType(final String mimeType) {
-
-        if (mimeType == null) {
-            return null;
-        }
-
-        return MIME_TYPE_TO_EXTENSION_MAP.get(mimeType);
+        return MimeTypeRegistry.getDefault().getExtension(mimeType);
     }
 
 }
@@ -0,0 +1,344 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.commons;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Immutable registry of mime types and their file extensions, loaded from files in the format of the Apache httpd
+ * mime.types file: a mime type followed by its extensions, the first of which is the common one.
+ * <p>
+ * The {@link #getDefault() default registry} has the entries of a bundled mime.types file, overridden by the
+ * entries of any mime.types file at the root of the classpath. An entry for a mime type replaces earlier entries for
+ * that type, and an extension maps to the type that listed it last.
+ * </p>
+ * Mime types are looked up case insensitively and without their parameters, so "Text/HTML; charset=UTF-8" is
+ * "text/html". The lookups do not create objects.
+ */
+public final class MimeTypeRegistry {
+
+    private static Logger log = LoggerFactory.getLogger(MimeTypeRegistry.class);
+
+    /**
+     * Class path resource of the bundled mime types.
+     */
+    public static final String BUNDLED_RESOURCE = "org/onehippo/forge/utilities/commons/mime.types";
+
+    /**
+     * Class path resource name of files overriding the bundled mime types.
+     */
+    public static final String OVERRIDE_RESOURCE = "mime.types";
+
+    private static final String IMAGE_CATEGORY = "image";
+    private static final String PDF_CATEGORY = "pdf";
+
+    private final Entry[] table;
+    private final Set<String> mimeTypes;
+    private final Map<String, String> extensionToMimeType;
+
+    private static final class DefaultHolder {
+        private static final MimeTypeRegistry DEFAULT = loadDefault();
+    }
+
+    /**
+     * A mime type with its extensions and precomputed category.
+     */
+    private static final class Entry {
+        private final String mimeType;
+        private final List<String> extensions;
+        private final String category;
+        private final int hash;
+
+        private Entry(final String mimeType, final List<String> extensions) {
+            this.mimeType = mimeType;
+            this.extensions = extensions;
+            this.category = computeCategory(mimeType, extensions.isEmpty() ? null : extensions.get(0));
+            this.hash = hash(mimeType, 0, mimeType.length());
+        }
+    }
+
+    private MimeTypeRegistry(final Map<String, List<String>> types) {
+        int capacity = 16;
+        while (capacity < types.size() * 2) {
+            capacity <<= 1;
+        }
+        table = new Entry[capacity];
+        final Map<String, String> extensions = new HashMap<String, String>();
+        for (Map.Entry<String, List<String>> type : types.entrySet()) {
+            final Entry entry = new Entry(type.getKey(), Collections.unmodifiableList(type.getValue()));
+            int index = entry.hash & (capacity - 1);
+            while (table[index] != null) {
+                index = (index + 1) & (capacity - 1);
+            }
+            table[index] = entry;
+            for (String extension : entry.extensions) {
+                extensions.put(extension, entry.mimeType);
+            }
+        }
+        mimeTypes = Collections.unmodifiableSet(new LinkedHashSet<String>(types.keySet()));
+        extensionToMimeType = extensions;
+    }
+
+    /**
+     * @return the registry of the bundled mime types, overridden by mime.types files at the root of the classpath
+     */
+    public static MimeTypeRegistry getDefault() {
+        return DefaultHolder.DEFAULT;
+    }
+
+    /**
+     * Loads a registry from mime.types files, later files overriding earlier ones.
+     *
+     * @param urls locations of mime.types files
+     * @return the registry
+     * @throws IOException if a file cannot be read
+     */
+    public static MimeTypeRegistry load(final URL... urls) throws IOException {
+        final Map<String, List<String>> types = new LinkedHashMap<String, List<String>>();
+        for (URL url : urls) {
+            final InputStream stream = url.openStream();
+            try {
+                read(new InputStreamReader(stream, StandardCharsets.UTF_8), types);
+            } finally {
+                stream.close();
+            }
+        }
+        return new MimeTypeRegistry(types);
+    }
+
+    private static MimeTypeRegistry loadDefault() {
+        final List<URL> urls = new ArrayList<URL>();
+        final ClassLoader classLoader = MimeTypeRegistry.class.getClassLoader();
+        final URL bundled = classLoader.getResource(BUNDLED_RESOURCE);
+        if (bundled == null) {
+            log.error("Bundled mime types {} not found", BUNDLED_RESOURCE);
+        } else {
+            urls.add(bundled);
+        }
+        try {
+            final Enumeration<URL> overrides = classLoader.getResources(OVERRIDE_RESOURCE);
+            while (overrides.hasMoreElements()) {
+                urls.add(overrides.nextElement());
+            }
+            return load(urls.toArray(new URL[urls.size()]));
+        } catch (IOException e) {
+            log.error("Cannot load mime types from {}, there are no mime types", urls, e);
+            return new MimeTypeRegistry(Collections.<String, List<String>>emptyMap());
+        }
+    }
+
+    static void read(final Reader reader, final Map<String, List<String>> types) throws IOException {
+        final BufferedReader lines = new BufferedReader(reader);
+        String line;
+        while ((line = lines.readLine()) != null) {
+            final int comment = line.indexOf('#');
+            final String content = (comment < 0 ? line : line.substring(0, comment)).trim();
+            if (content.isEmpty()) {
+                continue;
+            }
+            final String[] tokens = content.split("\\s+");
+            final String mimeType = tokens[0].toLowerCase(Locale.ENGLISH);
+            if (mimeType.indexOf('/') < 1) {
+                log.warn("Ignoring invalid mime types line '{}'", line);
+                continue;
+            }
+            final List<String> extensions = new ArrayList<String>(tokens.length - 1);
+            for (int i = 1; i < tokens.length; i++) {
+                extensions.add(tokens[i].toLowerCase(Locale.ENGLISH));
+            }
+            // moved to the end so its extensions override those of earlier types
+            types.remove(mimeType);
+            types.put(mimeType, extensions);
+        }
+    }
+
+    /**
+     * @param mimeType mime type, possibly with parameters
+     * @return the common extension of the mime type, or null if it is unknown or has none
+     */
+    public String getExtension(final String mimeType) {
+        final Entry entry = find(mimeType);
+        return entry == null || entry.extensions.isEmpty() ? null : entry.extensions.get(0);
+    }
+
+    /**
+     * @param mimeType mime type, possibly with parameters
+     * @return the extensions of the mime type, the common one first, empty if it is unknown
+     */
+    public List<String> getExtensions(final String mimeType) {
+        final Entry entry = find(mimeType);
+        return entry == null ? Collections.<String>emptyList() : entry.extensions;
+    }
+
+    /**
+     * @param fileName file name or extension, e.g. "report.PDF" or "pdf"
+     * @return the mime type of the extension, or null if it is unknown
+     */
+    public String getMimeType(final String fileName) {
+        if (fileName == null) {
+            return null;
+        }
+        final String extension = fileName.substring(fileName.lastIndexOf('.') + 1);
+        final String mimeType = extensionToMimeType.get(extension);
+        return mimeType != null ? mimeType : extensionToMimeType.get(extension.toLowerCase(Locale.ENGLISH));
+    }
+
+    /**
+     * Simplifies a mime type into a category: "image" for images, else the common extension, else "pdf" for pdf
+     * like types, else an empty string.
+     *
+     * @param mimeType mime type, possibly with parameters
+     * @return the category, not null
+     */
+    public String getCategory(final String mimeType) {
+        if (mimeType == null) {
+            return "";
+        }
+        final Entry entry = find(mimeType);
+        return entry != null ? entry.category : computeCategory(mimeType, null);
+    }
+
+    /**
+     * @return true if the mime type, without parameters, is in the registry
+     */
+    public boolean contains(final String mimeType) {
+        return find(mimeType) != null;
+    }
+
+    /**
+     * @return the mime types in the registry, in lower case
+     */
+    public Set<String> getMimeTypes() {
+        return mimeTypes;
+    }
+
+    /**
+     * Strips the parameters from a mime type and converts it to lower case, e.g. "Text/HTML; charset=UTF-8" to
+     * "text/html".
+     *
+     * @return the base mime type, the same string if it has no parameters and is in lower case
+     */
+    public static String getBaseType(final String mimeType) {
+        if (mimeType == null) {
+            return null;
+        }
+        final int end = getBaseTypeEnd(mimeType);
+        final int start = getBaseTypeStart(mimeType, end);
+        for (int i = start; i < end; i++) {
+            final char c = mimeType.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                return mimeType.substring(start, end).toLowerCase(Locale.ENGLISH);
+            }
+        }
+        return start == 0 && end == mimeType.length() ? mimeType : mimeType.substring(start, end);
+    }
+
+    private Entry find(final String mimeType) {
+        if (mimeType == null) {
+            return null;
+        }
+        final int end = getBaseTypeEnd(mimeType);
+        final int start = getBaseTypeStart(mimeType, end);
+        final int length = end - start;
+        final int hash = hash(mimeType, start, end);
+        int index = hash & (table.length - 1);
+        Entry entry;
+        while ((entry = table[index]) != null) {
+            if (entry.hash == hash && entry.mimeType.length() == length
+                    && entry.mimeType.regionMatches(true, 0, mimeType, start, length)) {
+                return entry;
+            }
+            index = (index + 1) & (table.length - 1);
+        }
+        return null;
+    }
+
+    /**
+     * @return the end of the mime type before its parameters and trailing whitespace
+     */
+    private static int getBaseTypeEnd(final String mimeType) {
+        int end = mimeType.indexOf(';');
+        if (end < 0) {
+            end = mimeType.length();
+        }
+        while (end > 0 && Character.isWhitespace(mimeType.charAt(end - 1))) {
+            end--;
+        }
+        return end;
+    }
+
+    private static int getBaseTypeStart(final String mimeType, final int end) {
+        int start = 0;
+        while (start < end && Character.isWhitespace(mimeType.charAt(start))) {
+            start++;
+        }
+        return start;
+    }
+
+    /**
+     * Hash of a region of a string, ignoring the case of ASCII letters.
+     */
+    private static int hash(final String string, final int start, final int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            char c = string.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                c += 'a' - 'A';
+            }
+            hash = 31 * hash + c;
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static String computeCategory(final String mimeType, final String extension) {
+        if (mimeType.regionMatches(true, getBaseTypeStart(mimeType, mimeType.length()), IMAGE_CATEGORY + '/', 0,
+                IMAGE_CATEGORY.length() + 1)) {
+            return IMAGE_CATEGORY;
+        }
+        if (extension != null) {
+            return extension;
+        }
+        if (mimeType.toLowerCase(Locale.ENGLISH).contains(PDF_CATEGORY)) {
+            return PDF_CATEGORY;
+        }
+        return "";
+    }
+
+    @Override
+    public String toString() {
+        return "MimeTypeRegistry[" + mimeTypes.size() + " types]";
+    }
+}
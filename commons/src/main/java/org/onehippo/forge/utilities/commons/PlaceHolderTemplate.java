@@ -0,0 +1,229 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.commons;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Template with <strong>{@code ${variableName}}</strong> place holders, parsed once into its literal texts and
+ * variable names so it can be rendered many times in a single pass, for instance an email template:
+ * <pre>
+ *   PlaceHolderTemplate template = PlaceHolderTemplate.compile("Dear ${name}, your login is ${login}.");
+ *   Map&lt;String, String&gt; variables = new HashMap&lt;String, String&gt;();
+ *   variables.put("name", "John");
+ *   variables.put("login", "john");
+ *   String mail = template.render(variables);
+ * </pre>
+ * Place holders without a value are left in the text as they are. A "${" without closing "}" is literal text.
+ * Templates are immutable and thread safe.
+ */
+public final class PlaceHolderTemplate {
+
+    private static final String START = "${";
+    private static final char END = '}';
+
+    /**
+     * Maximum number of templates kept by {@link #compile(String)}, the least recently used is dropped first.
+     */
+    static final int CACHE_SIZE = 256;
+
+    private static final Map<String, PlaceHolderTemplate> CACHE =
+            new LinkedHashMap<String, PlaceHolderTemplate>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<String, PlaceHolderTemplate> eldest) {
+                    return size() > CACHE_SIZE;
+                }
+            };
+
+    /**
+     * Provides the values of the variables of a template.
+     */
+    public interface Resolver {
+
+        /**
+         * @return the value of the variable, its string value is inserted, or null to leave the place holder
+         */
+        Object resolve(String variableName);
+    }
+
+    private final String template;
+    // literals[i] is followed by variables[i], the last literal by nothing
+    private final String[] literals;
+    private final String[] variables;
+    private final int literalLength;
+
+    private PlaceHolderTemplate(final String template, final String[] literals, final String[] variables) {
+        this.template = template;
+        this.literals = literals;
+        this.variables = variables;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * Gets a parsed template from a cache of recently used templates, parsing it if it is not there.
+     *
+     * @param template string with place holders
+     * @return parsed template
+     */
+    public static PlaceHolderTemplate compile(final String template) {
+        synchronized (CACHE) {
+            final PlaceHolderTemplate cached = CACHE.get(template);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        final PlaceHolderTemplate parsed = parse(template);
+        synchronized (CACHE) {
+            CACHE.put(template, parsed);
+        }
+        return parsed;
+    }
+
+    /**
+     * Parses a template without caching it, for templates that are kept by the caller.
+     *
+     * @param template string with place holders
+     * @return parsed template
+     */
+    public static PlaceHolderTemplate parse(final String template) {
+        if (template == null) {
+            throw new IllegalArgumentException("Template is null");
+        }
+        final List<String> literals = new ArrayList<String>();
+        final List<String> variables = new ArrayList<String>();
+        int literalStart = 0;
+        int start = template.indexOf(START);
+        while (start >= 0) {
+            final int end = template.indexOf(END, start + START.length());
+            if (end < 0) {
+                break;
+            }
+            literals.add(template.substring(literalStart, start));
+            variables.add(template.substring(start + START.length(), end));
+            literalStart = end + 1;
+            start = template.indexOf(START, literalStart);
+        }
+        literals.add(template.substring(literalStart));
+        return new PlaceHolderTemplate(template, literals.toArray(new String[literals.size()]),
+                variables.toArray(new String[variables.size()]));
+    }
+
+    /**
+     * Renders the template with the values of a map.
+     *
+     * @param values variable values by name, their string values are inserted
+     * @return rendered text
+     */
+    public String render(final Map<String, ?> values) {
+        return render(new MapResolver(values));
+    }
+
+    /**
+     * Renders the template with the values of a resolver.
+     *
+     * @param resolver provides the variable values
+     * @return rendered text
+     */
+    public String render(final Resolver resolver) {
+        if (variables.length == 0) {
+            return template;
+        }
+        final StringBuilder builder = new StringBuilder(literalLength + 16 * variables.length);
+        renderTo(builder, resolver);
+        return builder.toString();
+    }
+
+    /**
+     * Appends the template rendered with the values of a map to a builder.
+     */
+    public void renderTo(final StringBuilder builder, final Map<String, ?> values) {
+        renderTo(builder, new MapResolver(values));
+    }
+
+    /**
+     * Appends the template rendered with the values of a resolver to a builder.
+     */
+    public void renderTo(final StringBuilder builder, final Resolver resolver) {
+        for (int i = 0; i < variables.length; i++) {
+            builder.append(literals[i]);
+            final Object value = resolver.resolve(variables[i]);
+            if (value != null) {
+                builder.append(value);
+            } else {
+                builder.append(START).append(variables[i]).append(END);
+            }
+        }
+        builder.append(literals[variables.length]);
+    }
+
+    /**
+     * @return the names of the variables in order of first appearance
+     */
+    public Set<String> getVariableNames() {
+        return Collections.unmodifiableSet(new LinkedHashSet<String>(Arrays.asList(variables)));
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    @Override
+    public String toString() {
+        return template;
+    }
+
+    /**
+     * Removes all templates from the cache of {@link #compile(String)}.
+     */
+    public static void clearCache() {
+        synchronized (CACHE) {
+            CACHE.clear();
+        }
+    }
+
+    static int getCacheSize() {
+        synchronized (CACHE) {
+            return CACHE.size();
+        }
+    }
+
+    private static final class MapResolver implements Resolver {
+
+        private final Map<String, ?> values;
+
+        private MapResolver(final Map<String, ?> values) {
+            this.values = values;
+        }
+
+        public Object resolve(final String variableName) {
+            return values.get(variableName);
+        }
+    }
+}
@@ -0,0 +1,324 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.commons.ftp;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects counters and latency histograms of one or more {@link SimpleFtpClient}s and exposes them over JMX.
+ * <p>
+ * Basic usage:
+ * </p>
+ * <pre>
+ *  FtpMetrics metrics = new FtpMetrics();
+ *  metrics.registerMBean("partner-export");
+ *  client.setMetricsListener(metrics);
+ * </pre>
+ * An instance can be shared by several clients; all methods are thread safe.
+ */
+public class FtpMetrics implements FtpMetricsListener, FtpMetricsMXBean {
+
+    private static Logger log = LoggerFactory.getLogger(FtpMetrics.class);
+
+    public static final String OBJECT_NAME_DOMAIN = "org.onehippo.forge.utilities.commons.ftp";
+
+    private static final double NANOS_PER_MILLI = 1000000d;
+    private static final double NANOS_PER_SECOND = 1000000000d;
+
+    private final Histogram connectTime = new Histogram();
+    private final Histogram loginTime = new Histogram();
+    private final Histogram commandLatency = new Histogram();
+    private final AtomicLong connectFailures = new AtomicLong();
+    private final ConcurrentMap<Integer, AtomicLong> replyCodes = new ConcurrentHashMap<Integer, AtomicLong>();
+    private final Transfers uploads = new Transfers();
+    private final Transfers downloads = new Transfers();
+    private final AtomicLong errors = new AtomicLong();
+
+    private ObjectName objectName;
+
+    /**
+     * Registers this instance with the platform MBean server, under
+     * {@code org.onehippo.forge.utilities.commons.ftp:type=FtpMetrics,name=<name>}.
+     *
+     * @param name name distinguishing this instance, e.g. the server or job name
+     * @return the object name, or null if registration failed
+     */
+    public synchronized ObjectName registerMBean(final String name) {
+        unregisterMBean();
+        try {
+            final ObjectName candidate = new ObjectName(OBJECT_NAME_DOMAIN + ":type=FtpMetrics,name=" + ObjectName.quote(name));
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(candidate)) {
+                server.unregisterMBean(candidate);
+            }
+            server.registerMBean(this, candidate);
+            objectName = candidate;
+        } catch (JMException e) {
+            log.error("Error registering FTP metrics MBean for {}", name, e);
+        }
+        return objectName;
+    }
+
+    /**
+     * Unregisters this instance from the platform MBean server, if registered.
+     */
+    public synchronized void unregisterMBean() {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (JMException e) {
+            log.warn("Error unregistering FTP metrics MBean {}", objectName, e);
+        }
+        objectName = null;
+    }
+
+    public void connected(final String server, final long connectNanos, final long loginNanos, final int replyCode,
+                          final boolean success) {
+        connectTime.record(connectNanos);
+        if (loginNanos > 0) {
+            loginTime.record(loginNanos);
+        }
+        if (!success) {
+            connectFailures.incrementAndGet();
+        }
+    }
+
+    public void commandCompleted(final String server, final String command, final int replyCode,
+                                 final long durationNanos) {
+        if (durationNanos >= 0) {
+            commandLatency.record(durationNanos);
+        }
+        AtomicLong count = replyCodes.get(replyCode);
+        if (count == null) {
+            final AtomicLong newCount = new AtomicLong();
+            count = replyCodes.putIfAbsent(replyCode, newCount);
+            if (count == null) {
+                count = newCount;
+            }
+        }
+        count.incrementAndGet();
+    }
+
+    public void transferCompleted(final String server, final Direction direction, final String fileName,
+                                  final long bytes, final long durationNanos, final boolean success) {
+        final Transfers transfers = direction == Direction.UPLOAD ? uploads : downloads;
+        transfers.record(bytes, durationNanos, success);
+    }
+
+    public void failed(final String server, final String operation, final Exception exception) {
+        errors.incrementAndGet();
+    }
+
+    public long getConnectCount() {
+        return connectTime.getCount();
+    }
+
+    public long getConnectFailureCount() {
+        return connectFailures.get();
+    }
+
+    public double getConnectTimeAverageMillis() {
+        return connectTime.getAverage() / NANOS_PER_MILLI;
+    }
+
+    public double getConnectTimeMaxMillis() {
+        return connectTime.getMax() / NANOS_PER_MILLI;
+    }
+
+    public double getLoginTimeAverageMillis() {
+        return loginTime.getAverage() / NANOS_PER_MILLI;
+    }
+
+    public double getLoginTimeMaxMillis() {
+        return loginTime.getMax() / NANOS_PER_MILLI;
+    }
+
+    public long getCommandCount() {
+        return commandLatency.getCount();
+    }
+
+    public double getCommandLatencyAverageMillis() {
+        return commandLatency.getAverage() / NANOS_PER_MILLI;
+    }
+
+    public double getCommandLatencyMaxMillis() {
+        return commandLatency.getMax() / NANOS_PER_MILLI;
+    }
+
+    public Map<String, Long> getCommandLatencyHistogram() {
+        return commandLatency.getBuckets();
+    }
+
+    public Map<String, Long> getReplyCodeCounts() {
+        final Map<String, Long> result = new TreeMap<String, Long>();
+        for (Map.Entry<Integer, AtomicLong> entry : replyCodes.entrySet()) {
+            result.put(String.valueOf(entry.getKey()), entry.getValue().get());
+        }
+        return result;
+    }
+
+    public long getUploadCount() {
+        return uploads.count.get();
+    }
+
+    public long getUploadFailureCount() {
+        return uploads.failures.get();
+    }
+
+    public long getBytesUploaded() {
+        return uploads.bytes.get();
+    }
+
+    public double getUploadBytesPerSecond() {
+        return uploads.getBytesPerSecond();
+    }
+
+    public long getDownloadCount() {
+        return downloads.count.get();
+    }
+
+    public long getDownloadFailureCount() {
+        return downloads.failures.get();
+    }
+
+    public long getBytesDownloaded() {
+        return downloads.bytes.get();
+    }
+
+    public double getDownloadBytesPerSecond() {
+        return downloads.getBytesPerSecond();
+    }
+
+    public long getErrorCount() {
+        return errors.get();
+    }
+
+    public void reset() {
+        connectTime.reset();
+        loginTime.reset();
+        commandLatency.reset();
+        connectFailures.set(0);
+        replyCodes.clear();
+        uploads.reset();
+        downloads.reset();
+        errors.set(0);
+    }
+
+    /**
+     * Lock free histogram with fixed, roughly exponential millisecond buckets.
+     */
+    private static final class Histogram {
+
+        private static final long[] BOUNDS_MILLIS = {1, 5, 10, 50, 100, 500, 1000, 5000, 10000};
+
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong sum = new AtomicLong();
+        private final AtomicLong max = new AtomicLong();
+        private final AtomicLongArray buckets = new AtomicLongArray(BOUNDS_MILLIS.length + 1);
+
+        void record(final long nanos) {
+            count.incrementAndGet();
+            sum.addAndGet(nanos);
+            long current = max.get();
+            while (nanos > current && !max.compareAndSet(current, nanos)) {
+                current = max.get();
+            }
+            final double millis = nanos / NANOS_PER_MILLI;
+            int bucket = 0;
+            while (bucket < BOUNDS_MILLIS.length && millis > BOUNDS_MILLIS[bucket]) {
+                bucket++;
+            }
+            buckets.incrementAndGet(bucket);
+        }
+
+        long getCount() {
+            return count.get();
+        }
+
+        double getAverage() {
+            final long n = count.get();
+            return n == 0 ? 0 : (double) sum.get() / n;
+        }
+
+        long getMax() {
+            return max.get();
+        }
+
+        Map<String, Long> getBuckets() {
+            final Map<String, Long> result = new LinkedHashMap<String, Long>();
+            for (int i = 0; i < BOUNDS_MILLIS.length; i++) {
+                result.put("<=" + BOUNDS_MILLIS[i] + "ms", buckets.get(i));
+            }
+            result.put(">" + BOUNDS_MILLIS[BOUNDS_MILLIS.length - 1] + "ms", buckets.get(BOUNDS_MILLIS.length));
+            return result;
+        }
+
+        void reset() {
+            count.set(0);
+            sum.set(0);
+            max.set(0);
+            for (int i = 0; i < buckets.length(); i++) {
+                buckets.set(i, 0);
+            }
+        }
+    }
+
+    private static final class Transfers {
+
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong bytes = new AtomicLong();
+        private final AtomicLong nanos = new AtomicLong();
+
+        void record(final long transferred, final long duration, final boolean success) {
+            count.incrementAndGet();
+            if (!success) {
+                failures.incrementAndGet();
+            }
+            bytes.addAndGet(transferred);
+            nanos.addAndGet(duration);
+        }
+
+        double getBytesPerSecond() {
+            final long total = nanos.get();
+            return total == 0 ? 0 : bytes.get() * NANOS_PER_SECOND / total;
+        }
+
+        void reset() {
+            count.set(0);
+            failures.set(0);
+            bytes.set(0);
+            nanos.set(0);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.commons.ftp;
+
+/**
+ * Receives timing and outcome events of a {@link SimpleFtpClient}.
+ * <p>
+ * All durations are in nanoseconds. Implementations are called on the thread doing the FTP work, so they should
+ * return quickly and must not throw.
+ * </p>
+ *
+ * @see FtpMetrics
+ * @see FtpMetricsListenerAdapter
+ */
+public interface FtpMetricsListener {
+
+    /**
+     * Direction of a file transfer.
+     */
+    enum Direction {
+        UPLOAD, DOWNLOAD
+    }
+
+    /**
+     * Called after a connect and login attempt.
+     *
+     * @param server       server address
+     * @param connectNanos time spent opening the control connection
+     * @param loginNanos   time spent logging in, 0 if login was not attempted
+     * @param replyCode    last reply code of the server
+     * @param success      whether the client is connected and logged in
+     */
+    void connected(String server, long connectNanos, long loginNanos, int replyCode, boolean success);
+
+    /**
+     * Called when the server replies over the control connection. Replies that do not directly answer a command,
+     * like the connect greeting or the completion reply of a transfer, are reported with a {@code null} command and
+     * a duration of -1.
+     *
+     * @param server        server address
+     * @param command       the FTP command, e.g. "STOR" or "CWD", or null
+     * @param replyCode     reply code of the server
+     * @param durationNanos time between sending the command and receiving the reply, or -1
+     */
+    void commandCompleted(String server, String command, int replyCode, long durationNanos);
+
+    /**
+     * Called after a file upload or download has finished.
+     *
+     * @param server        server address
+     * @param direction     upload or download
+     * @param fileName      remote file name
+     * @param bytes         number of bytes transferred
+     * @param durationNanos time spent transferring
+     * @param success       whether the transfer succeeded
+     */
+    void transferCompleted(String server, Direction direction, String fileName, long bytes, long durationNanos,
+                           boolean success);
+
+    /**
+     * Called when an operation fails with an exception.
+     *
+     * @param server    server address
+     * @param operation name of the client operation, e.g. "saveFile"
+     * @param exception the cause
+     */
+    void failed(String server, String operation, Exception exception);
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.commons.ftp;
+
+/**
+ * Empty {@link FtpMetricsListener}, extend it to receive only the events of interest.
+ */
+public class FtpMetricsListenerAdapter implements FtpMetricsListener {
+
+    public void connected(final String server, final long connectNanos, final long loginNanos, final int replyCode,
+                          final boolean success) {
+        // nothing
+    }
+
+    public void commandCompleted(final String server, final String command, final int replyCode,
+                                 final long durationNanos) {
+        // nothing
+    }
+
+    public void transferCompleted(final String server, final Direction direction, final String fileName,
+                                  final long bytes, final long durationNanos, final boolean success) {
+        // nothing
+    }
+
+    public void failed(final String server, final String operation, final Exception exception) {
+        // nothing
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.commons.ftp;
+
+import java.util.Map;
+
+/**
+ * JMX view on {@link FtpMetrics}. Times are in milliseconds.
+ */
+public interface FtpMetricsMXBean {
+
+    long getConnectCount();
+
+    long getConnectFailureCount();
+
+    double getConnectTimeAverageMillis();
+
+    double getConnectTimeMaxMillis();
+
+    double getLoginTimeAverageMillis();
+
+    double getLoginTimeMaxMillis();
+
+    long getCommandCount();
+
+    double getCommandLatencyAverageMillis();
+
+    double getCommandLatencyMaxMillis();
+
+    /**
+     * @return number of commands per latency bucket, keyed by the bucket's upper bound, e.g. "&lt;=50ms"
+     */
+    Map<String, Long> getCommandLatencyHistogram();
+
+    /**
+     * @return number of replies per FTP reply code
+     */
+    Map<String, Long> getReplyCodeCounts();
+
+    long getUploadCount();
+
+    long getUploadFailureCount();
+
+    long getBytesUploaded();
+
+    double getUploadBytesPerSecond();
+
+    long getDownloadCount();
+
+    long getDownloadFailureCount();
+
+    long getBytesDownloaded();
+
+    double getDownloadBytesPerSecond();
+
+    long getErrorCount();
+
+    void reset();
+}
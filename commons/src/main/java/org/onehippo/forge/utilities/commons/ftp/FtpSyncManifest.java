@@ -0,0 +1,154 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.commons.ftp;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Manifest of the files mirrored by {@link JcrFtpSync}: per remote path the last modification time, size and content
+ * hash of the uploaded binary.
+ * <p>
+ * The text format is one tab separated line per file: {@code hash lastModified size path}. Lines starting with '#'
+ * are comments.
+ * </p>
+ */
+public class FtpSyncManifest {
+
+    private static Logger log = LoggerFactory.getLogger(FtpSyncManifest.class);
+
+    private static final char SEPARATOR = '\t';
+
+    private final Map<String, Entry> entries = new TreeMap<String, Entry>();
+
+    /**
+     * Parses a manifest, skipping malformed lines.
+     *
+     * @param text manifest text, may be null
+     * @return the manifest, empty if text is null
+     */
+    public static FtpSyncManifest parse(final String text) {
+        final FtpSyncManifest manifest = new FtpSyncManifest();
+        if (text == null) {
+            return manifest;
+        }
+        for (String line : text.split("\r?\n")) {
+            if (line.length() == 0 || line.charAt(0) == '#') {
+                continue;
+            }
+            final String[] parts = line.split(String.valueOf(SEPARATOR), 4);
+            if (parts.length != 4) {
+                log.warn("Skipping malformed manifest line '{}'", line);
+                continue;
+            }
+            try {
+                manifest.put(new Entry(parts[3], Long.parseLong(parts[1]), Long.parseLong(parts[2]), parts[0]));
+            } catch (NumberFormatException e) {
+                log.warn("Skipping malformed manifest line '{}'", line);
+            }
+        }
+        return manifest;
+    }
+
+    public synchronized Entry get(final String path) {
+        return entries.get(path);
+    }
+
+    public synchronized void put(final Entry entry) {
+        entries.put(entry.getPath(), entry);
+    }
+
+    public synchronized Entry remove(final String path) {
+        return entries.remove(path);
+    }
+
+    public synchronized Collection<Entry> getEntries() {
+        return Collections.unmodifiableCollection(new ArrayList<Entry>(entries.values()));
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the manifest in its text format, sorted by path
+     */
+    public synchronized String format() {
+        final StringBuilder builder = new StringBuilder("# hash\tlastModified\tsize\tpath\n");
+        for (Entry entry : entries.values()) {
+            builder.append(entry.getHash()).append(SEPARATOR)
+                    .append(entry.getLastModified()).append(SEPARATOR)
+                    .append(entry.getSize()).append(SEPARATOR)
+                    .append(entry.getPath()).append('\n');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * State of one mirrored file.
+     */
+    public static final class Entry {
+
+        private final String path;
+        private final long lastModified;
+        private final long size;
+        private final String hash;
+
+        public Entry(final String path, final long lastModified, final long size, final String hash) {
+            this.path = path;
+            this.lastModified = lastModified;
+            this.size = size;
+            this.hash = hash;
+        }
+
+        /**
+         * @return remote path, relative to the sync directory
+         */
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * @return value of jcr:lastModified in milliseconds, or 0 if unknown
+         */
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        /**
+         * @return hex encoded content hash
+         */
+        public String getHash() {
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            return "Entry{path='" + path + "', lastModified=" + lastModified + ", size=" + size + ", hash='" + hash + "'}";
+        }
+    }
+}
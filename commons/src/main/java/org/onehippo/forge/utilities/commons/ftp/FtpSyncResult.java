@@ -0,0 +1,89 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.commons.ftp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a {@link JcrFtpSync} run, listing remote paths per action.
+ */
+public class FtpSyncResult {
+
+    private final List<String> uploaded = new ArrayList<String>();
+    private final List<String> unchanged = new ArrayList<String>();
+    private final List<String> deleted = new ArrayList<String>();
+    private final List<String> failed = new ArrayList<String>();
+    private boolean manifestSaved;
+
+    synchronized void addUploaded(final String path) {
+        uploaded.add(path);
+    }
+
+    synchronized void addUnchanged(final String path) {
+        unchanged.add(path);
+    }
+
+    synchronized void addDeleted(final String path) {
+        deleted.add(path);
+    }
+
+    synchronized void addFailed(final String path) {
+        failed.add(path);
+    }
+
+    void setManifestSaved(final boolean manifestSaved) {
+        this.manifestSaved = manifestSaved;
+    }
+
+    public synchronized List<String> getUploaded() {
+        return Collections.unmodifiableList(new ArrayList<String>(uploaded));
+    }
+
+    public synchronized List<String> getUnchanged() {
+        return Collections.unmodifiableList(new ArrayList<String>(unchanged));
+    }
+
+    public synchronized List<String> getDeleted() {
+        return Collections.unmodifiableList(new ArrayList<String>(deleted));
+    }
+
+    public synchronized List<String> getFailed() {
+        return Collections.unmodifiableList(new ArrayList<String>(failed));
+    }
+
+    /**
+     * @return whether the updated manifest was written to the server
+     */
+    public boolean isManifestSaved() {
+        return manifestSaved;
+    }
+
+    /**
+     * @return true if nothing failed and the manifest was saved
+     */
+    public synchronized boolean isSuccess() {
+        return failed.isEmpty() && manifestSaved;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "FtpSyncResult{uploaded=" + uploaded.size() + ", unchanged=" + unchanged.size()
+                + ", deleted=" + deleted.size() + ", failed=" + failed.size() + ", manifestSaved=" + manifestSaved + '}';
+    }
+}
@@ -0,0 +1,564 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.commons.ftp;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import javax.jcr.Binary;
+import javax.jcr.Node;
+import javax.jcr.NodeIterator;
+import javax.jcr.RepositoryException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Mirrors the binaries below a JCR node to a directory on an FTP server, uploading only what changed since the
+ * previous run.
+ * <p>
+ * A binary is every node with a {@code jcr:data} property (optionally only nodes with a given name, e.g.
+ * {@code hippogallery:original}). Changes are detected with {@code jcr:lastModified} and size first, and a content
+ * hash when those differ from the manifest of the previous run, so touched but unchanged binaries are not uploaded
+ * again. The manifest is stored next to the mirrored files on the server.
+ * </p>
+ * Basic usage:
+ * <pre>
+ *  SimpleFtpClient client = new SimpleFtpClient(user, password, server);
+ *  JcrFtpSync sync = new JcrFtpSync(client, "partner/assets");
+ *  sync.setThreads(4);
+ *  sync.setDeleteStale(true);
+ *  FtpSyncResult result = sync.sync(session.getNode("/content/assets/partner"));
+ *  client.close();
+ * </pre>
+ * Uploads run in parallel on separate FTP connections. The JCR tree and the binaries are read on the calling thread
+ * only: each changed binary is copied to a temporary file, which an upload thread sends and deletes. At most one
+ * temporary file per upload thread waits to be sent.
+ */
+public class JcrFtpSync {
+
+    private static Logger log = LoggerFactory.getLogger(JcrFtpSync.class);
+
+    public static final String DEFAULT_MANIFEST_NAME = ".sync-manifest";
+
+    private static final String JCR_DATA = "jcr:data";
+    private static final String JCR_LAST_MODIFIED = "jcr:lastModified";
+    private static final String HIPPO_HANDLE = "hippo:handle";
+    private static final String HASH_ALGORITHM = "SHA-1";
+    private static final int BUFFER_SIZE = 8192;
+    private static final long WORKER_STOP_SECONDS = 30;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final SimpleFtpClient client;
+    private final String remoteDirectory;
+    private String manifestName = DEFAULT_MANIFEST_NAME;
+    private String binaryNodeName;
+    private int threads = 1;
+    private boolean deleteStale;
+    private long timeoutMinutes = 60;
+
+    /**
+     * @param client          client used for the manifest and deletes; upload threads open their own connections
+     *                        with the same credentials
+     * @param remoteDirectory directory to mirror into, relative to the user home directory
+     */
+    public JcrFtpSync(final SimpleFtpClient client, final String remoteDirectory) {
+        this.client = client;
+        this.remoteDirectory = remoteDirectory;
+    }
+
+    /**
+     * Synchronizes the binaries below the given node to the remote directory.
+     *
+     * @param root the node to mirror
+     * @return the outcome per remote path
+     * @throws RepositoryException if reading the JCR tree fails
+     */
+    public FtpSyncResult sync(final Node root) throws RepositoryException {
+        final FtpSyncResult result = new FtpSyncResult();
+        final FtpSyncManifest previous = FtpSyncManifest.parse(client.getString(manifestName, remoteDirectory));
+        final FtpSyncManifest current = new FtpSyncManifest();
+
+        final List<Upload> uploads = new ArrayList<Upload>();
+        final Set<String> seen = new HashSet<String>();
+        collect(root, root, previous, current, uploads, seen, result);
+
+        upload(uploads, previous, current, result);
+
+        for (FtpSyncManifest.Entry entry : previous.getEntries()) {
+            if (seen.contains(entry.getPath())) {
+                continue;
+            }
+            if (deleteStale && delete(entry.getPath())) {
+                result.addDeleted(entry.getPath());
+            } else {
+                // keep listing it so a later run can still remove it
+                current.put(entry);
+            }
+        }
+
+        final byte[] manifest = current.format().getBytes(StandardCharsets.UTF_8);
+        final SimpleFtpClientResult saved = client.saveFile(new ByteArrayInputStream(manifest), manifestName,
+                remoteDirectory, true, true, true);
+        result.setManifestSaved(saved == SimpleFtpClientResult.FILE_OVERWRITTEN);
+        if (!result.isManifestSaved()) {
+            log.error("Failed to save sync manifest {} in {} on {}", manifestName, remoteDirectory, client.getServer());
+        }
+        log.info("Synchronized {} to {} on {}: {}", root.getPath(), remoteDirectory, client.getServer(), result);
+        return result;
+    }
+
+    private void collect(final Node root, final Node node, final FtpSyncManifest previous, final FtpSyncManifest current,
+                         final List<Upload> uploads, final Set<String> seen, final FtpSyncResult result)
+            throws RepositoryException {
+        if (node.hasProperty(JCR_DATA) && (binaryNodeName == null || binaryNodeName.equals(node.getName()))) {
+            final String path = getRemotePath(root, node);
+            if (path != null && seen.add(path)) {
+                final Binary binary = node.getProperty(JCR_DATA).getBinary();
+                final long lastModified = node.hasProperty(JCR_LAST_MODIFIED)
+                        ? node.getProperty(JCR_LAST_MODIFIED).getDate().getTimeInMillis() : 0;
+                final long size = binary.getSize();
+                final FtpSyncManifest.Entry old = previous.get(path);
+                if (old != null && lastModified != 0 && old.getLastModified() == lastModified && old.getSize() == size) {
+                    binary.dispose();
+                    current.put(old);
+                    result.addUnchanged(path);
+                } else {
+                    final String hash;
+                    try {
+                        hash = hash(binary);
+                    } finally {
+                        binary.dispose();
+                    }
+                    final FtpSyncManifest.Entry entry = new FtpSyncManifest.Entry(path, lastModified, size, hash);
+                    if (old != null && old.getHash().equals(hash)) {
+                        current.put(entry);
+                        result.addUnchanged(path);
+                    } else {
+                        // the binary is read again when it is uploaded, so no binary stays open meanwhile
+                        uploads.add(new Upload(entry, node));
+                    }
+                }
+            } else if (path != null) {
+                log.warn("Skipping {}, remote path {} is already taken", node.getPath(), path);
+            }
+        }
+        final NodeIterator children = node.getNodes();
+        while (children.hasNext()) {
+            final Node child = children.nextNode();
+            if (child != null) {
+                collect(root, child, previous, current, uploads, seen, result);
+            }
+        }
+    }
+
+    private void upload(final List<Upload> uploads, final FtpSyncManifest previous, final FtpSyncManifest current,
+                        final FtpSyncResult result) {
+        if (uploads.isEmpty()) {
+            return;
+        }
+        final List<SimpleFtpClient> clients = Collections.synchronizedList(new ArrayList<SimpleFtpClient>());
+        final ThreadLocal<SimpleFtpClient> workerClient = new ThreadLocal<SimpleFtpClient>() {
+            @Override
+            protected SimpleFtpClient initialValue() {
+                final SimpleFtpClient worker = new SimpleFtpClient(client.getUserName(), client.getPassword(),
+                        client.getServer(), client.getPort());
+                worker.setMetricsListener(client.getMetricsListener());
+                clients.add(worker);
+                return worker;
+            }
+        };
+
+        final int poolSize = Math.max(1, Math.min(threads, uploads.size()));
+        final ExecutorService executor = Executors.newFixedThreadPool(poolSize);
+        final Outcomes outcomes = new Outcomes(previous, current, result);
+        // bounds the number of spooled binaries that wait for an upload thread
+        final Semaphore spooled = new Semaphore(poolSize);
+        final long deadline = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(timeoutMinutes);
+        boolean completed = false;
+        try {
+            for (final Upload upload : uploads) {
+                if (!spooled.tryAcquire(deadline - System.currentTimeMillis(), TimeUnit.MILLISECONDS)) {
+                    log.error("Uploads to {} did not finish within {} minutes", client.getServer(), timeoutMinutes);
+                    break;
+                }
+                final File file = spool(upload);
+                if (file == null) {
+                    spooled.release();
+                    outcomes.finished(upload, false);
+                    continue;
+                }
+                executor.execute(new UploadTask(file) {
+                    public void run() {
+                        try {
+                            outcomes.finished(upload, store(workerClient.get(), upload, file));
+                        } finally {
+                            deleteQuietly(file);
+                            spooled.release();
+                        }
+                    }
+                });
+            }
+            executor.shutdown();
+            completed = executor.awaitTermination(Math.max(0, deadline - System.currentTimeMillis()),
+                    TimeUnit.MILLISECONDS);
+            if (!completed) {
+                log.error("Uploads to {} did not finish within {} minutes", client.getServer(), timeoutMinutes);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (!completed) {
+                cancel(executor);
+            }
+            synchronized (clients) {
+                for (SimpleFtpClient worker : clients) {
+                    if (completed) {
+                        closeQuietly(worker);
+                    } else {
+                        // aborts transfers that are still running
+                        disconnectQuietly(worker);
+                    }
+                }
+            }
+            if (!completed) {
+                awaitStopped(executor);
+            }
+            // uploads that were skipped or cancelled keep their old entry, and late ones no longer count
+            outcomes.close(uploads);
+        }
+    }
+
+    private static void cancel(final ExecutorService executor) {
+        for (Runnable pending : executor.shutdownNow()) {
+            if (pending instanceof UploadTask) {
+                deleteQuietly(((UploadTask) pending).file);
+            }
+        }
+    }
+
+    private void awaitStopped(final ExecutorService executor) {
+        try {
+            if (!executor.awaitTermination(WORKER_STOP_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("Upload threads for {} did not stop within {} seconds", client.getServer(),
+                        WORKER_STOP_SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Copies the binary of an upload to a temporary file, on the thread of the JCR session.
+     *
+     * @return the file, or null if the binary cannot be read
+     */
+    private static File spool(final Upload upload) {
+        final String path = upload.entry.getPath();
+        File file = null;
+        Binary binary = null;
+        try {
+            file = File.createTempFile("jcr-ftp-sync", null);
+            binary = upload.node.getProperty(JCR_DATA).getBinary();
+            final InputStream stream = binary.getStream();
+            final OutputStream out = new FileOutputStream(file);
+            try {
+                final byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = stream.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                }
+            } finally {
+                out.close();
+                stream.close();
+            }
+            return file;
+        } catch (RepositoryException e) {
+            log.error("Error reading binary for {}", path, e);
+        } catch (IOException e) {
+            log.error("Error spooling binary for {}", path, e);
+        } finally {
+            if (binary != null) {
+                binary.dispose();
+            }
+        }
+        deleteQuietly(file);
+        return null;
+    }
+
+    private boolean store(final SimpleFtpClient worker, final Upload upload, final File file) {
+        final String path = upload.entry.getPath();
+        final int slash = path.lastIndexOf('/');
+        final String fileName = path.substring(slash + 1);
+        final String directory = slash > 0 ? remoteDirectory + '/' + path.substring(0, slash) : remoteDirectory;
+        InputStream stream = null;
+        try {
+            stream = new FileInputStream(file);
+            final SimpleFtpClientResult stored = worker.saveFile(stream, fileName, directory, true, true, true);
+            if (stored != SimpleFtpClientResult.FILE_OVERWRITTEN) {
+                log.error("Failed to upload {} to {}: {}", path, client.getServer(), stored);
+                return false;
+            }
+            return true;
+        } catch (IOException e) {
+            log.error("Error reading spooled binary for {}", path, e);
+            return false;
+        } finally {
+            if (stream != null) {
+                try {
+                    stream.close();
+                } catch (IOException e) {
+                    log.warn("Error closing spooled binary for {}", path, e);
+                }
+            }
+        }
+    }
+
+    private boolean delete(final String path) {
+        final int slash = path.lastIndexOf('/');
+        final String directory = slash > 0 ? remoteDirectory + '/' + path.substring(0, slash) : remoteDirectory;
+        return client.deleteFile(path.substring(slash + 1), directory) == SimpleFtpClientResult.SUCCESS;
+    }
+
+    /**
+     * Determines the remote path of a binary, relative to the remote directory. By default this is the path of the
+     * binary node relative to the root node, except for binaries of a document below a {@code hippo:handle}, which
+     * use the path of the handle (so an asset {@code pdfs/file.pdf/file.pdf/hippogallery:asset} becomes
+     * {@code pdfs/file.pdf}).
+     *
+     * @param root   the node being mirrored
+     * @param binary node holding the {@code jcr:data} property
+     * @return remote path, or null to skip the binary
+     * @throws RepositoryException if reading the node fails
+     */
+    protected String getRemotePath(final Node root, final Node binary) throws RepositoryException {
+        Node target = binary;
+        if (binary.getDepth() - root.getDepth() >= 2) {
+            final Node handle = binary.getParent().getParent();
+            if (handle.isNodeType(HIPPO_HANDLE)) {
+                target = handle;
+            }
+        }
+        final String rootPath = root.getPath();
+        final String targetPath = target.getPath();
+        if (targetPath.length() <= rootPath.length()) {
+            return null;
+        }
+        return "/".equals(rootPath) ? targetPath.substring(1) : targetPath.substring(rootPath.length() + 1);
+    }
+
+    private static String hash(final Binary binary) throws RepositoryException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(HASH_ALGORITHM + " not available", e);
+        }
+        final InputStream stream = binary.getStream();
+        try {
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            throw new RepositoryException("Error reading binary", e);
+        } finally {
+            try {
+                stream.close();
+            } catch (IOException e) {
+                log.warn("Error closing binary stream", e);
+            }
+        }
+        final byte[] bytes = digest.digest();
+        final char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            hex[i * 2] = HEX[(bytes[i] >> 4) & 0xf];
+            hex[i * 2 + 1] = HEX[bytes[i] & 0xf];
+        }
+        return new String(hex);
+    }
+
+    private static void deleteQuietly(final File file) {
+        if (file != null && file.exists() && !file.delete()) {
+            log.warn("Could not delete temporary file {}", file);
+        }
+    }
+
+    private static void closeQuietly(final SimpleFtpClient worker) {
+        try {
+            if (worker.getClient().isConnected()) {
+                worker.close();
+            }
+        } catch (IOException e) {
+            log.warn("Error closing FTP connection to {}", worker.getServer(), e);
+        }
+    }
+
+    private static void disconnectQuietly(final SimpleFtpClient worker) {
+        try {
+            worker.getClient().disconnect();
+        } catch (IOException e) {
+            log.warn("Error disconnecting from {}", worker.getServer(), e);
+        }
+    }
+
+    public String getManifestName() {
+        return manifestName;
+    }
+
+    /**
+     * @param manifestName name of the manifest file in the remote directory, defaults to {@value #DEFAULT_MANIFEST_NAME}
+     */
+    public void setManifestName(final String manifestName) {
+        this.manifestName = manifestName;
+    }
+
+    public String getBinaryNodeName() {
+        return binaryNodeName;
+    }
+
+    /**
+     * @param binaryNodeName only mirror binary nodes with this name, e.g. {@code hippogallery:original}; null for all
+     */
+    public void setBinaryNodeName(final String binaryNodeName) {
+        this.binaryNodeName = binaryNodeName;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * @param threads number of parallel uploads (and FTP connections), defaults to 1
+     */
+    public void setThreads(final int threads) {
+        this.threads = threads;
+    }
+
+    public boolean isDeleteStale() {
+        return deleteStale;
+    }
+
+    /**
+     * @param deleteStale whether to delete remote files of the manifest that no longer exist in the repository
+     */
+    public void setDeleteStale(final boolean deleteStale) {
+        this.deleteStale = deleteStale;
+    }
+
+    public long getTimeoutMinutes() {
+        return timeoutMinutes;
+    }
+
+    /**
+     * @param timeoutMinutes maximum time to wait for all uploads, defaults to 60
+     */
+    public void setTimeoutMinutes(final long timeoutMinutes) {
+        this.timeoutMinutes = timeoutMinutes;
+    }
+
+    private static final class Upload {
+
+        private final FtpSyncManifest.Entry entry;
+        private final Node node;
+
+        Upload(final FtpSyncManifest.Entry entry, final Node node) {
+            this.entry = entry;
+            this.node = node;
+        }
+    }
+
+    /**
+     * Records the outcome of the uploads in the manifest and the result. Once closed, every upload without an outcome
+     * has failed, and outcomes of upload threads that are still running are ignored so the manifest can be saved.
+     */
+    private static final class Outcomes {
+
+        private final FtpSyncManifest previous;
+        private final FtpSyncManifest current;
+        private final FtpSyncResult result;
+        private final Set<Upload> finished = new HashSet<Upload>();
+        private boolean closed;
+
+        Outcomes(final FtpSyncManifest previous, final FtpSyncManifest current, final FtpSyncResult result) {
+            this.previous = previous;
+            this.current = current;
+            this.result = result;
+        }
+
+        synchronized void finished(final Upload upload, final boolean uploaded) {
+            if (closed || !finished.add(upload)) {
+                return;
+            }
+            if (uploaded) {
+                current.put(upload.entry);
+                result.addUploaded(upload.entry.getPath());
+            } else {
+                failed(upload);
+            }
+        }
+
+        synchronized void close(final List<Upload> uploads) {
+            for (Upload upload : uploads) {
+                if (finished.add(upload)) {
+                    failed(upload);
+                }
+            }
+            closed = true;
+        }
+
+        private void failed(final Upload upload) {
+            final String path = upload.entry.getPath();
+            final FtpSyncManifest.Entry old = previous.get(path);
+            if (old != null) {
+                // the remote file may still be the old version
+                current.put(old);
+            }
+            result.addFailed(path);
+        }
+    }
+
+    /**
+     * Upload of a spooled binary, of which the file is deleted if the upload is cancelled.
+     */
+    private abstract static class UploadTask implements Runnable {
+
+        private final File file;
+
+        UploadTask(final File file) {
+            this.file = file;
+        }
+    }
+}
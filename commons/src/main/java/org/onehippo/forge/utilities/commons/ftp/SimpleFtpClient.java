@@ -17,6 +17,7 @@
 package org.onehippo.forge.utilities.commons.ftp;
 
 import java.io.Closeable;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
@@ -24,9 +25,12 @@ import java.nio.charset.Charset;
 import com.google.common.base.Splitter;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.net.ProtocolCommandEvent;
+import org.apache.commons.net.ProtocolCommandListener;
 import org.apache.commons.net.ftp.FTP;
 import org.apache.commons.net.ftp.FTPClient;
 import org.apache.commons.net.ftp.FTPReply;
+import org.onehippo.forge.utilities.commons.ftp.FtpMetricsListener.Direction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,12 +43,16 @@ public class SimpleFtpClient implements Closeable {
     @SuppressWarnings("unused")
     private static Logger log = LoggerFactory.getLogger(SimpleFtpClient.class);
 
+    private static final FtpMetricsListener NO_METRICS = new FtpMetricsListenerAdapter();
+
     private final String userName;
     private final String password;
     private final String server;
     private final int port;
     private final FTPClient client;
     private String homeDirectory;
+    private FtpMetricsListener metricsListener = NO_METRICS;
+    private ProtocolCommandListener commandTimer;
 
     /**
      * Constructor if port is different than port 21
@@ -149,41 +157,45 @@ public class SimpleFtpClient implements Closeable {
                     return SimpleFtpClientResult.FAILED_CREATE_DIR;
                 }
             }
-            changeToDir(directory);
+            if (!changeToDir(directory)) {
+                return SimpleFtpClientResult.ERROR;
+            }
 
+            final boolean stored;
             if (overwrite) {
-                client.storeFile(fileName, stream);
-                stream.close();
-                return SimpleFtpClientResult.FILE_OVERWRITTEN;
+                stored = storeFile(fileName, stream, false);
             } else {
                 // check if file exists:
                 String[] names = client.listNames();
-                boolean stored = false;
-                for (String name : names) {
+                boolean exists = false;
+                for (String name : names != null ? names : new String[0]) {
                     if (fileName.equals(name)) {
-                        client.storeUniqueFile(fileName, stream);
-                        stored = true;
+                        exists = true;
                         break;
                     }
                 }
-                if (!stored) {
-                    client.storeFile(fileName, stream);
-                }
-
-                stream.close();
-                return SimpleFtpClientResult.CREATED;
+                stored = storeFile(fileName, stream, exists);
             }
+            stream.close();
+            if (!stored) {
+                log.warn("FTP server {} refused to store {} in {}: {}", server, fileName, directory,
+                        client.getReplyString());
+                return SimpleFtpClientResult.ERROR;
+            }
+            return overwrite ? SimpleFtpClientResult.FILE_OVERWRITTEN : SimpleFtpClientResult.CREATED;
 
 
         } catch (IOException e) {
             log.error("Error saving file to FTP server: {}", server, e);
+            metricsListener.failed(server, "saveFile", e);
             return SimpleFtpClientResult.ERROR;
         }
 
     }
 
     /**
-     * Return input stream for given file name
+     * Return input stream for given file name. The download is reported to the metrics listener when the stream is
+     * closed.
      *
      * @param fileName  name of the remote file
      * @param directory remote directory
@@ -193,28 +205,73 @@ public class SimpleFtpClient implements Closeable {
 
         try {
             connectClient();
-            changeToDir(directory);
-            return client.retrieveFileStream(fileName);
+            if (!changeToDir(directory)) {
+                return null;
+            }
+            final long start = System.nanoTime();
+            final InputStream inputStream = client.retrieveFileStream(fileName);
+            if (inputStream == null) {
+                metricsListener.transferCompleted(server, Direction.DOWNLOAD, fileName, 0, System.nanoTime() - start, false);
+                return null;
+            }
+            return new DownloadInputStream(inputStream, fileName, start);
 
         } catch (IOException e) {
             log.error("Error retrieving file from FTP server: {}", server, e);
+            metricsListener.failed(server, "getInputStream", e);
         }
         return null;
     }
 
+    /**
+     * Delete given file
+     *
+     * @param fileName  name of the remote file
+     * @param directory remote directory (relative to user home dir)
+     * @return SimpleFtpClientResult.SUCCESS if deleted, SimpleFtpClientResult.ERROR otherwise
+     */
+    public SimpleFtpClientResult deleteFile(final String fileName, final String directory) {
+
+        try {
+            connectClient();
+            if (!changeToDir(directory)) {
+                return SimpleFtpClientResult.ERROR;
+            }
+            if (client.deleteFile(fileName)) {
+                return SimpleFtpClientResult.SUCCESS;
+            }
+            log.warn("FTP server {} refused to delete {} in {}: {}", server, fileName, directory, client.getReplyString());
+        } catch (IOException e) {
+            log.error("Error deleting file from FTP server: {}", server, e);
+            metricsListener.failed(server, "deleteFile", e);
+        }
+        return SimpleFtpClientResult.ERROR;
+    }
+
     public String getString(final String fileName, final String directory) {
 
-        InputStream inputStream = null;
+        CountingInputStream inputStream = null;
         try {
             connectClient();
-            changeToDir(directory);
-            inputStream = client.retrieveFileStream(fileName);
+            if (!changeToDir(directory)) {
+                return null;
+            }
+            final long start = System.nanoTime();
+            final InputStream remoteStream = client.retrieveFileStream(fileName);
+            if (remoteStream == null) {
+                metricsListener.transferCompleted(server, Direction.DOWNLOAD, fileName, 0, System.nanoTime() - start, false);
+                return null;
+            }
+            inputStream = new CountingInputStream(remoteStream);
             String result = IOUtils.toString(inputStream, Charset.defaultCharset());
-            client.completePendingCommand();
+            final boolean completed = client.completePendingCommand();
+            metricsListener.transferCompleted(server, Direction.DOWNLOAD, fileName, inputStream.getCount(),
+                    System.nanoTime() - start, completed);
             return result;
 
         } catch (IOException e) {
             log.error("Error retrieving file from FTP server: {}", server, e);
+            metricsListener.failed(server, "getString", e);
         } finally {
             if (inputStream != null) {
                 try {
@@ -232,15 +289,27 @@ public class SimpleFtpClient implements Closeable {
      * Changes working director
      *
      * @param directory directory (relative to user home dir)
+     * @return true if the working directory is the given directory, false if one of the directories does not exist or
+     * cannot be entered; the working directory is then undefined and no file should be accessed
      * @throws IOException on error
      */
-    private void changeToDir(final String directory) throws IOException {
+    private boolean changeToDir(final String directory) throws IOException {
         Iterable<String> iterable = Splitter.on('/').omitEmptyStrings().split(directory);
         // note: important: we first go to user home
-        client.changeWorkingDirectory(getHomeDirectory());
+        final String home = getHomeDirectory();
+        if (home == null || !client.changeWorkingDirectory(home)) {
+            log.warn("FTP server {}: failed to change to home directory {}: {}", server, home,
+                    client.getReplyString());
+            return false;
+        }
         for (String dir : iterable) {
-            client.changeWorkingDirectory(dir);
+            if (!client.changeWorkingDirectory(dir)) {
+                log.warn("FTP server {}: failed to change to directory {} of {}: {}", server, dir, directory,
+                        client.getReplyString());
+                return false;
+            }
         }
+        return true;
     }
 
     /**
@@ -250,10 +319,26 @@ public class SimpleFtpClient implements Closeable {
      */
     public final void connectClient() throws IOException {
         if (!client.isConnected()) {
-            client.connect(server, port);
-            client.login(userName, password);
+            final long start = System.nanoTime();
+            long connectNanos = 0;
+            long loginNanos = 0;
+            try {
+                client.connect(server, port);
+                connectNanos = System.nanoTime() - start;
+                client.login(userName, password);
+                loginNanos = System.nanoTime() - start - connectNanos;
+            } catch (IOException e) {
+                if (connectNanos == 0) {
+                    connectNanos = System.nanoTime() - start;
+                }
+                metricsListener.connected(server, connectNanos, loginNanos, client.getReplyCode(), false);
+                throw e;
+            }
             int reply = client.getReplyCode();
-            if (!FTPReply.isPositiveCompletion(reply)) {
+            final boolean positive = FTPReply.isPositiveCompletion(reply);
+            metricsListener.connected(server, connectNanos, loginNanos, reply, positive);
+            log.debug("Connected to FTP server {} in {} ms, login took {} ms", server, connectNanos / 1000000, loginNanos / 1000000);
+            if (!positive) {
                 client.disconnect();
                 log.error("Negative reply form FTP server, aborting, id was {}:", reply);
                 throw new IOException("failed to connect to FTP server");
@@ -264,6 +349,23 @@ public class SimpleFtpClient implements Closeable {
     }
 
 
+    /**
+     * Stores a file in the current working directory, reporting the transfer to the metrics listener.
+     */
+    private boolean storeFile(final String fileName, final InputStream stream, final boolean unique) throws IOException {
+        final CountingInputStream countingStream = new CountingInputStream(stream);
+        final long start = System.nanoTime();
+        boolean stored = false;
+        try {
+            stored = unique ? client.storeUniqueFile(fileName, countingStream) : client.storeFile(fileName, countingStream);
+            return stored;
+        } finally {
+            metricsListener.transferCompleted(server, Direction.UPLOAD, fileName, countingStream.getCount(),
+                    System.nanoTime() - start, stored);
+        }
+    }
+
+
     /**
      * Creates directories on FTP server
      *
@@ -273,6 +375,12 @@ public class SimpleFtpClient implements Closeable {
      */
     private SimpleFtpClientResult createDirectories(final String directory) throws IOException {
         Iterable<String> iterable = Splitter.on('/').omitEmptyStrings().split(directory);
+        // directories are relative to user home, not to the directory of a previous call
+        final String home = getHomeDirectory();
+        if (home == null || !client.changeWorkingDirectory(home)) {
+            log.error("failed to change to FTP home directory {}, not doing anything", home);
+            return SimpleFtpClientResult.ERROR;
+        }
         for (String dir : iterable) {
             boolean dirExists = client.changeWorkingDirectory(dir);
             if (!dirExists) {
@@ -314,6 +422,28 @@ public class SimpleFtpClient implements Closeable {
         return client;
     }
 
+    public FtpMetricsListener getMetricsListener() {
+        return metricsListener;
+    }
+
+    /**
+     * Sets the listener receiving connect, command and transfer timings, e.g. a shared {@link FtpMetrics} instance.
+     *
+     * @param metricsListener the listener, or null to stop reporting
+     */
+    public void setMetricsListener(final FtpMetricsListener metricsListener) {
+        this.metricsListener = metricsListener != null ? metricsListener : NO_METRICS;
+        if (this.metricsListener == NO_METRICS) {
+            if (commandTimer != null) {
+                client.removeProtocolCommandListener(commandTimer);
+                commandTimer = null;
+            }
+        } else if (commandTimer == null) {
+            commandTimer = new CommandTimer();
+            client.addProtocolCommandListener(commandTimer);
+        }
+    }
+
     public String getHomeDirectory() {
         if (homeDirectory == null) {
             try {
@@ -336,5 +466,93 @@ public class SimpleFtpClient implements Closeable {
         sb.append('}');
         return sb.toString();
     }
+
+    /**
+     * Times commands on the control connection and reports their reply codes.
+     */
+    private final class CommandTimer implements ProtocolCommandListener {
+
+        private String command;
+        private long sentAt;
+
+        public void protocolCommandSent(final ProtocolCommandEvent event) {
+            command = event.getCommand();
+            sentAt = System.nanoTime();
+        }
+
+        public void protocolReplyReceived(final ProtocolCommandEvent event) {
+            final String repliedCommand = command;
+            final long duration = repliedCommand != null ? System.nanoTime() - sentAt : -1;
+            command = null;
+            metricsListener.commandCompleted(server, repliedCommand, event.getReplyCode(), duration);
+        }
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        CountingInputStream(final InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = super.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            final int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+            final long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+
+    /**
+     * Download stream handed out by {@link #getInputStream(String, String)}, reports the transfer once on close.
+     */
+    private final class DownloadInputStream extends CountingInputStream {
+
+        private final String fileName;
+        private final long start;
+        private boolean reported;
+
+        DownloadInputStream(final InputStream in, final String fileName, final long start) {
+            super(in);
+            this.fileName = fileName;
+            this.start = start;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                if (!reported) {
+                    reported = true;
+                    metricsListener.transferCompleted(server, Direction.DOWNLOAD, fileName, getCount(),
+                            System.nanoTime() - start, true);
+                }
+            }
+        }
+    }
 }
 
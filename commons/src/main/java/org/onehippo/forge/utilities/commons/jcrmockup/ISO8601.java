@@ -16,11 +16,14 @@
  */
 package org.onehippo.forge.utilities.commons.jcrmockup;
 
-import java.text.DecimalFormat;
-import java.text.ParseException;
+import java.time.DateTimeException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.Calendar;
 import java.util.GregorianCalendar;
 import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -51,14 +54,14 @@ import org.slf4j.LoggerFactory;
  *   TZD   = time zone designator, Z for Zulu (i.e. UTC) or an offset from UTC
  *           in the form of +hh:mm or -hh:mm
  * </pre>
+ *
+ * Dates are parsed by scanning the characters in place, without substrings or
+ * number parsing, and the time zones of parsed calendars are shared per offset.
+ * Besides calendars, dates can be parsed to epoch millis or an
+ * <code>OffsetDateTime</code> and formatted into a reusable
+ * <code>StringBuilder</code>.
  */
 public final class ISO8601 {
-    /**
-     * misc. numeric formats used in formatting
-     */
-    private static final DecimalFormat XX_FORMAT = new DecimalFormat("00");
-    private static final DecimalFormat XXX_FORMAT = new DecimalFormat("000");
-    private static final DecimalFormat XXXX_FORMAT = new DecimalFormat("0000");
 
     private static final int YEAR_LENGTH = 4;
     private static final int MONTH_LENGTH = 2;
@@ -70,8 +73,23 @@ public final class ISO8601 {
     private static final int MILLISECONDS_PER_SECOND = 1000;
     private static final int SECONDS_PER_MINUTE = 60;
     private static final int MINUTES_PER_HOUR = 60;
+    private static final int HOURS_PER_DAY = 24;
+    private static final int MILLISECONDS_PER_MINUTE = SECONDS_PER_MINUTE * MILLISECONDS_PER_SECOND;
+    private static final long MILLISECONDS_PER_DAY = (long) HOURS_PER_DAY * MINUTES_PER_HOUR * MILLISECONDS_PER_MINUTE;
     private static final int MAX_FOUR_DIGIT_NUMBER = 9999;
 
+    /**
+     * length of the format, without sign of the year
+     */
+    private static final int FORMAT_LENGTH = 29;
+
+    private static final TimeZone UTC = TimeZone.getTimeZone("GMT");
+
+    /**
+     * time zones by offset in minutes, there are only a few dozen offsets in use
+     */
+    private static final ConcurrentMap<Integer, TimeZone> TIME_ZONES = new ConcurrentHashMap<Integer, TimeZone>();
+
     private static final Logger log = LoggerFactory.getLogger(ISO8601.class);
 
     private ISO8601() {
@@ -90,67 +108,35 @@ public final class ISO8601 {
      * @throws IllegalArgumentException if a <code>null</code> argument is passed
      */
     public static Calendar parse(String text) {
-        if (text == null) {
-            throw new IllegalArgumentException("argument can not be null");
-        }
-
-        DateTimeParser parser = new DateTimeParser(text);
-
-        char sign;
-        int year, month, day, hour, min, sec, ms;
-        TimeZone tz;
-
-        try {
-            sign = parser.parseSign();
-            year = parser.parseInt(YEAR_LENGTH);
-            parser.parseDelimiter('-');
-            month = parser.parseInt(MONTH_LENGTH);
-            parser.parseDelimiter('-');
-            day = parser.parseInt(DAY_LENGTH);
-            parser.parseDelimiter('T');
-            hour = parser.parseInt(HOUR_LENGTH);
-            parser.parseDelimiter(':');
-            min = parser.parseInt(MINUTE_LENGTH);
-            parser.parseDelimiter(':');
-            sec = parser.parseInt(SECOND_LENGTH);
-            parser.parseDelimiter('.');
-            ms = parser.parseInt(MILLISECOND_LENGTH);
-            tz = parser.parseTimeZone();
-        } catch (IndexOutOfBoundsException e) {
-            log.debug("Could not parse'" + text + "'", e);
-            return null;
-        } catch (NumberFormatException e) {
-            log.debug("Could not parse '" + text + "'", e);
-            return null;
-        } catch (ParseException e) {
-            log.debug("Could not parse '" + text + "'", e);
+        final DateTime dateTime = parseDateTime(text);
+        if (dateTime == null) {
             return null;
         }
 
         // initialize Calendar object
-        Calendar cal = Calendar.getInstance(tz);
+        Calendar cal = Calendar.getInstance(dateTime.getTimeZone());
         cal.setLenient(false);
         // year and era
-        if (sign == '-' || year == 0) {
+        if (dateTime.year <= 0) {
             // not CE, need to set era (BCE) and adjust year
-            cal.set(Calendar.YEAR, year + 1);
+            cal.set(Calendar.YEAR, 1 - dateTime.year);
             cal.set(Calendar.ERA, GregorianCalendar.BC);
         } else {
-            cal.set(Calendar.YEAR, year);
+            cal.set(Calendar.YEAR, dateTime.year);
             cal.set(Calendar.ERA, GregorianCalendar.AD);
         }
         // month (0-based!)
-        cal.set(Calendar.MONTH, month - 1);
+        cal.set(Calendar.MONTH, dateTime.month - 1);
         // day of month
-        cal.set(Calendar.DAY_OF_MONTH, day);
+        cal.set(Calendar.DAY_OF_MONTH, dateTime.day);
         // hour
-        cal.set(Calendar.HOUR_OF_DAY, hour);
+        cal.set(Calendar.HOUR_OF_DAY, dateTime.hour);
         // minute
-        cal.set(Calendar.MINUTE, min);
+        cal.set(Calendar.MINUTE, dateTime.minute);
         // second
-        cal.set(Calendar.SECOND, sec);
+        cal.set(Calendar.SECOND, dateTime.second);
         // millisecond
-        cal.set(Calendar.MILLISECOND, ms);
+        cal.set(Calendar.MILLISECOND, dateTime.millisecond);
 
         try {
             /**
@@ -165,6 +151,50 @@ public final class ISO8601 {
         return cal;
     }
 
+    /**
+     * Parses an ISO8601-compliant date/time string to milliseconds since the
+     * epoch, without creating a calendar. Unlike {@link #parse(String)}, dates
+     * before the Gregorian calendar was introduced are interpreted in the
+     * proleptic Gregorian calendar, like <code>java.time</code> does.
+     *
+     * @param text         the date/time string to be parsed
+     * @param defaultValue the value to return if the input could not be parsed
+     * @return the milliseconds since 1970-01-01T00:00:00Z or the default value
+     * @throws IllegalArgumentException if a <code>null</code> argument is passed
+     */
+    public static long parseMillis(CharSequence text, long defaultValue) {
+        final DateTime dateTime = parseDateTime(text);
+        if (dateTime == null || dateTime.day > lengthOfMonth(dateTime.year, dateTime.month)) {
+            return defaultValue;
+        }
+        final long days = daysSinceEpoch(dateTime.year, dateTime.month, dateTime.day);
+        final long millisOfDay = ((dateTime.hour * MINUTES_PER_HOUR + dateTime.minute) * SECONDS_PER_MINUTE
+                + dateTime.second) * MILLISECONDS_PER_SECOND + dateTime.millisecond;
+        return days * MILLISECONDS_PER_DAY + millisOfDay - (long) dateTime.offsetMinutes * MILLISECONDS_PER_MINUTE;
+    }
+
+    /**
+     * Parses an ISO8601-compliant date/time string to an <code>OffsetDateTime</code>.
+     *
+     * @param text the date/time string to be parsed
+     * @return the date/time, or <code>null</code> if the input could not be parsed
+     * @throws IllegalArgumentException if a <code>null</code> argument is passed
+     */
+    public static OffsetDateTime parseOffsetDateTime(CharSequence text) {
+        final DateTime dateTime = parseDateTime(text);
+        if (dateTime == null) {
+            return null;
+        }
+        try {
+            return OffsetDateTime.of(dateTime.year, dateTime.month, dateTime.day, dateTime.hour, dateTime.minute,
+                    dateTime.second, dateTime.millisecond * 1000000,
+                    ZoneOffset.ofTotalSeconds(dateTime.offsetMinutes * SECONDS_PER_MINUTE));
+        } catch (DateTimeException e) {
+            log.debug("Could not parse '" + text + "'", e);
+            return null;
+        }
+    }
+
     /**
      * Formats a <code>Calendar</code> value into an ISO8601-compliant
      * date/time string.
@@ -176,6 +206,22 @@ public final class ISO8601 {
      * with more than four digits).
      */
     public static String format(Calendar cal) {
+        final StringBuilder buf = new StringBuilder(FORMAT_LENGTH + 1);
+        format(cal, buf);
+        return buf.toString();
+    }
+
+    /**
+     * Appends a <code>Calendar</code> value as ISO8601-compliant date/time
+     * string, so a builder can be reused for formatting many values.
+     *
+     * @param cal the time value to be formatted into a date/time string.
+     * @param buf the builder to append to
+     * @throws IllegalArgumentException if a <code>null</code> argument is passed
+     * or the calendar cannot be represented as defined by ISO 8601 (i.e. year
+     * with more than four digits).
+     */
+    public static void format(Calendar cal, StringBuilder buf) {
         if (cal == null) {
             throw new IllegalArgumentException("argument can not be null");
         }
@@ -187,42 +233,105 @@ public final class ISO8601 {
          * note that we cannot use java.text.SimpleDateFormat for
          * formatting because it can't handle years <= 0 and TZD's
          */
-        StringBuffer buf = new StringBuffer();
+        // offset of the time zone from UTC (incl. daylight saving)
+        final int offset = cal.get(Calendar.ZONE_OFFSET) + cal.get(Calendar.DST_OFFSET);
+        format(buf, getYear(cal), cal.get(Calendar.MONTH) + 1, cal.get(Calendar.DAY_OF_MONTH),
+                cal.get(Calendar.HOUR_OF_DAY), cal.get(Calendar.MINUTE), cal.get(Calendar.SECOND),
+                cal.get(Calendar.MILLISECOND), offset / MILLISECONDS_PER_MINUTE);
+    }
+
+    /**
+     * Formats an <code>OffsetDateTime</code> into an ISO8601-compliant
+     * date/time string.
+     *
+     * @param dateTime the time value to be formatted into a date/time string.
+     * @return the formatted date/time string.
+     * @throws IllegalArgumentException if a <code>null</code> argument is passed
+     * or the year has more than four digits.
+     */
+    public static String format(OffsetDateTime dateTime) {
+        final StringBuilder buf = new StringBuilder(FORMAT_LENGTH + 1);
+        format(dateTime, buf);
+        return buf.toString();
+    }
+
+    /**
+     * Appends an <code>OffsetDateTime</code> as ISO8601-compliant date/time
+     * string. Nanoseconds are truncated to milliseconds.
+     *
+     * @param dateTime the time value to be formatted into a date/time string.
+     * @param buf      the builder to append to
+     * @throws IllegalArgumentException if a <code>null</code> argument is passed
+     * or the year has more than four digits.
+     */
+    public static void format(OffsetDateTime dateTime, StringBuilder buf) {
+        if (dateTime == null) {
+            throw new IllegalArgumentException("argument can not be null");
+        }
+        final int year = dateTime.getYear();
+        if (year > MAX_FOUR_DIGIT_NUMBER || year < -MAX_FOUR_DIGIT_NUMBER) {
+            throw new IllegalArgumentException("Date has more than four " +
+                    "year digits, cannot be formatted as ISO8601: " + year);
+        }
+        format(buf, year, dateTime.getMonthValue(), dateTime.getDayOfMonth(), dateTime.getHour(),
+                dateTime.getMinute(), dateTime.getSecond(), dateTime.getNano() / 1000000,
+                dateTime.getOffset().getTotalSeconds() / SECONDS_PER_MINUTE);
+    }
+
+    private static void format(StringBuilder buf, int year, int month, int day, int hour, int minute, int second,
+                               int millisecond, int offsetMinutes) {
         // year ([-]YYYY)
-        buf.append(XXXX_FORMAT.format(getYear(cal)));
+        if (year < 0) {
+            buf.append('-');
+        }
+        appendDigits(buf, Math.abs(year), YEAR_LENGTH);
         buf.append('-');
         // month (MM)
-        buf.append(XX_FORMAT.format(cal.get(Calendar.MONTH) + 1));
+        appendDigits(buf, month, MONTH_LENGTH);
         buf.append('-');
         // day (DD)
-        buf.append(XX_FORMAT.format(cal.get(Calendar.DAY_OF_MONTH)));
+        appendDigits(buf, day, DAY_LENGTH);
         buf.append('T');
         // hour (hh)
-        buf.append(XX_FORMAT.format(cal.get(Calendar.HOUR_OF_DAY)));
+        appendDigits(buf, hour, HOUR_LENGTH);
         buf.append(':');
         // minute (mm)
-        buf.append(XX_FORMAT.format(cal.get(Calendar.MINUTE)));
+        appendDigits(buf, minute, MINUTE_LENGTH);
         buf.append(':');
         // second (ss)
-        buf.append(XX_FORMAT.format(cal.get(Calendar.SECOND)));
+        appendDigits(buf, second, SECOND_LENGTH);
         buf.append('.');
         // millisecond (SSS)
-        buf.append(XXX_FORMAT.format(cal.get(Calendar.MILLISECOND)));
+        appendDigits(buf, millisecond, MILLISECOND_LENGTH);
         // time zone designator (Z or +00:00 or -00:00)
-        TimeZone tz = cal.getTimeZone();
-        // determine offset of timezone from UTC (incl. daylight saving)
-        int offset = tz.getOffset(cal.getTimeInMillis());
-        if (offset != 0) {
-            int hours = Math.abs((offset / (SECONDS_PER_MINUTE * MILLISECONDS_PER_SECOND)) / MINUTES_PER_HOUR);
-            int minutes = Math.abs((offset / (SECONDS_PER_MINUTE * MILLISECONDS_PER_SECOND)) % MINUTES_PER_HOUR);
-            buf.append(offset < 0 ? '-' : '+');
-            buf.append(XX_FORMAT.format(hours));
+        if (offsetMinutes != 0) {
+            buf.append(offsetMinutes < 0 ? '-' : '+');
+            appendDigits(buf, Math.abs(offsetMinutes) / MINUTES_PER_HOUR, HOUR_LENGTH);
             buf.append(':');
-            buf.append(XX_FORMAT.format(minutes));
+            appendDigits(buf, Math.abs(offsetMinutes) % MINUTES_PER_HOUR, MINUTE_LENGTH);
         } else {
             buf.append('Z');
         }
-        return buf.toString();
+    }
+
+    /**
+     * Appends a non negative number with leading zeros.
+     */
+    private static void appendDigits(StringBuilder buf, int value, int length) {
+        int divisor = 1;
+        for (int i = 1; i < length; i++) {
+            divisor *= 10;
+        }
+        int remainder = value;
+        // numbers with more digits than the length are appended in full
+        while (divisor * 10 <= remainder) {
+            divisor *= 10;
+        }
+        while (divisor > 0) {
+            buf.append((char) ('0' + remainder / divisor));
+            remainder %= divisor;
+            divisor /= 10;
+        }
     }
 
     /**
@@ -253,64 +362,201 @@ public final class ISO8601 {
         return year;
     }
 
+    /**
+     * @return the shared time zone with the offset from UTC
+     */
+    static TimeZone getTimeZone(int offsetMinutes) {
+        final Integer key = offsetMinutes;
+        TimeZone timeZone = TIME_ZONES.get(key);
+        if (timeZone == null) {
+            final StringBuilder id = new StringBuilder("GMT");
+            id.append(offsetMinutes < 0 ? '-' : '+');
+            appendDigits(id, Math.abs(offsetMinutes) / MINUTES_PER_HOUR, HOUR_LENGTH);
+            id.append(':');
+            appendDigits(id, Math.abs(offsetMinutes) % MINUTES_PER_HOUR, MINUTE_LENGTH);
+            timeZone = TimeZone.getTimeZone(id.toString());
+            final TimeZone existing = TIME_ZONES.putIfAbsent(key, timeZone);
+            if (existing != null) {
+                timeZone = existing;
+            }
+        }
+        return timeZone;
+    }
+
+    private static boolean isLeapYear(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        if (month == 2) {
+            return isLeapYear(year) ? 29 : 28;
+        }
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+
+    /**
+     * Days since 1970-01-01 in the proleptic Gregorian calendar.
+     */
+    private static long daysSinceEpoch(int year, int month, int day) {
+        // shift the year to start in March, so the leap day is the last day of the year
+        final long y = month <= 2 ? year - 1 : year;
+        final long era = Math.floorDiv(y, 400);
+        final long yearOfEra = y - era * 400;
+        final int monthFromMarch = month <= 2 ? month + 9 : month - 3;
+        final long dayOfYear = (153 * monthFromMarch + 2) / 5 + day - 1;
+        final long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        // 719468 days from 0000-03-01 to 1970-01-01
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    /**
+     * Scans the fields of a date/time string, checking their ranges except for
+     * the length of the month.
+     *
+     * @return the fields or <code>null</code> if the input could not be parsed
+     */
+    private static DateTime parseDateTime(CharSequence text) {
+        if (text == null) {
+            throw new IllegalArgumentException("argument can not be null");
+        }
+        final DateTimeParser parser = new DateTimeParser(text);
+        final DateTime dateTime = new DateTime();
+        final int sign = parser.parseSign();
+        dateTime.year = sign * parser.parseInt(YEAR_LENGTH);
+        parser.parseDelimiter('-');
+        dateTime.month = parser.parseInt(MONTH_LENGTH);
+        parser.parseDelimiter('-');
+        dateTime.day = parser.parseInt(DAY_LENGTH);
+        parser.parseDelimiter('T');
+        dateTime.hour = parser.parseInt(HOUR_LENGTH);
+        parser.parseDelimiter(':');
+        dateTime.minute = parser.parseInt(MINUTE_LENGTH);
+        parser.parseDelimiter(':');
+        dateTime.second = parser.parseInt(SECOND_LENGTH);
+        parser.parseDelimiter('.');
+        dateTime.millisecond = parser.parseInt(MILLISECOND_LENGTH);
+        parser.parseTimeZone(dateTime);
+        if (parser.error >= 0) {
+            log.debug("Could not parse '{}' at position {}", text, parser.error);
+            return null;
+        }
+        if (dateTime.month < 1 || dateTime.month > 12 || dateTime.day < 1 || dateTime.day > 31
+                || dateTime.hour >= HOURS_PER_DAY || dateTime.minute >= MINUTES_PER_HOUR
+                || dateTime.second >= SECONDS_PER_MINUTE) {
+            log.debug("Could not parse '{}', field out of range", text);
+            return null;
+        }
+        return dateTime;
+    }
+
+    /**
+     * Fields of a parsed date/time, the year being astronomical.
+     */
+    private static class DateTime {
+        private int year;
+        private int month;
+        private int day;
+        private int hour;
+        private int minute;
+        private int second;
+        private int millisecond;
+        private int offsetMinutes;
+        private boolean utc;
+
+        TimeZone getTimeZone() {
+            return utc ? UTC : ISO8601.getTimeZone(offsetMinutes);
+        }
+    }
+
+    /**
+     * Scans a date/time string. Instead of throwing exceptions it records the
+     * position of the first error, after which all further scanning is skipped.
+     */
     private static class DateTimeParser {
 
-        private final String text;
+        private final CharSequence text;
         private int offset;
+        private int error = -1;
 
-        DateTimeParser(String text) {
+        DateTimeParser(CharSequence text) {
             this.text = text;
             offset = 0;
         }
 
-        char parseSign() {
-            char sign = text.charAt(offset);
+        private boolean fail() {
+            if (error < 0) {
+                error = offset;
+            }
+            return false;
+        }
+
+        private boolean ensure(int length) {
+            return error < 0 && (offset + length <= text.length() || fail());
+        }
 
+        int parseSign() {
+            if (!ensure(1)) {
+                return 1;
+            }
+            final char sign = text.charAt(offset);
             if (sign == '-' || sign == '+') {
                 offset++;
-                return sign;
+                return sign == '-' ? -1 : 1;
             } else {
                 // no sign specified, implied '+'
-                return '+';
+                return 1;
             }
         }
 
         int parseInt(int length) {
-            int result = Integer.parseInt(text.substring(offset, offset + length));
-            offset += length;
+            if (!ensure(length)) {
+                return 0;
+            }
+            int result = 0;
+            for (int i = 0; i < length; i++) {
+                final char c = text.charAt(offset);
+                if (c < '0' || c > '9') {
+                    fail();
+                    return 0;
+                }
+                result = result * 10 + (c - '0');
+                offset++;
+            }
             return result;
         }
 
-        void parseDelimiter(char expected) throws ParseException {
-            if (text.charAt(offset) != expected) {
-                throw new ParseException("Expected delimiter '" + expected + "'", offset);
+        void parseDelimiter(char expected) {
+            if (ensure(1)) {
+                if (text.charAt(offset) != expected) {
+                    fail();
+                    return;
+                }
+                offset++;
             }
-            offset++;
         }
 
-        TimeZone parseTimeZone() throws ParseException {
+        void parseTimeZone(DateTime dateTime) {
             // time zone designator (Z or +00:00 or -00:00)
+            if (!ensure(1)) {
+                return;
+            }
             final char sign = text.charAt(offset);
-            String tzId;
-
-            if (sign == '+' || sign == '-') {
+            if (sign == 'Z') {
+                dateTime.utc = true;
+            } else if (sign == '+' || sign == '-') {
                 // offset to UTC specified in the format +00:00/-00:00
-                tzId = "GMT" + text.substring(offset);
-            } else if (sign == 'Z') {
-                tzId = "GMT";
+                offset++;
+                final int hours = parseInt(HOUR_LENGTH);
+                parseDelimiter(':');
+                final int minutes = parseInt(MINUTE_LENGTH);
+                if (error < 0 && (offset != text.length() || hours >= HOURS_PER_DAY || minutes >= MINUTES_PER_HOUR)) {
+                    fail();
+                }
+                final int offsetMinutes = hours * MINUTES_PER_HOUR + minutes;
+                dateTime.offsetMinutes = sign == '-' ? -offsetMinutes : offsetMinutes;
             } else {
-                throw new ParseException("Invalid time zone, cannot start with '" + sign + "'", offset);
+                fail();
             }
-
-            TimeZone tz = TimeZone.getTimeZone(tzId);
-
-            // verify id of returned time zone (getTimeZone defaults to "GMT")
-            if (!tz.getID().equals(tzId)) {
-                // invalid time zone
-                throw new ParseException("Invalid time zone: '" + tzId + "'", offset);
-            }
-
-            return tz;
         }
 
     }
@@ -59,7 +59,7 @@ public class ItemAnswer implements Answer<Item> {
         } else if ("getParent".equals(methodName)) {
             return getParent();
         } else if ("getRootNode".equals(methodName)) {
-            return MockNode.getRooMockNode().getJcrMock();
+            return mockNode.getRootMockNode().getJcrMock();
         }
         throw new UnsupportedOperationException("The method " + methodName + " is not supported");
     }
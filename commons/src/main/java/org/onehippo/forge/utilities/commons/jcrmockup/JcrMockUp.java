@@ -16,6 +16,7 @@
 
 package org.onehippo.forge.utilities.commons.jcrmockup;
 
+import java.io.BufferedInputStream;
 import java.io.InputStream;
 import java.util.Arrays;
 
@@ -23,6 +24,7 @@ import javax.jcr.Node;
 import javax.jcr.RepositoryException;
 import javax.jcr.Session;
 import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
 import jakarta.xml.bind.Unmarshaller;
 
 import org.slf4j.Logger;
@@ -33,6 +35,23 @@ import org.slf4j.LoggerFactory;
  * <p>
  * Howto:
  * Export a branch / node / tree from the hippo cms console as xml and mock it up as a root node / with session.
+ * The simple* methods return plain java implementations instead of Mockito mocks, which are faster and use less
+ * memory for large trees.
+ * </p>
+ * <p>
+ * Besides system view xml, the loading methods accept a {@link MockNodeSnapshot} of a tree, which loads faster for
+ * fixtures that are used often.
+ * </p>
+ * <p>
+ * Sessions are scoped to their tree. To let parallel tests share one parsed fixture, load it once with
+ * {@link #loadMockNode(String)} and give every test its own {@link MockNode#fork()}:
+ * </p>
+ * <pre>
+ *   Session session = JcrMockUp.mockJcrSession(FIXTURE.fork());
+ * </pre>
+ * <p>
+ * The query manager of the workspace of a session supports the common JCR-SQL2 and XPath statements, evaluated
+ * against in-memory indexes of the tree.
  * </p>
  * Limitations:
  * <ul>
@@ -49,15 +68,25 @@ public final class JcrMockUp {
 
     private static Logger logger = LoggerFactory.getLogger(JcrMockUp.class);
 
+    // thread safe and expensive to create, unlike its unmarshallers
+    private static JAXBContext jaxbContext;
+
     private JcrMockUp() {
         // private constructor for utility
     }
 
-    private static MockNode mockNode(String resourceName) {
+    /**
+     * Loads a tree without mocking it, for instance to share one parsed fixture between tests through
+     * {@link MockNode#fork()}.
+     *
+     * @param resourceName class path resource with system view xml or a {@link MockNodeSnapshot}
+     * @return the root of the tree, or null if loading failed
+     */
+    public static MockNode loadMockNode(String resourceName) {
         try {
             final InputStream inputStream = JcrMockUp.class.getResourceAsStream(resourceName);
             try {
-                return mockNode(inputStream);
+                return loadMockNode(inputStream);
             } finally {
                 inputStream.close();
             }
@@ -67,22 +96,44 @@ public final class JcrMockUp {
         return null;
     }
 
-    private static MockNode mockNode(InputStream inputStream) {
+    /**
+     * Loads a system view xml with the streaming {@link SystemViewReader}, or a {@link MockNodeSnapshot}.
+     *
+     * @param inputStream system view xml or a snapshot
+     * @return the root of the tree, or null if loading failed
+     */
+    public static MockNode loadMockNode(InputStream inputStream) {
         try {
-            final JAXBContext jaxbContext = JAXBContext.newInstance(MockNode.class);
-            final Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
-            MockNode rootNode = (MockNode) unmarshaller.unmarshal(inputStream);
-            rootNode.buildTree(rootNode);
-            return rootNode;
+            final InputStream bufferedStream = new BufferedInputStream(inputStream);
+            if (MockNodeSnapshot.isSnapshot(bufferedStream)) {
+                return MockNodeSnapshot.read(bufferedStream);
+            }
+            return new SystemViewReader().read(bufferedStream);
         } catch (Exception exception) {
             logger.error("Error occurred mocking a node for input stream: " + inputStream, exception);
         }
         return null;
     }
 
+    private static synchronized JAXBContext getJaxbContext() throws JAXBException {
+        if (jaxbContext == null) {
+            jaxbContext = JAXBContext.newInstance(MockNode.class);
+        }
+        return jaxbContext;
+    }
+
+    /**
+     * Loads a system view xml through the JAXB annotations of MockNode, the reference for {@link SystemViewReader}.
+     */
+    static MockNode unmarshal(InputStream inputStream) throws JAXBException {
+        final Unmarshaller unmarshaller = getJaxbContext().createUnmarshaller();
+        final MockNode rootNode = (MockNode) unmarshaller.unmarshal(inputStream);
+        rootNode.buildTree(rootNode);
+        return rootNode;
+    }
+
     public static Node mockJcrNode(String resourceName) throws RepositoryException {
-        MockNode.invalidateSession();
-        final MockNode mockNode = mockNode(resourceName);
+        final MockNode mockNode = loadMockNode(resourceName);
         if (mockNode == null) {
             return null;
         }
@@ -90,8 +141,7 @@ public final class JcrMockUp {
     }
 
     public static Node mockJcrNode(InputStream inputStream) throws RepositoryException {
-        MockNode.invalidateSession();
-        final MockNode mockNode = mockNode(inputStream);
+        final MockNode mockNode = loadMockNode(inputStream);
         if (mockNode == null) {
             return null;
         }
@@ -114,8 +164,75 @@ public final class JcrMockUp {
         return jcrRootNode.getSession();
     }
 
+    /**
+     * Mocks a session for a loaded tree, typically a {@link MockNode#fork()} of a shared fixture.
+     *
+     * @param rootNode root of the tree
+     * @return the Mockito session of the tree
+     * @throws RepositoryException if mocking fails
+     */
+    public static Session mockJcrSession(MockNode rootNode) throws RepositoryException {
+        return rootNode.getMockSession();
+    }
+
     public static Session mockEmptySession() throws RepositoryException {
-        MockNode.invalidateSession();
+        final Node jcrRootNode = createEmptyRootNode().getJcrMock();
+        return jcrRootNode.getSession();
+    }
+
+    /**
+     * Like {@link #mockJcrNode(String)}, but returns a plain java node instead of a Mockito mock, see
+     * {@link SimpleJcrSession}.
+     */
+    public static Node simpleJcrNode(String resourceName) {
+        final SimpleJcrSession session = createSimpleSession(loadMockNode(resourceName));
+        return session == null ? null : session.getRootNode();
+    }
+
+    /**
+     * Like {@link #mockJcrNode(InputStream)}, but returns a plain java node instead of a Mockito mock.
+     */
+    public static Node simpleJcrNode(InputStream inputStream) {
+        final SimpleJcrSession session = createSimpleSession(loadMockNode(inputStream));
+        return session == null ? null : session.getRootNode();
+    }
+
+    /**
+     * Like {@link #mockJcrSession(String)}, but returns a plain java session instead of a Mockito mock.
+     */
+    public static Session simpleJcrSession(String resourceName) {
+        return createSimpleSession(loadMockNode(resourceName));
+    }
+
+    /**
+     * Like {@link #mockJcrSession(InputStream)}, but returns a plain java session instead of a Mockito mock.
+     */
+    public static Session simpleJcrSession(InputStream inputStream) {
+        return createSimpleSession(loadMockNode(inputStream));
+    }
+
+    /**
+     * Like {@link #mockJcrSession(MockNode)}, but returns a plain java session instead of a Mockito mock.
+     */
+    public static Session simpleJcrSession(MockNode rootNode) {
+        return createSimpleSession(rootNode);
+    }
+
+    /**
+     * Like {@link #mockEmptySession()}, but returns a plain java session instead of a Mockito mock.
+     */
+    public static Session simpleEmptySession() {
+        return createSimpleSession(createEmptyRootNode());
+    }
+
+    private static SimpleJcrSession createSimpleSession(final MockNode rootNode) {
+        if (rootNode == null) {
+            return null;
+        }
+        return new SimpleJcrSession(rootNode);
+    }
+
+    private static MockNode createEmptyRootNode() {
         final MockNode rootNode = new MockNode();
         rootNode.setMockNodeName("jcr:root");
         final MockProperty nodeTypeProperty = new MockProperty();
@@ -130,8 +247,7 @@ public final class JcrMockUp {
         uuidProperty.setMockPropertyName("jcr:uuid");
         uuidProperty.setMockValues(Arrays.asList("cafebabe-cafe-babe-cafe-babecafebabe"));
         rootNode.setMockProperty(uuidProperty);
-        final Node jcrRootNode = rootNode.getJcrMock();
-        return jcrRootNode.getSession();
+        return rootNode;
     }
 
 }
@@ -51,9 +51,8 @@ public class MockNode {
 
     public static final String HTTP_WWW_JCP_ORG_JCR_SV_1_0 = "http://www.jcp.org/jcr/sv/1.0";
 
-    // initialized with the first node mockup
-    private static MockNode rootMockNode;
-    private static Session session = Mockito.mock(Session.class);
+    // root of the most recently mocked tree, only kept for getRooMockNode()
+    private static volatile MockNode lastRootMockNode;
 
     @XmlTransient
     private boolean removed = false;
@@ -76,29 +75,216 @@ public class MockNode {
     @XmlAttribute(name = "name", namespace = MockNode.HTTP_WWW_JCP_ORG_JCR_SV_1_0)
     private String name;
 
-    public List<MockNode> getMockChildNodes() {
+    /**
+     * Child nodes by name, each list in sibling order. Built lazily from childNodes and dropped when a child is
+     * removed, so removed children are purged in one pass on the next lookup.
+     */
+    @XmlTransient
+    private Map<String, List<MockNode>> childNodesByName;
+
+    // same name sibling index (1-based) of this node, assigned when the parent builds its childNodesByName
+    @XmlTransient
+    private int index;
+
+    @XmlTransient
+    private String cachedPath;
+
+    @XmlTransient
+    private long cachedPathVersion;
+
+    @XmlTransient
+    private SimpleJcrNode simpleJcrNode;
+
+    // only used on the root node: the Mockito session of the tree
+    @XmlTransient
+    private Session session;
+
+    // only used on the root node: incremented whenever a change may alter existing paths of the tree
+    @XmlTransient
+    private long pathVersion;
+
+    // only used on the root node: incremented whenever a node or property of the tree changes
+    @XmlTransient
+    private long contentVersion;
+
+    // only used on the root node: the indexes of queries on the tree
+    @XmlTransient
+    private MockQueryIndex queryIndex;
+
+    // node of a shared tree this node is a fork of, until its children and properties are copied
+    @XmlTransient
+    private MockNode forkSource;
+
+    @XmlTransient
+    private boolean forkPrepared;
+
+    /**
+     * @return the root of the tree of this node: the ancestor without parent or with itself as parent
+     */
+    public MockNode getRootMockNode() {
+        MockNode node = this;
+        while (node.parent != null && node.parent != node) {
+            node = node.parent;
+        }
+        return node;
+    }
+
+    private void pathsChanged() {
+        final MockNode root = getRootMockNode();
+        root.pathVersion++;
+        root.contentVersion++;
+    }
+
+    /**
+     * Marks the tree as changed, so query indexes are rebuilt.
+     */
+    void contentChanged() {
+        getRootMockNode().contentVersion++;
+    }
+
+    long getContentVersion() {
+        return getRootMockNode().contentVersion;
+    }
+
+    /**
+     * @return the query indexes of the tree of this node, created on first use
+     */
+    MockQueryIndex getQueryIndex() {
+        final MockNode root = getRootMockNode();
+        synchronized (root) {
+            if (root.queryIndex == null) {
+                root.queryIndex = new MockQueryIndex(root);
+            }
+            return root.queryIndex;
+        }
+    }
+
+    /**
+     * Creates a mutable copy of the tree below and including this node, which becomes the root of the copy. Nodes
+     * are copied lazily when first accessed, so a fork is cheap even for a large tree and only costs memory for the
+     * part a test touches.
+     * <p>
+     * Forks of the same node can be created and used concurrently, for instance by parallel TestNG tests sharing one
+     * loaded fixture, as long as the forked tree itself is not modified anymore.
+     * </p>
+     *
+     * @return the root of the fork
+     */
+    public MockNode fork() {
+        synchronized (this) {
+            if (!forkPrepared) {
+                // initialize all lazy state up front, so concurrent forks only read the shared tree
+                prepareFork(this);
+                forkPrepared = true;
+            }
+        }
+        final MockNode fork = new MockNode();
+        fork.name = this.name;
+        fork.forkSource = this;
+        fork.parent = fork;
+        return fork;
+    }
+
+    private static void prepareFork(final MockNode node) {
+        node.getMockProperties();
+        for (MockNode child : node.getMockChildNodes()) {
+            prepareFork(child);
+        }
+    }
+
+    /**
+     * Copies the properties and direct children of the fork source, the children being forks themselves.
+     */
+    private void materialize() {
+        final MockNode source = this.forkSource;
+        if (source == null) {
+            return;
+        }
+        this.forkSource = null;
+        for (MockProperty sourceProperty : source.propertiesMap.values()) {
+            final MockProperty property = new MockProperty();
+            property.setMockPropertyName(sourceProperty.getMockPropertyName());
+            property.setMockPropertyType(sourceProperty.getMockPropertyType());
+            if (sourceProperty.getMockValues() != null) {
+                property.setMockValues(new ArrayList<String>(sourceProperty.getMockValues()));
+            }
+            property.setParent(this);
+            this.propertiesMap.put(property.getMockPropertyName(), property);
+        }
+        if (source.childNodes != null) {
+            this.childNodes = new ArrayList<MockNode>(source.childNodes.size());
+            for (MockNode sourceChild : source.childNodes) {
+                final MockNode child = new MockNode();
+                child.name = sourceChild.name;
+                child.forkSource = sourceChild;
+                child.parent = this;
+                this.childNodes.add(child);
+            }
+        }
+    }
+
+    /**
+     * (Re)builds the name index, purging removed child nodes from the child list.
+     */
+    private void initializeChildNodesByName() {
+        if (childNodesByName != null) {
+            return;
+        }
+        materialize();
+        childNodesByName = new HashMap<String, List<MockNode>>();
         if (childNodes == null) {
-            return Collections.emptyList();
+            return;
         }
-        List<MockNode> notRemovedChildNodes = new ArrayList<MockNode>();
-        Iterator<MockNode> childIterator = childNodes.iterator();
+        final Iterator<MockNode> childIterator = childNodes.iterator();
         while (childIterator.hasNext()) {
-            MockNode child = childIterator.next();
+            final MockNode child = childIterator.next();
             if (child.isRemoved()) {
+                child.index = 0;
                 childIterator.remove();
             } else {
-                notRemovedChildNodes.add(child);
+                indexChildNode(child);
             }
         }
-        return notRemovedChildNodes;
+    }
+
+    private void indexChildNode(final MockNode child) {
+        List<MockNode> sameNameSiblings = childNodesByName.get(child.name);
+        if (sameNameSiblings == null) {
+            sameNameSiblings = new ArrayList<MockNode>(1);
+            childNodesByName.put(child.name, sameNameSiblings);
+        }
+        sameNameSiblings.add(child);
+        child.index = sameNameSiblings.size();
+    }
+
+    /**
+     * Drops the name index, called when a child node is removed or renamed.
+     */
+    private void invalidateChildNodesByName() {
+        childNodesByName = null;
+        pathsChanged();
+    }
+
+    public List<MockNode> getMockChildNodes() {
+        materialize();
+        if (childNodes == null) {
+            return Collections.emptyList();
+        }
+        initializeChildNodesByName();
+        return new ArrayList<MockNode>(childNodes);
     }
 
     public void addMockChildNode(MockNode childNode) {
+        materialize();
         if (this.childNodes == null) {
             this.childNodes = new ArrayList<MockNode>();
         }
         childNode.setParent(this);
         this.childNodes.add(childNode);
+        if (childNodesByName != null) {
+            indexChildNode(childNode);
+        }
+        contentChanged();
     }
 
     /**
@@ -106,6 +292,7 @@ public class MockNode {
      * name. To ensure this and improve performance the initial list ist backed in a map.
      */
     private void initializePropertiesMap() {
+        materialize();
         if (!propertiesMapInitialized && this.properties != null) {
             final Iterator<MockProperty> propertyIterator = this.properties.iterator();
             while (propertyIterator.hasNext()) {
@@ -149,42 +336,33 @@ public class MockNode {
     }
 
     public MockNode getMockChildNode(String name) {
+        materialize();
         if (childNodes == null) {
             return null;
         }
-        Iterator<MockNode> childIterator = childNodes.iterator();
-        while (childIterator.hasNext()) {
-            MockNode child = childIterator.next();
-            if (child.isRemoved()) {
-                childIterator.remove();
-            } else if (name.equals(child.getMockNodeName())) {
-                return child;
-            }
-        }
-        return null;
+        initializeChildNodesByName();
+        final List<MockNode> sameNameSiblings = childNodesByName.get(name);
+        return sameNameSiblings == null ? null : sameNameSiblings.get(0);
     }
 
     public List<MockNode> getMockChildNodesByName(String name) {
+        materialize();
         if (childNodes == null) {
             return Collections.emptyList();
         }
-        List<MockNode> foundNodes = new ArrayList<MockNode>();
-        Iterator<MockNode> childIterator = childNodes.iterator();
-        while (childIterator.hasNext()) {
-            MockNode child = childIterator.next();
-            if (child.isRemoved()) {
-                childIterator.remove();
-            } else if (name.equals(child.getMockNodeName())) {
-                foundNodes.add(child);
-            }
+        initializeChildNodesByName();
+        final List<MockNode> sameNameSiblings = childNodesByName.get(name);
+        if (sameNameSiblings == null) {
+            return Collections.emptyList();
         }
-        return foundNodes;
+        return new ArrayList<MockNode>(sameNameSiblings);
     }
 
     public void setMockProperty(MockProperty property) {
         initializePropertiesMap();
         property.setParent(this);
         this.propertiesMap.put(property.getMockPropertyName(), property);
+        contentChanged();
     }
 
     public String getMockNodeName() {
@@ -193,6 +371,9 @@ public class MockNode {
 
     public void setMockNodeName(String name) {
         this.name = name;
+        if (this.parent != null) {
+            this.parent.invalidateChildNodesByName();
+        }
     }
 
     public boolean isRemoved() {
@@ -200,6 +381,9 @@ public class MockNode {
     }
 
     public void setRemoved(final boolean removed) {
+        if (this.removed != removed && this.parent != null) {
+            this.parent.invalidateChildNodesByName();
+        }
         this.removed = removed;
     }
 
@@ -208,29 +392,46 @@ public class MockNode {
     }
 
     public void setParent(MockNode parent) {
+        final boolean moved = this.parent != null && this.parent != parent;
+        if (moved) {
+            // paths below this node change as well
+            pathsChanged();
+        }
         this.parent = parent;
+        this.cachedPath = null;
+        if (moved) {
+            pathsChanged();
+        }
     }
 
     public String getPath() {
-        if (MockNode.getRooMockNode() == this) {
+        final MockNode root = getRootMockNode();
+        if (root == this) {
             return "/";
         }
+        final long version = root.pathVersion;
+        if (cachedPath != null && cachedPathVersion == version) {
+            return cachedPath;
+        }
         int index = getIndex();
-        if (this.parent == rootMockNode) {
-            if (index > 1) {
-                return "/"+this.name+"["+index+"]";
-            }
-            return "/" + this.name;
-        } else {
-            if (index > 1) {
-                return this.parent.getPath() + "/" + this.name+"["+index+"]";
-            }
-            return this.parent.getPath() + "/" + this.name;
+        final StringBuilder path = new StringBuilder();
+        if (this.parent != root) {
+            path.append(this.parent.getPath());
         }
+        path.append('/').append(this.name);
+        if (index > 1) {
+            path.append('[').append(index).append(']');
+        }
+        cachedPath = path.toString();
+        cachedPathVersion = version;
+        return cachedPath;
     }
 
     public void buildTree(final MockNode parent) {
+        materialize();
         this.parent = parent;
+        this.childNodesByName = null;
+        this.cachedPath = null;
         if (this.properties != null) {
             for (MockProperty property : this.properties) {
                 property.setParent(this);
@@ -247,16 +448,16 @@ public class MockNode {
         if (this.parent == null) {
             return 0;
         }
-        int index = 1;
-        for (MockNode sibling : this.parent.childNodes) {
-            if (this.name.equals(sibling.name)) {
-                if (this.equals(sibling)) {
-                    return index;
-                }
-                index++;
-            }
-        }
-        return 0;
+        this.parent.initializeChildNodesByName();
+        return this.index;
+    }
+
+    SimpleJcrNode getSimpleJcrNode() {
+        return simpleJcrNode;
+    }
+
+    void setSimpleJcrNode(final SimpleJcrNode simpleJcrNode) {
+        this.simpleJcrNode = simpleJcrNode;
     }
 
     public Node getJcrMock() throws RepositoryException {
@@ -344,28 +545,45 @@ public class MockNode {
             }
         });
 
-        if (rootMockNode == null) {
-            // initialize with the first node mock
-            rootMockNode = mockNode;
-            session = Mockito.mock(Session.class);
-            Mockito.when(session.getItem(Matchers.anyString())).thenAnswer(itemAnswer);
-            Mockito.when(session.getRootNode()).thenAnswer(itemAnswer);
-            final Workspace mockWorkspace = Mockito.mock(Workspace.class);
-            final VersionManager versionManager = Mockito.mock(VersionManager.class);
-            Mockito.when(session.getWorkspace()).thenReturn(mockWorkspace);
-            Mockito.when(mockWorkspace.getVersionManager()).thenReturn(versionManager);
-            Mockito.when(session.itemExists(Matchers.anyString())).thenAnswer(new Answer<Boolean>() {
-                public Boolean answer(final InvocationOnMock invocationOnMock) throws RepositoryException {
-                    return itemAnswer.getItem(invocationOnMock.getArguments()) != null;
-                }
-            });
-        }
-
+        final Session session = mockNode.getMockSession();
         Mockito.when(jcrNode.getSession()).thenReturn(session);
 
         return jcrNode;
     }
 
+    /**
+     * Gets the Mockito session of the tree of this node, creating it on first use. Sessions are scoped to their
+     * tree, so several mocked trees can be used at the same time.
+     *
+     * @return the session
+     * @throws RepositoryException if mocking the session fails
+     */
+    public Session getMockSession() throws RepositoryException {
+        final MockNode root = getRootMockNode();
+        synchronized (root) {
+            if (root.session == null) {
+                final ItemAnswer itemAnswer = new ItemAnswer(root);
+                final Session session = Mockito.mock(Session.class);
+                Mockito.when(session.getItem(Matchers.anyString())).thenAnswer(itemAnswer);
+                Mockito.when(session.getRootNode()).thenAnswer(itemAnswer);
+                final Workspace mockWorkspace = Mockito.mock(Workspace.class);
+                final VersionManager versionManager = Mockito.mock(VersionManager.class);
+                Mockito.when(session.getWorkspace()).thenReturn(mockWorkspace);
+                Mockito.when(mockWorkspace.getVersionManager()).thenReturn(versionManager);
+                final MockQueryManager queryManager = new MockQueryManager(session, root);
+                Mockito.when(mockWorkspace.getQueryManager()).thenReturn(queryManager);
+                Mockito.when(session.itemExists(Matchers.anyString())).thenAnswer(new Answer<Boolean>() {
+                    public Boolean answer(final InvocationOnMock invocationOnMock) throws RepositoryException {
+                        return itemAnswer.getItem(invocationOnMock.getArguments()) != null;
+                    }
+                });
+                root.session = session;
+                lastRootMockNode = root;
+            }
+            return root.session;
+        }
+    }
+
     private static void mockMixins(MockNode mockNode, Node jcrNode) throws RepositoryException {
         final MockProperty mixinProperty = mockNode.getMockProperty("jcr:mixinTypes");
         if (mixinProperty != null) {
@@ -391,14 +609,21 @@ public class MockNode {
     }
 
     /**
-     * Invalidates the session for all nodes.
+     * Sessions are scoped to their tree, so there is nothing to invalidate anymore.
+     *
+     * @deprecated not needed since sessions are scoped to their tree
      */
+    @Deprecated
     public static void invalidateSession() {
-        rootMockNode = null;
-        session = Mockito.mock(Session.class);
+        lastRootMockNode = null;
     }
 
+    /**
+     * @return the root of the tree that most recently got a Mockito session
+     * @deprecated use {@link #getRootMockNode()} of a node of the tree, this is ambiguous with several trees
+     */
+    @Deprecated
     public static MockNode getRooMockNode() {
-        return rootMockNode;
+        return lastRootMockNode;
     }
 }
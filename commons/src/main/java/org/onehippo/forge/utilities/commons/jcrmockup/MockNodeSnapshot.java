@@ -0,0 +1,214 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.commons.jcrmockup;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary format of a MockNode tree, for fixtures that are loaded repeatedly. Reading a snapshot skips xml
+ * parsing altogether.
+ * <p>
+ * Format: the magic bytes "JCRMOCK" and a version byte, followed by the root node. A node is its name, the number of
+ * properties, the properties, the number of child nodes and the child nodes. A property is its name, type, the
+ * number of values (-1 for none) and the values. Names and types are written once and referred to by index after.
+ * </p>
+ */
+public final class MockNodeSnapshot {
+
+    private static final byte[] MAGIC = "JCRMOCK".getBytes(StandardCharsets.US_ASCII);
+    private static final int VERSION = 1;
+    private static final int NO_VALUES = -1;
+    private static final int NULL_STRING = -1;
+    private static final int NEW_NAME = -2;
+
+    private MockNodeSnapshot() {
+        // private constructor for utility
+    }
+
+    /**
+     * Checks if the stream starts with a snapshot header, without consuming it.
+     *
+     * @param inputStream a stream supporting mark and reset
+     * @return true if the stream contains a snapshot
+     * @throws IOException if reading fails
+     */
+    public static boolean isSnapshot(final InputStream inputStream) throws IOException {
+        inputStream.mark(MAGIC.length);
+        try {
+            for (byte b : MAGIC) {
+                if (inputStream.read() != b) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            inputStream.reset();
+        }
+    }
+
+    /**
+     * Writes the tree below and including root, leaving out removed nodes and properties.
+     *
+     * @param root         root of the tree
+     * @param outputStream target, flushed but not closed
+     * @throws IOException if writing fails
+     */
+    public static void write(final MockNode root, final OutputStream outputStream) throws IOException {
+        final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream));
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+        writeNode(root, out, new HashMap<String, Integer>());
+        out.flush();
+    }
+
+    /**
+     * Reads a tree written by {@link #write(MockNode, OutputStream)}.
+     *
+     * @param inputStream source, not closed
+     * @return the root node, with itself as parent like a tree loaded from xml
+     * @throws IOException if reading fails or the stream is not a snapshot
+     */
+    public static MockNode read(final InputStream inputStream) throws IOException {
+        final DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+        for (byte b : MAGIC) {
+            if (in.readByte() != b) {
+                throw new IOException("Not a mock node snapshot");
+            }
+        }
+        final int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported mock node snapshot version " + version);
+        }
+        final MockNode root = readNode(in, new ArrayList<String>());
+        root.setParent(root);
+        return root;
+    }
+
+    private static void writeNode(final MockNode node, final DataOutputStream out, final Map<String, Integer> names)
+            throws IOException {
+        writeName(node.getMockNodeName(), out, names);
+        final Collection<MockProperty> properties = node.getMockProperties();
+        out.writeInt(properties.size());
+        for (MockProperty property : properties) {
+            writeName(property.getMockPropertyName(), out, names);
+            writeName(property.getMockPropertyType(), out, names);
+            final List<String> values = property.getMockValues();
+            if (values == null) {
+                out.writeInt(NO_VALUES);
+            } else {
+                out.writeInt(values.size());
+                for (String value : values) {
+                    writeString(value, out);
+                }
+            }
+        }
+        final List<MockNode> children = node.getMockChildNodes();
+        out.writeInt(children.size());
+        for (MockNode child : children) {
+            writeNode(child, out, names);
+        }
+    }
+
+    private static MockNode readNode(final DataInputStream in, final List<String> names) throws IOException {
+        final MockNode node = new MockNode();
+        node.setMockNodeName(readName(in, names));
+        final int propertyCount = in.readInt();
+        for (int i = 0; i < propertyCount; i++) {
+            final MockProperty property = new MockProperty();
+            property.setMockPropertyName(readName(in, names));
+            property.setMockPropertyType(readName(in, names));
+            final int valueCount = in.readInt();
+            if (valueCount != NO_VALUES) {
+                final List<String> values = new ArrayList<String>(valueCount);
+                for (int j = 0; j < valueCount; j++) {
+                    values.add(readString(in));
+                }
+                property.setMockValues(values);
+            }
+            node.setMockProperty(property);
+        }
+        final int childCount = in.readInt();
+        for (int i = 0; i < childCount; i++) {
+            node.addMockChildNode(readNode(in, names));
+        }
+        return node;
+    }
+
+    private static void writeName(final String name, final DataOutputStream out, final Map<String, Integer> names)
+            throws IOException {
+        if (name == null) {
+            out.writeInt(NULL_STRING);
+            return;
+        }
+        final Integer index = names.get(name);
+        if (index != null) {
+            out.writeInt(index);
+        } else {
+            names.put(name, names.size());
+            out.writeInt(NEW_NAME);
+            writeString(name, out);
+        }
+    }
+
+    private static String readName(final DataInputStream in, final List<String> names) throws IOException {
+        final int index = in.readInt();
+        if (index == NULL_STRING) {
+            return null;
+        }
+        if (index == NEW_NAME) {
+            final String name = readString(in);
+            names.add(name);
+            return name;
+        }
+        if (index < 0 || index >= names.size()) {
+            throw new IOException("Invalid name index " + index);
+        }
+        return names.get(index);
+    }
+
+    private static void writeString(final String string, final DataOutputStream out) throws IOException {
+        if (string == null) {
+            out.writeInt(NULL_STRING);
+            return;
+        }
+        final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(final DataInputStream in) throws IOException {
+        final int length = in.readInt();
+        if (length == NULL_STRING) {
+            return null;
+        }
+        final byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -54,6 +54,9 @@ public class MockProperty {
     @XmlElement(name = "value", namespace = "http://www.jcp.org/jcr/sv/1.0")
     private List<String> values;  // NOSONAR (ignore field not initialized in constructor, null is valid value)
 
+    @XmlTransient
+    private SimpleJcrProperty simpleJcrProperty;
+
     public String getMockPropertyName() {
         return this.name;
     }
@@ -68,6 +71,7 @@ public class MockProperty {
 
     public void setMockPropertyType(String type) {
         this.type = type;
+        contentChanged();
     }
 
     public List<String> getMockValues() {
@@ -76,6 +80,7 @@ public class MockProperty {
 
     public void setMockValues(List<String> values) {
         this.values = values;
+        contentChanged();
     }
 
     public MockNode getParent() {
@@ -99,12 +104,27 @@ public class MockProperty {
 
     public void setRemoved(boolean removed) {
         this.removed = removed;
+        contentChanged();
+    }
+
+    private void contentChanged() {
+        if (this.parent != null) {
+            this.parent.contentChanged();
+        }
     }
 
     public boolean isRemoved() {
         return this.removed;
     }
 
+    SimpleJcrProperty getSimpleJcrProperty() {
+        return simpleJcrProperty;
+    }
+
+    void setSimpleJcrProperty(final SimpleJcrProperty simpleJcrProperty) {
+        this.simpleJcrProperty = simpleJcrProperty;
+    }
+
     /**
      * Gets the mocked jcr property
      *
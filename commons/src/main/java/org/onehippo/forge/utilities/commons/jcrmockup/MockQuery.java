@@ -0,0 +1,185 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.commons.jcrmockup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.jcr.ItemNotFoundException;
+import javax.jcr.Node;
+import javax.jcr.RepositoryException;
+import javax.jcr.Value;
+import javax.jcr.query.InvalidQueryException;
+import javax.jcr.query.Query;
+import javax.jcr.query.QueryResult;
+
+/**
+ * javax.jcr.query.Query evaluated against a MockNode tree, see {@link MockQueryParser} for the supported statements.
+ * <p>
+ * Candidate nodes are looked up in the {@link MockQueryIndex} of the tree when the conditions allow it, and only
+ * the remaining conditions are matched against them. Results are in document order unless ordered, with null values
+ * first in ascending order.
+ * </p>
+ */
+class MockQuery implements Query {
+
+    private final MockQueryManager queryManager;
+    private final String statement;
+    private final String language;
+    private final MockQueryCondition condition;
+    private final List<MockQueryParser.Ordering> orderings;
+    private final List<MockQueryCondition.Literal> bindVariables;
+    private final Map<String, Value> boundValues = new HashMap<String, Value>();
+    private long limit = -1;
+    private long offset;
+
+    MockQuery(final MockQueryManager queryManager, final String statement, final String language)
+            throws InvalidQueryException {
+        this.queryManager = queryManager;
+        this.statement = statement;
+        this.language = language;
+        final MockQueryParser parser = new MockQueryParser(statement, Query.JCR_SQL2.equals(language));
+        parser.parse();
+        this.condition = parser.getCondition();
+        this.orderings = parser.getOrderings();
+        this.bindVariables = parser.getBindVariables();
+    }
+
+    public QueryResult execute() throws RepositoryException {
+        for (MockQueryCondition.Literal bindVariable : bindVariables) {
+            final Value value = boundValues.get(bindVariable.getBindVariableName());
+            if (value == null) {
+                throw new InvalidQueryException("Variable '" + bindVariable.getBindVariableName() + "' is not bound");
+            }
+            bindVariable.setValue(value.getString());
+        }
+        final List<MockNode> nodes = evaluate(queryManager.getRootMockNode().getQueryIndex());
+        final List<Node> jcrNodes = new ArrayList<Node>(nodes.size());
+        for (MockNode node : nodes) {
+            jcrNodes.add(queryManager.getJcrNode(node));
+        }
+        return new MockQueryResult(jcrNodes);
+    }
+
+    /**
+     * @return the matching nodes of the page selected by offset and limit
+     */
+    List<MockNode> evaluate(final MockQueryIndex index) {
+        index.refresh();
+        List<MockNode> candidates = condition == null ? null : condition.getCandidates(index);
+        if (candidates == null) {
+            candidates = index.getNodes();
+        }
+        final boolean ordered = !orderings.isEmpty();
+        final List<MockNode> result = new ArrayList<MockNode>();
+        // without ordering the matches past the page are not needed
+        final long end = !ordered && limit >= 0 ? offset + limit : Long.MAX_VALUE;
+        for (MockNode candidate : candidates) {
+            if (result.size() >= end) {
+                break;
+            }
+            if (condition == null || condition.matches(candidate, index)) {
+                result.add(candidate);
+            }
+        }
+        if (ordered) {
+            sort(result);
+        }
+        final int from = (int) Math.min(offset, result.size());
+        final int to = limit >= 0 ? (int) Math.min(offset + limit, result.size()) : result.size();
+        return result.subList(from, to);
+    }
+
+    private void sort(final List<MockNode> nodes) {
+        final Map<MockNode, Comparable<?>[]> keys = new IdentityHashMap<MockNode, Comparable<?>[]>(nodes.size());
+        for (MockNode node : nodes) {
+            final Comparable<?>[] nodeKeys = new Comparable<?>[orderings.size()];
+            for (int i = 0; i < nodeKeys.length; i++) {
+                final MockProperty property = node.getMockProperty(orderings.get(i).getPropertyName());
+                if (property != null && property.getMockValues() != null && !property.getMockValues().isEmpty()) {
+                    nodeKeys[i] = MockQueryIndex.toKey(SimpleJcrValue.getPropertyType(property.getMockPropertyType()),
+                            property.getMockValues().get(0));
+                }
+            }
+            keys.put(node, nodeKeys);
+        }
+        Collections.sort(nodes, new Comparator<MockNode>() {
+            public int compare(final MockNode node1, final MockNode node2) {
+                final Comparable<?>[] keys1 = keys.get(node1);
+                final Comparable<?>[] keys2 = keys.get(node2);
+                for (int i = 0; i < keys1.length; i++) {
+                    final int result = MockQueryIndex.compareKeys(keys1[i], keys2[i]);
+                    if (result != 0) {
+                        return orderings.get(i).isDescending() ? -result : result;
+                    }
+                }
+                return 0;
+            }
+        });
+    }
+
+    public void setLimit(final long limit) {
+        this.limit = limit;
+    }
+
+    public void setOffset(final long offset) {
+        this.offset = offset;
+    }
+
+    public String getStatement() {
+        return statement;
+    }
+
+    public String getLanguage() {
+        return language;
+    }
+
+    public String getStoredQueryPath() throws ItemNotFoundException {
+        throw new ItemNotFoundException("The query is not stored");
+    }
+
+    public Node storeAsNode(final String absPath) {
+        throw new UnsupportedOperationException("The method storeAsNode is not supported");
+    }
+
+    public void bindValue(final String varName, final Value value) throws IllegalArgumentException {
+        if (!getBindVariableNameSet().contains(varName)) {
+            throw new IllegalArgumentException("Variable '" + varName + "' is not used in query: " + statement);
+        }
+        boundValues.put(varName, value);
+    }
+
+    public String[] getBindVariableNames() {
+        final Set<String> names = getBindVariableNameSet();
+        return names.toArray(new String[names.size()]);
+    }
+
+    private Set<String> getBindVariableNameSet() {
+        final Set<String> names = new LinkedHashSet<String>();
+        for (MockQueryCondition.Literal bindVariable : bindVariables) {
+            names.add(bindVariable.getBindVariableName());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,444 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.commons.jcrmockup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Condition of a {@link MockQuery}, parsed from a JCR-SQL2 or XPath statement by {@link MockQueryParser}.
+ * <p>
+ * Besides matching a single node, a condition may look up its candidate nodes in the {@link MockQueryIndex} of the
+ * tree, so a query only matches the remaining conditions against those instead of against every node.
+ * </p>
+ */
+abstract class MockQueryCondition {
+
+    static final String EQ = "=";
+    static final String NE = "<>";
+    static final String LT = "<";
+    static final String LE = "<=";
+    static final String GT = ">";
+    static final String GE = ">=";
+
+    /**
+     * @return true if the node fulfills this condition
+     */
+    abstract boolean matches(MockNode node, MockQueryIndex index);
+
+    /**
+     * @return all nodes that may fulfill this condition in document order, or null if the index cannot tell
+     */
+    List<MockNode> getCandidates(final MockQueryIndex index) {
+        return null;
+    }
+
+    /**
+     * Value of a condition, either a literal or a bind variable set on the query before executing it.
+     */
+    static class Literal {
+        private final String bindVariableName;
+        private String value;
+
+        Literal(final String value, final String bindVariableName) {
+            this.value = value;
+            this.bindVariableName = bindVariableName;
+        }
+
+        String getValue() {
+            return value;
+        }
+
+        void setValue(final String value) {
+            this.value = value;
+        }
+
+        String getBindVariableName() {
+            return bindVariableName;
+        }
+    }
+
+    static class And extends MockQueryCondition {
+        private final List<MockQueryCondition> conditions = new ArrayList<MockQueryCondition>();
+
+        And(final MockQueryCondition condition1, final MockQueryCondition condition2) {
+            conditions.add(condition1);
+            conditions.add(condition2);
+        }
+
+        boolean matches(final MockNode node, final MockQueryIndex index) {
+            for (MockQueryCondition condition : conditions) {
+                if (!condition.matches(node, index)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @return the smallest candidate list of the conditions
+         */
+        List<MockNode> getCandidates(final MockQueryIndex index) {
+            List<MockNode> smallest = null;
+            for (MockQueryCondition condition : conditions) {
+                final List<MockNode> candidates = condition.getCandidates(index);
+                if (candidates != null && (smallest == null || candidates.size() < smallest.size())) {
+                    smallest = candidates;
+                }
+            }
+            return smallest;
+        }
+    }
+
+    static class Or extends MockQueryCondition {
+        private final List<MockQueryCondition> conditions = new ArrayList<MockQueryCondition>();
+
+        Or(final MockQueryCondition condition1, final MockQueryCondition condition2) {
+            conditions.add(condition1);
+            conditions.add(condition2);
+        }
+
+        boolean matches(final MockNode node, final MockQueryIndex index) {
+            for (MockQueryCondition condition : conditions) {
+                if (condition.matches(node, index)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * @return the union of the candidates of the conditions, null if one of them cannot tell
+         */
+        List<MockNode> getCandidates(final MockQueryIndex index) {
+            final List<List<MockNode>> candidateLists = new ArrayList<List<MockNode>>(conditions.size());
+            int size = 0;
+            for (MockQueryCondition condition : conditions) {
+                final List<MockNode> candidates = condition.getCandidates(index);
+                if (candidates == null) {
+                    return null;
+                }
+                candidateLists.add(candidates);
+                size += candidates.size();
+            }
+            return union(index, candidateLists, size);
+        }
+    }
+
+    static class Not extends MockQueryCondition {
+        private final MockQueryCondition condition;
+
+        Not(final MockQueryCondition condition) {
+            this.condition = condition;
+        }
+
+        boolean matches(final MockNode node, final MockQueryIndex index) {
+            return !condition.matches(node, index);
+        }
+    }
+
+    /**
+     * Compares the values of a property with a literal, in the type of the property. A multi valued property matches
+     * if any of its values does. Without operator it checks that the property exists.
+     */
+    static class Comparison extends MockQueryCondition {
+        private final String propertyName;
+        private final String operator;
+        private final Literal literal;
+
+        Comparison(final String propertyName, final String operator, final Literal literal) {
+            this.propertyName = propertyName;
+            this.operator = operator;
+            this.literal = literal;
+        }
+
+        boolean matches(final MockNode node, final MockQueryIndex index) {
+            final MockProperty property = node.getMockProperty(propertyName);
+            if (property == null || property.getMockValues() == null) {
+                return false;
+            }
+            if (operator == null) {
+                return true;
+            }
+            final int type = SimpleJcrValue.getPropertyType(property.getMockPropertyType());
+            final Comparable<?> literalKey = MockQueryIndex.toKey(type, literal.getValue());
+            if (literalKey == null) {
+                return false;
+            }
+            for (String value : property.getMockValues()) {
+                final Comparable<?> key = MockQueryIndex.toKey(type, value);
+                if (key != null && matches(MockQueryIndex.compareKeys(key, literalKey))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean matches(final int result) {
+            if (EQ.equals(operator)) {
+                return result == 0;
+            } else if (NE.equals(operator)) {
+                return result != 0;
+            } else if (LT.equals(operator)) {
+                return result < 0;
+            } else if (LE.equals(operator)) {
+                return result <= 0;
+            } else if (GT.equals(operator)) {
+                return result > 0;
+            }
+            return result >= 0;
+        }
+
+        List<MockNode> getCandidates(final MockQueryIndex index) {
+            if (NE.equals(operator)) {
+                return null;
+            }
+            return index.find(propertyName, operator, operator == null ? null : literal.getValue());
+        }
+    }
+
+    /**
+     * Matches string values with a LIKE pattern, % matching any characters and _ a single one.
+     */
+    static class Like extends MockQueryCondition {
+        private final String propertyName;
+        private final Literal pattern;
+        private String compiledFrom;
+        private Pattern compiled;
+
+        Like(final String propertyName, final Literal pattern) {
+            this.propertyName = propertyName;
+            this.pattern = pattern;
+        }
+
+        boolean matches(final MockNode node, final MockQueryIndex index) {
+            final MockProperty property = node.getMockProperty(propertyName);
+            if (property == null || property.getMockValues() == null || pattern.getValue() == null) {
+                return false;
+            }
+            final Pattern regex = getPattern();
+            for (String value : property.getMockValues()) {
+                if (value != null && regex.matcher(value).matches()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private Pattern getPattern() {
+            final String value = pattern.getValue();
+            if (compiled == null || !value.equals(compiledFrom)) {
+                final StringBuilder regex = new StringBuilder();
+                int start = 0;
+                for (int i = 0; i < value.length(); i++) {
+                    final char c = value.charAt(i);
+                    if (c == '%' || c == '_') {
+                        if (i > start) {
+                            regex.append(Pattern.quote(value.substring(start, i)));
+                        }
+                        regex.append(c == '%' ? ".*" : ".");
+                        start = i + 1;
+                    }
+                }
+                if (start < value.length()) {
+                    regex.append(Pattern.quote(value.substring(start)));
+                }
+                compiled = Pattern.compile(regex.toString(), Pattern.DOTALL);
+                compiledFrom = value;
+            }
+            return compiled;
+        }
+
+        List<MockNode> getCandidates(final MockQueryIndex index) {
+            return index.find(propertyName, null, null);
+        }
+    }
+
+    /**
+     * Simple full text condition: every word of the expression occurs in a value of the property, ignoring case.
+     * Without property name all string properties of the node are searched.
+     */
+    static class Contains extends MockQueryCondition {
+        private final String propertyName;
+        private final Literal expression;
+
+        Contains(final String propertyName, final Literal expression) {
+            this.propertyName = propertyName;
+            this.expression = expression;
+        }
+
+        boolean matches(final MockNode node, final MockQueryIndex index) {
+            final String value = expression.getValue();
+            if (value == null) {
+                return false;
+            }
+            final StringBuilder text = new StringBuilder();
+            if (propertyName == null) {
+                for (MockProperty property : node.getMockProperties()) {
+                    appendValues(property, text);
+                }
+            } else {
+                appendValues(node.getMockProperty(propertyName), text);
+            }
+            final String lowerCaseText = text.toString().toLowerCase(Locale.ENGLISH);
+            for (String word : value.toLowerCase(Locale.ENGLISH).split("\\s+")) {
+                if (word.length() > 0 && !lowerCaseText.contains(word)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static void appendValues(final MockProperty property, final StringBuilder text) {
+            if (property == null || property.getMockValues() == null) {
+                return;
+            }
+            for (String value : property.getMockValues()) {
+                text.append(value).append(' ');
+            }
+        }
+
+        List<MockNode> getCandidates(final MockQueryIndex index) {
+            return propertyName == null ? null : index.find(propertyName, null, null);
+        }
+    }
+
+    /**
+     * Matches nodes of a primary or mixin node type. Sub types are not supported.
+     */
+    static class NodeType extends MockQueryCondition {
+        private static final String PRIMARY_TYPE = "jcr:primaryType";
+        private static final String MIXIN_TYPES = "jcr:mixinTypes";
+
+        private final String nodeTypeName;
+
+        NodeType(final String nodeTypeName) {
+            this.nodeTypeName = nodeTypeName;
+        }
+
+        boolean matches(final MockNode node, final MockQueryIndex index) {
+            return hasValue(node.getMockProperty(PRIMARY_TYPE)) || hasValue(node.getMockProperty(MIXIN_TYPES));
+        }
+
+        private boolean hasValue(final MockProperty property) {
+            return property != null && property.getMockValues() != null
+                    && property.getMockValues().contains(nodeTypeName);
+        }
+
+        List<MockNode> getCandidates(final MockQueryIndex index) {
+            final List<MockNode> primary = index.find(PRIMARY_TYPE, EQ, nodeTypeName);
+            final List<MockNode> mixins = index.find(MIXIN_TYPES, EQ, nodeTypeName);
+            if (primary == null || mixins == null) {
+                return null;
+            }
+            final List<List<MockNode>> candidateLists = new ArrayList<List<MockNode>>(2);
+            candidateLists.add(primary);
+            candidateLists.add(mixins);
+            return union(index, candidateLists, primary.size() + mixins.size());
+        }
+    }
+
+    static class NodeName extends MockQueryCondition {
+        private final String name;
+
+        NodeName(final String name) {
+            this.name = name;
+        }
+
+        boolean matches(final MockNode node, final MockQueryIndex index) {
+            return name.equals(node.getMockNodeName());
+        }
+    }
+
+    /**
+     * Matches the descendants, or only the children, of the node at a path. Nodes below a path that does not exist
+     * do not match.
+     */
+    static class Path extends MockQueryCondition {
+        private final String path;
+        private final boolean childrenOnly;
+        private long resolvedVersion = -1;
+        private MockNode resolved;
+
+        Path(final String path, final boolean childrenOnly) {
+            this.path = path;
+            this.childrenOnly = childrenOnly;
+        }
+
+        private MockNode getAncestor(final MockQueryIndex index) {
+            if (resolvedVersion != index.getVersion()) {
+                resolved = resolve(index.getNodes().get(0));
+                resolvedVersion = index.getVersion();
+            }
+            return resolved;
+        }
+
+        private MockNode resolve(final MockNode root) {
+            MockNode ancestor = root;
+            for (String name : path.split("/")) {
+                if (ancestor == null) {
+                    break;
+                }
+                if (name.length() > 0) {
+                    final int bracket = name.indexOf('[');
+                    if (bracket != -1 && name.endsWith("]")) {
+                        final List<MockNode> sameNameSiblings = ancestor.getMockChildNodesByName(name.substring(0, bracket));
+                        final int siblingIndex = Integer.parseInt(name.substring(bracket + 1, name.length() - 1));
+                        ancestor = siblingIndex > 0 && siblingIndex <= sameNameSiblings.size()
+                                ? sameNameSiblings.get(siblingIndex - 1) : null;
+                    } else {
+                        ancestor = ancestor.getMockChildNode(name);
+                    }
+                }
+            }
+            return ancestor;
+        }
+
+        boolean matches(final MockNode node, final MockQueryIndex index) {
+            final MockNode ancestor = getAncestor(index);
+            if (ancestor == null) {
+                return false;
+            }
+            if (childrenOnly) {
+                return node.getParent() == ancestor && node != ancestor;
+            }
+            return index.isDescendant(node, ancestor);
+        }
+
+        List<MockNode> getCandidates(final MockQueryIndex index) {
+            final MockNode ancestor = getAncestor(index);
+            if (ancestor == null) {
+                return new ArrayList<MockNode>();
+            }
+            return childrenOnly ? ancestor.getMockChildNodes() : index.getDescendants(ancestor);
+        }
+    }
+
+    private static List<MockNode> union(final MockQueryIndex index, final List<List<MockNode>> candidateLists,
+                                        final int size) {
+        final int[] positions = new int[size];
+        int i = 0;
+        for (List<MockNode> candidates : candidateLists) {
+            for (MockNode candidate : candidates) {
+                positions[i++] = index.getPosition(candidate);
+            }
+        }
+        return index.toNodes(positions);
+    }
+}
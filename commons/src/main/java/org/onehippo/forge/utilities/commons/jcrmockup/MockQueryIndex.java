@@ -0,0 +1,296 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.commons.jcrmockup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.jcr.PropertyType;
+
+/**
+ * In-memory indexes of a MockNode tree for {@link MockQuery}.
+ * <p>
+ * The nodes of the tree are numbered in document order, so the descendants of a node are a range of positions. A
+ * property index holds the typed values of one property sorted, for equality and range lookups by binary search. It
+ * is built on the first query on that property. All indexes are dropped when the tree changes and rebuilt lazily.
+ * </p>
+ */
+class MockQueryIndex {
+
+    private static final Comparator<Entry> ENTRY_COMPARATOR = new Comparator<Entry>() {
+        public int compare(final Entry entry1, final Entry entry2) {
+            final int result = compareKeys(entry1.key, entry2.key);
+            return result != 0 ? result : entry1.position - entry2.position;
+        }
+    };
+
+    private final MockNode root;
+    private long version = -1;
+    private List<MockNode> nodes;
+    private Map<MockNode, Integer> positions;
+    // position after the last descendant of the node at the same position
+    private int[] ends;
+    private final Map<String, PropertyIndex> propertyIndexes = new HashMap<String, PropertyIndex>();
+
+    MockQueryIndex(final MockNode root) {
+        this.root = root;
+    }
+
+    /**
+     * Rebuilds the node positions if the tree changed since the last query.
+     */
+    synchronized void refresh() {
+        final long contentVersion = root.getContentVersion();
+        if (nodes != null && version == contentVersion) {
+            return;
+        }
+        nodes = new ArrayList<MockNode>();
+        positions = new IdentityHashMap<MockNode, Integer>();
+        final List<Integer> endList = new ArrayList<Integer>();
+        addNode(root, endList);
+        ends = new int[endList.size()];
+        for (int i = 0; i < ends.length; i++) {
+            ends[i] = endList.get(i);
+        }
+        propertyIndexes.clear();
+        // loading forked nodes does not change the tree, so the version is read before traversing it
+        version = contentVersion;
+    }
+
+    private void addNode(final MockNode node, final List<Integer> endList) {
+        final int position = nodes.size();
+        nodes.add(node);
+        positions.put(node, position);
+        endList.add(position);
+        for (MockNode child : node.getMockChildNodes()) {
+            addNode(child, endList);
+        }
+        endList.set(position, nodes.size());
+    }
+
+    synchronized long getVersion() {
+        return version;
+    }
+
+    synchronized List<MockNode> getNodes() {
+        return nodes;
+    }
+
+    synchronized int getPosition(final MockNode node) {
+        final Integer position = positions.get(node);
+        return position == null ? -1 : position;
+    }
+
+    /**
+     * @return the descendants of the node in document order, empty if the node is not part of the tree
+     */
+    synchronized List<MockNode> getDescendants(final MockNode node) {
+        final int position = getPosition(node);
+        if (position == -1) {
+            return Collections.emptyList();
+        }
+        return nodes.subList(position + 1, ends[position]);
+    }
+
+    synchronized boolean isDescendant(final MockNode node, final MockNode ancestor) {
+        final int ancestorPosition = getPosition(ancestor);
+        final int position = getPosition(node);
+        return ancestorPosition != -1 && position > ancestorPosition && position < ends[ancestorPosition];
+    }
+
+    /**
+     * Looks up the nodes with a value of the property that compares to the literal as the operator requires.
+     *
+     * @param propertyName name of the property
+     * @param operator     one of the comparison operators of {@link MockQueryCondition}
+     * @param literal      value to compare with, converted to the type of the property
+     * @return the nodes in document order, or null if the property cannot be indexed because its type differs
+     * between nodes
+     */
+    synchronized List<MockNode> find(final String propertyName, final String operator, final String literal) {
+        final PropertyIndex propertyIndex = getPropertyIndex(propertyName);
+        if (propertyIndex == null) {
+            return null;
+        }
+        final List<Entry> entries = propertyIndex.entries;
+        if (operator == null) {
+            return toNodes(entries, 0, entries.size());
+        }
+        final Comparable<?> key = toKey(propertyIndex.type, literal);
+        if (key == null) {
+            return Collections.emptyList();
+        }
+        if (MockQueryCondition.EQ.equals(operator)) {
+            return toNodes(entries, lowerBound(entries, key, false), lowerBound(entries, key, true));
+        } else if (MockQueryCondition.LT.equals(operator)) {
+            return toNodes(entries, 0, lowerBound(entries, key, false));
+        } else if (MockQueryCondition.LE.equals(operator)) {
+            return toNodes(entries, 0, lowerBound(entries, key, true));
+        } else if (MockQueryCondition.GT.equals(operator)) {
+            return toNodes(entries, lowerBound(entries, key, true), entries.size());
+        } else if (MockQueryCondition.GE.equals(operator)) {
+            return toNodes(entries, lowerBound(entries, key, false), entries.size());
+        }
+        return null;
+    }
+
+    /**
+     * @return the index of the first entry with a key greater than (or equal to, unless after) the key
+     */
+    private static int lowerBound(final List<Entry> entries, final Comparable<?> key, final boolean after) {
+        int low = 0;
+        int high = entries.size();
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            final int result = compareKeys(entries.get(middle).key, key);
+            if (result < 0 || (after && result == 0)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private List<MockNode> toNodes(final List<Entry> entries, final int from, final int to) {
+        if (from >= to) {
+            return Collections.emptyList();
+        }
+        // a node with several matching values has several entries
+        final int[] matches = new int[to - from];
+        for (int i = from; i < to; i++) {
+            matches[i - from] = entries.get(i).position;
+        }
+        return toNodes(matches);
+    }
+
+    /**
+     * @param matches positions of nodes, in any order and possibly repeated
+     * @return the nodes at the positions, in document order
+     */
+    synchronized List<MockNode> toNodes(final int[] matches) {
+        Arrays.sort(matches);
+        final List<MockNode> result = new ArrayList<MockNode>(matches.length);
+        int previous = -1;
+        for (int position : matches) {
+            if (position != previous) {
+                result.add(nodes.get(position));
+                previous = position;
+            }
+        }
+        return result;
+    }
+
+    private PropertyIndex getPropertyIndex(final String propertyName) {
+        if (propertyIndexes.containsKey(propertyName)) {
+            return propertyIndexes.get(propertyName);
+        }
+        final PropertyIndex propertyIndex = createPropertyIndex(propertyName);
+        propertyIndexes.put(propertyName, propertyIndex);
+        return propertyIndex;
+    }
+
+    private PropertyIndex createPropertyIndex(final String propertyName) {
+        final PropertyIndex propertyIndex = new PropertyIndex();
+        propertyIndex.type = -1;
+        for (int position = 0; position < nodes.size(); position++) {
+            final MockProperty property = nodes.get(position).getMockProperty(propertyName);
+            if (property == null || property.getMockValues() == null) {
+                continue;
+            }
+            final int type = SimpleJcrValue.getPropertyType(property.getMockPropertyType());
+            if (propertyIndex.type == -1) {
+                propertyIndex.type = type;
+            } else if (propertyIndex.type != type) {
+                return null;
+            }
+            for (String value : property.getMockValues()) {
+                final Comparable<?> key = toKey(type, value);
+                if (key != null) {
+                    propertyIndex.entries.add(new Entry(key, position));
+                }
+            }
+        }
+        Collections.sort(propertyIndex.entries, ENTRY_COMPARATOR);
+        return propertyIndex;
+    }
+
+    /**
+     * Converts a value to a comparable key of the property type: a BigDecimal for numbers, the time in millis for
+     * dates, a Boolean or else the string itself.
+     *
+     * @return the key or null if the value cannot be converted
+     */
+    static Comparable<?> toKey(final int type, final String value) {
+        if (value == null) {
+            return null;
+        }
+        switch (type) {
+            case PropertyType.LONG:
+            case PropertyType.DOUBLE:
+            case PropertyType.DECIMAL:
+                try {
+                    return new BigDecimal(value.trim());
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            case PropertyType.DATE:
+                final long millis = ISO8601.parseMillis(value.trim(), Long.MIN_VALUE);
+                return millis == Long.MIN_VALUE ? null : Long.valueOf(millis);
+            case PropertyType.BOOLEAN:
+                return Boolean.valueOf(value.trim());
+            default:
+                return value;
+        }
+    }
+
+    /**
+     * Compares keys of the same type, nulls first. Keys of different types are compared as strings.
+     */
+    @SuppressWarnings("unchecked")
+    static int compareKeys(final Comparable<?> key1, final Comparable<?> key2) {
+        if (key1 == null || key2 == null) {
+            return key1 == null ? (key2 == null ? 0 : -1) : 1;
+        }
+        if (key1.getClass() != key2.getClass()) {
+            return key1.toString().compareTo(key2.toString());
+        }
+        return ((Comparable<Object>) key1).compareTo(key2);
+    }
+
+    private static class PropertyIndex {
+        private int type;
+        private final List<Entry> entries = new ArrayList<Entry>();
+    }
+
+    private static class Entry {
+        private final Comparable<?> key;
+        private final int position;
+
+        Entry(final Comparable<?> key, final int position) {
+            this.key = key;
+            this.position = position;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.commons.jcrmockup;
+
+import javax.jcr.Node;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+import javax.jcr.query.InvalidQueryException;
+import javax.jcr.query.Query;
+import javax.jcr.query.QueryManager;
+import javax.jcr.query.qom.QueryObjectModelFactory;
+
+/**
+ * javax.jcr.query.QueryManager of the workspace of a mocked session, querying the tree of the session.
+ * Result nodes are the plain java nodes of a {@link SimpleJcrSession}, or Mockito mocks for a Mockito based session.
+ */
+class MockQueryManager implements QueryManager {
+
+    @SuppressWarnings("deprecation")
+    private static final String[] LANGUAGES = {Query.JCR_SQL2, Query.XPATH};
+
+    private final Session session;
+    private final MockNode rootMockNode;
+
+    MockQueryManager(final Session session, final MockNode rootMockNode) {
+        this.session = session;
+        this.rootMockNode = rootMockNode;
+    }
+
+    MockNode getRootMockNode() {
+        return rootMockNode;
+    }
+
+    Node getJcrNode(final MockNode mockNode) throws RepositoryException {
+        if (session instanceof SimpleJcrSession) {
+            return ((SimpleJcrSession) session).getJcrNode(mockNode);
+        }
+        return mockNode.getJcrMock();
+    }
+
+    @SuppressWarnings("deprecation")
+    public Query createQuery(final String statement, final String language) throws InvalidQueryException {
+        if (!Query.JCR_SQL2.equals(language) && !Query.XPATH.equals(language)) {
+            throw new InvalidQueryException("Unsupported query language: " + language);
+        }
+        return new MockQuery(this, statement, language);
+    }
+
+    public QueryObjectModelFactory getQOMFactory() {
+        throw new UnsupportedOperationException("The method getQOMFactory is not supported");
+    }
+
+    public Query getQuery(final Node node) {
+        throw new UnsupportedOperationException("The method getQuery is not supported");
+    }
+
+    public String[] getSupportedQueryLanguages() {
+        return LANGUAGES.clone();
+    }
+}
@@ -0,0 +1,555 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.commons.jcrmockup;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.jcr.query.InvalidQueryException;
+
+/**
+ * Parses the commonly used subset of JCR-SQL2 and XPath into a {@link MockQueryCondition} and orderings.
+ * <p>
+ * JCR-SQL2: <code>SELECT * FROM [type] AS s WHERE ... ORDER BY s.[property] DESC</code>, with AND, OR, NOT,
+ * comparisons, LIKE, CONTAINS, IS [NOT] NULL, ISDESCENDANTNODE, ISCHILDNODE, CAST literals and $bind variables.
+ * </p>
+ * <p>
+ * XPath: <code>/jcr:root/path//element(*, type)[...] order by @property descending</code>, a path of names followed
+ * by a last child or descendant step, with and, or, not(), comparisons, jcr:like, jcr:contains and
+ * xs:dateTime literals in the predicate.
+ * </p>
+ * A parser is not thread safe.
+ */
+class MockQueryParser {
+
+    private static final int NAME = 0;
+    private static final int STRING = 1;
+    private static final int NUMBER = 2;
+    private static final int SYMBOL = 3;
+    private static final int END = 4;
+
+    private final String statement;
+    private final boolean sql2;
+    private final List<Token> tokens = new ArrayList<Token>();
+    private int position;
+
+    private MockQueryCondition condition;
+    private final List<Ordering> orderings = new ArrayList<Ordering>();
+    private final List<MockQueryCondition.Literal> bindVariables = new ArrayList<MockQueryCondition.Literal>();
+
+    MockQueryParser(final String statement, final boolean sql2) {
+        this.statement = statement;
+        this.sql2 = sql2;
+    }
+
+    /**
+     * @return the condition of the parsed statement, null if it matches all nodes
+     */
+    MockQueryCondition getCondition() {
+        return condition;
+    }
+
+    List<Ordering> getOrderings() {
+        return orderings;
+    }
+
+    List<MockQueryCondition.Literal> getBindVariables() {
+        return bindVariables;
+    }
+
+    void parse() throws InvalidQueryException {
+        tokenize();
+        if (sql2) {
+            parseSql2();
+        } else {
+            parseXPath();
+        }
+        if (current().kind != END) {
+            throw error("Unexpected '" + current().text + "'");
+        }
+    }
+
+    private void parseSql2() throws InvalidQueryException {
+        expectKeyword("SELECT");
+        while (current().kind != END && !isKeyword("FROM")) {
+            position++;
+        }
+        expectKeyword("FROM");
+        final String nodeTypeName = expectName();
+        if (!"nt:base".equals(nodeTypeName)) {
+            condition = new MockQueryCondition.NodeType(nodeTypeName);
+        }
+        if (isKeyword("AS")) {
+            position++;
+            expectName();
+        } else if (current().kind == NAME && !current().quoted && !isKeyword("WHERE") && !isKeyword("ORDER")) {
+            position++;
+        }
+        if (isKeyword("WHERE")) {
+            position++;
+            and(parseOr());
+        }
+        if (isKeyword("ORDER")) {
+            position++;
+            expectKeyword("BY");
+            do {
+                final String propertyName = parseSql2Operand();
+                boolean descending = false;
+                if (isKeyword("DESC")) {
+                    descending = true;
+                    position++;
+                } else if (isKeyword("ASC")) {
+                    position++;
+                }
+                orderings.add(new Ordering(propertyName, descending));
+            } while (acceptSymbol(","));
+        }
+    }
+
+    private void parseXPath() throws InvalidQueryException {
+        final StringBuilder path = new StringBuilder();
+        if (acceptSymbol("/")) {
+            if (!"jcr:root".equals(current().text)) {
+                throw error("Path must start with /jcr:root");
+            }
+            position++;
+        }
+        while (true) {
+            final boolean descendant;
+            if (acceptSymbol("//")) {
+                descendant = true;
+            } else if (acceptSymbol("/")) {
+                descendant = false;
+            } else {
+                throw error("Expected a path step");
+            }
+            String name = null;
+            String nodeTypeName = null;
+            if (acceptSymbol("*")) {
+                name = null;
+            } else if (isKeyword("element") && "(".equals(peek().text)) {
+                position += 2;
+                name = acceptSymbol("*") ? null : expectName();
+                if (acceptSymbol(",")) {
+                    nodeTypeName = expectName();
+                }
+                expectSymbol(")");
+            } else {
+                name = decode(expectName());
+            }
+            final boolean last = "[".equals(current().text) || current().kind == END || isKeyword("order");
+            if (!last && !descendant && name != null && nodeTypeName == null) {
+                path.append('/').append(name);
+                continue;
+            }
+            if (!last) {
+                throw error("Only the last step of a path may be a descendant step or have a node test");
+            }
+            and(new MockQueryCondition.Path(path.length() == 0 ? "/" : path.toString(), !descendant));
+            if (name != null) {
+                and(new MockQueryCondition.NodeName(name));
+            }
+            if (nodeTypeName != null && !"nt:base".equals(nodeTypeName)) {
+                and(new MockQueryCondition.NodeType(nodeTypeName));
+            }
+            break;
+        }
+        if (acceptSymbol("[")) {
+            and(parseOr());
+            expectSymbol("]");
+        }
+        if (isKeyword("order")) {
+            position++;
+            expectKeyword("by");
+            do {
+                final String propertyName = parseXPathAttribute();
+                boolean descending = false;
+                if (isKeyword("descending")) {
+                    descending = true;
+                    position++;
+                } else if (isKeyword("ascending")) {
+                    position++;
+                }
+                orderings.add(new Ordering(propertyName, descending));
+            } while (acceptSymbol(","));
+        }
+    }
+
+    private void and(final MockQueryCondition andCondition) {
+        condition = condition == null ? andCondition : new MockQueryCondition.And(condition, andCondition);
+    }
+
+    private MockQueryCondition parseOr() throws InvalidQueryException {
+        MockQueryCondition result = parseAnd();
+        while (isKeyword("OR")) {
+            position++;
+            result = new MockQueryCondition.Or(result, parseAnd());
+        }
+        return result;
+    }
+
+    private MockQueryCondition parseAnd() throws InvalidQueryException {
+        MockQueryCondition result = parseNot();
+        while (isKeyword("AND")) {
+            position++;
+            result = new MockQueryCondition.And(result, parseNot());
+        }
+        return result;
+    }
+
+    private MockQueryCondition parseNot() throws InvalidQueryException {
+        if (isKeyword("NOT") && (sql2 || "(".equals(peek().text))) {
+            position++;
+            return new MockQueryCondition.Not(parseNot());
+        }
+        if (acceptSymbol("(")) {
+            final MockQueryCondition result = parseOr();
+            expectSymbol(")");
+            return result;
+        }
+        return sql2 ? parseSql2Constraint() : parseXPathConstraint();
+    }
+
+    private MockQueryCondition parseSql2Constraint() throws InvalidQueryException {
+        if (isKeyword("ISDESCENDANTNODE") || isKeyword("ISCHILDNODE")) {
+            final boolean childrenOnly = isKeyword("ISCHILDNODE");
+            position++;
+            expectSymbol("(");
+            String path = expectPath();
+            if (acceptSymbol(",")) {
+                path = expectPath();
+            }
+            expectSymbol(")");
+            if (path == null) {
+                throw error("Expected a path");
+            }
+            return new MockQueryCondition.Path(path, childrenOnly);
+        }
+        if (isKeyword("CONTAINS")) {
+            position++;
+            expectSymbol("(");
+            String propertyName = parseSql2Operand();
+            if (propertyName.equals("*")) {
+                propertyName = null;
+            }
+            expectSymbol(",");
+            final MockQueryCondition.Literal expression = parseLiteral();
+            expectSymbol(")");
+            return new MockQueryCondition.Contains(propertyName, expression);
+        }
+        final String propertyName = parseSql2Operand();
+        if (isKeyword("IS")) {
+            position++;
+            final boolean not = isKeyword("NOT");
+            if (not) {
+                position++;
+            }
+            expectKeyword("NULL");
+            final MockQueryCondition exists = new MockQueryCondition.Comparison(propertyName, null, null);
+            return not ? exists : new MockQueryCondition.Not(exists);
+        }
+        if (isKeyword("LIKE")) {
+            position++;
+            return new MockQueryCondition.Like(propertyName, parseLiteral());
+        }
+        final String operator = expectOperator();
+        return new MockQueryCondition.Comparison(propertyName, operator, parseLiteral());
+    }
+
+    /**
+     * @return the property name of "selector.[property]", "[property]" or "selector.*"
+     */
+    private String parseSql2Operand() throws InvalidQueryException {
+        if (acceptSymbol("*")) {
+            return "*";
+        }
+        String name = expectName();
+        if (acceptSymbol(".")) {
+            name = acceptSymbol("*") ? "*" : expectName();
+        }
+        return name;
+    }
+
+    private String expectPath() throws InvalidQueryException {
+        final Token token = current();
+        if (token.kind == STRING || (token.kind == NAME && token.text.startsWith("/"))) {
+            position++;
+            return token.text;
+        }
+        // a selector name
+        expectName();
+        return null;
+    }
+
+    private MockQueryCondition parseXPathConstraint() throws InvalidQueryException {
+        if (isKeyword("jcr:like")) {
+            position++;
+            expectSymbol("(");
+            final String propertyName = parseXPathAttribute();
+            expectSymbol(",");
+            final MockQueryCondition.Literal pattern = parseLiteral();
+            expectSymbol(")");
+            return new MockQueryCondition.Like(propertyName, pattern);
+        }
+        if (isKeyword("jcr:contains")) {
+            position++;
+            expectSymbol("(");
+            final String propertyName = acceptSymbol(".") ? null : parseXPathAttribute();
+            expectSymbol(",");
+            final MockQueryCondition.Literal expression = parseLiteral();
+            expectSymbol(")");
+            return new MockQueryCondition.Contains(propertyName, expression);
+        }
+        final String propertyName = parseXPathAttribute();
+        if (current().kind != SYMBOL || !isOperator(current().text)) {
+            return new MockQueryCondition.Comparison(propertyName, null, null);
+        }
+        final String operator = expectOperator();
+        return new MockQueryCondition.Comparison(propertyName, operator, parseLiteral());
+    }
+
+    private String parseXPathAttribute() throws InvalidQueryException {
+        expectSymbol("@");
+        return decode(expectName());
+    }
+
+    private MockQueryCondition.Literal parseLiteral() throws InvalidQueryException {
+        final Token token = current();
+        if (token.kind == STRING || token.kind == NUMBER) {
+            position++;
+            return new MockQueryCondition.Literal(token.text, null);
+        }
+        if (token.kind == SYMBOL && "$".equals(token.text) && sql2) {
+            position++;
+            final String name = expectName();
+            final MockQueryCondition.Literal literal = new MockQueryCondition.Literal(null, name);
+            bindVariables.add(literal);
+            return literal;
+        }
+        if (isKeyword("CAST") && sql2) {
+            position++;
+            expectSymbol("(");
+            final MockQueryCondition.Literal literal = parseLiteral();
+            expectKeyword("AS");
+            expectName();
+            expectSymbol(")");
+            return literal;
+        }
+        if ((isKeyword("xs:dateTime") || isKeyword("xs:decimal")) && !sql2) {
+            position++;
+            expectSymbol("(");
+            final MockQueryCondition.Literal literal = parseLiteral();
+            expectSymbol(")");
+            return literal;
+        }
+        if (isKeyword("true") || isKeyword("false")) {
+            position++;
+            if (!sql2) {
+                expectSymbol("(");
+                expectSymbol(")");
+            }
+            return new MockQueryCondition.Literal(token.text.toLowerCase(), null);
+        }
+        throw error("Expected a literal instead of '" + token.text + "'");
+    }
+
+    private static boolean isOperator(final String text) {
+        return "=".equals(text) || "!=".equals(text) || "<>".equals(text) || "<".equals(text)
+                || "<=".equals(text) || ">".equals(text) || ">=".equals(text);
+    }
+
+    private String expectOperator() throws InvalidQueryException {
+        final Token token = current();
+        if (token.kind != SYMBOL || !isOperator(token.text)) {
+            throw error("Expected an operator instead of '" + token.text + "'");
+        }
+        position++;
+        return "!=".equals(token.text) ? MockQueryCondition.NE : token.text;
+    }
+
+    /**
+     * Decodes the ISO 9075 escapes of XPath names, like _x0033_ for a leading 3.
+     */
+    private static String decode(final String name) {
+        if (name.indexOf("_x") == -1) {
+            return name;
+        }
+        final StringBuilder decoded = new StringBuilder(name.length());
+        int i = 0;
+        while (i < name.length()) {
+            if (name.startsWith("_x", i) && i + 7 <= name.length() && name.charAt(i + 6) == '_') {
+                try {
+                    decoded.append((char) Integer.parseInt(name.substring(i + 2, i + 6), 16));
+                    i += 7;
+                    continue;
+                } catch (NumberFormatException e) {
+                    // not an escape
+                }
+            }
+            decoded.append(name.charAt(i++));
+        }
+        return decoded.toString();
+    }
+
+    private Token current() {
+        return tokens.get(position);
+    }
+
+    private Token peek() {
+        return tokens.get(Math.min(position + 1, tokens.size() - 1));
+    }
+
+    private boolean isKeyword(final String keyword) {
+        final Token token = current();
+        return token.kind == NAME && !token.quoted && keyword.equalsIgnoreCase(token.text);
+    }
+
+    private void expectKeyword(final String keyword) throws InvalidQueryException {
+        if (!isKeyword(keyword)) {
+            throw error("Expected " + keyword + " instead of '" + current().text + "'");
+        }
+        position++;
+    }
+
+    private String expectName() throws InvalidQueryException {
+        final Token token = current();
+        if (token.kind != NAME) {
+            throw error("Expected a name instead of '" + token.text + "'");
+        }
+        position++;
+        return token.text;
+    }
+
+    private boolean acceptSymbol(final String symbol) {
+        final Token token = current();
+        if (token.kind == SYMBOL && symbol.equals(token.text)) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expectSymbol(final String symbol) throws InvalidQueryException {
+        if (!acceptSymbol(symbol)) {
+            throw error("Expected '" + symbol + "' instead of '" + current().text + "'");
+        }
+    }
+
+    private InvalidQueryException error(final String message) {
+        return new InvalidQueryException(message + " in query: " + statement);
+    }
+
+    private void tokenize() throws InvalidQueryException {
+        final int length = statement.length();
+        int i = 0;
+        while (i < length) {
+            final char c = statement.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '\'' || c == '"') {
+                final StringBuilder text = new StringBuilder();
+                int end = i + 1;
+                while (true) {
+                    if (end >= length) {
+                        throw error("Unterminated string");
+                    }
+                    if (statement.charAt(end) == c) {
+                        if (end + 1 < length && statement.charAt(end + 1) == c) {
+                            text.append(c);
+                            end += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    text.append(statement.charAt(end++));
+                }
+                tokens.add(new Token(STRING, text.toString(), false));
+                i = end + 1;
+            } else if (c == '[' && sql2) {
+                final int end = statement.indexOf(']', i);
+                if (end == -1) {
+                    throw error("Unterminated name");
+                }
+                tokens.add(new Token(NAME, statement.substring(i + 1, end), true));
+                i = end + 1;
+            } else if (Character.isDigit(c) || (c == '-' && i + 1 < length && Character.isDigit(statement.charAt(i + 1)))) {
+                int end = i + 1;
+                while (end < length && (Character.isDigit(statement.charAt(end)) || statement.charAt(end) == '.'
+                        || statement.charAt(end) == 'E' || statement.charAt(end) == 'e')) {
+                    end++;
+                }
+                tokens.add(new Token(NUMBER, statement.substring(i, end), false));
+                i = end;
+            } else if (isNameChar(c) && c != '-') {
+                int end = i + 1;
+                while (end < length && isNameChar(statement.charAt(end))) {
+                    end++;
+                }
+                tokens.add(new Token(NAME, statement.substring(i, end), false));
+                i = end;
+            } else {
+                final String two = i + 1 < length ? statement.substring(i, i + 2) : "";
+                if ("//".equals(two) || "<=".equals(two) || ">=".equals(two) || "<>".equals(two) || "!=".equals(two)) {
+                    tokens.add(new Token(SYMBOL, two, false));
+                    i += 2;
+                } else {
+                    tokens.add(new Token(SYMBOL, String.valueOf(c), false));
+                    i++;
+                }
+            }
+        }
+        tokens.add(new Token(END, "end of statement", false));
+    }
+
+    private static boolean isNameChar(final char c) {
+        return Character.isLetterOrDigit(c) || c == ':' || c == '_' || c == '-';
+    }
+
+    /**
+     * Sort key of a query result.
+     */
+    static class Ordering {
+        private final String propertyName;
+        private final boolean descending;
+
+        Ordering(final String propertyName, final boolean descending) {
+            this.propertyName = propertyName;
+            this.descending = descending;
+        }
+
+        String getPropertyName() {
+            return propertyName;
+        }
+
+        boolean isDescending() {
+            return descending;
+        }
+    }
+
+    private static class Token {
+        private final int kind;
+        private final String text;
+        // a bracketed JCR-SQL2 name, never a keyword
+        private final boolean quoted;
+
+        Token(final int kind, final String text, final boolean quoted) {
+            this.kind = kind;
+            this.text = text;
+            this.quoted = quoted;
+        }
+    }
+}
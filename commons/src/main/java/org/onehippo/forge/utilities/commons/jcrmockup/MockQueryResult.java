@@ -0,0 +1,162 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.commons.jcrmockup;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import javax.jcr.Node;
+import javax.jcr.NodeIterator;
+import javax.jcr.PropertyType;
+import javax.jcr.RepositoryException;
+import javax.jcr.Value;
+import javax.jcr.query.QueryResult;
+import javax.jcr.query.Row;
+import javax.jcr.query.RowIterator;
+
+/**
+ * Result of a {@link MockQuery}: the matching nodes, as nodes or as rows with the jcr:path and jcr:score columns.
+ */
+class MockQueryResult implements QueryResult {
+
+    private static final String PATH = "jcr:path";
+    private static final String SCORE = "jcr:score";
+    private static final String[] COLUMN_NAMES = {PATH, SCORE};
+    private static final String[] SELECTOR_NAMES = {"s"};
+
+    private final List<Node> nodes;
+
+    MockQueryResult(final List<Node> nodes) {
+        this.nodes = nodes;
+    }
+
+    public String[] getColumnNames() {
+        return COLUMN_NAMES.clone();
+    }
+
+    public RowIterator getRows() {
+        return new ResultRowIterator();
+    }
+
+    public NodeIterator getNodes() {
+        return new ResultNodeIterator();
+    }
+
+    public String[] getSelectorNames() {
+        return SELECTOR_NAMES.clone();
+    }
+
+    private abstract class ResultIterator {
+        private int position;
+
+        Node nextResultNode() {
+            if (position >= nodes.size()) {
+                throw new NoSuchElementException();
+            }
+            return nodes.get(position++);
+        }
+
+        public boolean hasNext() {
+            return position < nodes.size();
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException("The method remove is not supported");
+        }
+
+        public void skip(final long skipNum) {
+            if (skipNum < 0 || position + skipNum > nodes.size()) {
+                throw new NoSuchElementException();
+            }
+            position += (int) skipNum;
+        }
+
+        public long getSize() {
+            return nodes.size();
+        }
+
+        public long getPosition() {
+            return position;
+        }
+    }
+
+    private class ResultNodeIterator extends ResultIterator implements NodeIterator {
+        public Node nextNode() {
+            return nextResultNode();
+        }
+
+        public Object next() {
+            return nextNode();
+        }
+    }
+
+    private class ResultRowIterator extends ResultIterator implements RowIterator {
+        public Row nextRow() {
+            return new ResultRow(nextResultNode());
+        }
+
+        public Object next() {
+            return nextRow();
+        }
+    }
+
+    private static class ResultRow implements Row {
+        private final Node node;
+
+        ResultRow(final Node node) {
+            this.node = node;
+        }
+
+        public Value[] getValues() throws RepositoryException {
+            return new Value[]{getValue(PATH), getValue(SCORE)};
+        }
+
+        public Value getValue(final String columnName) throws RepositoryException {
+            if (PATH.equals(columnName)) {
+                return new SimpleJcrValue(node.getPath(), PropertyType.PATH);
+            }
+            if (SCORE.equals(columnName)) {
+                return new SimpleJcrValue("1.0", PropertyType.DOUBLE);
+            }
+            return node.hasProperty(columnName) ? node.getProperty(columnName).getValue() : null;
+        }
+
+        public Node getNode() {
+            return node;
+        }
+
+        public Node getNode(final String selectorName) {
+            return node;
+        }
+
+        public String getPath() throws RepositoryException {
+            return node.getPath();
+        }
+
+        public String getPath(final String selectorName) throws RepositoryException {
+            return node.getPath();
+        }
+
+        public double getScore() {
+            return 1.0;
+        }
+
+        public double getScore(final String selectorName) {
+            return 1.0;
+        }
+    }
+}
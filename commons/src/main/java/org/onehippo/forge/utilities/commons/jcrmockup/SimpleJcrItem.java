@@ -0,0 +1,80 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.commons.jcrmockup;
+
+import javax.jcr.Item;
+import javax.jcr.ItemNotFoundException;
+import javax.jcr.Node;
+import javax.jcr.RepositoryException;
+
+/**
+ * Common javax.jcr.Item behaviour of {@link SimpleJcrNode} and {@link SimpleJcrProperty}.
+ */
+public abstract class SimpleJcrItem implements Item {
+
+    private final SimpleJcrSession session;
+
+    protected SimpleJcrItem(final SimpleJcrSession session) {
+        this.session = session;
+    }
+
+    public SimpleJcrSession getSession() {
+        return session;
+    }
+
+    public Item getAncestor(final int depth) throws RepositoryException {
+        final int ownDepth = getDepth();
+        if (depth < 0 || depth > ownDepth) {
+            throw new ItemNotFoundException("No ancestor at depth " + depth + " of '" + getPath() + "'");
+        }
+        Item ancestor = this;
+        for (int i = ownDepth; i > depth; i--) {
+            ancestor = ancestor.getParent();
+        }
+        return ancestor;
+    }
+
+    public int getDepth() throws RepositoryException {
+        int depth = 0;
+        Node parent = isNode() && ((SimpleJcrNode) this).isRoot() ? null : getParent();
+        while (parent != null) {
+            depth++;
+            parent = ((SimpleJcrNode) parent).isRoot() ? null : parent.getParent();
+        }
+        return depth;
+    }
+
+    public boolean isNew() {
+        return false;
+    }
+
+    public boolean isModified() {
+        return false;
+    }
+
+    public boolean isSame(final Item otherItem) {
+        return this == otherItem;
+    }
+
+    public void save() {
+        // changes are applied to the mock tree directly
+    }
+
+    public void refresh(final boolean keepChanges) {
+        // changes are applied to the mock tree directly
+    }
+}
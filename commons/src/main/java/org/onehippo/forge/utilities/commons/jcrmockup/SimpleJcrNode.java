@@ -0,0 +1,545 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.commons.jcrmockup;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+
+import javax.jcr.Binary;
+import javax.jcr.Item;
+import javax.jcr.ItemNotFoundException;
+import javax.jcr.ItemVisitor;
+import javax.jcr.Node;
+import javax.jcr.NodeIterator;
+import javax.jcr.PathNotFoundException;
+import javax.jcr.Property;
+import javax.jcr.PropertyIterator;
+import javax.jcr.PropertyType;
+import javax.jcr.RepositoryException;
+import javax.jcr.Value;
+import javax.jcr.lock.Lock;
+import javax.jcr.nodetype.NodeDefinition;
+import javax.jcr.nodetype.NodeType;
+import javax.jcr.version.Version;
+import javax.jcr.version.VersionHistory;
+
+/**
+ * Plain java javax.jcr.Node backed by a {@link MockNode}. Obtain instances through
+ * {@link SimpleJcrSession#getJcrNode(MockNode)}.
+ */
+public class SimpleJcrNode extends SimpleJcrItem implements Node {
+
+    private static final String PRIMARY_TYPE = "jcr:primaryType";
+    private static final String MIXIN_TYPES = "jcr:mixinTypes";
+    private static final String UUID = "jcr:uuid";
+
+    private final MockNode mockNode;
+
+    SimpleJcrNode(final SimpleJcrSession session, final MockNode mockNode) {
+        super(session);
+        this.mockNode = mockNode;
+    }
+
+    public MockNode getMockNode() {
+        return mockNode;
+    }
+
+    boolean isRoot() {
+        return mockNode == getSession().getRootMockNode();
+    }
+
+    /**
+     * Matches a name against JCR name globs, where '*' matches any sequence of characters.
+     */
+    static boolean matches(final String name, final String[] nameGlobs) {
+        for (String glob : nameGlobs) {
+            if (matches(name, 0, glob.trim(), 0)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matches(final String name, final int namePos, final String glob, final int globPos) {
+        if (globPos == glob.length()) {
+            return namePos == name.length();
+        }
+        final char c = glob.charAt(globPos);
+        if (c == '*') {
+            for (int i = namePos; i <= name.length(); i++) {
+                if (matches(name, i, glob, globPos + 1)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return namePos < name.length() && name.charAt(namePos) == c && matches(name, namePos + 1, glob, globPos + 1);
+    }
+
+    private static String[] splitNamePattern(final String namePattern) {
+        return namePattern.split("\\|");
+    }
+
+    private Property setMockProperty(final String name, final String type, final List<String> values) {
+        MockProperty mockProperty = mockNode.getMockProperty(name);
+        if (mockProperty == null) {
+            mockProperty = new MockProperty();
+            mockProperty.setMockPropertyName(name);
+            mockNode.setMockProperty(mockProperty);
+        }
+        // update in place, so existing wrappers of the property see the new value
+        mockProperty.setMockPropertyType(type);
+        mockProperty.setMockValues(values);
+        return getSession().getJcrProperty(mockProperty);
+    }
+
+    private Property removeMockProperty(final String name) {
+        final MockProperty existing = mockNode.getMockProperty(name);
+        if (existing != null) {
+            existing.setRemoved(true);
+        }
+        return null;
+    }
+
+    private List<String> getMockValues(final String propertyName) {
+        final MockProperty mockProperty = mockNode.getMockProperty(propertyName);
+        if (mockProperty == null || mockProperty.getMockValues() == null) {
+            return Collections.emptyList();
+        }
+        return mockProperty.getMockValues();
+    }
+
+    public String getPath() {
+        return isRoot() ? "/" : mockNode.getPath();
+    }
+
+    public String getName() {
+        return mockNode.getMockNodeName();
+    }
+
+    public Node getParent() throws RepositoryException {
+        if (isRoot() || mockNode.getParent() == null) {
+            throw new ItemNotFoundException("The root node has no parent");
+        }
+        return getSession().getJcrNode(mockNode.getParent());
+    }
+
+    public boolean isNode() {
+        return true;
+    }
+
+    public void accept(final ItemVisitor visitor) throws RepositoryException {
+        visitor.visit(this);
+    }
+
+    public void remove() {
+        if (isRoot()) {
+            throw new UnsupportedOperationException("The root node cannot be removed");
+        }
+        mockNode.setRemoved(true);
+    }
+
+    public Node addNode(final String relPath) throws RepositoryException {
+        return addNode(relPath, null);
+    }
+
+    public Node addNode(final String relPath, final String primaryNodeTypeName) throws RepositoryException {
+        final int slash = relPath.lastIndexOf('/');
+        final MockNode parent = slash == -1 ? mockNode : getSession().resolveNode(mockNode, relPath.substring(0, slash));
+        if (parent == null) {
+            throw new PathNotFoundException("Parent of '" + relPath + "' does not exist");
+        }
+        final MockNode newChild = new MockNode();
+        newChild.setMockNodeName(relPath.substring(slash + 1));
+        if (primaryNodeTypeName != null) {
+            final MockProperty typeProperty = new MockProperty();
+            typeProperty.setMockPropertyName(PRIMARY_TYPE);
+            typeProperty.setMockPropertyType("Name");
+            typeProperty.setMockValues(Collections.singletonList(primaryNodeTypeName));
+            newChild.setMockProperty(typeProperty);
+        }
+        parent.addMockChildNode(newChild);
+        return getSession().getJcrNode(newChild);
+    }
+
+    public void orderBefore(final String srcChildRelPath, final String destChildRelPath) {
+        throw new UnsupportedOperationException("The method orderBefore is not supported");
+    }
+
+    public Property setProperty(final String name, final Value value) throws RepositoryException {
+        if (value == null) {
+            return removeMockProperty(name);
+        }
+        return setMockProperty(name, PropertyType.nameFromValue(value.getType()),
+                Collections.singletonList(value.getString()));
+    }
+
+    public Property setProperty(final String name, final Value value, final int type) throws RepositoryException {
+        if (value == null) {
+            return removeMockProperty(name);
+        }
+        return setMockProperty(name, PropertyType.nameFromValue(type), Collections.singletonList(value.getString()));
+    }
+
+    public Property setProperty(final String name, final Value[] values) throws RepositoryException {
+        if (values == null) {
+            return removeMockProperty(name);
+        }
+        final int type = values.length > 0 && values[0] != null ? values[0].getType() : PropertyType.STRING;
+        return setProperty(name, values, type);
+    }
+
+    public Property setProperty(final String name, final Value[] values, final int type) throws RepositoryException {
+        if (values == null) {
+            return removeMockProperty(name);
+        }
+        final List<String> strings = new ArrayList<String>(values.length);
+        for (Value value : values) {
+            if (value != null) {
+                strings.add(value.getString());
+            }
+        }
+        return setMockProperty(name, PropertyType.nameFromValue(type), strings);
+    }
+
+    public Property setProperty(final String name, final String[] values) {
+        if (values == null) {
+            return removeMockProperty(name);
+        }
+        return setMockProperty(name, "String", new ArrayList<String>(Arrays.asList(values)));
+    }
+
+    public Property setProperty(final String name, final String[] values, final int type) {
+        if (values == null) {
+            return removeMockProperty(name);
+        }
+        return setMockProperty(name, PropertyType.nameFromValue(type), new ArrayList<String>(Arrays.asList(values)));
+    }
+
+    public Property setProperty(final String name, final String value) {
+        if (value == null) {
+            return removeMockProperty(name);
+        }
+        return setMockProperty(name, "String", Collections.singletonList(value));
+    }
+
+    public Property setProperty(final String name, final String value, final int type) {
+        if (value == null) {
+            return removeMockProperty(name);
+        }
+        return setMockProperty(name, PropertyType.nameFromValue(type), Collections.singletonList(value));
+    }
+
+    public Property setProperty(final String name, final InputStream value) {
+        throw new UnsupportedOperationException("Binary properties are not supported");
+    }
+
+    public Property setProperty(final String name, final Binary value) {
+        throw new UnsupportedOperationException("Binary properties are not supported");
+    }
+
+    public Property setProperty(final String name, final boolean value) {
+        return setMockProperty(name, "Boolean", Collections.singletonList(String.valueOf(value)));
+    }
+
+    public Property setProperty(final String name, final double value) {
+        return setMockProperty(name, "Double", Collections.singletonList(String.valueOf(value)));
+    }
+
+    public Property setProperty(final String name, final BigDecimal value) {
+        if (value == null) {
+            return removeMockProperty(name);
+        }
+        return setMockProperty(name, "Decimal", Collections.singletonList(value.toString()));
+    }
+
+    public Property setProperty(final String name, final long value) {
+        return setMockProperty(name, "Long", Collections.singletonList(String.valueOf(value)));
+    }
+
+    public Property setProperty(final String name, final Calendar value) {
+        if (value == null) {
+            return removeMockProperty(name);
+        }
+        return setMockProperty(name, "Date", Collections.singletonList(ISO8601.format(value)));
+    }
+
+    public Property setProperty(final String name, final Node value) throws RepositoryException {
+        if (value == null) {
+            return removeMockProperty(name);
+        }
+        return setMockProperty(name, "Reference", Collections.singletonList(value.getIdentifier()));
+    }
+
+    public Node getNode(final String relPath) throws RepositoryException {
+        final MockNode child = getSession().resolveNode(mockNode, relPath);
+        if (child == null) {
+            throw new PathNotFoundException("Node '" + relPath + "' does not exist");
+        }
+        return getSession().getJcrNode(child);
+    }
+
+    public NodeIterator getNodes() {
+        return new SimpleJcrNodeIterator(getSession(), mockNode.getMockChildNodes());
+    }
+
+    public NodeIterator getNodes(final String namePattern) {
+        if (namePattern.indexOf('*') == -1 && namePattern.indexOf('|') == -1) {
+            return new SimpleJcrNodeIterator(getSession(), mockNode.getMockChildNodesByName(namePattern.trim()));
+        }
+        return getNodes(splitNamePattern(namePattern));
+    }
+
+    public NodeIterator getNodes(final String[] nameGlobs) {
+        final List<MockNode> children = new ArrayList<MockNode>();
+        for (MockNode child : mockNode.getMockChildNodes()) {
+            if (matches(child.getMockNodeName(), nameGlobs)) {
+                children.add(child);
+            }
+        }
+        return new SimpleJcrNodeIterator(getSession(), children);
+    }
+
+    public Property getProperty(final String relPath) throws RepositoryException {
+        final MockProperty mockProperty = getSession().resolveProperty(mockNode, relPath);
+        if (mockProperty == null) {
+            throw new PathNotFoundException("Property '" + relPath + "' does not exist");
+        }
+        return getSession().getJcrProperty(mockProperty);
+    }
+
+    public PropertyIterator getProperties() {
+        return new SimpleJcrPropertyIterator(getSession(), mockNode.getMockProperties());
+    }
+
+    public PropertyIterator getProperties(final String namePattern) {
+        return getProperties(splitNamePattern(namePattern));
+    }
+
+    public PropertyIterator getProperties(final String[] nameGlobs) {
+        final List<MockProperty> properties = new ArrayList<MockProperty>();
+        for (MockProperty property : mockNode.getMockProperties()) {
+            if (matches(property.getMockPropertyName(), nameGlobs)) {
+                properties.add(property);
+            }
+        }
+        return new SimpleJcrPropertyIterator(getSession(), properties);
+    }
+
+    public Item getPrimaryItem() throws RepositoryException {
+        throw new ItemNotFoundException("Node '" + getPath() + "' has no primary item");
+    }
+
+    public String getUUID() {
+        return getIdentifier();
+    }
+
+    public String getIdentifier() {
+        final List<String> values = getMockValues(UUID);
+        return values.size() == 1 ? values.get(0) : null;
+    }
+
+    public int getIndex() {
+        return isRoot() ? 1 : mockNode.getIndex();
+    }
+
+    public PropertyIterator getReferences() {
+        throw new UnsupportedOperationException("The method getReferences is not supported");
+    }
+
+    public PropertyIterator getReferences(final String name) {
+        throw new UnsupportedOperationException("The method getReferences is not supported");
+    }
+
+    public PropertyIterator getWeakReferences() {
+        throw new UnsupportedOperationException("The method getWeakReferences is not supported");
+    }
+
+    public PropertyIterator getWeakReferences(final String name) {
+        throw new UnsupportedOperationException("The method getWeakReferences is not supported");
+    }
+
+    public boolean hasNode(final String relPath) {
+        return getSession().resolveNode(mockNode, relPath) != null;
+    }
+
+    public boolean hasProperty(final String relPath) {
+        return getSession().resolveProperty(mockNode, relPath) != null;
+    }
+
+    public boolean hasNodes() {
+        return !mockNode.getMockChildNodes().isEmpty();
+    }
+
+    public boolean hasProperties() {
+        return !mockNode.getMockProperties().isEmpty();
+    }
+
+    public NodeType getPrimaryNodeType() {
+        final List<String> values = getMockValues(PRIMARY_TYPE);
+        return new SimpleJcrNodeType(values.isEmpty() ? "nt:base" : values.get(0), false);
+    }
+
+    public NodeType[] getMixinNodeTypes() {
+        final List<String> values = getMockValues(MIXIN_TYPES);
+        final NodeType[] nodeTypes = new NodeType[values.size()];
+        for (int i = 0; i < nodeTypes.length; i++) {
+            nodeTypes[i] = new SimpleJcrNodeType(values.get(i), true);
+        }
+        return nodeTypes;
+    }
+
+    /**
+     * Checks the primary type and the mixin types by name; sub types are not supported.
+     */
+    public boolean isNodeType(final String nodeTypeName) {
+        return getMockValues(PRIMARY_TYPE).contains(nodeTypeName) || getMockValues(MIXIN_TYPES).contains(nodeTypeName);
+    }
+
+    public void setPrimaryType(final String nodeTypeName) {
+        setMockProperty(PRIMARY_TYPE, "Name", Collections.singletonList(nodeTypeName));
+    }
+
+    public void addMixin(final String mixinName) {
+        final List<String> mixins = new ArrayList<String>(getMockValues(MIXIN_TYPES));
+        if (!mixins.contains(mixinName)) {
+            mixins.add(mixinName);
+            setMockProperty(MIXIN_TYPES, "Name", mixins);
+        }
+    }
+
+    public void removeMixin(final String mixinName) {
+        final List<String> mixins = new ArrayList<String>(getMockValues(MIXIN_TYPES));
+        if (mixins.remove(mixinName)) {
+            setMockProperty(MIXIN_TYPES, "Name", mixins);
+        }
+    }
+
+    public boolean canAddMixin(final String mixinName) {
+        return true;
+    }
+
+    public NodeDefinition getDefinition() {
+        throw new UnsupportedOperationException("The method getDefinition is not supported");
+    }
+
+    public Version checkin() {
+        throw new UnsupportedOperationException("The method checkin is not supported");
+    }
+
+    public void checkout() {
+        // nodes are always checked out
+    }
+
+    public void doneMerge(final Version version) {
+        throw new UnsupportedOperationException("The method doneMerge is not supported");
+    }
+
+    public void cancelMerge(final Version version) {
+        throw new UnsupportedOperationException("The method cancelMerge is not supported");
+    }
+
+    public void update(final String srcWorkspace) {
+        throw new UnsupportedOperationException("Workspaces are not supported");
+    }
+
+    public NodeIterator merge(final String srcWorkspace, final boolean bestEffort) {
+        throw new UnsupportedOperationException("Workspaces are not supported");
+    }
+
+    public String getCorrespondingNodePath(final String workspaceName) {
+        throw new UnsupportedOperationException("Workspaces are not supported");
+    }
+
+    public NodeIterator getSharedSet() {
+        throw new UnsupportedOperationException("The method getSharedSet is not supported");
+    }
+
+    public void removeSharedSet() {
+        throw new UnsupportedOperationException("The method removeSharedSet is not supported");
+    }
+
+    public void removeShare() {
+        throw new UnsupportedOperationException("The method removeShare is not supported");
+    }
+
+    public boolean isCheckedOut() {
+        return true;
+    }
+
+    public void restore(final String versionName, final boolean removeExisting) {
+        throw new UnsupportedOperationException("The method restore is not supported");
+    }
+
+    public void restore(final Version version, final boolean removeExisting) {
+        throw new UnsupportedOperationException("The method restore is not supported");
+    }
+
+    public void restore(final Version version, final String relPath, final boolean removeExisting) {
+        throw new UnsupportedOperationException("The method restore is not supported");
+    }
+
+    public void restoreByLabel(final String versionLabel, final boolean removeExisting) {
+        throw new UnsupportedOperationException("The method restoreByLabel is not supported");
+    }
+
+    public VersionHistory getVersionHistory() {
+        throw new UnsupportedOperationException("The method getVersionHistory is not supported");
+    }
+
+    public Version getBaseVersion() {
+        throw new UnsupportedOperationException("The method getBaseVersion is not supported");
+    }
+
+    public Lock lock(final boolean isDeep, final boolean isSessionScoped) {
+        throw new UnsupportedOperationException("The method lock is not supported");
+    }
+
+    public Lock getLock() {
+        throw new UnsupportedOperationException("The method getLock is not supported");
+    }
+
+    public void unlock() {
+        throw new UnsupportedOperationException("The method unlock is not supported");
+    }
+
+    public boolean holdsLock() {
+        return false;
+    }
+
+    public boolean isLocked() {
+        return false;
+    }
+
+    public void followLifecycleTransition(final String transition) {
+        throw new UnsupportedOperationException("The method followLifecycleTransition is not supported");
+    }
+
+    public String[] getAllowedLifecycleTransistions() {
+        return new String[0];
+    }
+
+    @Override
+    public String toString() {
+        return "SimpleJcrNode{" + getPath() + '}';
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.commons.jcrmockup;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import javax.jcr.Node;
+import javax.jcr.NodeIterator;
+
+/**
+ * javax.jcr.NodeIterator over a snapshot of mock nodes, wrapping them on access.
+ */
+class SimpleJcrNodeIterator implements NodeIterator {
+
+    private final SimpleJcrSession session;
+    private final List<MockNode> nodes;
+    private int position;
+
+    SimpleJcrNodeIterator(final SimpleJcrSession session, final List<MockNode> nodes) {
+        this.session = session;
+        this.nodes = nodes;
+    }
+
+    public Node nextNode() {
+        if (position >= nodes.size()) {
+            throw new NoSuchElementException();
+        }
+        return session.getJcrNode(nodes.get(position++));
+    }
+
+    public Object next() {
+        return nextNode();
+    }
+
+    public boolean hasNext() {
+        return position < nodes.size();
+    }
+
+    /**
+     * Removes the last returned node from the tree.
+     */
+    public void remove() {
+        if (position == 0) {
+            throw new IllegalStateException("next() has not been called");
+        }
+        nodes.get(position - 1).setRemoved(true);
+    }
+
+    public void skip(final long skipNum) {
+        if (skipNum < 0 || position + skipNum > nodes.size()) {
+            throw new NoSuchElementException();
+        }
+        position += (int) skipNum;
+    }
+
+    public long getSize() {
+        return nodes.size();
+    }
+
+    public long getPosition() {
+        return position;
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.commons.jcrmockup;
+
+import javax.jcr.Value;
+import javax.jcr.nodetype.NodeDefinition;
+import javax.jcr.nodetype.NodeType;
+import javax.jcr.nodetype.NodeTypeIterator;
+import javax.jcr.nodetype.PropertyDefinition;
+
+/**
+ * Name only javax.jcr.nodetype.NodeType: there are no node type definitions in the mock, so type hierarchy and
+ * item definitions are unknown and all changes are allowed.
+ */
+class SimpleJcrNodeType implements NodeType {
+
+    private final String name;
+    private final boolean mixin;
+
+    SimpleJcrNodeType(final String name, final boolean mixin) {
+        this.name = name;
+        this.mixin = mixin;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String[] getDeclaredSupertypeNames() {
+        return new String[0];
+    }
+
+    public boolean isAbstract() {
+        return false;
+    }
+
+    public boolean isMixin() {
+        return mixin;
+    }
+
+    public boolean hasOrderableChildNodes() {
+        return true;
+    }
+
+    public boolean isQueryable() {
+        return true;
+    }
+
+    public String getPrimaryItemName() {
+        return null;
+    }
+
+    public PropertyDefinition[] getDeclaredPropertyDefinitions() {
+        return new PropertyDefinition[0];
+    }
+
+    public NodeDefinition[] getDeclaredChildNodeDefinitions() {
+        return new NodeDefinition[0];
+    }
+
+    public NodeType[] getSupertypes() {
+        return new NodeType[0];
+    }
+
+    public NodeType[] getDeclaredSupertypes() {
+        return new NodeType[0];
+    }
+
+    public NodeTypeIterator getSubtypes() {
+        throw new UnsupportedOperationException("The method getSubtypes is not supported");
+    }
+
+    public NodeTypeIterator getDeclaredSubtypes() {
+        throw new UnsupportedOperationException("The method getDeclaredSubtypes is not supported");
+    }
+
+    public boolean isNodeType(final String nodeTypeName) {
+        return name.equals(nodeTypeName);
+    }
+
+    public PropertyDefinition[] getPropertyDefinitions() {
+        return new PropertyDefinition[0];
+    }
+
+    public NodeDefinition[] getChildNodeDefinitions() {
+        return new NodeDefinition[0];
+    }
+
+    public boolean canSetProperty(final String propertyName, final Value value) {
+        return true;
+    }
+
+    public boolean canSetProperty(final String propertyName, final Value[] values) {
+        return true;
+    }
+
+    public boolean canAddChildNode(final String childNodeName) {
+        return true;
+    }
+
+    public boolean canAddChildNode(final String childNodeName, final String nodeTypeName) {
+        return true;
+    }
+
+    public boolean canRemoveItem(final String itemName) {
+        return true;
+    }
+
+    public boolean canRemoveNode(final String nodeName) {
+        return true;
+    }
+
+    public boolean canRemoveProperty(final String propertyName) {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,306 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.commons.jcrmockup;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.Calendar;
+import java.util.List;
+
+import javax.jcr.Binary;
+import javax.jcr.ItemVisitor;
+import javax.jcr.Node;
+import javax.jcr.Property;
+import javax.jcr.RepositoryException;
+import javax.jcr.Value;
+import javax.jcr.ValueFormatException;
+import javax.jcr.nodetype.NodeType;
+import javax.jcr.nodetype.PropertyDefinition;
+import javax.jcr.version.OnParentVersionAction;
+
+/**
+ * Plain java javax.jcr.Property backed by a {@link MockProperty}. Obtain instances through
+ * {@link SimpleJcrSession#getJcrProperty(MockProperty)}.
+ */
+public class SimpleJcrProperty extends SimpleJcrItem implements Property {
+
+    private final MockProperty mockProperty;
+
+    SimpleJcrProperty(final SimpleJcrSession session, final MockProperty mockProperty) {
+        super(session);
+        this.mockProperty = mockProperty;
+    }
+
+    public MockProperty getMockProperty() {
+        return mockProperty;
+    }
+
+    private SimpleJcrNode getParentNode() {
+        return getSession().getJcrNode(mockProperty.getParent());
+    }
+
+    private Value getSingleValue() throws ValueFormatException {
+        final List<String> values = mockProperty.getMockValues();
+        if (isMultiple()) {
+            throw new ValueFormatException("Property '" + mockProperty.getMockPropertyName() + "' is multi-valued");
+        }
+        return new SimpleJcrValue(values.get(0), getType());
+    }
+
+    public String getPath() {
+        final String parentPath = getParentNode().getPath();
+        return "/".equals(parentPath) ? parentPath + getName() : parentPath + "/" + getName();
+    }
+
+    public String getName() {
+        return mockProperty.getMockPropertyName();
+    }
+
+    public Node getParent() {
+        return getParentNode();
+    }
+
+    @Override
+    public int getDepth() throws RepositoryException {
+        return getParentNode().getDepth() + 1;
+    }
+
+    public boolean isNode() {
+        return false;
+    }
+
+    public void accept(final ItemVisitor visitor) throws RepositoryException {
+        visitor.visit(this);
+    }
+
+    public void remove() {
+        mockProperty.setRemoved(true);
+    }
+
+    public void setValue(final Value value) throws RepositoryException {
+        getParentNode().setProperty(getName(), value);
+    }
+
+    public void setValue(final Value[] values) throws RepositoryException {
+        getParentNode().setProperty(getName(), values);
+    }
+
+    public void setValue(final String value) throws RepositoryException {
+        getParentNode().setProperty(getName(), value);
+    }
+
+    public void setValue(final String[] values) throws RepositoryException {
+        getParentNode().setProperty(getName(), values);
+    }
+
+    public void setValue(final InputStream value) {
+        throw new UnsupportedOperationException("Binary properties are not supported");
+    }
+
+    public void setValue(final Binary value) {
+        throw new UnsupportedOperationException("Binary properties are not supported");
+    }
+
+    public void setValue(final long value) throws RepositoryException {
+        getParentNode().setProperty(getName(), value);
+    }
+
+    public void setValue(final double value) throws RepositoryException {
+        getParentNode().setProperty(getName(), value);
+    }
+
+    public void setValue(final BigDecimal value) throws RepositoryException {
+        getParentNode().setProperty(getName(), value);
+    }
+
+    public void setValue(final Calendar value) throws RepositoryException {
+        getParentNode().setProperty(getName(), value);
+    }
+
+    public void setValue(final boolean value) throws RepositoryException {
+        getParentNode().setProperty(getName(), value);
+    }
+
+    public void setValue(final Node value) throws RepositoryException {
+        getParentNode().setProperty(getName(), value);
+    }
+
+    public Value getValue() throws RepositoryException {
+        return getSingleValue();
+    }
+
+    /**
+     * Also returns the value of a single-valued property, as the mock data cannot tell a single-valued property from
+     * a multi-valued property with one value.
+     */
+    public Value[] getValues() throws RepositoryException {
+        final List<String> values = mockProperty.getMockValues();
+        if (values == null) {
+            return new Value[0];
+        }
+        final int type = getType();
+        final Value[] jcrValues = new Value[values.size()];
+        for (int i = 0; i < jcrValues.length; i++) {
+            jcrValues[i] = new SimpleJcrValue(values.get(i), type);
+        }
+        return jcrValues;
+    }
+
+    public String getString() throws RepositoryException {
+        return getSingleValue().getString();
+    }
+
+    public InputStream getStream() throws RepositoryException {
+        return getSingleValue().getStream();
+    }
+
+    public Binary getBinary() throws RepositoryException {
+        return getSingleValue().getBinary();
+    }
+
+    public long getLong() throws RepositoryException {
+        return getSingleValue().getLong();
+    }
+
+    public double getDouble() throws RepositoryException {
+        return getSingleValue().getDouble();
+    }
+
+    public BigDecimal getDecimal() throws RepositoryException {
+        return getSingleValue().getDecimal();
+    }
+
+    public Calendar getDate() throws RepositoryException {
+        return getSingleValue().getDate();
+    }
+
+    public boolean getBoolean() throws RepositoryException {
+        return getSingleValue().getBoolean();
+    }
+
+    public Node getNode() throws RepositoryException {
+        final String value = getString();
+        if (value.startsWith("/")) {
+            return getSession().getNode(value);
+        }
+        return getSession().getNodeByIdentifier(value);
+    }
+
+    public Property getProperty() {
+        throw new UnsupportedOperationException("The method getProperty is not supported");
+    }
+
+    public long getLength() throws RepositoryException {
+        return getString().length();
+    }
+
+    public long[] getLengths() throws RepositoryException {
+        final Value[] values = getValues();
+        final long[] lengths = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            lengths[i] = values[i].getString().length();
+        }
+        return lengths;
+    }
+
+    public PropertyDefinition getDefinition() {
+        return new Definition(isMultiple(), getType(), getName());
+    }
+
+    public int getType() {
+        return SimpleJcrValue.getPropertyType(mockProperty.getMockPropertyType());
+    }
+
+    /**
+     * As with the Mockito based mock, a property without values is multi-valued and a property with one value is
+     * single-valued.
+     */
+    public boolean isMultiple() {
+        final List<String> values = mockProperty.getMockValues();
+        return values == null || values.size() != 1;
+    }
+
+    @Override
+    public String toString() {
+        return "SimpleJcrProperty{" + getPath() + '}';
+    }
+
+    private static final class Definition implements PropertyDefinition {
+
+        private final boolean multiple;
+        private final int requiredType;
+        private final String name;
+
+        private Definition(final boolean multiple, final int requiredType, final String name) {
+            this.multiple = multiple;
+            this.requiredType = requiredType;
+            this.name = name;
+        }
+
+        public int getRequiredType() {
+            return requiredType;
+        }
+
+        public String[] getValueConstraints() {
+            return new String[0];
+        }
+
+        public Value[] getDefaultValues() {
+            return null;
+        }
+
+        public boolean isMultiple() {
+            return multiple;
+        }
+
+        public String[] getAvailableQueryOperators() {
+            return new String[0];
+        }
+
+        public boolean isFullTextSearchable() {
+            return true;
+        }
+
+        public boolean isQueryOrderable() {
+            return true;
+        }
+
+        public NodeType getDeclaringNodeType() {
+            return null;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isAutoCreated() {
+            return false;
+        }
+
+        public boolean isMandatory() {
+            return false;
+        }
+
+        public int getOnParentVersion() {
+            return OnParentVersionAction.COPY;
+        }
+
+        public boolean isProtected() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.commons.jcrmockup;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import javax.jcr.Property;
+import javax.jcr.PropertyIterator;
+
+/**
+ * javax.jcr.PropertyIterator over a snapshot of mock properties, wrapping them on access.
+ */
+class SimpleJcrPropertyIterator implements PropertyIterator {
+
+    private final SimpleJcrSession session;
+    private final List<MockProperty> properties;
+    private int position;
+
+    SimpleJcrPropertyIterator(final SimpleJcrSession session, final Collection<MockProperty> properties) {
+        this.session = session;
+        this.properties = properties instanceof List ? (List<MockProperty>) properties
+                : new ArrayList<MockProperty>(properties);
+    }
+
+    public Property nextProperty() {
+        if (position >= properties.size()) {
+            throw new NoSuchElementException();
+        }
+        return session.getJcrProperty(properties.get(position++));
+    }
+
+    public Object next() {
+        return nextProperty();
+    }
+
+    public boolean hasNext() {
+        return position < properties.size();
+    }
+
+    /**
+     * Removes the last returned property from its node.
+     */
+    public void remove() {
+        if (position == 0) {
+            throw new IllegalStateException("next() has not been called");
+        }
+        properties.get(position - 1).setRemoved(true);
+    }
+
+    public void skip(final long skipNum) {
+        if (skipNum < 0 || position + skipNum > properties.size()) {
+            throw new NoSuchElementException();
+        }
+        position += (int) skipNum;
+    }
+
+    public long getSize() {
+        return properties.size();
+    }
+
+    public long getPosition() {
+        return position;
+    }
+}
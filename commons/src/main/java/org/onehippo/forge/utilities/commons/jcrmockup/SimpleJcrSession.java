@@ -0,0 +1,367 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.commons.jcrmockup;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+
+import javax.jcr.Credentials;
+import javax.jcr.Item;
+import javax.jcr.ItemNotFoundException;
+import javax.jcr.Node;
+import javax.jcr.PathNotFoundException;
+import javax.jcr.Property;
+import javax.jcr.Repository;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+import javax.jcr.ValueFactory;
+import javax.jcr.Workspace;
+import javax.jcr.retention.RetentionManager;
+import javax.jcr.security.AccessControlManager;
+import javax.jcr.version.VersionManager;
+
+import org.mockito.Mockito;
+import org.xml.sax.ContentHandler;
+
+/**
+ * Plain java javax.jcr.Session over a MockNode tree, the counterpart of the Mockito based session of
+ * {@link JcrMockUp#mockJcrSession(String)}.
+ * <p>
+ * Each MockNode and MockProperty of the tree is wrapped by exactly one {@link SimpleJcrNode} or
+ * {@link SimpleJcrProperty}, created on first access, so repeated lookups neither create mocks nor new objects.
+ * Only the workspace and its version manager are Mockito mocks, created once per session. The query manager of the
+ * workspace evaluates queries against the tree, see {@link MockQueryParser} for the supported statements.
+ * </p>
+ */
+public class SimpleJcrSession implements Session {
+
+    private final MockNode rootMockNode;
+    private Workspace workspace;
+    private boolean live = true;
+
+    public SimpleJcrSession(final MockNode rootMockNode) {
+        this.rootMockNode = rootMockNode;
+    }
+
+    /**
+     * @param mockNode a node of the tree of this session
+     * @return the single wrapper of the mock node
+     */
+    public SimpleJcrNode getJcrNode(final MockNode mockNode) {
+        SimpleJcrNode jcrNode = mockNode.getSimpleJcrNode();
+        if (jcrNode == null || jcrNode.getSession() != this) {
+            jcrNode = new SimpleJcrNode(this, mockNode);
+            mockNode.setSimpleJcrNode(jcrNode);
+        }
+        return jcrNode;
+    }
+
+    /**
+     * @param mockProperty a property of the tree of this session
+     * @return the single wrapper of the mock property
+     */
+    public SimpleJcrProperty getJcrProperty(final MockProperty mockProperty) {
+        SimpleJcrProperty jcrProperty = mockProperty.getSimpleJcrProperty();
+        if (jcrProperty == null || jcrProperty.getSession() != this) {
+            jcrProperty = new SimpleJcrProperty(this, mockProperty);
+            mockProperty.setSimpleJcrProperty(jcrProperty);
+        }
+        return jcrProperty;
+    }
+
+    MockNode getRootMockNode() {
+        return rootMockNode;
+    }
+
+    /**
+     * Resolves a relative path to a node. Supports ".", ".." and same name sibling indexes like "foo[2]".
+     *
+     * @param base    the node to resolve from
+     * @param relPath relative path
+     * @return the node or null if it does not exist
+     */
+    MockNode resolveNode(final MockNode base, final String relPath) {
+        MockNode current = base;
+        int start = 0;
+        final int length = relPath.length();
+        while (current != null && start < length) {
+            int end = relPath.indexOf('/', start);
+            if (end == -1) {
+                end = length;
+            }
+            if (end > start) {
+                current = resolveSegment(current, relPath.substring(start, end));
+            }
+            start = end + 1;
+        }
+        return current;
+    }
+
+    private MockNode resolveSegment(final MockNode node, final String segment) {
+        if (".".equals(segment)) {
+            return node;
+        }
+        if ("..".equals(segment)) {
+            return node == rootMockNode ? null : node.getParent();
+        }
+        final int bracket = segment.indexOf('[');
+        if (bracket == -1 || !segment.endsWith("]")) {
+            return node.getMockChildNode(segment);
+        }
+        final int index;
+        try {
+            index = Integer.parseInt(segment.substring(bracket + 1, segment.length() - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        final List<MockNode> sameNameSiblings = node.getMockChildNodesByName(segment.substring(0, bracket));
+        return index > 0 && index <= sameNameSiblings.size() ? sameNameSiblings.get(index - 1) : null;
+    }
+
+    private static String checkAbsolute(final String absPath) throws PathNotFoundException {
+        if (absPath == null || !absPath.startsWith("/")) {
+            throw new PathNotFoundException("Path '" + absPath + "' is not absolute");
+        }
+        return absPath.substring(1);
+    }
+
+    /**
+     * @return the property at the path or null
+     */
+    MockProperty resolveProperty(final MockNode base, final String relPath) {
+        final int slash = relPath.lastIndexOf('/');
+        final MockNode parent = slash == -1 ? base : resolveNode(base, relPath.substring(0, slash));
+        return parent == null ? null : parent.getMockProperty(relPath.substring(slash + 1));
+    }
+
+    private MockNode findByIdentifier(final MockNode node, final String id) {
+        final MockProperty uuidProperty = node.getMockProperty("jcr:uuid");
+        if (uuidProperty != null && uuidProperty.getMockValues() != null && uuidProperty.getMockValues().contains(id)) {
+            return node;
+        }
+        for (MockNode child : node.getMockChildNodes()) {
+            final MockNode found = findByIdentifier(child, id);
+            if (found != null) {
+                return found;
+            }
+        }
+        return null;
+    }
+
+    public Repository getRepository() {
+        return null;
+    }
+
+    public String getUserID() {
+        return null;
+    }
+
+    public String[] getAttributeNames() {
+        return new String[0];
+    }
+
+    public Object getAttribute(final String name) {
+        return null;
+    }
+
+    public synchronized Workspace getWorkspace() {
+        if (workspace == null) {
+            workspace = Mockito.mock(Workspace.class);
+            final VersionManager versionManager = Mockito.mock(VersionManager.class);
+            final MockQueryManager queryManager = new MockQueryManager(this, rootMockNode);
+            try {
+                Mockito.when(workspace.getVersionManager()).thenReturn(versionManager);
+                Mockito.when(workspace.getQueryManager()).thenReturn(queryManager);
+            } catch (RepositoryException e) {
+                throw new IllegalStateException(e);
+            }
+            Mockito.when(workspace.getSession()).thenReturn(this);
+        }
+        return workspace;
+    }
+
+    public Node getRootNode() {
+        return getJcrNode(rootMockNode);
+    }
+
+    public Session impersonate(final Credentials credentials) {
+        throw new UnsupportedOperationException("The method impersonate is not supported");
+    }
+
+    public Node getNodeByUUID(final String uuid) throws RepositoryException {
+        return getNodeByIdentifier(uuid);
+    }
+
+    public Node getNodeByIdentifier(final String id) throws RepositoryException {
+        final MockNode mockNode = findByIdentifier(rootMockNode, id);
+        if (mockNode == null) {
+            throw new ItemNotFoundException("Node with identifier '" + id + "' does not exist");
+        }
+        return getJcrNode(mockNode);
+    }
+
+    public Item getItem(final String absPath) throws RepositoryException {
+        final String relPath = checkAbsolute(absPath);
+        final MockNode mockNode = resolveNode(rootMockNode, relPath);
+        if (mockNode != null) {
+            return getJcrNode(mockNode);
+        }
+        final MockProperty mockProperty = resolveProperty(rootMockNode, relPath);
+        if (mockProperty != null) {
+            return getJcrProperty(mockProperty);
+        }
+        throw new PathNotFoundException("Path '" + absPath + "' cannot be found");
+    }
+
+    public Node getNode(final String absPath) throws RepositoryException {
+        final MockNode mockNode = resolveNode(rootMockNode, checkAbsolute(absPath));
+        if (mockNode == null) {
+            throw new PathNotFoundException("Node '" + absPath + "' does not exist");
+        }
+        return getJcrNode(mockNode);
+    }
+
+    public Property getProperty(final String absPath) throws RepositoryException {
+        final MockProperty mockProperty = resolveProperty(rootMockNode, checkAbsolute(absPath));
+        if (mockProperty == null) {
+            throw new PathNotFoundException("Property '" + absPath + "' does not exist");
+        }
+        return getJcrProperty(mockProperty);
+    }
+
+    public boolean itemExists(final String absPath) throws RepositoryException {
+        return nodeExists(absPath) || propertyExists(absPath);
+    }
+
+    public boolean nodeExists(final String absPath) throws RepositoryException {
+        return absPath != null && absPath.startsWith("/") && resolveNode(rootMockNode, absPath.substring(1)) != null;
+    }
+
+    public boolean propertyExists(final String absPath) throws RepositoryException {
+        return absPath != null && absPath.startsWith("/")
+                && resolveProperty(rootMockNode, absPath.substring(1)) != null;
+    }
+
+    public void move(final String srcAbsPath, final String destAbsPath) {
+        throw new UnsupportedOperationException("The method move is not supported");
+    }
+
+    public void removeItem(final String absPath) throws RepositoryException {
+        getItem(absPath).remove();
+    }
+
+    public void save() {
+        // changes are applied to the mock tree directly
+    }
+
+    public void refresh(final boolean keepChanges) {
+        // changes are applied to the mock tree directly
+    }
+
+    public boolean hasPendingChanges() {
+        return false;
+    }
+
+    public ValueFactory getValueFactory() {
+        throw new UnsupportedOperationException("The method getValueFactory is not supported");
+    }
+
+    public boolean hasPermission(final String absPath, final String actions) {
+        return true;
+    }
+
+    public void checkPermission(final String absPath, final String actions) {
+        // all actions are permitted
+    }
+
+    public boolean hasCapability(final String methodName, final Object target, final Object[] arguments) {
+        return true;
+    }
+
+    public ContentHandler getImportContentHandler(final String parentAbsPath, final int uuidBehavior) {
+        throw new UnsupportedOperationException("The method getImportContentHandler is not supported");
+    }
+
+    public void importXML(final String parentAbsPath, final InputStream in, final int uuidBehavior) {
+        throw new UnsupportedOperationException("The method importXML is not supported");
+    }
+
+    public void exportSystemView(final String absPath, final ContentHandler contentHandler, final boolean skipBinary,
+                                 final boolean noRecurse) {
+        throw new UnsupportedOperationException("The method exportSystemView is not supported");
+    }
+
+    public void exportSystemView(final String absPath, final OutputStream out, final boolean skipBinary,
+                                 final boolean noRecurse) {
+        throw new UnsupportedOperationException("The method exportSystemView is not supported");
+    }
+
+    public void exportDocumentView(final String absPath, final ContentHandler contentHandler,
+                                   final boolean skipBinary, final boolean noRecurse) {
+        throw new UnsupportedOperationException("The method exportDocumentView is not supported");
+    }
+
+    public void exportDocumentView(final String absPath, final OutputStream out, final boolean skipBinary,
+                                   final boolean noRecurse) {
+        throw new UnsupportedOperationException("The method exportDocumentView is not supported");
+    }
+
+    public void setNamespacePrefix(final String prefix, final String uri) {
+        throw new UnsupportedOperationException("The method setNamespacePrefix is not supported");
+    }
+
+    public String[] getNamespacePrefixes() {
+        throw new UnsupportedOperationException("The method getNamespacePrefixes is not supported");
+    }
+
+    public String getNamespaceURI(final String prefix) {
+        throw new UnsupportedOperationException("The method getNamespaceURI is not supported");
+    }
+
+    public String getNamespacePrefix(final String uri) {
+        throw new UnsupportedOperationException("The method getNamespacePrefix is not supported");
+    }
+
+    public void logout() {
+        live = false;
+    }
+
+    public boolean isLive() {
+        return live;
+    }
+
+    public void addLockToken(final String lt) {
+        throw new UnsupportedOperationException("The method addLockToken is not supported");
+    }
+
+    public String[] getLockTokens() {
+        return new String[0];
+    }
+
+    public void removeLockToken(final String lt) {
+        throw new UnsupportedOperationException("The method removeLockToken is not supported");
+    }
+
+    public AccessControlManager getAccessControlManager() {
+        throw new UnsupportedOperationException("The method getAccessControlManager is not supported");
+    }
+
+    public RetentionManager getRetentionManager() {
+        throw new UnsupportedOperationException("The method getRetentionManager is not supported");
+    }
+}
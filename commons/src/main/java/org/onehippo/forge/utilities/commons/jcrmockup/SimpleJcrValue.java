@@ -0,0 +1,137 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.commons.jcrmockup;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Calendar;
+
+import javax.jcr.Binary;
+import javax.jcr.PropertyType;
+import javax.jcr.Value;
+import javax.jcr.ValueFormatException;
+
+/**
+ * Immutable javax.jcr.Value holding the string representation of a mock property value.
+ */
+class SimpleJcrValue implements Value {
+
+    private final String value;
+    private final int type;
+
+    SimpleJcrValue(final String value, final int type) {
+        this.value = value;
+        this.type = type;
+    }
+
+    /**
+     * Maps the type of a mock property, a JCR type name from an exported xml or the simple class name of a value set
+     * through the Mockito based mock, to a javax.jcr.PropertyType.
+     */
+    static int getPropertyType(final String typeName) {
+        if (typeName == null || "String[]".equals(typeName)) {
+            return PropertyType.STRING;
+        }
+        if ("Integer".equals(typeName)) {
+            return PropertyType.LONG;
+        }
+        if ("Float".equals(typeName)) {
+            return PropertyType.DOUBLE;
+        }
+        try {
+            return PropertyType.valueFromName(typeName);
+        } catch (IllegalArgumentException e) {
+            return PropertyType.STRING;
+        }
+    }
+
+    public String getString() {
+        return value;
+    }
+
+    public InputStream getStream() {
+        return new ByteArrayInputStream(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Binary getBinary() {
+        throw new UnsupportedOperationException("Binary values are not supported");
+    }
+
+    public long getLong() throws ValueFormatException {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new ValueFormatException("Value '" + value + "' is not a long", e);
+        }
+    }
+
+    public double getDouble() throws ValueFormatException {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new ValueFormatException("Value '" + value + "' is not a double", e);
+        }
+    }
+
+    public BigDecimal getDecimal() throws ValueFormatException {
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new ValueFormatException("Value '" + value + "' is not a decimal", e);
+        }
+    }
+
+    public Calendar getDate() throws ValueFormatException {
+        final Calendar calendar = ISO8601.parse(value);
+        if (calendar == null) {
+            throw new ValueFormatException("Value '" + value + "' is not an ISO8601 date");
+        }
+        return calendar;
+    }
+
+    public boolean getBoolean() {
+        return Boolean.parseBoolean(value);
+    }
+
+    public int getType() {
+        return type;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SimpleJcrValue)) {
+            return false;
+        }
+        final SimpleJcrValue other = (SimpleJcrValue) o;
+        return type == other.type && value.equals(other.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * value.hashCode() + type;
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+}
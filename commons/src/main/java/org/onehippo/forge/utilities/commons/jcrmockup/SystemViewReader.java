@@ -0,0 +1,166 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.commons.jcrmockup;
+
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Streaming reader of JCR system view xml, building the MockNode tree in a single pass without an intermediate
+ * object model. Node names, property names and types are interned per reader, so the many repeated names of a large
+ * export share their strings.
+ * <p>
+ * The result is the same tree as unmarshalling the xml with the JAXB annotations of {@link MockNode}: only elements
+ * and attributes in the system view namespace ({@value MockNode#HTTP_WWW_JCP_ORG_JCR_SV_1_0}) are read, other
+ * elements are skipped with their content. A reader is not thread safe.
+ * </p>
+ */
+public class SystemViewReader {
+
+    private static final String NODE = "node";
+    private static final String PROPERTY = "property";
+    private static final String VALUE = "value";
+    private static final String NAME = "name";
+    private static final String TYPE = "type";
+    private static final String SV = MockNode.HTTP_WWW_JCP_ORG_JCR_SV_1_0;
+
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+    private final Map<String, String> names = new HashMap<String, String>();
+
+    private static XMLInputFactory createInputFactory() {
+        final XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+        return factory;
+    }
+
+    /**
+     * Reads a system view export.
+     *
+     * @param inputStream the xml, not closed by this method
+     * @return the root node of the tree, with itself as parent like the JAXB loaded tree
+     * @throws XMLStreamException if the xml cannot be parsed or has no root node
+     */
+    public MockNode read(final InputStream inputStream) throws XMLStreamException {
+        final XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(inputStream);
+        try {
+            return read(reader);
+        } finally {
+            reader.close();
+        }
+    }
+
+    private MockNode read(final XMLStreamReader reader) throws XMLStreamException {
+        final Deque<MockNode> nodes = new ArrayDeque<MockNode>();
+        MockNode root = null;
+        MockProperty property = null;
+        List<String> values = null;
+        while (reader.hasNext()) {
+            final int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if (!SV.equals(reader.getNamespaceURI())) {
+                    skipElement(reader);
+                    continue;
+                }
+                final String element = reader.getLocalName();
+                if (NODE.equals(element)) {
+                    final MockNode node = new MockNode();
+                    node.setMockNodeName(intern(getAttribute(reader, NAME)));
+                    if (nodes.isEmpty()) {
+                        root = node;
+                    } else {
+                        nodes.peek().addMockChildNode(node);
+                    }
+                    nodes.push(node);
+                } else if (PROPERTY.equals(element) && !nodes.isEmpty()) {
+                    property = new MockProperty();
+                    property.setMockPropertyName(intern(getAttribute(reader, NAME)));
+                    property.setMockPropertyType(intern(getAttribute(reader, TYPE)));
+                    values = null;
+                } else if (VALUE.equals(element) && property != null) {
+                    if (values == null) {
+                        values = new ArrayList<String>(1);
+                    }
+                    values.add(reader.getElementText());
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT && SV.equals(reader.getNamespaceURI())) {
+                final String element = reader.getLocalName();
+                if (NODE.equals(element) && !nodes.isEmpty()) {
+                    nodes.pop();
+                } else if (PROPERTY.equals(element) && property != null) {
+                    // as with JAXB, a property without values has null values
+                    property.setMockValues(values);
+                    nodes.peek().setMockProperty(property);
+                    property = null;
+                }
+            }
+        }
+        if (root == null) {
+            throw new XMLStreamException("No node element found");
+        }
+        root.setParent(root);
+        return root;
+    }
+
+    /**
+     * Skips the current element with its content, positioning the reader on its end element.
+     */
+    private static void skipElement(final XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            final int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private static String getAttribute(final XMLStreamReader reader, final String localName) {
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            if (localName.equals(reader.getAttributeLocalName(i)) && SV.equals(reader.getAttributeNamespace(i))) {
+                return reader.getAttributeValue(i);
+            }
+        }
+        return null;
+    }
+
+    private String intern(final String name) {
+        if (name == null) {
+            return null;
+        }
+        final String interned = names.get(name);
+        if (interned != null) {
+            return interned;
+        }
+        names.put(name, name);
+        return name;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.commons;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+
+public class HippoUtilTest {
+
+    @Test
+    public void testAbbreviateText() {
+        assertEquals(HippoUtil.abbreviateText("Hello world, again", 14), "Hello world, ...");
+        assertEquals(HippoUtil.abbreviateText("Hello world, again", 11), "Hello world ...");
+        assertEquals(HippoUtil.abbreviateText("Hello world, again", 10), "Hello ...");
+        assertEquals(HippoUtil.abbreviateText("Helloworld", 5), " ...");
+        assertEquals(HippoUtil.abbreviateText("Hello world", 5, "!"), "Hello!");
+        assertEquals(HippoUtil.abbreviateText("Hello world", 20), "Hello world");
+        assertEquals(HippoUtil.abbreviateText("Hello world", 0), "Hello world");
+        assertNull(HippoUtil.abbreviateText(null, 5));
+        assertEquals(HippoUtil.abbreviateText("one-two three", 6, null, "-"), "one ...");
+    }
+
+    @Test
+    public void testSameAsLastIndexOf() {
+        final Random random = new Random(42);
+        final char[] chars = "ab .,?!-".toCharArray();
+        for (int i = 0; i < 2000; i++) {
+            final char[] text = new char[random.nextInt(30)];
+            for (int j = 0; j < text.length; j++) {
+                text[j] = chars[random.nextInt(chars.length)];
+            }
+            final int numberOfCharacters = random.nextInt(32);
+            assertEquals(HippoUtil.abbreviateText(new String(text), numberOfCharacters),
+                    abbreviateWithLastIndexOf(new String(text), numberOfCharacters), new String(text));
+        }
+    }
+
+    @Test
+    public void testAppendAbbreviatedText() throws IOException {
+        final StringBuilder builder = new StringBuilder("> ");
+        HippoUtil.appendAbbreviatedText(builder, "Hello world", 8, null, HippoUtil.ABBREVIATION_BOUNDARY_CHARS);
+        HippoUtil.appendAbbreviatedText(builder, null, 8, null, HippoUtil.ABBREVIATION_BOUNDARY_CHARS);
+        HippoUtil.appendAbbreviatedText(builder, "|short", 8, null, HippoUtil.ABBREVIATION_BOUNDARY_CHARS);
+        assertEquals(builder.toString(), "> Hello ...|short");
+
+        final StringWriter writer = new StringWriter();
+        assertSame(HippoUtil.appendAbbreviatedText(writer, "Hello world", 8, "..", " "), writer);
+        assertEquals(writer.toString(), "Hello..");
+    }
+
+    @Test
+    public void testAbbreviateTexts() {
+        final List<String> texts = Arrays.asList("Hello world", null, "short", "Another text");
+        assertEquals(HippoUtil.abbreviateTexts(texts, 8), Arrays.asList("Hello ...", null, "short", "Another ..."));
+    }
+
+    /**
+     * The former implementation.
+     */
+    private static String abbreviateWithLastIndexOf(final String text, final int numberOfCharacters) {
+        if (numberOfCharacters > 0 && text.length() > numberOfCharacters) {
+            int end = Math.max(text.lastIndexOf(' ', numberOfCharacters), text.lastIndexOf('.', numberOfCharacters));
+            end = Math.max(end, text.lastIndexOf(',', numberOfCharacters));
+            end = Math.max(end, text.lastIndexOf('?', numberOfCharacters));
+            end = Math.max(end, text.lastIndexOf('!', numberOfCharacters));
+            return text.substring(0, Math.max(end, 0)) + " ...";
+        }
+        return text;
+    }
+}
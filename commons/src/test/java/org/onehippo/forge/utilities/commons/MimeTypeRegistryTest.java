@@ -0,0 +1,105 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.commons;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class MimeTypeRegistryTest {
+
+    @Test
+    public void testLookups() {
+        final MimeTypeRegistry registry = MimeTypeRegistry.getDefault();
+        assertEquals(registry.getExtension("application/pdf"), "pdf");
+        assertEquals(registry.getExtension("Text/HTML; charset=UTF-8"), "html");
+        assertEquals(registry.getExtension(" image/webp "), "webp");
+        assertEquals(registry.getExtensions("image/jpeg"), Arrays.asList("jpg", "jpeg", "jpe"));
+        assertNull(registry.getExtension("application/x-unknown"));
+        assertNull(registry.getExtension(null));
+        assertTrue(registry.getExtensions("application/x-unknown").isEmpty());
+
+        assertEquals(registry.getMimeType("report.PDF"), "application/pdf");
+        assertEquals(registry.getMimeType("htm"), "text/html");
+        assertEquals(registry.getMimeType("archive.tar.gz"), "application/gzip");
+        assertNull(registry.getMimeType("file.unknown"));
+        assertTrue(registry.contains("text/plain;format=flowed"));
+        assertFalse(registry.contains("text"));
+    }
+
+    @Test
+    public void testCategory() {
+        final MimeTypeRegistry registry = MimeTypeRegistry.getDefault();
+        assertEquals(registry.getCategory("image/webp"), "image");
+        assertEquals(registry.getCategory("image/x-unknown"), "image");
+        assertEquals(registry.getCategory("application/msword"), "doc");
+        assertEquals(registry.getCategory("application/x-pdf"), "pdf");
+        assertEquals(registry.getCategory("application/x-unknown"), "");
+        assertEquals(registry.getCategory(null), "");
+        assertEquals(HippoUtil.simplifyMimeType("text/html; charset=UTF-8"), "html");
+        assertEquals(HippoUtil.simplifyMimeType(null), "");
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testFormerMap() {
+        for (Map.Entry<String, String> entry : HippoUtil.MIME_TYPE_TO_EXTENSION_MAP.entrySet()) {
+            assertEquals(HippoUtil.getExtensionFromMimeType(entry.getKey()), entry.getValue());
+            assertEquals(HippoUtil.simplifyMimeType(entry.getKey()), entry.getValue());
+        }
+    }
+
+    @Test
+    public void testBaseType() {
+        final String plain = "text/plain";
+        assertSame(MimeTypeRegistry.getBaseType(plain), plain);
+        assertEquals(MimeTypeRegistry.getBaseType("Text/Plain ; charset=UTF-8"), plain);
+        assertNull(MimeTypeRegistry.getBaseType(null));
+    }
+
+    @Test
+    public void testOverride() throws IOException {
+        final File override = File.createTempFile("mime", ".types");
+        try {
+            Files.write(override.toPath(), ("# override\n"
+                    + "text/plain txt asc # with comment\n"
+                    + "application/x-custom   cst txt\n"
+                    + "invalid line\n").getBytes(StandardCharsets.UTF_8));
+            final MimeTypeRegistry registry = MimeTypeRegistry.load(
+                    getClass().getClassLoader().getResource(MimeTypeRegistry.BUNDLED_RESOURCE), override.toURI().toURL());
+            assertEquals(registry.getExtensions("text/plain"), Arrays.asList("txt", "asc"));
+            assertEquals(registry.getMimeType("txt"), "application/x-custom");
+            assertEquals(registry.getMimeType("asc"), "text/plain");
+            assertEquals(registry.getCategory("application/x-custom"), "cst");
+            assertEquals(registry.getExtension("application/pdf"), "pdf");
+            assertEquals(registry.getMimeTypes().size(), MimeTypeRegistry.getDefault().getMimeTypes().size() + 1);
+        } finally {
+            override.delete();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.commons;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+
+public class PlaceHolderTemplateTest {
+
+    private static final String TEMPLATE = "Dear ${name}, your login is ${login}. Bye ${name}!";
+
+    @Test
+    public void testRender() {
+        final Map<String, Object> values = new HashMap<String, Object>();
+        values.put("name", "John");
+        values.put("login", 42);
+        final PlaceHolderTemplate template = PlaceHolderTemplate.parse(TEMPLATE);
+        assertEquals(template.render(values), "Dear John, your login is 42. Bye John!");
+        assertEquals(template.getVariableNames().toArray(), Arrays.asList("name", "login").toArray());
+
+        final StringBuilder builder = new StringBuilder("> ");
+        template.renderTo(builder, new PlaceHolderTemplate.Resolver() {
+            public Object resolve(final String variableName) {
+                return variableName.toUpperCase();
+            }
+        });
+        assertEquals(builder.toString(), "> Dear NAME, your login is LOGIN. Bye NAME!");
+    }
+
+    @Test
+    public void testUnresolvedAndLiteral() {
+        final Map<String, String> values = new HashMap<String, String>();
+        values.put("a", "$1 \\");
+        assertEquals(PlaceHolderTemplate.parse("${a}${b} ${ ${a").render(values), "$1 \\${b} ${ ${a");
+        assertEquals(PlaceHolderTemplate.parse("").render(values), "");
+        assertEquals(PlaceHolderTemplate.parse("${}").render(values), "${}");
+    }
+
+    @Test
+    public void testCache() {
+        PlaceHolderTemplate.clearCache();
+        final PlaceHolderTemplate template = PlaceHolderTemplate.compile(TEMPLATE);
+        assertSame(PlaceHolderTemplate.compile(TEMPLATE), template);
+        for (int i = 0; i < PlaceHolderTemplate.CACHE_SIZE + 10; i++) {
+            PlaceHolderTemplate.compile("${x}" + i);
+        }
+        assertEquals(PlaceHolderTemplate.getCacheSize(), PlaceHolderTemplate.CACHE_SIZE);
+    }
+
+    @Test
+    public void testReplacePlaceHolders() {
+        PlaceHolderTemplate.clearCache();
+        final String partial = HippoUtil.replacePlaceHolders("name", "John", TEMPLATE);
+        assertEquals(partial, "Dear John, your login is ${login}. Bye John!");
+        assertEquals(HippoUtil.replacePlaceHolders("login", "john", partial), "Dear John, your login is john. Bye John!");
+        // intermediate strings do not evict cached templates
+        assertEquals(PlaceHolderTemplate.getCacheSize(), 0);
+        final Map<String, String> values = new HashMap<String, String>();
+        values.put("name", "John");
+        values.put("login", "john");
+        assertEquals(HippoUtil.replacePlaceHolders(values, TEMPLATE), "Dear John, your login is john. Bye John!");
+    }
+}
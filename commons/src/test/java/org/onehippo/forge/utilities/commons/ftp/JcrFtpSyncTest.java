@@ -0,0 +1,264 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.commons.ftp;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.jcr.Binary;
+import javax.jcr.Node;
+import javax.jcr.NodeIterator;
+import javax.jcr.Property;
+import javax.jcr.RepositoryException;
+
+import org.mockftpserver.fake.FakeFtpServer;
+import org.mockftpserver.fake.UserAccount;
+import org.mockftpserver.fake.filesystem.DirectoryEntry;
+import org.mockftpserver.fake.filesystem.FileEntry;
+import org.mockftpserver.fake.filesystem.UnixFakeFileSystem;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * JcrFtpSyncTest
+ */
+public class JcrFtpSyncTest {
+
+    private static final int SERVER_CONTROL_PORT = 1224;
+    private static final int THREADS_SERVER_CONTROL_PORT = 1226;
+    private static final int TIMEOUT_SERVER_CONTROL_PORT = 1228;
+    private static final String USERHOME = "/userhome";
+
+    @Test
+    public void testIncrementalSync() throws Exception {
+        FakeFtpServer server = new FakeFtpServer();
+        server.setServerControlPort(SERVER_CONTROL_PORT);
+        UnixFakeFileSystem fileSystem = new UnixFakeFileSystem();
+        fileSystem.add(new DirectoryEntry(USERHOME));
+        server.setFileSystem(fileSystem);
+        server.addUserAccount(new UserAccount("user", "password", USERHOME));
+        server.start();
+
+        SimpleFtpClient client = new SimpleFtpClient("user", "password", "localhost", SERVER_CONTROL_PORT);
+        try {
+            Node first = mockBinaryNode("/assets/docs/first.txt", 3, "first", 1000L);
+            Node second = mockBinaryNode("/assets/second.txt", 2, "second", 1000L);
+            Node docs = mockNode("/assets/docs", 2, first);
+            Node root = mockNode("/assets", 1, docs, second);
+
+            JcrFtpSync sync = new JcrFtpSync(client, "mirror");
+            sync.setThreads(2);
+            sync.setDeleteStale(true);
+            FtpSyncResult result = sync.sync(root);
+            assertTrue(result.isSuccess(), "Expected success, got " + result);
+            assertEquals(result.getUploaded().size(), 2);
+            assertTrue(fileSystem.exists(USERHOME + "/mirror/docs/first.txt"));
+            assertTrue(fileSystem.exists(USERHOME + "/mirror/second.txt"));
+
+            // second run: nothing changed
+            result = sync.sync(root);
+            assertEquals(result.getUploaded().size(), 0);
+            assertEquals(result.getUnchanged().size(), 2);
+
+            // touched but same content, changed content and a removed binary
+            Node touched = mockBinaryNode("/assets/docs/first.txt", 3, "first", 2000L);
+            Node changed = mockBinaryNode("/assets/second.txt", 2, "changed", 2000L);
+            root = mockNode("/assets", 1, mockNode("/assets/docs", 2, touched), changed);
+            result = sync.sync(root);
+            assertEquals(result.getUploaded(), Arrays.asList("second.txt"));
+            assertEquals(result.getUnchanged(), Arrays.asList("docs/first.txt"));
+
+            root = mockNode("/assets", 1, changed);
+            result = sync.sync(root);
+            assertEquals(result.getDeleted(), Arrays.asList("docs/first.txt"));
+            assertFalse(fileSystem.exists(USERHOME + "/mirror/docs/first.txt"));
+            assertEquals(((FileEntry) fileSystem.getEntry(USERHOME + "/mirror/second.txt")).getSize(), "changed".length());
+        } finally {
+            client.close();
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testBinariesReadOnCallingThread() throws Exception {
+        FakeFtpServer server = new FakeFtpServer();
+        server.setServerControlPort(THREADS_SERVER_CONTROL_PORT);
+        UnixFakeFileSystem fileSystem = new UnixFakeFileSystem();
+        fileSystem.add(new DirectoryEntry(USERHOME));
+        // the fake file system does not handle concurrent creation of the same directory
+        fileSystem.add(new DirectoryEntry(USERHOME + "/mirror"));
+        server.setFileSystem(fileSystem);
+        server.addUserAccount(new UserAccount("user", "password", USERHOME));
+        server.start();
+
+        SimpleFtpClient client = new SimpleFtpClient("user", "password", "localhost", THREADS_SERVER_CONTROL_PORT);
+        try {
+            final List<Thread> readers = Collections.synchronizedList(new ArrayList<Thread>());
+            final List<Binary> binaries = new ArrayList<Binary>();
+            final List<Node> children = new ArrayList<Node>();
+            for (int i = 0; i < 6; i++) {
+                final String content = "content " + i;
+                final Node node = mockBinaryNode("/assets/file" + i + ".txt", 2, content, 1000L);
+                final Binary binary = node.getProperty("jcr:data").getBinary();
+                Mockito.when(binary.getStream()).thenAnswer(new Answer<ByteArrayInputStream>() {
+                    public ByteArrayInputStream answer(final InvocationOnMock invocation) {
+                        readers.add(Thread.currentThread());
+                        return new ByteArrayInputStream(content.getBytes());
+                    }
+                });
+                binaries.add(binary);
+                children.add(node);
+            }
+            Node root = mockNode("/assets", 1, children.toArray(new Node[children.size()]));
+
+            JcrFtpSync sync = new JcrFtpSync(client, "mirror");
+            sync.setThreads(3);
+            FtpSyncResult result = sync.sync(root);
+            assertEquals(result.getUploaded().size(), 6, result.toString());
+            assertEquals(((FileEntry) fileSystem.getEntry(USERHOME + "/mirror/file5.txt")).getSize(), "content 5".length());
+
+            // hashed and spooled on the session thread, each binary disposed after each read
+            assertEquals(readers.size(), 12);
+            for (Thread reader : readers) {
+                assertEquals(reader, Thread.currentThread());
+            }
+            for (Binary binary : binaries) {
+                Mockito.verify(binary, Mockito.times(2)).dispose();
+            }
+        } finally {
+            client.close();
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        FakeFtpServer server = new FakeFtpServer();
+        server.setServerControlPort(TIMEOUT_SERVER_CONTROL_PORT);
+        UnixFakeFileSystem fileSystem = new UnixFakeFileSystem();
+        fileSystem.add(new DirectoryEntry(USERHOME));
+        server.setFileSystem(fileSystem);
+        server.addUserAccount(new UserAccount("user", "password", USERHOME));
+        server.start();
+
+        SimpleFtpClient client = new SimpleFtpClient("user", "password", "localhost", TIMEOUT_SERVER_CONTROL_PORT);
+        try {
+            Node root = mockNode("/assets", 1, mockBinaryNode("/assets/a.txt", 2, "a", 1000L),
+                    mockBinaryNode("/assets/b.txt", 2, "b", 1000L), mockBinaryNode("/assets/c.txt", 2, "c", 1000L));
+            JcrFtpSync sync = new JcrFtpSync(client, "mirror");
+            assertTrue(sync.sync(root).isSuccess());
+
+            // no time to upload more than the first binary
+            Node changed = mockNode("/assets", 1, mockBinaryNode("/assets/a.txt", 2, "new a", 2000L),
+                    mockBinaryNode("/assets/b.txt", 2, "new b", 2000L), mockBinaryNode("/assets/c.txt", 2, "new c", 2000L));
+            sync.setTimeoutMinutes(0);
+            FtpSyncResult result = sync.sync(changed);
+            assertFalse(result.isSuccess(), result.toString());
+            assertTrue(result.isManifestSaved());
+            assertTrue(result.getFailed().containsAll(Arrays.asList("b.txt", "c.txt")), result.toString());
+            assertEquals(result.getUploaded().size() + result.getFailed().size(), 3, result.toString());
+            assertEquals(((FileEntry) fileSystem.getEntry(USERHOME + "/mirror/c.txt")).getSize(), "c".length());
+
+            // the failed uploads kept their old entry, so they are uploaded again
+            sync.setTimeoutMinutes(60);
+            result = sync.sync(changed);
+            assertTrue(result.isSuccess(), result.toString());
+            assertTrue(result.getUploaded().containsAll(Arrays.asList("b.txt", "c.txt")), result.toString());
+            assertEquals(((FileEntry) fileSystem.getEntry(USERHOME + "/mirror/c.txt")).getSize(), "new c".length());
+        } finally {
+            client.close();
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testManifestFormat() {
+        FtpSyncManifest manifest = new FtpSyncManifest();
+        manifest.put(new FtpSyncManifest.Entry("a/b c.txt", 1234L, 5L, "cafe"));
+        FtpSyncManifest parsed = FtpSyncManifest.parse(manifest.format() + "malformed\n");
+        assertEquals(parsed.size(), 1);
+        FtpSyncManifest.Entry entry = parsed.get("a/b c.txt");
+        assertEquals(entry.getLastModified(), 1234L);
+        assertEquals(entry.getSize(), 5L);
+        assertEquals(entry.getHash(), "cafe");
+    }
+
+    private static Node mockNode(final String path, final int depth, final Node... children) throws RepositoryException {
+        final Node node = Mockito.mock(Node.class);
+        Mockito.when(node.getPath()).thenReturn(path);
+        Mockito.when(node.getName()).thenReturn(path.substring(path.lastIndexOf('/') + 1));
+        Mockito.when(node.getDepth()).thenReturn(depth);
+        Mockito.when(node.isNodeType(Mockito.anyString())).thenReturn(false);
+        final Node parent = Mockito.mock(Node.class);
+        Mockito.when(parent.getParent()).thenReturn(parent);
+        Mockito.when(node.getParent()).thenReturn(parent);
+        final List<Node> childList = new ArrayList<Node>(Arrays.asList(children));
+        Mockito.when(node.getNodes()).thenAnswer(new Answer<NodeIterator>() {
+            public NodeIterator answer(final InvocationOnMock invocation) {
+                final Iterator<Node> iterator = childList.iterator();
+                final NodeIterator nodeIterator = Mockito.mock(NodeIterator.class);
+                Mockito.when(nodeIterator.hasNext()).thenAnswer(new Answer<Boolean>() {
+                    public Boolean answer(final InvocationOnMock invocation) {
+                        return iterator.hasNext();
+                    }
+                });
+                Mockito.when(nodeIterator.nextNode()).thenAnswer(new Answer<Node>() {
+                    public Node answer(final InvocationOnMock invocation) {
+                        return iterator.next();
+                    }
+                });
+                return nodeIterator;
+            }
+        });
+        return node;
+    }
+
+    private static Node mockBinaryNode(final String path, final int depth, final String content,
+                                       final long lastModified) throws RepositoryException {
+        final Node node = mockNode(path, depth);
+        final byte[] bytes = content.getBytes();
+        final Binary binary = Mockito.mock(Binary.class);
+        Mockito.when(binary.getSize()).thenReturn((long) bytes.length);
+        Mockito.when(binary.getStream()).thenAnswer(new Answer<ByteArrayInputStream>() {
+            public ByteArrayInputStream answer(final InvocationOnMock invocation) {
+                return new ByteArrayInputStream(bytes);
+            }
+        });
+        final Property data = Mockito.mock(Property.class);
+        Mockito.when(data.getBinary()).thenReturn(binary);
+        final Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(lastModified);
+        final Property modified = Mockito.mock(Property.class);
+        Mockito.when(modified.getDate()).thenReturn(calendar);
+        Mockito.when(node.hasProperty("jcr:data")).thenReturn(true);
+        Mockito.when(node.hasProperty("jcr:lastModified")).thenReturn(true);
+        Mockito.when(node.getProperty("jcr:data")).thenReturn(data);
+        Mockito.when(node.getProperty("jcr:lastModified")).thenReturn(modified);
+        return node;
+    }
+}
@@ -18,6 +18,9 @@ package org.onehippo.forge.utilities.commons.ftp;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+
+import javax.management.ObjectName;
 
 import org.mockftpserver.fake.FakeFtpServer;
 import org.mockftpserver.fake.UserAccount;
@@ -28,6 +31,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.testng.annotations.Test;
 
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
 
 /**
@@ -40,6 +45,9 @@ public class SimpleFtpClientTest {
     @SuppressWarnings("unused")
     private static Logger log = LoggerFactory.getLogger(SimpleFtpClientTest.class);
     private static final int SERVER_CONTROL_PORT = 1222;
+    private static final int METRICS_SERVER_CONTROL_PORT = 1223;
+    private static final int MISSING_DIR_SERVER_CONTROL_PORT = 1225;
+    private static final int REFUSED_SERVER_CONTROL_PORT = 1227;
     private static final String TEST_FILE_TXT = "test_file.txt";
     private static final String TESTING_DIR = "/testing/testingnested/onemore";
     private static final String TXT = "foobar";
@@ -73,4 +81,96 @@ public class SimpleFtpClientTest {
 
         client.close();
     }
+
+    @Test
+    public void testMetrics() throws Exception {
+        FakeFtpServer server = new FakeFtpServer();
+        server.setServerControlPort(METRICS_SERVER_CONTROL_PORT);
+        UnixFakeFileSystem fileSystem = new UnixFakeFileSystem();
+        fileSystem.add(new DirectoryEntry(USERHOME));
+        fileSystem.add(new DirectoryEntry("/userhome" + TESTING_DIR));
+        fileSystem.add(new FileEntry("/userhome" + TESTING_DIR + "/tst.txt", TXT));
+        server.setFileSystem(fileSystem);
+        server.addUserAccount(new UserAccount("user", "password", USERHOME));
+        server.start();
+
+        FtpMetrics metrics = new FtpMetrics();
+        ObjectName objectName = metrics.registerMBean("testMetrics");
+        SimpleFtpClient client = new SimpleFtpClient("user", "password", "localhost", METRICS_SERVER_CONTROL_PORT);
+        client.setMetricsListener(metrics);
+        try {
+            client.saveFile(new ByteArrayInputStream(TXT.getBytes("UTF-8")), TEST_FILE_TXT, TESTING_DIR, false, true, true);
+            client.getString("tst.txt", TESTING_DIR);
+
+            assertEquals(metrics.getConnectCount(), 1);
+            assertEquals(metrics.getConnectFailureCount(), 0);
+            assertEquals(metrics.getUploadCount(), 1);
+            assertEquals(metrics.getBytesUploaded(), TXT.length());
+            assertEquals(metrics.getDownloadCount(), 1);
+            assertEquals(metrics.getBytesDownloaded(), TXT.length());
+            assertTrue(metrics.getCommandCount() > 0, "Expected timed commands");
+            assertTrue(metrics.getReplyCodeCounts().containsKey("226"), "Expected transfer complete replies");
+            assertEquals(ManagementFactory.getPlatformMBeanServer().getAttribute(objectName, "UploadCount"), 1L);
+        } finally {
+            client.close();
+            metrics.unregisterMBean();
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testMissingDirectory() throws Exception {
+        FakeFtpServer server = new FakeFtpServer();
+        server.setServerControlPort(MISSING_DIR_SERVER_CONTROL_PORT);
+        UnixFakeFileSystem fileSystem = new UnixFakeFileSystem();
+        fileSystem.add(new DirectoryEntry(USERHOME));
+        fileSystem.add(new DirectoryEntry("/userhome/testing"));
+        fileSystem.add(new FileEntry("/userhome/testing/tst.txt", TXT));
+        server.setFileSystem(fileSystem);
+        server.addUserAccount(new UserAccount("user", "password", USERHOME));
+        server.start();
+
+        SimpleFtpClient client = new SimpleFtpClient("user", "password", "localhost", MISSING_DIR_SERVER_CONTROL_PORT);
+        try {
+            // a missing directory must not fall back to a same-named file in a parent directory
+            assertNull(client.getString("tst.txt", "testing/missing"));
+            assertNull(client.getInputStream("tst.txt", "testing/missing"));
+            assertEquals(client.deleteFile("tst.txt", "testing/missing"), SimpleFtpClientResult.ERROR);
+            assertEquals(client.saveFile(new ByteArrayInputStream(TXT.getBytes("UTF-8")), TEST_FILE_TXT,
+                    "testing/missing", false, true, false), SimpleFtpClientResult.ERROR);
+            assertTrue(fileSystem.exists("/userhome/testing/tst.txt"), "File in parent directory was deleted");
+            assertTrue(!fileSystem.exists("/userhome/testing/" + TEST_FILE_TXT), "File saved in parent directory");
+
+            assertEquals(client.deleteFile("tst.txt", "testing"), SimpleFtpClientResult.SUCCESS);
+        } finally {
+            client.close();
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testRefusedUpload() throws Exception {
+        FakeFtpServer server = new FakeFtpServer();
+        server.setServerControlPort(REFUSED_SERVER_CONTROL_PORT);
+        UnixFakeFileSystem fileSystem = new UnixFakeFileSystem();
+        fileSystem.add(new DirectoryEntry(USERHOME));
+        DirectoryEntry readOnly = new DirectoryEntry(USERHOME + "/readonly");
+        readOnly.setPermissionsFromString("r-xr-xr-x");
+        fileSystem.add(readOnly);
+        server.setFileSystem(fileSystem);
+        server.addUserAccount(new UserAccount("user", "password", USERHOME));
+        server.start();
+
+        SimpleFtpClient client = new SimpleFtpClient("user", "password", "localhost", REFUSED_SERVER_CONTROL_PORT);
+        try {
+            assertEquals(client.saveFile(new ByteArrayInputStream(TXT.getBytes("UTF-8")), TEST_FILE_TXT, "readonly",
+                    true, true, false), SimpleFtpClientResult.ERROR);
+            assertEquals(client.saveFile(new ByteArrayInputStream(TXT.getBytes("UTF-8")), TEST_FILE_TXT, "readonly",
+                    true, false, false), SimpleFtpClientResult.ERROR);
+            assertTrue(!fileSystem.exists(USERHOME + "/readonly/" + TEST_FILE_TXT), "File was stored");
+        } finally {
+            client.close();
+            server.stop();
+        }
+    }
 }
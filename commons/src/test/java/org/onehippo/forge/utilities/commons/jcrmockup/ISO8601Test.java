@@ -16,11 +16,15 @@
 
 package org.onehippo.forge.utilities.commons.jcrmockup;
 
+import java.time.OffsetDateTime;
 import java.util.Calendar;
+import java.util.TimeZone;
 
 import org.testng.annotations.Test;
 
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertSame;
 
 /**
  * Test for {@link ISO8601}
@@ -45,4 +49,60 @@ public class ISO8601Test {
         ISO8601.parse(null);
     }
 
+    @Test
+    public void testParseInvalid() {
+        assertNull(ISO8601.parse("1979-09-23T14:01:34.357"));
+        assertNull(ISO8601.parse("1979-09-23T14:01:34.357+01:00x"));
+        assertNull(ISO8601.parse("1979-02-30T14:01:34.357Z"));
+        assertNull(ISO8601.parse("1979-09-23T24:01:34.357Z"));
+        assertNull(ISO8601.parse("1979-0a-23T14:01:34.357Z"));
+        assertNull(ISO8601.parseOffsetDateTime("1979-02-30T14:01:34.357Z"));
+        assertEquals(-1L, ISO8601.parseMillis("1979-02-30T14:01:34.357Z", -1L));
+        assertEquals(-1L, ISO8601.parseMillis("", -1L));
+    }
+
+    @Test
+    public void testParseMillis() {
+        final String[] dates = {"1979-09-23T14:01:34.357+01:00", "2010-11-09T21:30:00.000+01:00",
+                "2000-02-29T23:59:59.999-05:30", "1970-01-01T00:00:00.000Z", "1969-12-31T23:59:59.999Z",
+                "2400-03-01T00:00:00.000+14:00"};
+        for (String date : dates) {
+            final OffsetDateTime expected = OffsetDateTime.parse(date);
+            assertEquals(date, expected.toInstant().toEpochMilli(), ISO8601.parseMillis(date, -1L));
+            assertEquals(date, expected, ISO8601.parseOffsetDateTime(date));
+            assertEquals(date, expected.toInstant().toEpochMilli(), ISO8601.parse(date).getTimeInMillis());
+        }
+    }
+
+    @Test
+    public void testFormat() {
+        final String date = "1979-09-23T14:01:34.057+01:00";
+        assertEquals(date, ISO8601.format(ISO8601.parse(date)));
+        assertEquals(date, ISO8601.format(ISO8601.parseOffsetDateTime(date)));
+        assertEquals("2010-01-02T03:04:05.006Z", ISO8601.format(ISO8601.parse("2010-01-02T03:04:05.006Z")));
+        assertEquals("2010-01-02T03:04:05.006-09:30", ISO8601.format(ISO8601.parse("2010-01-02T03:04:05.006-09:30")));
+
+        final StringBuilder buf = new StringBuilder();
+        ISO8601.format(ISO8601.parse(date), buf);
+        buf.append(' ');
+        ISO8601.format(ISO8601.parseOffsetDateTime("0001-01-01T00:00:00.000Z"), buf);
+        assertEquals(date + " 0001-01-01T00:00:00.000Z", buf.toString());
+    }
+
+    @Test
+    public void testBeforeCommonEra() {
+        final Calendar c = ISO8601.parse("-0001-06-01T00:00:00.000Z");
+        assertEquals(2, c.get(Calendar.YEAR));
+        assertEquals(-1, ISO8601.getYear(c));
+        assertEquals("-0001-06-01T00:00:00.000Z", ISO8601.format(c));
+    }
+
+    @Test
+    public void testTimeZonesShared() {
+        final TimeZone timeZone = ISO8601.parse("1979-09-23T14:01:34.357+01:00").getTimeZone();
+        assertSame(timeZone, ISO8601.parse("2010-11-09T21:30:00.000+01:00").getTimeZone());
+        assertEquals("GMT+01:00", timeZone.getID());
+        assertEquals("GMT-09:30", ISO8601.getTimeZone(-570).getID());
+    }
+
 }
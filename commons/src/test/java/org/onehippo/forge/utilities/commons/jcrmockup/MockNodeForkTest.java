@@ -0,0 +1,66 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.commons.jcrmockup;
+
+import javax.jcr.Node;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+
+import org.testng.annotations.Test;
+
+public class MockNodeForkTest {
+
+    private static final MockNode FIXTURE = JcrMockUp.loadMockNode("/content.xml");
+    private static final String HANDLE = "14-9-wie-denk-je-wel-dat-je-bent";
+
+    @Test(threadPoolSize = 4, invocationCount = 16)
+    public void testParallelForks() throws RepositoryException {
+        final Session session = JcrMockUp.mockJcrSession(FIXTURE.fork());
+        final Node root = session.getRootNode();
+        final long childCount = root.getNodes().getSize();
+
+        root.getNode(HANDLE).remove();
+        root.setProperty("thread", Thread.currentThread().getName());
+        final Node added = root.addNode("added", "jcrmock:testnode");
+
+        assert !root.hasNode(HANDLE);
+        assert root.getNodes().getSize() == childCount;
+        assert "/added".equals(added.getPath());
+        assert Thread.currentThread().getName().equals(root.getProperty("thread").getString());
+
+        // the shared fixture and other forks are not affected
+        assert FIXTURE.getMockChildNode(HANDLE) != null;
+        assert FIXTURE.getMockChildNode("added") == null;
+        assert FIXTURE.getMockProperty("thread") == null;
+        final Session other = JcrMockUp.simpleJcrSession(FIXTURE.fork());
+        assert other.nodeExists("/" + HANDLE + "/" + HANDLE);
+        assert !other.nodeExists("/added");
+    }
+
+    @Test
+    public void testSessionsAreScopedToTheirTree() throws RepositoryException {
+        final Session first = JcrMockUp.mockJcrSession("/content.xml");
+        final Session second = JcrMockUp.mockEmptySession();
+        final Node foo = second.getRootNode().addNode("foo", "jcrmock:testnode");
+
+        assert first != second;
+        assert "/foo".equals(foo.getPath());
+        assert ("/" + HANDLE).equals(first.getRootNode().getNode(HANDLE).getPath());
+        assert first.itemExists("/" + HANDLE);
+        assert !second.getRootNode().hasNode(HANDLE);
+    }
+}
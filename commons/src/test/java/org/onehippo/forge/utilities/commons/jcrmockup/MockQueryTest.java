@@ -0,0 +1,156 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.commons.jcrmockup;
+
+import javax.jcr.Node;
+import javax.jcr.NodeIterator;
+import javax.jcr.PropertyType;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+import javax.jcr.query.InvalidQueryException;
+import javax.jcr.query.Query;
+import javax.jcr.query.QueryManager;
+import javax.jcr.query.Row;
+
+import org.testng.annotations.Test;
+
+public class MockQueryTest {
+
+    private static final String FIRST = "/14-9-wie-denk-je-wel-dat-je-bent/14-9-wie-denk-je-wel-dat-je-bent";
+    private static final String LAST = "/thema-avond-afsluitende-gezellige-bijeenkomst/thema-avond-afsluitende-gezellige-bijeenkomst";
+
+    @Test
+    public void testNodeType() throws RepositoryException {
+        QueryManager queryManager = getQueryManager(JcrMockUp.simpleJcrSession("/content.xml"));
+        assert count(queryManager, "SELECT * FROM [jcrmockup:agenda]", Query.JCR_SQL2) == 6;
+        // primary and mixin types
+        assert count(queryManager, "SELECT * FROM [hippo:harddocument]", Query.JCR_SQL2) == 7;
+        assert count(queryManager, "//element(*, hippo:handle)", Query.XPATH) == 6;
+        assert count(queryManager, "SELECT * FROM [nt:base] AS s WHERE s.[jcr:primaryType] = 'hippostd:html'", Query.JCR_SQL2) == 12;
+    }
+
+    @Test
+    public void testPropertyConditions() throws RepositoryException {
+        QueryManager queryManager = getQueryManager(JcrMockUp.simpleJcrSession("/content.xml"));
+        assert count(queryManager, "SELECT * FROM [jcrmockup:agenda] AS s "
+                + "WHERE s.[jcrmockup:agendadate_from] >= CAST('2010-10-01T00:00:00.000+02:00' AS DATE)", Query.JCR_SQL2) == 3;
+        assert count(queryManager, "//element(*, jcrmockup:agenda)"
+                + "[@jcrmockup:agendadate_from < xs:dateTime('2010-09-14T17:30:00.000+02:00')]", Query.XPATH) == 1;
+        // date comparison is by time, not by string
+        assert count(queryManager, "//*[@jcrmockup:agendadate_from = xs:dateTime('2010-09-14T15:00:00.000Z')]", Query.XPATH) == 1;
+        assert count(queryManager, "//*[@hippo:availability = 'live' and not(@hippostd:state != 'published')]", Query.XPATH) == 6;
+        assert count(queryManager, "SELECT * FROM [jcrmockup:agenda] WHERE [hippostd:state] = 'draft' "
+                + "OR [jcr:primaryType] LIKE 'jcrmockup:ag%'", Query.JCR_SQL2) == 6;
+        assert count(queryManager, "SELECT * FROM [jcrmockup:agenda] WHERE [hippostd:stateSummary] IS NULL", Query.JCR_SQL2) == 0;
+        assert count(queryManager, "//element(*, hippostd:html)[jcr:contains(@hippostd:content, 'MIDDAGSYMPOSIUM vanuit')]",
+                Query.XPATH) == 1;
+    }
+
+    @Test
+    public void testPath() throws RepositoryException {
+        QueryManager queryManager = getQueryManager(JcrMockUp.simpleJcrSession("/content.xml"));
+        assert count(queryManager, "SELECT * FROM [nt:base] AS s "
+                + "WHERE ISDESCENDANTNODE(s, [/14-9-wie-denk-je-wel-dat-je-bent])", Query.JCR_SQL2) == 6;
+        assert count(queryManager, "SELECT * FROM [nt:base] WHERE ISCHILDNODE([/14-9-wie-denk-je-wel-dat-je-bent])",
+                Query.JCR_SQL2) == 2;
+        assert count(queryManager, "/jcr:root/_x0031_4-9-wie-denk-je-wel-dat-je-bent/*", Query.XPATH) == 2;
+        assert count(queryManager, "/jcr:root//hippo:translation", Query.XPATH) == 6;
+        assert count(queryManager, "/jcr:root/notexisting//*", Query.XPATH) == 0;
+    }
+
+    @Test
+    public void testOrderAndPage() throws RepositoryException {
+        Session session = JcrMockUp.simpleJcrSession("/content.xml");
+        QueryManager queryManager = getQueryManager(session);
+        Query query = queryManager.createQuery("SELECT * FROM [jcrmockup:agenda] AS s "
+                + "ORDER BY s.[jcrmockup:agendadate_from] DESC", Query.JCR_SQL2);
+        NodeIterator nodes = query.execute().getNodes();
+        assert nodes.getSize() == 6;
+        assert nodes.nextNode() == session.getNode(LAST);
+
+        query = queryManager.createQuery("//element(*, jcrmockup:agenda) order by @jcrmockup:agendadate_from", Query.XPATH);
+        query.setOffset(1);
+        query.setLimit(2);
+        nodes = query.execute().getNodes();
+        assert nodes.getSize() == 2;
+        assert nodes.nextNode().getPath().startsWith("/thema-avond-triade");
+
+        query.setOffset(5);
+        Row row = query.execute().getRows().nextRow();
+        assert LAST.equals(row.getPath());
+        assert LAST.equals(row.getValue("jcr:path").getString());
+    }
+
+    @Test
+    public void testBindVariable() throws RepositoryException {
+        Session session = JcrMockUp.simpleJcrSession("/content.xml");
+        Query query = getQueryManager(session).createQuery(
+                "SELECT * FROM [jcrmockup:agenda] WHERE [jcr:uuid] = $id", Query.JCR_SQL2);
+        assert "id".equals(query.getBindVariableNames()[0]);
+        String id = session.getNode(FIRST).getIdentifier();
+        query.bindValue("id", new SimpleJcrValue(id, PropertyType.STRING));
+        assert query.execute().getNodes().nextNode() == session.getNode(FIRST);
+    }
+
+    @Test
+    public void testIndexFollowsChanges() throws RepositoryException {
+        Session session = JcrMockUp.simpleJcrSession("/content.xml");
+        QueryManager queryManager = getQueryManager(session);
+        String statement = "SELECT * FROM [jcrmockup:agenda] WHERE [hippostd:state] = 'published'";
+        assert count(queryManager, statement, Query.JCR_SQL2) == 6;
+
+        session.getNode(FIRST).setProperty("hippostd:state", "unpublished");
+        assert count(queryManager, statement, Query.JCR_SQL2) == 5;
+
+        Node added = session.getNode("/14-9-wie-denk-je-wel-dat-je-bent").addNode("copy", "jcrmockup:agenda");
+        added.setProperty("hippostd:state", "published");
+        assert count(queryManager, statement, Query.JCR_SQL2) == 6;
+
+        session.getNode(LAST).remove();
+        assert count(queryManager, statement, Query.JCR_SQL2) == 5;
+    }
+
+    @Test
+    public void testMockitoSession() throws RepositoryException {
+        Session session = JcrMockUp.mockJcrSession("/content.xml");
+        NodeIterator nodes = getQueryManager(session).createQuery(
+                "//element(*, jcrmockup:agenda)[@hippostd:state = 'published']", Query.XPATH).execute().getNodes();
+        assert nodes.getSize() == 6;
+        assert FIRST.equals(nodes.nextNode().getPath());
+    }
+
+    @Test
+    public void testInvalidQuery() throws RepositoryException {
+        QueryManager queryManager = getQueryManager(JcrMockUp.simpleJcrSession("/content.xml"));
+        boolean invalid = false;
+        try {
+            queryManager.createQuery("SELECT * FROM [nt:base] WHERE", Query.JCR_SQL2);
+        } catch (InvalidQueryException e) {
+            invalid = true;
+        }
+        assert invalid;
+    }
+
+    private static QueryManager getQueryManager(final Session session) throws RepositoryException {
+        return session.getWorkspace().getQueryManager();
+    }
+
+    private static long count(final QueryManager queryManager, final String statement, final String language)
+            throws RepositoryException {
+        return queryManager.createQuery(statement, language).execute().getNodes().getSize();
+    }
+}
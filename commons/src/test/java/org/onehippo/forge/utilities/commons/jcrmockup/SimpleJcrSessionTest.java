@@ -0,0 +1,139 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.commons.jcrmockup;
+
+import java.util.Calendar;
+
+import javax.jcr.Item;
+import javax.jcr.Node;
+import javax.jcr.NodeIterator;
+import javax.jcr.PathNotFoundException;
+import javax.jcr.Property;
+import javax.jcr.PropertyType;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+import javax.jcr.Value;
+
+import org.testng.annotations.Test;
+
+public class SimpleJcrSessionTest {
+
+    private static final String DOCUMENT = "/14-9-wie-denk-je-wel-dat-je-bent/14-9-wie-denk-je-wel-dat-je-bent";
+
+    @Test
+    public void testSession() throws RepositoryException {
+        Session session = JcrMockUp.simpleJcrSession("/content.xml");
+        Node node = session.getRootNode();
+        assert "98267ef6-37c9-4842-b8d5-4bcab85e06eb".equals(node.getIdentifier());
+        assert "/".equals(node.getPath());
+        assert node.isNodeType("hippostd:folder") && node.isNodeType("hippo:harddocument");
+        assert node.getSession() == session;
+        assert session.getWorkspace().getVersionManager() != null;
+    }
+
+    @Test
+    public void testOneWrapperPerItem() throws RepositoryException {
+        Session session = JcrMockUp.simpleJcrSession("/content.xml");
+        Node document = session.getNode(DOCUMENT);
+        assert document == session.getItem(DOCUMENT);
+        assert document == session.getRootNode().getNode("14-9-wie-denk-je-wel-dat-je-bent").getNodes("14-9-*").nextNode();
+        assert document.getProperty("jcr:uuid") == session.getProperty(DOCUMENT + "/jcr:uuid");
+        assert document.getParent().getParent() == session.getRootNode();
+    }
+
+    @Test
+    public void testGetItem() throws RepositoryException {
+        Session session = JcrMockUp.simpleJcrSession("/content.xml");
+        Node node = (Node) session.getItem(DOCUMENT + "/jcrmockup:body");
+        assert node.getProperty("hippostd:content").getString().contains("middagsymposium wordt vanuit diverse");
+
+        Item property = session.getItem(DOCUMENT + "/jcrmockup:body/hippostd:content");
+        assert property instanceof Property;
+        assert (DOCUMENT + "/jcrmockup:body/hippostd:content").equals(property.getPath());
+        assert property.getDepth() == 4;
+        assert session.getRootNode().getProperty("14-9-wie-denk-je-wel-dat-je-bent/jcr:uuid") != null;
+        assert session.getNode(DOCUMENT + "/../14-9-wie-denk-je-wel-dat-je-bent[1]") == session.getNode(DOCUMENT);
+
+        boolean pathNotFound = false;
+        try {
+            session.getItem("/notexisting");
+        } catch (PathNotFoundException e) {
+            pathNotFound = true;
+        }
+        assert pathNotFound;
+    }
+
+    @Test
+    public void testGetProperties() throws RepositoryException {
+        Session session = JcrMockUp.simpleJcrSession("/content.xml");
+        Node node = session.getNode(DOCUMENT);
+
+        Calendar calendar = node.getProperty("jcrmockup:agendadate_from").getDate();
+        assert 2010 == calendar.get(Calendar.YEAR) && calendar.get(Calendar.MONTH) == 8;
+        assert node.getProperty("jcrmockup:agendadate_from").getType() == PropertyType.DATE;
+        assert !node.getProperty("jcrmockup:generate_anchors").getBoolean();
+        Property availability = node.getProperty("hippo:availability");
+        assert availability.isMultiple() && availability.getDefinition().isMultiple();
+        for (Value value : availability.getValues()) {
+            assert "live".equals(value.getString()) || "preview".equals(value.getString());
+        }
+        assert node.getProperties("hippo:avail*|jcr:uuid").getSize() == 2;
+    }
+
+    @Test
+    public void testSetProperties() throws RepositoryException {
+        Session session = JcrMockUp.simpleJcrSession("/content.xml");
+        Node node = session.getRootNode();
+        Property property = node.setProperty("string", "foobar");
+        node.setProperty("multistring", new String[]{"foo", "bar"});
+        node.setProperty("long", 1234);
+        Calendar calendar = Calendar.getInstance();
+        node.setProperty("date", calendar);
+
+        assert "foobar".equals(node.getProperty("string").getString());
+        node.setProperty("string", "changed");
+        assert "changed".equals(property.getString());
+        assert node.getProperty("multistring").getValues().length == 2;
+        assert node.getProperty("long").getLong() == 1234L;
+        assert node.getProperty("date").getDate().getTimeInMillis() == calendar.getTimeInMillis();
+
+        node.setProperty("string", (String) null);
+        assert !node.hasProperty("string");
+    }
+
+    @Test
+    public void testAddAndRemoveNodes() throws RepositoryException {
+        Session session = JcrMockUp.simpleEmptySession();
+        Node root = session.getRootNode();
+        Node first = root.addNode("foo", "jcrmock:testnode");
+        Node second = root.addNode("foo", "jcrmock:testnode");
+        Node bar = second.addNode("bar");
+
+        assert "/foo[2]/bar".equals(bar.getPath());
+        assert root.getNodes("foo").getSize() == 2;
+        assert root.getNodes("f*").getSize() == 2;
+
+        first.remove();
+        assert "/foo/bar".equals(bar.getPath());
+        NodeIterator nodes = root.getNodes();
+        assert nodes.getSize() == 1;
+        nodes.nextNode();
+        nodes.remove();
+        assert !root.hasNodes();
+        assert !session.nodeExists("/foo");
+    }
+}
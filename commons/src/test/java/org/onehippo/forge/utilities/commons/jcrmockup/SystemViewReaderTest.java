@@ -0,0 +1,122 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.commons.jcrmockup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.jcr.Node;
+import javax.jcr.Session;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertSame;
+
+public class SystemViewReaderTest {
+
+    @Test
+    public void testSameTreeAsJaxb() throws Exception {
+        final MockNode streamed = read();
+        final MockNode unmarshalled;
+        final InputStream inputStream = getClass().getResourceAsStream("/content.xml");
+        try {
+            unmarshalled = JcrMockUp.unmarshal(inputStream);
+        } finally {
+            inputStream.close();
+        }
+        assertSameTree(streamed, unmarshalled);
+        assertSame(streamed.getParent(), streamed);
+    }
+
+    @Test
+    public void testInternedNames() throws Exception {
+        final MockNode root = read();
+        final MockNode first = root.getMockChildNodes().get(0);
+        final MockNode second = root.getMockChildNodes().get(1);
+        assertSame(first.getMockProperty("jcr:primaryType").getMockPropertyName(),
+                second.getMockProperty("jcr:primaryType").getMockPropertyName());
+    }
+
+    @Test
+    public void testNamespace() throws Exception {
+        final String xml = "<sv:node xmlns:sv=\"http://www.jcp.org/jcr/sv/1.0\" xmlns:x=\"urn:other\" sv:name=\"root\">"
+                + "<sv:property sv:name=\"title\" sv:type=\"String\" x:type=\"Long\"><sv:value>a</sv:value>"
+                + "<x:value>b</x:value></sv:property>"
+                + "<x:node sv:name=\"other\"><sv:node sv:name=\"nested\"/></x:node>"
+                + "<node sv:name=\"unqualified\"/>"
+                + "<sv:node x:name=\"foreign\" sv:name=\"child\"/>"
+                + "</sv:node>";
+        final MockNode root = new SystemViewReader().read(new ByteArrayInputStream(xml.getBytes("UTF-8")));
+        assertEquals(root.getMockNodeName(), "root");
+        final MockProperty title = root.getMockProperty("title");
+        assertEquals(title.getMockPropertyType(), "String");
+        assertEquals(title.getMockValues(), Arrays.asList("a"));
+        assertEquals(root.getMockChildNodes().size(), 1);
+        assertEquals(root.getMockChildNodes().get(0).getMockNodeName(), "child");
+        assertSameTree(root, JcrMockUp.unmarshal(new ByteArrayInputStream(xml.getBytes("UTF-8"))));
+    }
+
+    @Test
+    public void testSnapshot() throws Exception {
+        final MockNode root = read();
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MockNodeSnapshot.write(root, out);
+
+        final MockNode copy = MockNodeSnapshot.read(new ByteArrayInputStream(out.toByteArray()));
+        assertSameTree(copy, root);
+
+        final Session session = JcrMockUp.mockJcrSession(new ByteArrayInputStream(out.toByteArray()));
+        assertNotNull(session);
+        final Node node = session.getRootNode();
+        assertEquals(node.getIdentifier(), "98267ef6-37c9-4842-b8d5-4bcab85e06eb");
+        assertEquals(JcrMockUp.simpleJcrSession(new ByteArrayInputStream(out.toByteArray())).getRootNode().getNodes().getSize(),
+                node.getNodes().getSize());
+    }
+
+    private MockNode read() throws Exception {
+        final InputStream inputStream = getClass().getResourceAsStream("/content.xml");
+        try {
+            return new SystemViewReader().read(inputStream);
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    private static void assertSameTree(final MockNode actual, final MockNode expected) {
+        assertEquals(actual.getMockNodeName(), expected.getMockNodeName());
+        assertEquals(actual.getMockProperties().size(), expected.getMockProperties().size());
+        for (MockProperty property : expected.getMockProperties()) {
+            final MockProperty actualProperty = actual.getMockProperty(property.getMockPropertyName());
+            assertNotNull(actualProperty, property.getMockPropertyName());
+            assertEquals(actualProperty.getMockPropertyType(), property.getMockPropertyType());
+            assertEquals(actualProperty.getMockValues(), property.getMockValues());
+            assertSame(actualProperty.getParent(), actual);
+        }
+        final List<MockNode> actualChildren = actual.getMockChildNodes();
+        final List<MockNode> expectedChildren = expected.getMockChildNodes();
+        assertEquals(actualChildren.size(), expectedChildren.size());
+        for (int i = 0; i < expectedChildren.size(); i++) {
+            assertSame(actualChildren.get(i).getParent(), actual);
+            assertSameTree(actualChildren.get(i), expectedChildren.get(i));
+        }
+    }
+}
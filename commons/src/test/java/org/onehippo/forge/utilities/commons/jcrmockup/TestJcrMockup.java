@@ -409,4 +409,57 @@ public class TestJcrMockup {
         assert "/foo[2]/bar".equals(firstBarNode.getPath());
         assert "/foo[2]/bar[2]".equals(secondBarNode.getPath());
     }
+
+    @Test
+    public void sameNameSiblingRemoveTest() throws RepositoryException {
+        Session session = JcrMockUp.mockEmptySession();
+        Node rootNode = session.getRootNode();
+
+        Node firstFooNode = rootNode.addNode("foo", "jcrmock:testnode");
+        Node secondFooNode = rootNode.addNode("foo", "jcrmock:testnode");
+        Node thirdFooNode = rootNode.addNode("foo", "jcrmock:testnode");
+        Node barNode = thirdFooNode.addNode("bar", "jcrmock:testnode");
+
+        assert "/foo[3]/bar".equals(barNode.getPath());
+        firstFooNode.remove();
+
+        assert "/foo".equals(secondFooNode.getPath());
+        assert "/foo[2]".equals(thirdFooNode.getPath());
+        assert "/foo[2]/bar".equals(barNode.getPath());
+        assert thirdFooNode.getIndex() == 2;
+        assert rootNode.getNodes("foo").getSize() == 2;
+        assert "/foo".equals(rootNode.getNode("foo").getPath());
+    }
+
+    @Test
+    public void manyChildNodesTest() throws RepositoryException {
+        Session session = JcrMockUp.mockEmptySession();
+        Node rootNode = session.getRootNode();
+        Node parent = rootNode.addNode("parent", "jcrmock:testnode");
+        for (int i = 0; i < 2000; i++) {
+            parent.addNode("child" + i, "jcrmock:testnode");
+            parent.addNode("sibling", "jcrmock:testnode");
+        }
+
+        assert parent.hasNode("child1999");
+        assert "/parent/child1000".equals(parent.getNode("child1000").getPath());
+        assert parent.getNodes().getSize() == 4000;
+        assert parent.getNodes("sibling").getSize() == 2000;
+
+        // same name sibling indexes shift on removal, so remove every other sibling by position
+        NodeIterator siblings = parent.getNodes("sibling");
+        boolean remove = false;
+        while (siblings.hasNext()) {
+            Node sibling = siblings.nextNode();
+            if (remove) {
+                sibling.remove();
+            }
+            remove = !remove;
+        }
+        assert parent.getNodes("sibling").getSize() == 1000;
+        assert parent.getNodes().getSize() == 3000;
+        NodeIterator remaining = parent.getNodes("sibling");
+        remaining.nextNode();
+        assert "/parent/sibling[2]".equals(remaining.nextNode().getPath());
+    }
 }
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.hst;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds a field to a parameter, see {@link ParameterBinder}. Supported field types are String, int, Integer,
+ * boolean, Boolean, enums and List of String for comma separated values.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface BoundParameter {
+
+    /**
+     * @return the parameter name
+     */
+    String value();
+
+    /**
+     * @return the value used if the parameter is not there or cannot be parsed, empty to keep the field value
+     */
+    String defaultValue() default "";
+
+    /**
+     * @return where the parameter is read from
+     */
+    ParameterSource source() default ParameterSource.COMPONENT;
+}
@@ -63,22 +63,17 @@ public class CompUtil {
 
     /**
      * Get a string List from comma-separated values of a configuration parameter.
+     * The values are parsed once per parameter value; every call returns a new list.
      */
+    @SuppressWarnings("unchecked")
     public static List<String> getParameterList(final BaseHstComponent comp, final HstRequest request, final String paramName) {
 
-        String commaSepValues = comp.getComponentParameter(paramName);
-
-        if (commaSepValues == null) {
+        final List<String> list = (List<String>) ComponentParameterCache.getParameter(comp, paramName, false,
+                ComponentParameterCache.LIST);
+        if (list == null) {
             return Collections.emptyList();
         }
-
-
-        String[] values = commaSepValues.split(",");
-        List<String> list = new ArrayList<String>(values.length);
-        for (String value : values) {
-            list.add(value.trim().replaceAll(getCleanUpChars(), ""));
-        }
-        return list;
+        return new ArrayList<String>(list);
     }
 
     /**
@@ -87,17 +82,21 @@ public class CompUtil {
      */
     public static int getParameterInt(final BaseHstComponent comp, final HstRequest request, final String paramName, final int defaultValue) {
 
-        final String paramValue = comp.getComponentParameter(paramName);
-        if (paramValue != null) {
-            try {
-                return Integer.parseInt(paramValue.trim());
-            }
-            catch (NumberFormatException nfe) {
-                return defaultValue;
-            }
-        }
+        final Integer value = (Integer) ComponentParameterCache.getParameter(comp, paramName, false,
+                ComponentParameterCache.INT);
+        return (value != null) ? value.intValue() : defaultValue;
+    }
 
-        return defaultValue;
+    /**
+     * Get an enum constant from a configuration parameter by its name, ignoring case, returning a default value
+     * in case of error or if the parameter is not there.
+     */
+    public static <E extends Enum<E>> E getParameterEnum(final BaseHstComponent comp, final HstRequest request,
+            final String paramName, final Class<E> enumClass, final E defaultValue) {
+
+        final Object value = ComponentParameterCache.getParameter(comp, paramName, false,
+                ComponentParameterCache.getEnumParser(enumClass));
+        return (value != null) ? enumClass.cast(value) : defaultValue;
     }
 
     /**
@@ -113,11 +112,9 @@ public class CompUtil {
      * if the parameter is not there, and false if the parsing fails.
      */
     public static boolean getParameterBoolean(final BaseHstComponent comp, HstRequest request, String paramName, boolean defaultValue) {
-        final String paramValue = comp.getComponentParameter(paramName);
-        if (paramValue != null) {
-            return Boolean.valueOf(paramValue.trim()).booleanValue();
-        }
-        return defaultValue;
+        final Boolean value = (Boolean) ComponentParameterCache.getParameter(comp, paramName, false,
+                ComponentParameterCache.BOOLEAN);
+        return (value != null) ? value.booleanValue() : defaultValue;
     }
 
     /**
@@ -139,17 +136,9 @@ public class CompUtil {
     public static int getLocalParameterInt(final BaseHstComponent comp, final HstRequest request,
             final String paramName, final int defaultValue) {
 
-        final String value = comp.getComponentLocalParameter(paramName);
-        if (value != null) {
-            try {
-                return Integer.parseInt(value.trim());
-            }
-            catch (NumberFormatException nfe) {
-                return defaultValue;
-            }
-        }
-
-        return defaultValue;
+        final Integer value = (Integer) ComponentParameterCache.getParameter(comp, paramName, true,
+                ComponentParameterCache.INT);
+        return (value != null) ? value.intValue() : defaultValue;
     }
 
     /**
@@ -159,11 +148,9 @@ public class CompUtil {
      */
     public static boolean getLocalParameterBoolean(final BaseHstComponent comp, final HstRequest request,
             final String paramName, final boolean defaultValue) {
-        final String paramValue = comp.getComponentLocalParameter(paramName);
-        if (paramValue != null) {
-            return Boolean.valueOf(paramValue.trim()).booleanValue();
-        }
-        return defaultValue;
+        final Boolean value = (Boolean) ComponentParameterCache.getParameter(comp, paramName, true,
+                ComponentParameterCache.BOOLEAN);
+        return (value != null) ? value.booleanValue() : defaultValue;
     }
 
     /**
@@ -228,6 +215,13 @@ public class CompUtil {
         return defaultValue;
     }
 
+    /**
+     * Drops the parsed enum and list parameter values.
+     */
+    public static void clearParameterCache() {
+        ComponentParameterCache.clear();
+    }
+
     protected static String getCleanUpChars() {
         return CLEANUP_CHARS;
     }
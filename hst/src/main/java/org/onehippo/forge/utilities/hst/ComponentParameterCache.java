@@ -0,0 +1,174 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.hst;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+import org.hippoecm.hst.component.support.bean.BaseHstComponent;
+
+/**
+ * Typed values of the parameters of a component.
+ * <p>
+ * The parameter value is looked up on every call, because it may depend on the request, e.g. through sitemap
+ * wildcards or parameter variants. Int, boolean and string values are parsed on every call, which is cheaper than
+ * any lookup. Enum and list values are parsed once per parameter value: they are kept by value in their parser, so
+ * the components that share a configuration value share the parsed value, and nothing is kept per component.
+ * </p>
+ */
+final class ComponentParameterCache {
+
+    /**
+     * Maximum number of parsed values a parser keeps; it starts over when it has more, e.g. for values that are
+     * taken from the URL through sitemap wildcards.
+     */
+    private static final int MAX_CACHED_VALUES = 256;
+
+    private static final ConcurrentMap<Class<?>, CachingParser> ENUM_PARSERS =
+            new ConcurrentHashMap<Class<?>, CachingParser>();
+
+    /**
+     * Parses a parameter value, returning null if it cannot be parsed.
+     */
+    abstract static class Parser {
+        abstract Object parse(String value);
+    }
+
+    /**
+     * Parser that keeps the parsed values by parameter value.
+     */
+    private abstract static class CachingParser extends Parser {
+        private static final Object NONE = new Object();
+
+        private final ConcurrentMap<String, Object> parsedValues = new ConcurrentHashMap<String, Object>();
+
+        Object parse(final String value) {
+            Object parsed = parsedValues.get(value);
+            if (parsed == null) {
+                parsed = parseValue(value);
+                if (parsed == null) {
+                    parsed = NONE;
+                }
+                if (parsedValues.size() >= MAX_CACHED_VALUES) {
+                    parsedValues.clear();
+                }
+                parsedValues.put(value, parsed);
+            }
+            return parsed == NONE ? null : parsed;
+        }
+
+        abstract Object parseValue(String value);
+
+        void clear() {
+            parsedValues.clear();
+        }
+    }
+
+    static final Parser STRING = new Parser() {
+        Object parse(final String value) {
+            return value.trim();
+        }
+    };
+
+    static final Parser INT = new Parser() {
+        Object parse(final String value) {
+            try {
+                return Integer.valueOf(value.trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    };
+
+    static final Parser BOOLEAN = new Parser() {
+        Object parse(final String value) {
+            return Boolean.valueOf(value.trim());
+        }
+    };
+
+    private static final CachingParser CACHING_LIST = new CachingParser() {
+        private final Pattern cleanUpPattern = Pattern.compile(CompUtil.getCleanUpChars());
+
+        Object parseValue(final String value) {
+            final String[] values = value.split(",");
+            final List<String> list = new ArrayList<String>(values.length);
+            for (String element : values) {
+                list.add(cleanUpPattern.matcher(element.trim()).replaceAll(""));
+            }
+            return Collections.unmodifiableList(list);
+        }
+    };
+
+    static final Parser LIST = CACHING_LIST;
+
+    private static final class EnumParser extends CachingParser {
+        private final Enum<?>[] constants;
+
+        private EnumParser(final Class<? extends Enum<?>> enumClass) {
+            this.constants = enumClass.getEnumConstants();
+        }
+
+        Object parseValue(final String value) {
+            final String name = value.trim();
+            for (Enum<?> constant : constants) {
+                if (constant.name().equalsIgnoreCase(name)) {
+                    return constant;
+                }
+            }
+            return null;
+        }
+    }
+
+    private ComponentParameterCache() {
+    }
+
+    static Parser getEnumParser(final Class<? extends Enum<?>> enumClass) {
+        CachingParser parser = ENUM_PARSERS.get(enumClass);
+        if (parser == null) {
+            parser = new EnumParser(enumClass);
+            final CachingParser existing = ENUM_PARSERS.putIfAbsent(enumClass, parser);
+            if (existing != null) {
+                parser = existing;
+            }
+        }
+        return parser;
+    }
+
+    /**
+     * @param local true for a local parameter, i.e. not overridden by parent components
+     * @return the parsed value of a parameter, or null if the parameter is not there or cannot be parsed
+     */
+    static Object getParameter(final BaseHstComponent comp, final String paramName, final boolean local,
+            final Parser parser) {
+        final String value = local ? comp.getComponentLocalParameter(paramName) : comp.getComponentParameter(paramName);
+        return value == null ? null : parser.parse(value);
+    }
+
+    /**
+     * Drops all parsed values.
+     */
+    static void clear() {
+        CACHING_LIST.clear();
+        for (CachingParser parser : ENUM_PARSERS.values()) {
+            parser.clear();
+        }
+    }
+}
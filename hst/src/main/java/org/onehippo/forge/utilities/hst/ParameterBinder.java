@@ -0,0 +1,251 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.hst;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.hippoecm.hst.component.support.bean.BaseHstComponent;
+import org.hippoecm.hst.core.component.HstComponentException;
+import org.hippoecm.hst.core.component.HstRequest;
+
+/**
+ * Fills the {@link BoundParameter} annotated fields of an object with the parameters of a component, instead of
+ * calling {@link CompUtil} for each of them:
+ * <pre>
+ *   public class ListInfo {
+ *       &#64;BoundParameter(value = "pageSize", defaultValue = "10")
+ *       private int pageSize;
+ *       &#64;BoundParameter(value = "page", source = ParameterSource.PUBLIC_REQUEST, defaultValue = "1")
+ *       private int page;
+ *       &#64;BoundParameter("types")
+ *       private List&lt;String&gt; types;
+ *       ...
+ *   }
+ *
+ *   ListInfo info = ParameterBinder.forClass(ListInfo.class).bind(this, request);
+ * </pre>
+ * The fields, their parsers and default values are looked up once per class. Binding uses method handles to set
+ * the fields, and component parameters are parsed like {@link CompUtil} does. A field keeps its value
+ * if its parameter is not there or cannot be parsed and there is no default value.
+ */
+public final class ParameterBinder<T> {
+
+    private static final ConcurrentMap<Class<?>, ParameterBinder<?>> BINDERS =
+            new ConcurrentHashMap<Class<?>, ParameterBinder<?>>();
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final Class<T> beanClass;
+    private final MethodHandle constructor;
+    private final FieldBinding[] bindings;
+
+    /**
+     * Binding of one field, resolved when the binder is created.
+     */
+    private static final class FieldBinding {
+        private final String parameterName;
+        private final ParameterSource source;
+        private final ComponentParameterCache.Parser parser;
+        private final Object defaultValue;
+        private final MethodHandle setter;
+
+        private FieldBinding(final String parameterName, final ParameterSource source,
+                final ComponentParameterCache.Parser parser, final Object defaultValue, final MethodHandle setter) {
+            this.parameterName = parameterName;
+            this.source = source;
+            this.parser = parser;
+            this.defaultValue = defaultValue;
+            this.setter = setter;
+        }
+    }
+
+    private ParameterBinder(final Class<T> beanClass) {
+        this.beanClass = beanClass;
+        this.constructor = findConstructor(beanClass);
+        final List<FieldBinding> fieldBindings = new ArrayList<FieldBinding>();
+        for (Class<?> clazz = beanClass; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+            for (Field field : clazz.getDeclaredFields()) {
+                final BoundParameter annotation = field.getAnnotation(BoundParameter.class);
+                if (annotation != null) {
+                    fieldBindings.add(createBinding(field, annotation));
+                }
+            }
+        }
+        this.bindings = fieldBindings.toArray(new FieldBinding[fieldBindings.size()]);
+    }
+
+    /**
+     * @param beanClass class with {@link BoundParameter} annotated fields
+     * @return the binder of the class
+     * @throws IllegalArgumentException if an annotated field is static, final or of an unsupported type, or has an
+     *                                  invalid default value
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ParameterBinder<T> forClass(final Class<T> beanClass) {
+        ParameterBinder<?> binder = BINDERS.get(beanClass);
+        if (binder == null) {
+            binder = new ParameterBinder<T>(beanClass);
+            final ParameterBinder<?> existing = BINDERS.putIfAbsent(beanClass, binder);
+            if (existing != null) {
+                binder = existing;
+            }
+        }
+        return (ParameterBinder<T>) binder;
+    }
+
+    /**
+     * Creates an object with the no argument constructor of its class and fills it.
+     *
+     * @throws HstComponentException if the object cannot be created
+     */
+    public T bind(final BaseHstComponent comp, final HstRequest request) {
+        if (constructor == null) {
+            throw new HstComponentException("Class " + beanClass.getName() + " has no constructor without arguments");
+        }
+        final T bean;
+        try {
+            bean = beanClass.cast(constructor.invoke());
+        } catch (Throwable e) {
+            throw new HstComponentException("Cannot create " + beanClass.getName(), e);
+        }
+        return bind(comp, request, bean);
+    }
+
+    /**
+     * Fills an object with the parameters of a component.
+     *
+     * @return the object
+     */
+    public T bind(final BaseHstComponent comp, final HstRequest request, final T bean) {
+        for (FieldBinding binding : bindings) {
+            Object value = getValue(comp, request, binding);
+            if (value == null) {
+                value = binding.defaultValue;
+            }
+            if (value instanceof List) {
+                // parsed lists are shared, every object gets its own copy
+                value = new ArrayList<Object>((List<?>) value);
+            }
+            if (value != null) {
+                try {
+                    binding.setter.invokeExact((Object) bean, value);
+                } catch (Throwable e) {
+                    throw new HstComponentException("Cannot set parameter " + binding.parameterName + " on "
+                            + beanClass.getName(), e);
+                }
+            }
+        }
+        return bean;
+    }
+
+    /**
+     * @return the names of the bound parameters
+     */
+    public List<String> getParameterNames() {
+        final List<String> names = new ArrayList<String>(bindings.length);
+        for (FieldBinding binding : bindings) {
+            names.add(binding.parameterName);
+        }
+        return names;
+    }
+
+    private static Object getValue(final BaseHstComponent comp, final HstRequest request, final FieldBinding binding) {
+        final String value;
+        switch (binding.source) {
+            case COMPONENT:
+                return ComponentParameterCache.getParameter(comp, binding.parameterName, false, binding.parser);
+            case LOCAL:
+                return ComponentParameterCache.getParameter(comp, binding.parameterName, true, binding.parser);
+            case PUBLIC_REQUEST:
+                value = comp.getPublicRequestParameter(request, binding.parameterName);
+                break;
+            default:
+                value = request.getParameter(binding.parameterName);
+                break;
+        }
+        return value != null ? binding.parser.parse(value) : null;
+    }
+
+    private static FieldBinding createBinding(final Field field, final BoundParameter annotation) {
+        final String description = field.getDeclaringClass().getName() + "." + field.getName();
+        if (Modifier.isStatic(field.getModifiers()) || Modifier.isFinal(field.getModifiers())) {
+            throw new IllegalArgumentException("Parameter field " + description + " is static or final");
+        }
+        final ComponentParameterCache.Parser parser = getParser(field.getType());
+        if (parser == null) {
+            throw new IllegalArgumentException("Parameter field " + description + " has unsupported type "
+                    + field.getType().getName());
+        }
+        Object defaultValue = null;
+        if (!annotation.defaultValue().isEmpty()) {
+            defaultValue = parser.parse(annotation.defaultValue());
+            if (defaultValue == null) {
+                throw new IllegalArgumentException("Invalid default value '" + annotation.defaultValue()
+                        + "' of parameter field " + description);
+            }
+        }
+        final MethodHandle setter;
+        try {
+            field.setAccessible(true);
+            setter = MethodHandles.lookup().unreflectSetter(field).asType(SETTER_TYPE);
+        } catch (IllegalAccessException | RuntimeException e) {
+            throw new IllegalArgumentException("Cannot access parameter field " + description, e);
+        }
+        return new FieldBinding(annotation.value(), annotation.source(), parser, defaultValue, setter);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ComponentParameterCache.Parser getParser(final Class<?> type) {
+        if (type == String.class) {
+            return ComponentParameterCache.STRING;
+        }
+        if (type == int.class || type == Integer.class) {
+            return ComponentParameterCache.INT;
+        }
+        if (type == boolean.class || type == Boolean.class) {
+            return ComponentParameterCache.BOOLEAN;
+        }
+        if (type == List.class) {
+            return ComponentParameterCache.LIST;
+        }
+        if (type.isEnum()) {
+            return ComponentParameterCache.getEnumParser((Class<? extends Enum<?>>) type);
+        }
+        return null;
+    }
+
+    private static MethodHandle findConstructor(final Class<?> beanClass) {
+        try {
+            final Constructor<?> constructor = beanClass.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return MethodHandles.lookup().unreflectConstructor(constructor)
+                    .asType(MethodType.methodType(Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException | RuntimeException e) {
+            // bind(comp, request, bean) can still be used
+            return null;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.hst;
+
+/**
+ * Where a {@link BoundParameter} is read from, matching the variants of {@link CompUtil}.
+ */
+public enum ParameterSource {
+
+    /**
+     * Component configuration parameter, like {@link CompUtil#getParameter}.
+     */
+    COMPONENT,
+
+    /**
+     * Component configuration parameter not overridden by parent components, like {@link CompUtil#getLocalParameter}.
+     */
+    LOCAL,
+
+    /**
+     * Public request parameter, like {@link CompUtil#getPublicRequestParameter}.
+     */
+    PUBLIC_REQUEST,
+
+    /**
+     * Request parameter of the component, like {@link CompUtil#getRequestParameterInt}.
+     */
+    REQUEST
+}
@@ -16,6 +16,9 @@
 
 package org.onehippo.forge.utilities.hst.component;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 import org.hippoecm.hst.component.support.bean.BaseHstComponent;
 import org.hippoecm.hst.core.component.HstComponentException;
 import org.hippoecm.hst.core.component.HstRequest;
@@ -26,18 +29,58 @@ public class BaseComponent extends BaseHstComponent {
     private static final String CSSCLASS = "cssclass";
     private static final String ID = "id";
 
+    private static final Object NO_VALUE = new Object();
+
+    private final ConcurrentMap<String, Object> localParameters = new ConcurrentHashMap<String, Object>();
+
     @Override
     public void doBeforeRender(HstRequest request, HstResponse response) throws HstComponentException {
         super.doBeforeRender(request, response);
 
-        final String cssClass = this.getComponentLocalParameter(CSSCLASS);
+        final String cssClass = getCachedLocalParameter(CSSCLASS);
         if (cssClass != null) {
             request.setAttribute(CSSCLASS, cssClass);
         }
         
-        final String id = this.getComponentLocalParameter(ID);
+        final String id = getCachedLocalParameter(ID);
         if (id != null) {
             request.setAttribute(ID, id);
         }
     }
+
+    /**
+     * Returns a local parameter, read once per component instance if {@link #isRenderStateCacheable()}. The HST
+     * creates new component instances when its model changes, so the values follow configuration changes.
+     *
+     * @param name name of the local parameter
+     * @return the value, or null if the parameter is not there
+     */
+    protected String getCachedLocalParameter(final String name) {
+        if (!isRenderStateCacheable()) {
+            return getComponentLocalParameter(name);
+        }
+        Object value = localParameters.get(name);
+        if (value == null) {
+            final String parameter = getComponentLocalParameter(name);
+            value = parameter == null ? NO_VALUE : parameter;
+            localParameters.putIfAbsent(name, value);
+        }
+        return value == NO_VALUE ? null : (String) value;
+    }
+
+    /**
+     * Can the local parameters be kept for all requests? Override and return true only if they do not depend on the
+     * request, so not through sitemap wildcards or parameter variants.
+     *
+     * @return false by default
+     */
+    protected boolean isRenderStateCacheable() {
+        return false;
+    }
+
+    @Override
+    public void destroy() throws HstComponentException {
+        localParameters.clear();
+        super.destroy();
+    }
 }
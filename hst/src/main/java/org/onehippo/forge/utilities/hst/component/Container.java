@@ -23,7 +23,6 @@ import java.util.List;
 import org.hippoecm.hst.core.component.HstComponentException;
 import org.hippoecm.hst.core.component.HstRequest;
 import org.hippoecm.hst.core.component.HstResponse;
-import org.onehippo.forge.utilities.hst.CompUtil;
 
 public class Container extends BaseComponent {
 
@@ -31,6 +30,23 @@ public class Container extends BaseComponent {
     private static final String SORTING = "sorting";
     private static final String SORTING_DEFAULT = "default";
 
+    private final boolean sortingOverridden = isSortingOverridden(getClass());
+
+    private volatile SortedIncludes sortedIncludes;
+
+    /**
+     * Child names with their default (alphabetical) ordering.
+     */
+    private static final class SortedIncludes {
+        private final List<String> childNames;
+        private final List<String> includes;
+
+        private SortedIncludes(final List<String> childNames, final List<String> includes) {
+            this.childNames = childNames;
+            this.includes = includes;
+        }
+    }
+
     @Override
     public void doBeforeRender(HstRequest request, HstResponse response) throws HstComponentException {
 
@@ -40,16 +56,53 @@ public class Container extends BaseComponent {
         List<String> childNames = response.getChildContentNames();
         if (childNames != null && childNames.size() > 0) {
             
-            childNames = sortChildNames(childNames, request, response);
+            childNames = getSortedChildNames(childNames, request, response);
             
             request.setAttribute(INCLUDES, childNames);
         }
     }
 
+    /**
+     * Returns the sorted child names, keeping the default ordering as long as the child names do not change. The
+     * sorting parameter itself is checked on every request, unless {@link #isRenderStateCacheable()}.
+     */
+    private List<String> getSortedChildNames(List<String> childNames, HstRequest request, HstResponse response) {
+        if (sortingOverridden || !SORTING_DEFAULT.equals(getSorting())) {
+            return sortChildNames(childNames, request, response);
+        }
+        final SortedIncludes cached = sortedIncludes;
+        if (cached != null && cached.childNames.equals(childNames)) {
+            return cached.includes;
+        }
+        final List<String> includes = Collections.unmodifiableList(sortChildNames(childNames, request, response));
+        sortedIncludes = new SortedIncludes(new ArrayList<String>(childNames), includes);
+        return includes;
+    }
+
+    /**
+     * @return true if a subclass overrides sortChildNames, which may depend on the request
+     */
+    private static boolean isSortingOverridden(Class<?> clazz) {
+        for (Class<?> c = clazz; c != null && c != Container.class; c = c.getSuperclass()) {
+            try {
+                c.getDeclaredMethod("sortChildNames", List.class, HstRequest.class, HstResponse.class);
+                return true;
+            } catch (NoSuchMethodException e) {
+                // not overridden in this class
+            }
+        }
+        return false;
+    }
+
+    private String getSorting() {
+        final String sorting = getCachedLocalParameter(SORTING);
+        return sorting != null ? sorting.trim() : SORTING_DEFAULT;
+    }
+
     protected List<String> sortChildNames(List<String> childNames, HstRequest request, HstResponse response) {
         
         // default behaviour is sorted alphabetically
-        final String sorting = CompUtil.getLocalParameter(this, request, SORTING, SORTING_DEFAULT);
+        final String sorting = getSorting();
         
         if (SORTING_DEFAULT.equals(sorting)) {
             List<String> names = new ArrayList<String>();
@@ -70,4 +123,10 @@ public class Container extends BaseComponent {
     protected List<String> customSortChildNames(List<String> childNames, HstRequest request, HstResponse response) {
         return null;
     }
+
+    @Override
+    public void destroy() throws HstComponentException {
+        sortedIncludes = null;
+        super.destroy();
+    }
 }
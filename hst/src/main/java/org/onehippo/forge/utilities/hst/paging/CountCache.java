@@ -0,0 +1,42 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.hst.paging;
+
+/**
+ * Cache of result counts by query, so that the count of an expensive query is computed once and reused while the
+ * user navigates its pages.
+ * <p>
+ * The query key is chosen by the caller and should contain everything that determines the results, e.g. the query
+ * string with its scope and filters, but not the offset or limit. Implementations must be thread safe.
+ * </p>
+ * @see DefaultCountCache
+ * @see IterablePagination#getCachedSize
+ */
+public interface CountCache {
+
+    /**
+     * @param queryKey key of the query
+     * @return the cached count, or a negative number if there is none
+     */
+    long getCount(String queryKey);
+
+    /**
+     * @param queryKey key of the query
+     * @param count    number of results of the query
+     */
+    void putCount(String queryKey, long count);
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.hst.paging;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * DefaultCountCache: a {@link CountCache} with a maximum number of counts, evicting the least recently used first,
+ * and a time to live after which a count is computed again.
+ * <pre>
+ *   private static final CountCache COUNTS = new DefaultCountCache(1000, 5 * 60 * 1000L);
+ * </pre>
+ */
+public class DefaultCountCache implements CountCache {
+
+    private final int maxEntries;
+    private final long timeToLiveMillis;
+    private final Map<String, Entry> counts = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+
+    private static final class Entry {
+        private final long count;
+        private final long expires;
+
+        private Entry(final long count, final long expires) {
+            this.count = count;
+            this.expires = expires;
+        }
+    }
+
+    /**
+     * @param maxEntries       maximum number of cached counts
+     * @param timeToLiveMillis milliseconds a count is kept
+     */
+    public DefaultCountCache(final int maxEntries, final long timeToLiveMillis) {
+        this.maxEntries = maxEntries;
+        this.timeToLiveMillis = timeToLiveMillis;
+    }
+
+    public long getCount(final String queryKey) {
+        synchronized (counts) {
+            final Entry entry = counts.get(queryKey);
+            if (entry == null) {
+                return -1;
+            }
+            if (entry.expires <= currentTimeMillis()) {
+                counts.remove(queryKey);
+                return -1;
+            }
+            return entry.count;
+        }
+    }
+
+    public void putCount(final String queryKey, final long count) {
+        if (maxEntries <= 0 || count < 0) {
+            return;
+        }
+        synchronized (counts) {
+            counts.put(queryKey, new Entry(count, currentTimeMillis() + timeToLiveMillis));
+            final Iterator<Entry> iterator = counts.values().iterator();
+            while (counts.size() > maxEntries && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Removes all counts, e.g. after content has been published.
+     */
+    public void clear() {
+        synchronized (counts) {
+            counts.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (counts) {
+            return counts.size();
+        }
+    }
+
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+}
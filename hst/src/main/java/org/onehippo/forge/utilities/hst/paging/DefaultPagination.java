@@ -36,6 +36,12 @@ public class DefaultPagination<T> extends Pageable {
 
     private List<T> items;
 
+    private PageWindow rangeWindow;
+
+    private int rangeFill;
+
+    private long rangeTotalPages;
+
     @SuppressWarnings({"RawUseOfParameterizedType"})
     private static final DefaultPagination EMPTY_IMMUTABLE = new DefaultPagination(0, true);
 
@@ -66,6 +72,21 @@ public class DefaultPagination<T> extends Pageable {
         this.items = new ArrayList<T>(items);
     }
 
+    /**
+     * Constructor to be used with a pagination source, for instance merged results of several queries. Only the
+     * items up to the end of the page are taken from the source.
+     * @param source the items
+     * @param pageSize number of items on a page
+     * @param currentPage the page
+     */
+    public DefaultPagination(final PaginationSource<? extends T> source, final int pageSize, final int currentPage) {
+        super(source.getSize(), currentPage, pageSize);
+        if (!source.isSizeExact()) {
+            setTotalAccuracy(TotalAccuracy.ESTIMATE);
+        }
+        this.items = new ArrayList<T>(source.getItems(getStartOffset(), getPageSize()));
+    }
+
     public void addItem(T item) {
         items.add(item);
     }
@@ -103,16 +124,32 @@ public class DefaultPagination<T> extends Pageable {
      * Return previous X and next X pages for given page, based on total pages.
      * @param page selected page
      * @param fillIn selected page
-     * @return page range for given page
+     * @return read only page range for given page
+     * @see #getPageWindowWithFill(long, int)
      */
     public List<Long> getPageRangeWithFill(long page, final int fillIn) {
-        final List<Long> pages = new ArrayList<Long>();
+        return getPageWindowWithFill(page, fillIn).asList();
+    }
+
+    /**
+     * Return previous X and next X pages for given page, based on total pages. The last window is kept and returned
+     * again for the same page, fill and total pages.
+     * @param page selected page
+     * @param fillIn selected page
+     * @return page window for given page
+     */
+    public PageWindow getPageWindowWithFill(long page, final int fillIn) {
+        final long totalPages = getTotalPages();
         // do bound checking
         if (page < 0) {
             page = 1;
         }
-        if (page > getTotalPages()) {
-            page = getTotalPages();
+        if (page > totalPages) {
+            page = totalPages;
+        }
+        PageWindow window = rangeWindow;
+        if (window != null && window.getCurrent() == page && rangeFill == fillIn && rangeTotalPages == totalPages) {
+            return window;
         }
         // fill in lower range: e.g. for 2 it will  be 1
         long start = page - fillIn;
@@ -121,13 +158,14 @@ public class DefaultPagination<T> extends Pageable {
         }
         // end part:
         long end = page + fillIn + 1;
-        if (end > getTotalPages()) {
-            end = getTotalPages();
-        }
-        for (long i = start; i <= end; i++) {
-            pages.add(i);
+        if (end > totalPages) {
+            end = totalPages;
         }
-        return pages;
+        window = new PageWindow(start, end, page);
+        rangeWindow = window;
+        rangeFill = fillIn;
+        rangeTotalPages = totalPages;
+        return window;
     }
 }
 
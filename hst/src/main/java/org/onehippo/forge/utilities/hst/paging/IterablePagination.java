@@ -18,7 +18,12 @@ package org.onehippo.forge.utilities.hst.paging;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import org.hippoecm.hst.content.beans.ObjectBeanManagerException;
+import org.hippoecm.hst.content.beans.manager.ObjectBeanManager;
 import org.hippoecm.hst.content.beans.standard.HippoBean;
 import org.hippoecm.hst.content.beans.standard.HippoBeanIterator;
 import org.hippoecm.hst.content.beans.standard.HippoDocumentIterator;
@@ -34,21 +39,59 @@ public class IterablePagination<T extends HippoBean> extends Pageable {
 
     private static final int DEFAULT_PAGE_RANGE = 10;
 
+    private static final int WARNING_INTERVAL = 1000;
+
+    private static final AtomicLong OVERSIZED_PAGES = new AtomicLong();
+
+    private static final AtomicLong EXCESS_ITEMS = new AtomicLong();
+
+    private static volatile boolean safeMode;
+
     private int defaultPageRange = DEFAULT_PAGE_RANGE;
 
     private List<T> items;
 
+    private long excessItems;
+
+    private PageWindow rangeWindow;
+
+    private int rangeFill;
+
+    private long rangeTotalPages;
+
     /**
      * Constructor to be used when the paging has been done beforehand (for example in HST query).
      * The beans iterator size should be the same as pageSize (except maybe for the last page).
      *
      * E.g. when HstQuery is used to get the beans, both HstQuery#setLimit and HstQuery#setOffset has been used.
+     * If the iterator has more beans than pageSize, a warning is logged, and in {@link #setSafeMode(boolean) safe
+     * mode} only pageSize beans are taken.
      */
     public IterablePagination(final HippoBeanIterator beans, final int totalSize, final int pageSize, final int currentPage) {
+        this(beans, totalSize, pageSize, currentPage, false);
+    }
+
+    /**
+     * Constructor to be used when the paging has been done beforehand (for example in HST query).
+     *
+     * @param lazy if true, beans are taken from the iterator only when the items are accessed
+     * @see #IterablePagination(HippoBeanIterator, int, int, int)
+     */
+    public IterablePagination(final HippoBeanIterator beans, final int totalSize, final int pageSize,
+                              final int currentPage, final boolean lazy) {
         super(totalSize, currentPage, pageSize);
 
         // add all from iterator; assumption that paging is done beforehand
-        processItems(beans);
+        final long available = beans.getSize() - beans.getPosition();
+        final boolean safe = safeMode;
+        if (lazy) {
+            processLazyItems(beans, 0, safe ? getPageSize() : Integer.MAX_VALUE);
+        } else if (safe) {
+            processItems(beans, getPageSize());
+        } else {
+            processItems(beans);
+        }
+        checkPageSize(beans, available, safe);
     }
 
     /**
@@ -73,9 +116,49 @@ public class IterablePagination<T extends HippoBean> extends Pageable {
      * this class, for instance paging on facet navigation results.
      */
     public IterablePagination(final HippoBeanIterator beans, final int pageSize, final int currentPage) {
+        this(beans, pageSize, currentPage, false);
+    }
+
+    /**
+     * Constructor to be used when the paging is not done beforehand (for example in HST query), but has to be done by
+     * this class, for instance paging on facet navigation results.
+     *
+     * @param lazy if true, beans are skipped and taken from the iterator only when the items are accessed
+     */
+    public IterablePagination(final HippoBeanIterator beans, final int pageSize, final int currentPage,
+                              final boolean lazy) {
         super(beans.getSize(), currentPage, pageSize);
         items = new ArrayList<T>();
+        if (lazy) {
+            processLazyItems(beans, getStartOffset(), getPageSize());
+        } else {
+            processOffset(beans);
+        }
+    }
+
+    /**
+     * Constructor to be used when the paging is not done beforehand (for example in HST query), but has to be done by
+     * this class, taking the total from a count cache so that the size of the beans is computed once per query.
+     * If the results have shrunk since the count was cached, the page has fewer items than the total promises; the
+     * count in the cache is then refreshed for the next requests.
+     *
+     * @param countCache cache of result counts
+     * @param queryKey   key of the query in the cache
+     * @see #getCachedSize(HippoBeanIterator, CountCache, String)
+     */
+    public IterablePagination(final HippoBeanIterator beans, final int pageSize, final int currentPage,
+                              final CountCache countCache, final String queryKey) {
+        super(getCachedSize(beans, countCache, queryKey), currentPage, pageSize);
+        items = new ArrayList<T>();
         processOffset(beans);
+        if (countCache != null && queryKey != null && items.size() < getEndOffset() - getStartOffset()) {
+            final long size = beans.getSize();
+            if (size >= 0 && size < getTotal()) {
+                log.debug("Cached count {} of query {} is stale, the results now have {} items", getTotal(), queryKey,
+                        size);
+                countCache.putCount(queryKey, size);
+            }
+        }
     }
 
     /**
@@ -100,13 +183,108 @@ public class IterablePagination<T extends HippoBean> extends Pageable {
         }
     }
 
+    /**
+     * Constructor to be used with a pagination source, for instance merged results of several queries. Only the
+     * items up to the end of the page are taken from the source.
+     *
+     * @param source the items
+     */
+    public IterablePagination(final PaginationSource<? extends T> source, final int pageSize, final int currentPage) {
+        super(source.getSize(), currentPage, pageSize);
+        if (!source.isSizeExact()) {
+            setTotalAccuracy(TotalAccuracy.ESTIMATE);
+        }
+        this.items = new ArrayList<T>(source.getItems(getStartOffset(), getPageSize()));
+    }
+
     /**
      * Constructor to be used when the paging is not done beforehand (for example in HST query), but has to be done by
      * this class, for instance paging on facet navigation results.
      */
     public IterablePagination(final HippoDocumentIterator<T> beans, final int totalSize, final int pageSize, final int pageNumber) {
+        this(beans, totalSize, pageSize, pageNumber, false);
+    }
+
+    /**
+     * Constructor to be used when the paging is not done beforehand (for example in HST query), but has to be done by
+     * this class, for instance paging on facet navigation results.
+     *
+     * @param lazy if true, documents are skipped and taken from the iterator only when the items are accessed
+     */
+    public IterablePagination(final HippoDocumentIterator<T> beans, final int totalSize, final int pageSize,
+                              final int pageNumber, final boolean lazy) {
+        super(totalSize, pageNumber, pageSize);
+        if (lazy) {
+            processLazyDocuments(beans);
+        } else {
+            processDocumentsOffset(beans);
+        }
+    }
+
+    /**
+     * Constructor to be used when the paging is not done beforehand (for example in HST query), but has to be done by
+     * this class. After the page, the identifiers of the documents of the next page are read from the iterator into a
+     * prefetch cache, from which {@link #getPrefetched(PrefetchCache, String, int, int, ObjectBeanManager)} loads
+     * them when the user goes to the next page.
+     *
+     * @param prefetchCache cache of prefetched pages, may be null for no prefetching
+     * @param queryKey      key of the query in the cache
+     */
+    public IterablePagination(final HippoDocumentIterator<T> beans, final int totalSize, final int pageSize,
+                              final int pageNumber, final PrefetchCache prefetchCache, final String queryKey) {
         super(totalSize, pageNumber, pageSize);
         processDocumentsOffset(beans);
+        if (prefetchCache != null && queryKey != null && isNext()) {
+            prefetchNextPage(beans, prefetchCache, queryKey);
+        }
+    }
+
+    private IterablePagination(final long total, final int pageSize, final int currentPage, final List<T> items) {
+        super(total, currentPage, pageSize);
+        this.items = new ArrayList<T>(items);
+    }
+
+    /**
+     * Returns a pagination of a page that has been prefetched by
+     * {@link #IterablePagination(HippoDocumentIterator, int, int, int, PrefetchCache, String)}.
+     *
+     * The beans are loaded by identifier with the object bean manager of the current request. If one of them can no
+     * longer be loaded, for instance because it has been removed or is not visible to the current session, null is
+     * returned so that the query is executed again.
+     *
+     * @param prefetchCache     cache of prefetched pages
+     * @param queryKey          key of the query in the cache
+     * @param objectBeanManager object bean manager of the current request
+     * @return the pagination, or null if the page has not been prefetched and the query has to be executed
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends HippoBean> IterablePagination<T> getPrefetched(final PrefetchCache prefetchCache,
+            final String queryKey, final int pageSize, final int currentPage,
+            final ObjectBeanManager objectBeanManager) {
+        if (prefetchCache == null || queryKey == null || objectBeanManager == null) {
+            return null;
+        }
+        final int size = pageSize <= 0 ? DEFAULT_PAGE_SIZE : pageSize;
+        final PrefetchCache.Page page = prefetchCache.getPage(queryKey, size, currentPage);
+        if (page == null) {
+            return null;
+        }
+        final List<T> items = new ArrayList<T>(page.getIdentifiers().size());
+        for (String identifier : page.getIdentifiers()) {
+            final Object bean;
+            try {
+                bean = objectBeanManager.getObjectByUuid(identifier);
+            } catch (ObjectBeanManagerException e) {
+                log.debug("Cannot load prefetched document {}, executing the query again", identifier, e);
+                return null;
+            }
+            if (!(bean instanceof HippoBean)) {
+                log.debug("Prefetched document {} is not available, executing the query again", identifier);
+                return null;
+            }
+            items.add((T) bean);
+        }
+        return new IterablePagination<T>(page.getTotal(), size, currentPage, items);
     }
 
     /**
@@ -115,9 +293,41 @@ public class IterablePagination<T extends HippoBean> extends Pageable {
      * @param item the item
      */
     public void addItem(T item) {
+        if (isLazy()) {
+            items = new ArrayList<T>(items);
+        }
         items.add(item);
     }
 
+    /**
+     * Are the items taken from the iterator when they are accessed?
+     *
+     * @return true if the items are lazy
+     */
+    public boolean isLazy() {
+        return items instanceof LazyItemList;
+    }
+
+    /**
+     * Stream of the paged items; lazy items are taken from the iterator while the stream is consumed.
+     *
+     * @return stream of the paged items
+     */
+    public Stream<T> getItemStream() {
+        return items.stream();
+    }
+
+    /**
+     * Performs an action for each paged item; lazy items are taken from the iterator one by one.
+     *
+     * @param action the action
+     */
+    public void forEachItem(final Consumer<? super T> action) {
+        for (T item : items) {
+            action.accept(item);
+        }
+    }
+
     /**
      * Set the default page range, i.e. the page range width, that will be used to determine the actual page range
      * by subtracting the page fill (== half the default page range) from current page and adding the same fill to the
@@ -143,6 +353,75 @@ public class IterablePagination<T extends HippoBean> extends Pageable {
         this.items = (List<T>) items;
     }
 
+    /**
+     * Number of beans the iterator had beyond the page size, when the paging was supposed to be done beforehand.
+     * In safe mode these beans have not been taken.
+     *
+     * @return number of excess beans, 0 if the iterator was limited to the page size
+     */
+    public long getExcessItems() {
+        return excessItems;
+    }
+
+    /**
+     * Returns the number of results of a query from a count cache, and if it is not there, gets the size of the beans
+     * and puts it in the cache.
+     *
+     * @param beans      the beans of the query
+     * @param countCache cache of result counts, may be null
+     * @param queryKey   key of the query in the cache
+     * @return number of results
+     */
+    public static long getCachedSize(final HippoBeanIterator beans, final CountCache countCache,
+                                     final String queryKey) {
+        if (countCache == null || queryKey == null) {
+            return beans.getSize();
+        }
+        long size = countCache.getCount(queryKey);
+        if (size < 0) {
+            size = beans.getSize();
+            countCache.putCount(queryKey, size);
+        }
+        return size;
+    }
+
+    /**
+     * Sets safe mode for paginations of which the paging has been done beforehand: if the query was not limited,
+     * only pageSize beans are taken from the iterator instead of all of them.
+     *
+     * @param safe true for safe mode
+     * @see #IterablePagination(HippoBeanIterator, int, int, int)
+     */
+    public static void setSafeMode(final boolean safe) {
+        safeMode = safe;
+    }
+
+    public static boolean isSafeMode() {
+        return safeMode;
+    }
+
+    /**
+     * @return number of paginations of which the iterator had more beans than the page size
+     */
+    public static long getOversizedPageCount() {
+        return OVERSIZED_PAGES.get();
+    }
+
+    /**
+     * @return total number of beans beyond the page size of oversized paginations
+     */
+    public static long getExcessItemCount() {
+        return EXCESS_ITEMS.get();
+    }
+
+    /**
+     * Sets the oversized page and excess item counters to zero.
+     */
+    public static void resetCounters() {
+        OVERSIZED_PAGES.set(0);
+        EXCESS_ITEMS.set(0);
+    }
+
     /**
      * Default page range for given page
      * @param page current page
@@ -167,16 +446,32 @@ public class IterablePagination<T extends HippoBean> extends Pageable {
      * Return previous X and next X pages for given page, based on total pages.
      * @param page selected page
      * @param fillIn selected page
-     * @return page range for given page
+     * @return read only page range for given page
+     * @see #getPageWindowWithFill(long, int)
      */
     public List<Long> getPageRangeWithFill(long page, final int fillIn) {
-        final List<Long> pages = new ArrayList<Long>();
+        return getPageWindowWithFill(page, fillIn).asList();
+    }
+
+    /**
+     * Return previous X and next X pages for given page, based on total pages. The last window is kept and returned
+     * again for the same page, fill and total pages.
+     * @param page selected page
+     * @param fillIn selected page
+     * @return page window for given page
+     */
+    public PageWindow getPageWindowWithFill(long page, final int fillIn) {
+        final long totalPages = getTotalPages();
         // do bound checking
         if (page < 0) {
             page = 1;
         }
-        if (page > getTotalPages()) {
-            page = getTotalPages();
+        if (page > totalPages) {
+            page = totalPages;
+        }
+        PageWindow window = rangeWindow;
+        if (window != null && window.getCurrent() == page && rangeFill == fillIn && rangeTotalPages == totalPages) {
+            return window;
         }
         // fill in lower range: e.g. for 2 it will be 1
         long start = page - fillIn;
@@ -188,23 +483,24 @@ public class IterablePagination<T extends HippoBean> extends Pageable {
         // end part:
         long end = page + fillIn;
         long startCorrection = 0;
-        if (end > getTotalPages()) {
-            startCorrection = getTotalPages() - end;
-            end = getTotalPages();
+        if (end > totalPages) {
+            startCorrection = totalPages - end;
+            end = totalPages;
         }
 
         // put corrections to keep range correct, adding to end what was subtracted from start or vice versa
         if ((start + startCorrection) > 0) {
             start += startCorrection;
         }
-        if ((end + endCorrectionCorrection) <= getTotalPages()) {
+        if ((end + endCorrectionCorrection) <= totalPages) {
             end += endCorrectionCorrection;
         }
 
-        for (long i = start; i <= end; i++) {
-            pages.add(i);
-        }
-        return pages;
+        window = new PageWindow(start, end, page);
+        rangeWindow = window;
+        rangeFill = fillIn;
+        rangeTotalPages = totalPages;
+        return window;
     }
 
     protected int getDefaultPageRange() {
@@ -217,8 +513,8 @@ public class IterablePagination<T extends HippoBean> extends Pageable {
 
     protected void processDocumentsOffset(HippoDocumentIterator<T> documentsIterator) {
         items = new ArrayList<T>();
-        int startAt = getStartOffset();
-        if (startAt < getTotal()) {
+        int startAt = getSkip(getStartOffset(), documentsIterator.getSize(), documentsIterator.getPosition());
+        if (startAt > 0) {
             documentsIterator.skip(startAt);
         }
         int count = 0;
@@ -237,8 +533,8 @@ public class IterablePagination<T extends HippoBean> extends Pageable {
     @SuppressWarnings("unchecked")
     protected void processOffset(HippoBeanIterator beans) {
         items = new ArrayList<T>();
-        int startAt = getStartOffset();
-        if (startAt < getTotal()) {
+        int startAt = getSkip(getStartOffset(), beans.getSize(), beans.getPosition());
+        if (startAt > 0) {
             beans.skip(startAt);
         }
         int count = 0;
@@ -254,12 +550,98 @@ public class IterablePagination<T extends HippoBean> extends Pageable {
         }
     }
 
+    /**
+     * Returns the number of items to skip to the start offset, at most the number of items left in the iterator: the
+     * total may be a cached or estimated count that is larger than the actual results.
+     */
+    private static int getSkip(final int startOffset, final long size, final long position) {
+        if (size < 0) {
+            return startOffset;
+        }
+        return (int) Math.max(0, Math.min(startOffset, size - position));
+    }
+
+    private void prefetchNextPage(final HippoDocumentIterator<T> documentsIterator, final PrefetchCache prefetchCache,
+                                  final String queryKey) {
+        final List<String> identifiers = new ArrayList<String>(getPageSize());
+        while (documentsIterator.hasNext() && identifiers.size() < getPageSize()) {
+            final T bean = documentsIterator.next();
+            if (bean != null && bean.getIdentifier() != null) {
+                identifiers.add(bean.getIdentifier());
+            }
+        }
+        if (!identifiers.isEmpty()) {
+            prefetchCache.putPage(queryKey, getPageSize(), getCurrentPage() + 1, getTotal(), identifiers);
+        }
+    }
+
+    /**
+     * Process items lazily: skip and take beans from the iterator when the items are accessed.
+     *
+     * @param skip  number of beans before the page
+     * @param limit maximum number of items
+     */
+    protected void processLazyItems(final HippoBeanIterator beans, final int skip, final int limit) {
+        items = new LazyItemList<T>(beans, skip, LazyItemList.getAvailable(beans.getSize(), beans.getPosition()),
+                limit) {
+            void skip(final int count) {
+                beans.skip(count);
+            }
+        };
+    }
+
+    /**
+     * Process documents lazily: skip and take documents from the iterator when the items are accessed.
+     */
+    protected void processLazyDocuments(final HippoDocumentIterator<T> documentsIterator) {
+        items = new LazyItemList<T>(documentsIterator, getStartOffset(),
+                LazyItemList.getAvailable(documentsIterator.getSize(), documentsIterator.getPosition()),
+                getPageSize()) {
+            void skip(final int count) {
+                documentsIterator.skip(count);
+            }
+        };
+    }
+
+    /**
+     * Counts and reports beans beyond the page size, when the paging was supposed to be done beforehand.
+     *
+     * @param available number of beans the iterator had, or a negative number if unknown
+     * @param safe      true if the beans were taken in safe mode
+     */
+    private void checkPageSize(final HippoBeanIterator beans, final long available, final boolean safe) {
+        if (available >= 0) {
+            excessItems = Math.max(available - getPageSize(), 0);
+        } else if (!isLazy()) {
+            // unknown size: only the beans that have been taken, and at least one if more are left
+            excessItems = Math.max(items.size() - getPageSize(), 0) + (beans.hasNext() ? 1 : 0);
+        }
+        if (excessItems > 0) {
+            final long count = OVERSIZED_PAGES.incrementAndGet();
+            EXCESS_ITEMS.addAndGet(excessItems);
+            if (count % WARNING_INTERVAL == 1) {
+                log.warn("Iterator of page {} has {} more beans than the page size {}, {}: was the query limited? "
+                        + "Number of oversized pages so far: {}", getCurrentPage(), excessItems, getPageSize(),
+                        safe ? "skipped them in safe mode" : "taking all", count);
+            }
+        }
+    }
+
     /**
      * Process items without offset
      */
     protected void processItems(HippoBeanIterator beans) {
+        processItems(beans, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Process items without offset, up to a maximum number of items
+     *
+     * @param limit maximum number of items
+     */
+    protected void processItems(final HippoBeanIterator beans, final int limit) {
         items = new ArrayList<T>();
-        while (beans.hasNext()) {
+        while (beans.hasNext() && items.size() < limit) {
             @SuppressWarnings("unchecked")
             T bean = (T) beans.nextHippoBean();
             if (bean != null) {
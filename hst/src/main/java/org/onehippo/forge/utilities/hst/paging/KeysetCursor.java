@@ -0,0 +1,354 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.hst.paging;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TimeZone;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Position in a sorted result: the sort key values of the last item of a page, the identifiers of the items
+ * with these same values that have been shown already, and the number of shown items with the same value of the
+ * first sort key, which the range constraint of the query for the next page returns again.
+ * <p>
+ * A cursor is passed between requests as an opaque, URL safe token, see {@link #encode()} and
+ * {@link #decode(String)}. Supported sort key values are strings, whole numbers (as Long), decimal numbers (as Double),
+ * booleans and dates (as Calendar).
+ * </p>
+ * @see KeysetPagination
+ */
+public final class KeysetCursor {
+
+    private static Logger log = LoggerFactory.getLogger(KeysetCursor.class);
+
+    /**
+     * Maximum number of items a cursor skips, see {@link #getSkipCount()}. Tokens with a larger skip count are invalid,
+     * so a token cannot make the query for the next page return an arbitrary number of items.
+     */
+    public static final int MAX_SKIP_COUNT = 10000;
+
+    private static final int VERSION = 1;
+
+    private static final byte STRING = 'S';
+    private static final byte LONG = 'L';
+    private static final byte DOUBLE = 'D';
+    private static final byte BOOLEAN = 'B';
+    private static final byte CALENDAR = 'C';
+    private static final byte NULL = 'N';
+
+    private final Object[] values;
+    private final Set<String> identifiers;
+    private final int skipCount;
+
+    /**
+     * Constructor for a cursor of a single sort key, or of which the shown items with the first sort key value are
+     * exactly the identified items.
+     *
+     * @param values      sort key values of the last item
+     * @param identifiers identifiers of the items with these sort key values that have been shown
+     * @throws IllegalArgumentException if a value is of an unsupported type
+     */
+    public KeysetCursor(final List<?> values, final Collection<String> identifiers) {
+        this(values, identifiers, -1);
+    }
+
+    /**
+     * @param values      sort key values of the last item
+     * @param identifiers identifiers of the items with these sort key values that have been shown
+     * @param skipCount   number of shown items with the first sort key value of the last item, at least the number
+     *                    of identifiers; a smaller value is replaced by the number of identifiers
+     * @throws IllegalArgumentException if a value is of an unsupported type
+     */
+    public KeysetCursor(final List<?> values, final Collection<String> identifiers, final int skipCount) {
+        this.values = new Object[values.size()];
+        for (int i = 0; i < this.values.length; i++) {
+            this.values[i] = normalize(values.get(i));
+        }
+        this.identifiers = Collections.unmodifiableSet(new LinkedHashSet<String>(identifiers));
+        this.skipCount = Math.max(skipCount, this.identifiers.size());
+    }
+
+    /**
+     * @return the number of sort keys
+     */
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * Returns a sort key value, to be used in the range constraint of the query for the next page.
+     *
+     * @param index index of the sort key
+     * @return the value: a String, Long, Double, Boolean or Calendar, or null
+     */
+    public Object getValue(final int index) {
+        final Object value = values[index];
+        if (value instanceof Calendar) {
+            return ((Calendar) value).clone();
+        }
+        return value;
+    }
+
+    /**
+     * @return the sort key values
+     */
+    public List<Object> getValues() {
+        final List<Object> list = new ArrayList<Object>(values.length);
+        for (int i = 0; i < values.length; i++) {
+            list.add(getValue(i));
+        }
+        return list;
+    }
+
+    /**
+     * @return the identifiers of the shown items with the sort key values of this cursor
+     */
+    public Set<String> getIdentifiers() {
+        return identifiers;
+    }
+
+    /**
+     * Returns the number of items of previous pages that a query with a range constraint on the first sort property
+     * returns before the next page: the shown items with the same first sort key value as the last item. With more
+     * than one sort key, these are more than the identified items.
+     *
+     * @return number of items the next page skips
+     */
+    public int getSkipCount() {
+        return skipCount;
+    }
+
+    /**
+     * @return true if the first sort key value of an item equals the one of this cursor
+     */
+    boolean isFirstValueEqual(final Object[] itemValues) {
+        return values.length > 0 && compare(itemValues[0], values[0]) == 0;
+    }
+
+    /**
+     * Compares the sort key values of an item with the values of this cursor.
+     *
+     * @return a negative number, zero or a positive number if the values are before, equal to or after the values
+     *         of this cursor in ascending order; null sorts first
+     */
+    int compareTo(final Object[] itemValues) {
+        return compare(itemValues, values);
+    }
+
+    static int compare(final Object[] values, final Object[] others) {
+        for (int i = 0; i < values.length; i++) {
+            final int result = compare(values[i], others[i]);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    static int compare(final Object value, final Object other) {
+        if (value == null || other == null) {
+            return value == null ? (other == null ? 0 : -1) : 1;
+        }
+        if (value instanceof Calendar && other instanceof Calendar) {
+            return ((Calendar) value).compareTo((Calendar) other);
+        }
+        if (value.getClass() != other.getClass()) {
+            // e.g. a property that is a string in one document and a number in another
+            return value.getClass().getName().compareTo(other.getClass().getName());
+        }
+        return ((Comparable<Object>) value).compareTo(other);
+    }
+
+    /**
+     * Converts a property value to one of the types a cursor can hold.
+     *
+     * @throws IllegalArgumentException if the value is of an unsupported type
+     */
+    static Object normalize(final Object value) {
+        if (value == null || value instanceof String || value instanceof Long || value instanceof Double
+                || value instanceof Boolean) {
+            return value;
+        }
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof Float) {
+            return ((Float) value).doubleValue();
+        }
+        if (value instanceof Calendar) {
+            return ((Calendar) value).clone();
+        }
+        if (value instanceof Date) {
+            final Calendar calendar = Calendar.getInstance();
+            calendar.setTime((Date) value);
+            return calendar;
+        }
+        throw new IllegalArgumentException("Unsupported sort key value type " + value.getClass().getName());
+    }
+
+    /**
+     * @return the cursor as URL safe token
+     */
+    public String encode() {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeByte(VERSION);
+            out.writeByte(values.length);
+            for (Object value : values) {
+                if (value == null) {
+                    out.writeByte(NULL);
+                } else if (value instanceof String) {
+                    out.writeByte(STRING);
+                    out.writeUTF((String) value);
+                } else if (value instanceof Long) {
+                    out.writeByte(LONG);
+                    out.writeLong((Long) value);
+                } else if (value instanceof Double) {
+                    out.writeByte(DOUBLE);
+                    out.writeDouble((Double) value);
+                } else if (value instanceof Boolean) {
+                    out.writeByte(BOOLEAN);
+                    out.writeBoolean((Boolean) value);
+                } else {
+                    final Calendar calendar = (Calendar) value;
+                    out.writeByte(CALENDAR);
+                    out.writeLong(calendar.getTimeInMillis());
+                    out.writeUTF(calendar.getTimeZone().getID());
+                }
+            }
+            out.writeShort(identifiers.size());
+            for (String identifier : identifiers) {
+                out.writeUTF(identifier);
+            }
+            out.writeInt(skipCount);
+            out.flush();
+        } catch (IOException e) {
+            // not thrown by a ByteArrayOutputStream
+            throw new IllegalStateException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    /**
+     * Reads a cursor from a token created by {@link #encode()}.
+     *
+     * @param token the token, e.g. from a request parameter
+     * @return the cursor, or null if the token is empty or invalid
+     */
+    public static KeysetCursor decode(final String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        try {
+            final byte[] bytes = Base64.getUrlDecoder().decode(token);
+            final DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            final int version = in.readUnsignedByte();
+            if (version != VERSION) {
+                log.debug("Unsupported version of cursor token {}", token);
+                return null;
+            }
+            final Object[] values = new Object[in.readUnsignedByte()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = readValue(in);
+            }
+            final int count = in.readUnsignedShort();
+            final List<String> identifiers = new ArrayList<String>(count);
+            for (int i = 0; i < count; i++) {
+                identifiers.add(in.readUTF());
+            }
+            final int skipCount = in.readInt();
+            if (in.read() != -1) {
+                log.debug("Trailing bytes in cursor token {}", token);
+                return null;
+            }
+            if (skipCount < count || skipCount > MAX_SKIP_COUNT) {
+                log.debug("Invalid skip count {} in cursor token {}", skipCount, token);
+                return null;
+            }
+            return new KeysetCursor(Arrays.asList(values), identifiers, skipCount);
+        } catch (IOException | IllegalArgumentException e) {
+            log.debug("Invalid cursor token {}: {}", token, e.toString());
+            return null;
+        }
+    }
+
+    private static Object readValue(final DataInputStream in) throws IOException {
+        final byte type = in.readByte();
+        switch (type) {
+            case NULL:
+                return null;
+            case STRING:
+                return in.readUTF();
+            case LONG:
+                return in.readLong();
+            case DOUBLE:
+                return in.readDouble();
+            case BOOLEAN:
+                return in.readBoolean();
+            case CALENDAR:
+                final long millis = in.readLong();
+                final Calendar calendar = new GregorianCalendar(TimeZone.getTimeZone(in.readUTF()));
+                calendar.setTimeInMillis(millis);
+                return calendar;
+            default:
+                throw new IOException("Unknown value type " + type);
+        }
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof KeysetCursor)) {
+            return false;
+        }
+        final KeysetCursor other = (KeysetCursor) o;
+        return Arrays.equals(values, other.values) && identifiers.equals(other.identifiers)
+                && skipCount == other.skipCount;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * Arrays.hashCode(values) + identifiers.hashCode()) + skipCount;
+    }
+
+    @Override
+    public String toString() {
+        return "KeysetCursor{values=" + Arrays.toString(values) + ", identifiers=" + identifiers + ", skipCount="
+                + skipCount + '}';
+    }
+}
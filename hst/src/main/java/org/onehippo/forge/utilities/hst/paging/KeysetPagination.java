@@ -0,0 +1,248 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.hst.paging;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.hippoecm.hst.content.beans.standard.HippoBean;
+import org.hippoecm.hst.content.beans.standard.HippoBeanIterator;
+import org.hippoecm.hst.content.beans.standard.HippoDocumentIterator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * KeysetPagination: a page of HippoBean items that starts after a {@link KeysetCursor} instead of at an offset.
+ * <p>
+ * Offset paging ({@link Pageable}, {@link IterablePagination}) skips all items before the page, so the cost of a page
+ * grows with its number. With keyset paging, the query for the next page gets a range constraint on the first sort
+ * property, using the value from the cursor, and a limit of {@link #getQueryLimit(KeysetCursor, int)}. This
+ * pagination then only skips the items of the previous pages that have the same first sort value as its last item:
+ * </p>
+ * <pre>
+ *   KeysetCursor cursor = KeysetCursor.decode(getPublicRequestParameter(request, "after"));
+ *   query.addOrderByDescending("myproject:date");
+ *   if (cursor != null) {
+ *       filter.addLessOrEqualThan("myproject:date", cursor.getValue(0));
+ *   }
+ *   query.setLimit(KeysetPagination.getQueryLimit(cursor, pageSize));
+ *   KeysetPagination&lt;HippoBean&gt; page = new KeysetPagination&lt;HippoBean&gt;(
+ *           query.execute().getHippoBeans(), pageSize, cursor, true, "myproject:date");
+ *   // link to the next page with page.getNextToken()
+ * </pre>
+ * All sort properties are sorted in the same direction. There is no total or page number; a previous page is
+ * reached with the token that was used to get to the current page.
+ */
+public class KeysetPagination<T extends HippoBean> {
+
+    private static Logger log = LoggerFactory.getLogger(KeysetPagination.class);
+
+    private final int pageSize;
+    private final KeysetCursor cursor;
+    private final boolean descending;
+    private final String[] sortProperties;
+    private final List<T> items = new ArrayList<T>();
+    private KeysetCursor nextCursor;
+
+    /**
+     * Constructor to be used with the results of a query that is sorted on the sort properties and constrained by
+     * the cursor.
+     *
+     * @param beans          the sorted beans
+     * @param pageSize       number of items on a page
+     * @param cursor         the cursor after which the page starts, or null for the first page
+     * @param descending     true if the beans are sorted in descending order
+     * @param sortProperties names of the properties the beans are sorted on
+     */
+    public KeysetPagination(final HippoBeanIterator beans, final int pageSize, final KeysetCursor cursor,
+                            final boolean descending, final String... sortProperties) {
+        this(pageSize, cursor, descending, sortProperties);
+        processItems(beans);
+    }
+
+    /**
+     * Constructor to be used with the results of a query that is sorted on the sort properties and constrained by
+     * the cursor.
+     *
+     * @see #KeysetPagination(HippoBeanIterator, int, KeysetCursor, boolean, String...)
+     */
+    public KeysetPagination(final HippoDocumentIterator<T> beans, final int pageSize, final KeysetCursor cursor,
+                            final boolean descending, final String... sortProperties) {
+        this(pageSize, cursor, descending, sortProperties);
+        processItems(beans);
+    }
+
+    private KeysetPagination(final int pageSize, final KeysetCursor cursor, final boolean descending,
+                             final String... sortProperties) {
+        if (sortProperties.length == 0) {
+            throw new IllegalArgumentException("At least one sort property is needed");
+        }
+        this.pageSize = pageSize <= 0 ? Pageable.DEFAULT_PAGE_SIZE : pageSize;
+        this.descending = descending;
+        this.sortProperties = sortProperties.clone();
+        if (cursor != null && cursor.size() != sortProperties.length) {
+            log.warn("Cursor {} does not match sort properties {}, showing first page", cursor,
+                    Arrays.toString(sortProperties));
+            this.cursor = null;
+        } else {
+            this.cursor = cursor;
+        }
+    }
+
+    /**
+     * Returns the limit to set on the query: the page size, the number of items of previous pages that the range
+     * constraint on the first sort property returns again (see {@link KeysetCursor#getSkipCount()}), and one more to
+     * find out whether there is a next page.
+     *
+     * @param cursor   the cursor after which the page starts, or null for the first page
+     * @param pageSize number of items on a page
+     * @return query limit
+     */
+    public static int getQueryLimit(final KeysetCursor cursor, final int pageSize) {
+        final int size = pageSize <= 0 ? Pageable.DEFAULT_PAGE_SIZE : pageSize;
+        return size + 1 + (cursor == null ? 0 : cursor.getSkipCount());
+    }
+
+    /**
+     * Get the items of the page
+     *
+     * @return paged items
+     */
+    public List<T> getItems() {
+        return Collections.unmodifiableList(items);
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public List<String> getSortProperties() {
+        return Collections.unmodifiableList(Arrays.asList(sortProperties));
+    }
+
+    /**
+     * @return the cursor after which the page starts, or null for the first page
+     */
+    public KeysetCursor getCursor() {
+        return cursor;
+    }
+
+    /**
+     * Is this page preceded by other pages?
+     * @return true if the page starts after a cursor
+     */
+    public boolean isPrevious() {
+        return cursor != null;
+    }
+
+    /**
+     * Is this page followed by other pages?
+     * @return true if there are more items
+     */
+    public boolean isNext() {
+        return nextCursor != null;
+    }
+
+    /**
+     * @return the cursor of the next page, or null if there are no more items or more than
+     *         {@link KeysetCursor#MAX_SKIP_COUNT} items have the first sort value of the last item
+     */
+    public KeysetCursor getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * @return the token of the next page, or null if there are no more items
+     * @see KeysetCursor#decode(String)
+     */
+    public String getNextToken() {
+        return nextCursor == null ? null : nextCursor.encode();
+    }
+
+    @SuppressWarnings("unchecked")
+    protected void processItems(final Iterator<?> beans) {
+        boolean afterCursor = cursor == null;
+        final List<Object[]> itemValues = new ArrayList<Object[]>(pageSize);
+        while (beans.hasNext()) {
+            final T bean = (T) beans.next();
+            if (bean == null) {
+                continue;
+            }
+            final Object[] values = getSortValues(bean);
+            if (!afterCursor) {
+                final int result = descending ? -cursor.compareTo(values) : cursor.compareTo(values);
+                if (result < 0 || (result == 0 && cursor.getIdentifiers().contains(bean.getIdentifier()))) {
+                    // on a previous page
+                    continue;
+                }
+                afterCursor = result > 0;
+            }
+            if (items.size() == pageSize) {
+                nextCursor = createNextCursor(itemValues);
+                break;
+            }
+            items.add(bean);
+            itemValues.add(values);
+        }
+    }
+
+    private KeysetCursor createNextCursor(final List<Object[]> itemValues) {
+        final Object[] lastValues = itemValues.get(itemValues.size() - 1);
+        final List<String> identifiers = new ArrayList<String>();
+        int skipCount = 0;
+        if (cursor != null && cursor.compareTo(lastValues) == 0) {
+            // all items of this page have the same values as the previous pages
+            identifiers.addAll(cursor.getIdentifiers());
+        }
+        if (cursor != null && cursor.isFirstValueEqual(lastValues)) {
+            // all items of this page have the same first value as the skipped items of the previous pages
+            skipCount = cursor.getSkipCount();
+        }
+        for (int i = 0; i < items.size(); i++) {
+            final Object[] values = itemValues.get(i);
+            if (KeysetCursor.compare(values, lastValues) == 0) {
+                identifiers.add(items.get(i).getIdentifier());
+            }
+            if (KeysetCursor.compare(values[0], lastValues[0]) == 0) {
+                skipCount++;
+            }
+        }
+        if (skipCount > KeysetCursor.MAX_SKIP_COUNT) {
+            // the token would not decode, so end here rather than start over at the first page
+            log.warn("More than {} items with first sort value {}, not paging further", KeysetCursor.MAX_SKIP_COUNT,
+                    lastValues[0]);
+            return null;
+        }
+        return new KeysetCursor(Arrays.asList(lastValues), identifiers, skipCount);
+    }
+
+    private Object[] getSortValues(final HippoBean bean) {
+        final Object[] values = new Object[sortProperties.length];
+        for (int i = 0; i < sortProperties.length; i++) {
+            final Object value = bean.getSingleProperty(sortProperties[i]);
+            values[i] = KeysetCursor.normalize(value);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.hst.paging;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * Read only list of the beans of a page that takes the beans from the iterator when they are accessed.
+ * <p>
+ * Only the beans up to the highest accessed index are taken, so a template that only shows the number of items does
+ * not create beans at all. The size is computed from the iterator size and position; beans that cannot be mapped
+ * (null) are skipped when they are reached, so the size can get smaller while the list is read. If the iterator does
+ * not know its size, asking for the size takes all beans up to the limit.
+ * </p>
+ */
+abstract class LazyItemList<T> extends AbstractList<T> {
+
+    private final Iterator<?> iterator;
+    private final List<T> items = new ArrayList<T>();
+    private int skip;
+    private long available;
+    private int remaining;
+
+    /**
+     * @param iterator  the beans
+     * @param skip      number of beans to skip before the first item
+     * @param available number of beans the iterator has left, including the skipped beans, or -1 if unknown
+     * @param limit     maximum number of items
+     */
+    LazyItemList(final Iterator<?> iterator, final int skip, final long available, final int limit) {
+        this.iterator = iterator;
+        this.remaining = limit;
+        if (available < 0) {
+            this.skip = skip;
+            this.available = -1;
+        } else {
+            this.skip = (int) Math.min(skip, available);
+            this.available = available - this.skip;
+        }
+    }
+
+    /**
+     * @return the number of beans an iterator has left, or -1 if its size is unknown
+     */
+    static long getAvailable(final long size, final long position) {
+        return size < 0 ? -1 : Math.max(size - position, 0);
+    }
+
+    /**
+     * Skips beans without mapping them.
+     */
+    abstract void skip(int count);
+
+    @Override
+    public T get(final int index) {
+        while (items.size() <= index && takeNext()) {
+            // take items up to index
+        }
+        if (index < 0 || index >= items.size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size());
+        }
+        return items.get(index);
+    }
+
+    @Override
+    public int size() {
+        if (available < 0) {
+            while (takeNext()) {
+                // the size is unknown: take all items
+            }
+        }
+        return items.size() + (int) Math.min(remaining, available);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private int index;
+
+            public boolean hasNext() {
+                return index < items.size() || takeNext();
+            }
+
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return items.get(index++);
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        // the size is an estimate until all beans are taken
+        return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
+    /**
+     * @return the number of beans taken from the iterator
+     */
+    int getMaterializedSize() {
+        return items.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean takeNext() {
+        if (skip > 0) {
+            final int count = skip;
+            skip = 0;
+            try {
+                skip(count);
+            } catch (NoSuchElementException e) {
+                // fewer beans than the unknown size suggested
+                remaining = 0;
+                available = 0;
+                return false;
+            }
+        }
+        while (remaining > 0 && iterator.hasNext()) {
+            final Object bean = iterator.next();
+            if (available > 0) {
+                available--;
+            }
+            if (bean != null) {
+                items.add((T) bean);
+                remaining--;
+                return true;
+            }
+        }
+        remaining = 0;
+        available = 0;
+        return false;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.hst.paging;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+import org.hippoecm.hst.content.beans.standard.HippoBean;
+
+/**
+ * MergedPaginationSource: pages over several sorted lists of beans, e.g. the results of several queries, as if they
+ * were one sorted list, without creating that list. A page is taken by merging the lists up to the end of the page,
+ * see {@link MergingIterator}.
+ * <pre>
+ *   PaginationSource&lt;NewsDocument&gt; source = new MergedPaginationSource&lt;NewsDocument&gt;(BY_DATE_DESCENDING,
+ *           true, Arrays.asList(localNews, agencyNews));
+ *   IterablePagination&lt;NewsDocument&gt; pagination = new IterablePagination&lt;NewsDocument&gt;(source, pageSize,
+ *           currentPage);
+ * </pre>
+ * With deduplication and more than one list, the size is the sum of the list sizes, so an upper bound.
+ */
+public class MergedPaginationSource<T extends HippoBean> implements PaginationSource<T> {
+
+    private final Comparator<? super T> comparator;
+    private final boolean deduplicate;
+    private final List<List<? extends T>> lists;
+
+    /**
+     * @param comparator  the order of the items in each of the lists
+     * @param deduplicate true to skip items with the same identifier
+     * @param lists       the sorted lists
+     */
+    public MergedPaginationSource(final Comparator<? super T> comparator, final boolean deduplicate,
+                                  final List<? extends List<? extends T>> lists) {
+        this.comparator = comparator;
+        this.deduplicate = deduplicate;
+        this.lists = new ArrayList<List<? extends T>>(lists);
+    }
+
+    public long getSize() {
+        long size = 0;
+        for (List<? extends T> list : lists) {
+            size += list.size();
+        }
+        return size;
+    }
+
+    public boolean isSizeExact() {
+        return !deduplicate || lists.size() <= 1;
+    }
+
+    public List<T> getItems(final long offset, final int count) {
+        if (lists.size() == 1 && !deduplicate) {
+            final List<? extends T> list = lists.get(0);
+            final int from = (int) Math.min(offset, list.size());
+            return new ArrayList<T>(list.subList(from, (int) Math.min((long) from + count, list.size())));
+        }
+        final List<T> items = new ArrayList<T>();
+        final MergingIterator<T> iterator = iterator();
+        iterator.skip(offset);
+        while (items.size() < count && iterator.hasNext()) {
+            items.add(iterator.next());
+        }
+        return items;
+    }
+
+    /**
+     * @return a new iterator over the merged lists
+     */
+    public MergingIterator<T> iterator() {
+        final List<Iterator<? extends T>> iterators = new ArrayList<Iterator<? extends T>>(lists.size());
+        for (List<? extends T> list : lists) {
+            iterators.add(list.iterator());
+        }
+        return new MergingIterator<T>(comparator, deduplicate, iterators);
+    }
+}
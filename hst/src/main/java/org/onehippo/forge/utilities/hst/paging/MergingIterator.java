@@ -0,0 +1,149 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.hst.paging;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import org.hippoecm.hst.content.beans.standard.HippoBean;
+
+/**
+ * MergingIterator: iterates over several sorted iterators in the order of a comparator, taking items from the
+ * iterators only when needed (k-way merge). Null items are skipped. Items that compare equal keep the order of the
+ * iterators they come from.
+ * <p>
+ * Optionally, duplicates are skipped: an item with the same identifier as an earlier item that compares equal to
+ * it. The same document in two results compares equal when the comparator uses its properties, so only the
+ * identifiers of the current run of equal items are kept in memory.
+ * </p>
+ */
+public final class MergingIterator<T extends HippoBean> implements Iterator<T> {
+
+    private final Comparator<? super T> comparator;
+    private final PriorityQueue<Head<T>> heads;
+    private final Set<String> runIdentifiers;
+    private T last;
+    private T next;
+
+    /**
+     * Current item of one of the iterators.
+     */
+    private static final class Head<T> {
+        private final Iterator<? extends T> iterator;
+        private final int index;
+        private T item;
+
+        private Head(final Iterator<? extends T> iterator, final int index) {
+            this.iterator = iterator;
+            this.index = index;
+        }
+
+        private boolean advance() {
+            while (iterator.hasNext()) {
+                item = iterator.next();
+                if (item != null) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * @param comparator  the order of the items in each of the iterators
+     * @param deduplicate true to skip items with the same identifier
+     * @param iterators   the sorted iterators
+     */
+    public MergingIterator(final Comparator<? super T> comparator, final boolean deduplicate,
+                           final List<? extends Iterator<? extends T>> iterators) {
+        this.comparator = comparator;
+        this.runIdentifiers = deduplicate ? new HashSet<String>() : null;
+        this.heads = new PriorityQueue<Head<T>>(Math.max(iterators.size(), 1), new Comparator<Head<T>>() {
+            public int compare(final Head<T> head, final Head<T> other) {
+                final int result = comparator.compare(head.item, other.item);
+                return result != 0 ? result : head.index - other.index;
+            }
+        });
+        for (int i = 0; i < iterators.size(); i++) {
+            final Head<T> head = new Head<T>(iterators.get(i), i);
+            if (head.advance()) {
+                heads.add(head);
+            }
+        }
+        next = findNext();
+    }
+
+    public boolean hasNext() {
+        return next != null;
+    }
+
+    public T next() {
+        if (next == null) {
+            throw new NoSuchElementException();
+        }
+        final T item = next;
+        next = findNext();
+        return item;
+    }
+
+    /**
+     * Skips items.
+     *
+     * @param count number of items to skip
+     * @return number of items skipped, less than count at the end
+     */
+    public long skip(final long count) {
+        long skipped = 0;
+        while (skipped < count && next != null) {
+            next = findNext();
+            skipped++;
+        }
+        return skipped;
+    }
+
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    private T findNext() {
+        while (!heads.isEmpty()) {
+            final Head<T> head = heads.poll();
+            final T item = head.item;
+            if (head.advance()) {
+                heads.add(head);
+            }
+            if (runIdentifiers == null || !isDuplicate(item)) {
+                last = item;
+                return item;
+            }
+        }
+        return null;
+    }
+
+    private boolean isDuplicate(final T item) {
+        if (last == null || comparator.compare(item, last) != 0) {
+            runIdentifiers.clear();
+        }
+        final String identifier = item.getIdentifier();
+        return identifier != null && !runIdentifiers.add(identifier);
+    }
+}
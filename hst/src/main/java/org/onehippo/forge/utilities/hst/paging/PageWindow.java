@@ -0,0 +1,182 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.hst.paging;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.RandomAccess;
+
+/**
+ * PageWindow: an immutable range of consecutive page numbers, e.g. the visible page links around the current page.
+ * <p>
+ * The page numbers are not stored; {@link #iterator()} returns them as primitives and {@link #asList()} is a
+ * read only list view.
+ * </p>
+ */
+public final class PageWindow implements Iterable<Long> {
+
+    private final long start;
+    private final long end;
+    private final long current;
+    private List<Long> list;
+
+    /**
+     * @param start   first page number
+     * @param end     last page number, smaller than start for an empty window
+     * @param current the current page
+     */
+    public PageWindow(final long start, final long end, final long current) {
+        this.start = start;
+        this.end = end < start ? start - 1 : end;
+        this.current = current;
+    }
+
+    /**
+     * @return first page number of the window
+     */
+    public long getStart() {
+        return start;
+    }
+
+    /**
+     * @return last page number of the window
+     */
+    public long getEnd() {
+        return end;
+    }
+
+    /**
+     * @return the current page
+     */
+    public long getCurrent() {
+        return current;
+    }
+
+    /**
+     * @return number of pages in the window
+     */
+    public int size() {
+        return (int) (end - start + 1);
+    }
+
+    public boolean isEmpty() {
+        return end < start;
+    }
+
+    /**
+     * @return true if the page number is in the window
+     */
+    public boolean contains(final long page) {
+        return page >= start && page <= end;
+    }
+
+    /**
+     * @return iterator over the page numbers, without boxing when used as {@link PrimitiveIterator.OfLong}
+     */
+    public PrimitiveIterator.OfLong iterator() {
+        return new PrimitiveIterator.OfLong() {
+            private long next = start;
+
+            public boolean hasNext() {
+                return next <= end;
+            }
+
+            public long nextLong() {
+                if (next > end) {
+                    throw new NoSuchElementException();
+                }
+                return next++;
+            }
+        };
+    }
+
+    /**
+     * @return a new array with the page numbers
+     */
+    public int[] toArray() {
+        final int[] pages = new int[size()];
+        for (int i = 0; i < pages.length; i++) {
+            pages[i] = (int) (start + i);
+        }
+        return pages;
+    }
+
+    /**
+     * @return read only list view of the page numbers
+     */
+    public List<Long> asList() {
+        if (list == null) {
+            list = new PageList();
+        }
+        return list;
+    }
+
+    private final class PageList extends AbstractList<Long> implements RandomAccess {
+
+        @Override
+        public Long get(final int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size());
+            }
+            return start + index;
+        }
+
+        @Override
+        public int size() {
+            return PageWindow.this.size();
+        }
+
+        @Override
+        public boolean contains(final Object o) {
+            return o instanceof Long && PageWindow.this.contains((Long) o);
+        }
+
+        @Override
+        public int indexOf(final Object o) {
+            return contains(o) ? (int) ((Long) o - start) : -1;
+        }
+
+        @Override
+        public int lastIndexOf(final Object o) {
+            return indexOf(o);
+        }
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PageWindow)) {
+            return false;
+        }
+        final PageWindow other = (PageWindow) o;
+        return start == other.start && end == other.end && current == other.current;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * Long.hashCode(start) + Long.hashCode(end)) + Long.hashCode(current);
+    }
+
+    @Override
+    public String toString() {
+        return "PageWindow{start=" + start + ", end=" + end + ", current=" + current + '}';
+    }
+}
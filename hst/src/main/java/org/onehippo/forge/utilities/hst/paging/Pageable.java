@@ -16,7 +16,6 @@
 
 package org.onehippo.forge.utilities.hst.paging;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -39,6 +38,14 @@ public class Pageable {
 
     private long total;
 
+    private TotalAccuracy totalAccuracy = TotalAccuracy.EXACT;
+
+    private PageWindow pageWindow;
+
+    private long pageWindowTotalPages;
+
+    private int pageWindowVisiblePages;
+
     /**
      * Constructor. NOTE: you can always override <code><strong>setTotal()</strong></code> method in your own class if
      * total number of items is not available immediately
@@ -151,16 +158,29 @@ public class Pageable {
 
     /**
      * Returns a list of numbers (between start and end offset)
-     * @return List containing page numbers..
+     * @return read only List containing page numbers..
+     * @see #getPageWindow()
      */
     public List<Long> getPageNumbersArray() {
-        long startPage = getStartPage();
-        long endPage = getEndPage();
-        List<Long> pages = new ArrayList<Long>();
-        for (long i = startPage; i <= endPage; i++) {
-            pages.add(i);
+        return getPageWindow().asList();
+    }
+
+    /**
+     * Returns the page numbers between start and end page of the current page batch. The window is computed once and
+     * computed again only if the current page, visible pages or total number of pages have changed.
+     * @return window from start page to end page
+     */
+    public PageWindow getPageWindow() {
+        final long totalPages = getTotalPages();
+        PageWindow window = pageWindow;
+        if (window == null || window.getCurrent() != pageNumber || pageWindowTotalPages != totalPages
+                || pageWindowVisiblePages != visiblePages) {
+            window = new PageWindow(getStartPage(), getEndPage(), pageNumber);
+            pageWindow = window;
+            pageWindowTotalPages = totalPages;
+            pageWindowVisiblePages = visiblePages;
         }
-        return pages;
+        return window;
     }
 
     /**
@@ -211,7 +231,10 @@ public class Pageable {
      * @return int page number of visible page batch
      */
     public long getStartPage() {
+        return getStartPage(pageNumber, visiblePages);
+    }
 
+    private static long getStartPage(final int pageNumber, final int visiblePages) {
         if (pageNumber <= visiblePages || pageNumber == 1) {
             return 1;
         }
@@ -223,6 +246,23 @@ public class Pageable {
         return start * visiblePages + 1;
     }
 
+    /**
+     * Returns the limit for a query of which the results do not have to be counted: the results up to the end of the
+     * page batch of the page, plus one to know whether there is a next batch. Unlike {@link #getMaxSize()} it does
+     * not need the total, so it can be used before the query is executed.
+     * @param pageSize number of items on a page
+     * @param pageNumber the page
+     * @param visiblePages number of pages in a batch
+     * @return limit number
+     * @see #setLimitedTotal(long, long)
+     */
+    public static long getBatchLimit(final int pageSize, final int pageNumber, final int visiblePages) {
+        final int size = pageSize <= 0 ? DEFAULT_PAGE_SIZE : pageSize;
+        final int visible = visiblePages <= 0 ? DEFAULT_VISIBLE_PAGES : visiblePages;
+        final int page = pageNumber <= 0 ? 1 : pageNumber;
+        return (getStartPage(page, visible) + visible - 1) * size + 1;
+    }
+
     /**
      * Return total number of pages (based on page size)
      * @return nr. of pages
@@ -282,6 +322,43 @@ public class Pageable {
         this.total = total;
     }
 
+    /**
+     * How exact is the total?
+     * @return the accuracy of the total, EXACT by default
+     */
+    public TotalAccuracy getTotalAccuracy() {
+        return totalAccuracy;
+    }
+
+    /**
+     * Sets how exact the total is, e.g. ESTIMATE to show "about 12,000 results".
+     * @param totalAccuracy accuracy of the total
+     */
+    public void setTotalAccuracy(final TotalAccuracy totalAccuracy) {
+        this.totalAccuracy = totalAccuracy == null ? TotalAccuracy.EXACT : totalAccuracy;
+    }
+
+    /**
+     * Is the total the exact number of results?
+     * @return true if the total is exact
+     */
+    public boolean isTotalExact() {
+        return totalAccuracy == TotalAccuracy.EXACT;
+    }
+
+    /**
+     * Sets the total from the size of a query of which the number of results was limited, typically to
+     * {@link #getBatchLimit(int, int, int)}, so the query does not have to count all results. If the size reached
+     * the limit, there may be more results and the total is a lower bound; the pages up to the end page and the next
+     * batch are still known.
+     * @param size number of results of the limited query
+     * @param limit the limit of the query
+     */
+    public void setLimitedTotal(final long size, final long limit) {
+        this.total = size < 0 ? 0 : size;
+        this.totalAccuracy = size >= limit ? TotalAccuracy.LOWER_BOUND : TotalAccuracy.EXACT;
+    }
+
     public void setPageNumber(int pageNumber) {
         this.pageNumber = pageNumber;
     }
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.hst.paging;
+
+import java.util.List;
+
+/**
+ * PaginationSource: items that can be paged without putting them all in one list first.
+ * @see MergedPaginationSource
+ */
+public interface PaginationSource<T> {
+
+    /**
+     * @return number of items, an upper bound if {@link #isSizeExact()} is false
+     */
+    long getSize();
+
+    /**
+     * @return true if {@link #getSize()} is the exact number of items
+     */
+    boolean isSizeExact();
+
+    /**
+     * Returns the items of a page.
+     *
+     * @param offset zero based index of the first item
+     * @param count  maximum number of items
+     * @return the items, fewer than count at the end
+     */
+    List<T> getItems(long offset, int count);
+}
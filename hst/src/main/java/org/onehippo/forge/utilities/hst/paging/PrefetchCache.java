@@ -0,0 +1,199 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.hst.paging;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+
+/**
+ * PrefetchCache: pages that an {@link IterablePagination} has read ahead, so that the next page can be shown
+ * without running the query and skipping to the page again.
+ * <p>
+ * Pages are kept by query key, page size and page number, at most maxEntries of them, the least recently used are
+ * evicted first, and only for a short time to live: the page was determined by an earlier request and does not show
+ * later changes. Only the identifiers of the documents and the total are kept; the beans are loaded again by the
+ * object bean manager of the request that shows the page, so no JCR session is shared between requests. A cache is
+ * either shared, and then the query key must contain everything that determines the results for the user, including
+ * preview or live, or kept in the HTTP session with {@link #getSessionCache(HttpServletRequest, boolean)}.
+ * </p>
+ * <pre>
+ *   PrefetchCache cache = PrefetchCache.getSessionCache(request, true);
+ *   IterablePagination&lt;NewsDocument&gt; pagination = IterablePagination.getPrefetched(cache, queryKey, pageSize,
+ *           currentPage, request.getRequestContext().getObjectBeanManager());
+ *   if (pagination == null) {
+ *       HstQueryResult result = query.execute();
+ *       pagination = new IterablePagination&lt;NewsDocument&gt;(result.getHippoDocuments(), result.getTotalSize(),
+ *               pageSize, currentPage, cache, queryKey);
+ *   }
+ * </pre>
+ */
+public class PrefetchCache implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Name of the session attribute of the session cache.
+     */
+    public static final String SESSION_ATTRIBUTE = PrefetchCache.class.getName();
+
+    /**
+     * Maximum number of pages of a session cache.
+     */
+    public static final int DEFAULT_SESSION_ENTRIES = 4;
+
+    /**
+     * Time to live of the pages of a session cache, in milliseconds.
+     */
+    public static final long DEFAULT_SESSION_TIME_TO_LIVE = 60 * 1000L;
+
+    private final int maxEntries;
+    private final long timeToLiveMillis;
+    private final Map<String, Page> pages = new LinkedHashMap<String, Page>(16, 0.75f, true);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * A prefetched page: the identifiers of its documents with the total of its query.
+     */
+    static final class Page implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long total;
+        private final List<String> identifiers;
+        private final long expires;
+
+        private Page(final long total, final List<String> identifiers, final long expires) {
+            this.total = total;
+            this.identifiers = identifiers;
+            this.expires = expires;
+        }
+
+        long getTotal() {
+            return total;
+        }
+
+        List<String> getIdentifiers() {
+            return identifiers;
+        }
+    }
+
+    /**
+     * @param maxEntries       maximum number of cached pages
+     * @param timeToLiveMillis milliseconds a page is kept
+     */
+    public PrefetchCache(final int maxEntries, final long timeToLiveMillis) {
+        this.maxEntries = maxEntries;
+        this.timeToLiveMillis = timeToLiveMillis;
+    }
+
+    /**
+     * Returns the cache of the HTTP session of a request, with {@link #DEFAULT_SESSION_ENTRIES} pages and a time to
+     * live of {@link #DEFAULT_SESSION_TIME_TO_LIVE}. The cache only holds identifiers and is serializable with the
+     * session.
+     *
+     * @param request the request
+     * @param create  true to create a session if there is none
+     * @return the cache, or null if there is no session
+     */
+    public static PrefetchCache getSessionCache(final HttpServletRequest request, final boolean create) {
+        final HttpSession session = request.getSession(create);
+        if (session == null) {
+            return null;
+        }
+        PrefetchCache cache = (PrefetchCache) session.getAttribute(SESSION_ATTRIBUTE);
+        if (cache == null) {
+            // concurrent requests of a session may both create a cache, one of them is kept
+            cache = new PrefetchCache(DEFAULT_SESSION_ENTRIES, DEFAULT_SESSION_TIME_TO_LIVE);
+            session.setAttribute(SESSION_ATTRIBUTE, cache);
+        }
+        return cache;
+    }
+
+    /**
+     * @return the cached page, or null if it is not there or has expired
+     */
+    Page getPage(final String queryKey, final int pageSize, final int pageNumber) {
+        final String key = createKey(queryKey, pageSize, pageNumber);
+        synchronized (pages) {
+            final Page page = pages.get(key);
+            if (page != null && page.expires > currentTimeMillis()) {
+                hits.incrementAndGet();
+                return page;
+            }
+            if (page != null) {
+                pages.remove(key);
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    void putPage(final String queryKey, final int pageSize, final int pageNumber, final long total,
+                 final List<String> identifiers) {
+        if (maxEntries <= 0) {
+            return;
+        }
+        final Page page = new Page(total, Collections.unmodifiableList(new ArrayList<String>(identifiers)),
+                currentTimeMillis() + timeToLiveMillis);
+        synchronized (pages) {
+            pages.put(createKey(queryKey, pageSize, pageNumber), page);
+            final Iterator<Page> iterator = pages.values().iterator();
+            while (pages.size() > maxEntries && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+    }
+
+    private static String createKey(final String queryKey, final int pageSize, final int pageNumber) {
+        return pageSize + "/" + pageNumber + "/" + queryKey;
+    }
+
+    public void clear() {
+        synchronized (pages) {
+            pages.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (pages) {
+            return pages.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+}
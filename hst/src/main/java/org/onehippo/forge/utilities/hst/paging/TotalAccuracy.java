@@ -0,0 +1,39 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.hst.paging;
+
+/**
+ * How exact the total of a {@link Pageable} is.
+ */
+public enum TotalAccuracy {
+
+    /**
+     * The total is the number of results.
+     */
+    EXACT,
+
+    /**
+     * The total is an estimate of the number of results, e.g. "about 12,000 results".
+     */
+    ESTIMATE,
+
+    /**
+     * There are at least total results, e.g. "more than 1000 results" from a query limited to
+     * {@link Pageable#getMaxSize()}.
+     */
+    LOWER_BOUND
+}
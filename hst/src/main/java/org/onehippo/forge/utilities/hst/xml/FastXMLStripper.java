@@ -0,0 +1,610 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.hst.xml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import javax.jcr.Property;
+import javax.jcr.RepositoryException;
+
+import org.hippoecm.hst.content.beans.standard.HippoHtml;
+import org.onehippo.forge.utilities.commons.HippoUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Alternative to {@link XMLStripper} that scans the simple XHTML of hippostd:content character by character instead
+ * of running a SAX parser over it.
+ * <p>
+ * The scanner handles elements, attributes, the predefined and numeric entities, CDATA sections, comments,
+ * processing instructions and a doctype without internal subset, and checks that elements are properly nested.
+ * Whitespace is collapsed like {@link XmlStripperSaxHandler} does. Unlike {@link XMLStripper}, the content of script
+ * and style elements is skipped and block elements like paragraphs, list items and table cells are separated by a
+ * space, so "&lt;p&gt;one&lt;/p&gt;&lt;p&gt;two&lt;/p&gt;" becomes "one two" instead of "onetwo".
+ * </p>
+ * Input the scanner does not accept, like an undeclared entity, an encoding other than UTF-8 or a missing end tag,
+ * is handed to {@link XMLStripper} instead.
+ */
+public final class FastXMLStripper {
+
+    private static Logger log = LoggerFactory.getLogger(FastXMLStripper.class);
+
+    private static final Set<String> BLOCK_ELEMENTS = new HashSet<String>(Arrays.asList(
+            "address", "article", "aside", "blockquote", "br", "caption", "dd", "div", "dl", "dt", "fieldset",
+            "figcaption", "figure", "footer", "form", "h1", "h2", "h3", "h4", "h5", "h6", "header", "hr", "li",
+            "main", "nav", "ol", "p", "pre", "section", "table", "tbody", "td", "tfoot", "th", "thead", "tr", "ul"));
+
+    private static final Set<String> SKIPPED_ELEMENTS = new HashSet<String>(Arrays.asList("script", "style"));
+
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Read buffer per thread. The scanner decodes UTF-8 itself, a decoding reader costs more than the scanning.
+     */
+    private static final ThreadLocal<byte[]> BUFFERS = new ThreadLocal<byte[]>();
+
+    private FastXMLStripper() {
+        // private constructor for utility
+    }
+
+    /**
+     * Get HippoHtml content as text, like {@link XMLStripper#getHippoHTMLAsText(HippoHtml)}.
+     *
+     * @param hippoHtml {@link HippoHtml} bean
+     * @return text content of a HippoHtml bean or {@literal null} if something goes wrong
+     */
+    public static String getHippoHTMLAsText(HippoHtml hippoHtml) {
+        return getHippoHTMLAsText(hippoHtml, 0);
+    }
+
+    /**
+     * Get the start of HippoHtml content as text, like {@link XMLStripper#getHippoHTMLAsText(HippoHtml, int)}.
+     *
+     * @param hippoHtml {@link HippoHtml} bean
+     * @param maxChars  approximate maximum number of characters, zero or less for the full text
+     * @return text content of a HippoHtml bean or {@literal null} if something goes wrong
+     */
+    public static String getHippoHTMLAsText(HippoHtml hippoHtml, int maxChars) {
+        if (hippoHtml == null) {
+            return null;
+        }
+        try {
+            if (!hippoHtml.getNode().hasProperty("hippostd:content")) {
+                log.error("hippoHtml does not have property hippostd:content, path={}", hippoHtml.getPath());
+                return null;
+            }
+            return getXMLPropertyAsText(hippoHtml.getNode().getProperty("hippostd:content"), maxChars);
+        } catch (RepositoryException e) {
+            log.error("RepositoryException parsing xml property as text", e);
+        }
+        return null;
+    }
+
+    /**
+     * Get an XML property as text, like {@link XMLStripper#getXMLPropertyAsText(Property)}.
+     *
+     * @param property JCR {@link Property}
+     * @return String with the text of a JCR Property or {@literal null} if something goes wrong
+     */
+    public static String getXMLPropertyAsText(Property property) {
+        return getXMLPropertyAsText(property, 0);
+    }
+
+    /**
+     * Get the start of an XML property as text, like {@link XMLStripper#getXMLPropertyAsText(Property, int)}.
+     *
+     * @param property JCR {@link Property}
+     * @param maxChars approximate maximum number of characters, zero or less for the full text
+     * @return String with the text of a JCR Property or {@literal null} if something goes wrong
+     */
+    public static String getXMLPropertyAsText(Property property, int maxChars) {
+        try {
+            final InputStream stream = property.getBinary().getStream();
+            try {
+                return HippoUtil.abbreviateText(stripText(stream, maxChars), maxChars);
+            } finally {
+                stream.close();
+            }
+        } catch (UnsupportedXmlException e) {
+            log.debug("Stripping xml property with SAX: {}", e.getMessage());
+            return XMLStripper.getXMLPropertyAsText(property, maxChars);
+        } catch (Exception e) {
+            try {
+                log.error("Could not read xml property as text, path={}", property.getPath(), e);
+            } catch (RepositoryException e1) {
+                log.error("Exception occurred while reading xml property as text (plus RepositoryException getting path)", e);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Scans UTF-8 encoded xml until its end, or until the text is longer than the maximum number of characters.
+     *
+     * @return the text, not abbreviated
+     * @throws UnsupportedXmlException if the xml is malformed or uses something the scanner does not handle
+     */
+    static String stripText(InputStream stream, int maxChars) throws IOException, UnsupportedXmlException {
+        byte[] buffer = BUFFERS.get();
+        if (buffer == null) {
+            buffer = new byte[BUFFER_SIZE];
+            BUFFERS.set(buffer);
+        }
+        final Scanner scanner = new Scanner(stream, buffer, maxChars);
+        scanner.scan();
+        return scanner.text.toString();
+    }
+
+    /**
+     * Thrown for xml the scanner does not accept, so it is parsed by SAX instead.
+     */
+    static class UnsupportedXmlException extends Exception {
+
+        private static final long serialVersionUID = 1L;
+
+        UnsupportedXmlException(final String message) {
+            super(message);
+        }
+    }
+
+    private static final class Scanner {
+
+        private final InputStream stream;
+        private final byte[] bytes;
+        private int position;
+        private int length;
+        private long offset;
+        // second half of a surrogate pair
+        private int pendingChar = -1;
+
+        private final int maxChars;
+        private final StringBuilder text;
+        private boolean lastWhitespace = true;
+        private boolean full;
+        // a block element started or ended, separate the text before it from the text after it
+        private boolean separate;
+
+        private final List<String> openElements = new ArrayList<String>();
+        private int skipDepth;
+        private boolean rootClosed;
+
+        private Scanner(final InputStream stream, final byte[] bytes, final int maxChars) {
+            this.stream = stream;
+            this.bytes = bytes;
+            this.maxChars = maxChars;
+            this.text = maxChars > 0 ? new StringBuilder(maxChars + 1) : new StringBuilder();
+        }
+
+        /**
+         * @return the next character, decoded from UTF-8, or -1 at the end
+         */
+        private int read() throws IOException, UnsupportedXmlException {
+            if (pendingChar >= 0) {
+                final int c = pendingChar;
+                pendingChar = -1;
+                return c;
+            }
+            final int b = position < length ? bytes[position++] & 0xFF : readByte();
+            return b < 0x80 ? b : decode(b);
+        }
+
+        private int readByte() throws IOException {
+            if (position == length) {
+                offset += length;
+                position = 0;
+                length = stream.read(bytes, 0, bytes.length);
+                if (length <= 0) {
+                    length = 0;
+                    return -1;
+                }
+            }
+            return bytes[position++] & 0xFF;
+        }
+
+        private int decode(final int first) throws IOException, UnsupportedXmlException {
+            int codePoint;
+            int following;
+            if ((first & 0xE0) == 0xC0) {
+                codePoint = first & 0x1F;
+                following = 1;
+            } else if ((first & 0xF0) == 0xE0) {
+                codePoint = first & 0x0F;
+                following = 2;
+            } else if ((first & 0xF8) == 0xF0) {
+                codePoint = first & 0x07;
+                following = 3;
+            } else {
+                throw unsupported("Invalid UTF-8");
+            }
+            for (; following > 0; following--) {
+                final int b = readByte();
+                if ((b & 0xC0) != 0x80) {
+                    throw unsupported("Invalid UTF-8");
+                }
+                codePoint = (codePoint << 6) | (b & 0x3F);
+            }
+            if (codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                return codePoint;
+            }
+            if (codePoint > Character.MAX_CODE_POINT) {
+                throw unsupported("Invalid UTF-8");
+            }
+            pendingChar = Character.lowSurrogate(codePoint);
+            return Character.highSurrogate(codePoint);
+        }
+
+        private int readNonEmpty() throws IOException, UnsupportedXmlException {
+            final int c = read();
+            if (c == -1) {
+                throw unsupported("Unexpected end of xml");
+            }
+            return c;
+        }
+
+        private UnsupportedXmlException unsupported(final String message) {
+            return new UnsupportedXmlException(message + " at byte " + (offset + position));
+        }
+
+        private void scan() throws IOException, UnsupportedXmlException {
+            int c = read();
+            if (c == '\uFEFF') {
+                c = read();
+            }
+            while (c != -1 && !full) {
+                if (c == '<') {
+                    markup();
+                } else if (c == '&') {
+                    entity();
+                } else {
+                    character((char) c);
+                }
+                c = full ? -1 : read();
+            }
+            if (!full && !rootClosed) {
+                throw unsupported(openElements.isEmpty() ? "No root element" : "Unclosed element " + openElements);
+            }
+        }
+
+        private void markup() throws IOException, UnsupportedXmlException {
+            final int c = readNonEmpty();
+            if (c == '/') {
+                endTag();
+            } else if (c == '?') {
+                processingInstruction();
+            } else if (c == '!') {
+                final int next = readNonEmpty();
+                if (next == '-') {
+                    expect("-");
+                    comment();
+                } else if (next == '[') {
+                    expect("CDATA[");
+                    cdata();
+                } else if (next == 'D' && openElements.isEmpty() && !rootClosed) {
+                    expect("OCTYPE");
+                    doctype();
+                } else {
+                    throw unsupported("Unsupported markup declaration");
+                }
+            } else {
+                startTag((char) c);
+            }
+        }
+
+        private void startTag(final char first) throws IOException, UnsupportedXmlException {
+            if (rootClosed) {
+                throw unsupported("Element after the root element");
+            }
+            final StringBuilder name = new StringBuilder();
+            int c = first;
+            while (!isWhitespace(c) && c != '/' && c != '>') {
+                if (c == '<' || c == '&' || c == '"' || c == '\'' || c == '=') {
+                    throw unsupported("Invalid element name");
+                }
+                name.append((char) c);
+                c = readNonEmpty();
+            }
+            if (name.length() == 0) {
+                throw unsupported("Missing element name");
+            }
+            while (true) {
+                while (isWhitespace(c)) {
+                    c = readNonEmpty();
+                }
+                if (c == '>') {
+                    openElement(name.toString());
+                    return;
+                }
+                if (c == '/') {
+                    expect(">");
+                    openElement(name.toString());
+                    closeElement(name.toString());
+                    return;
+                }
+                c = attribute(c);
+            }
+        }
+
+        /**
+         * Skips an attribute and returns the character after it.
+         */
+        private int attribute(final int first) throws IOException, UnsupportedXmlException {
+            int c = first;
+            while (c != '=') {
+                if (isWhitespace(c) || c == '>' || c == '/' || c == '<') {
+                    // whitespace around the equals sign is allowed
+                    while (isWhitespace(c)) {
+                        c = readNonEmpty();
+                    }
+                    if (c != '=') {
+                        throw unsupported("Attribute without value");
+                    }
+                    break;
+                }
+                c = readNonEmpty();
+            }
+            c = readNonEmpty();
+            while (isWhitespace(c)) {
+                c = readNonEmpty();
+            }
+            if (c != '"' && c != '\'') {
+                throw unsupported("Unquoted attribute value");
+            }
+            final int quote = c;
+            while ((c = readNonEmpty()) != quote) {
+                if (c == '<') {
+                    throw unsupported("'<' in attribute value");
+                }
+            }
+            c = readNonEmpty();
+            if (!isWhitespace(c) && c != '>' && c != '/') {
+                throw unsupported("Missing whitespace between attributes");
+            }
+            return c;
+        }
+
+        private void endTag() throws IOException, UnsupportedXmlException {
+            final StringBuilder name = new StringBuilder();
+            int c = readNonEmpty();
+            while (c != '>' && !isWhitespace(c)) {
+                name.append((char) c);
+                c = readNonEmpty();
+            }
+            while (isWhitespace(c)) {
+                c = readNonEmpty();
+            }
+            if (c != '>') {
+                throw unsupported("Invalid end tag");
+            }
+            if (openElements.isEmpty() || !openElements.get(openElements.size() - 1).contentEquals(name)) {
+                throw unsupported("Unexpected end tag " + name);
+            }
+            closeElement(openElements.get(openElements.size() - 1));
+        }
+
+        private void openElement(final String name) {
+            openElements.add(name);
+            final String localName = getLocalName(name);
+            if (SKIPPED_ELEMENTS.contains(localName)) {
+                skipDepth++;
+            }
+            if (BLOCK_ELEMENTS.contains(localName)) {
+                separate = true;
+            }
+        }
+
+        private void closeElement(final String name) {
+            openElements.remove(openElements.size() - 1);
+            final String localName = getLocalName(name);
+            if (SKIPPED_ELEMENTS.contains(localName)) {
+                skipDepth--;
+            }
+            if (BLOCK_ELEMENTS.contains(localName)) {
+                separate = true;
+            }
+            rootClosed = openElements.isEmpty();
+        }
+
+        private void comment() throws IOException, UnsupportedXmlException {
+            int dashes = 0;
+            int c;
+            while ((c = readNonEmpty()) != '>' || dashes < 2) {
+                dashes = c == '-' ? dashes + 1 : 0;
+            }
+        }
+
+        private void cdata() throws IOException, UnsupportedXmlException {
+            if (openElements.isEmpty()) {
+                throw unsupported("CDATA outside the root element");
+            }
+            int brackets = 0;
+            while (!full) {
+                final int c = readNonEmpty();
+                if (c == ']') {
+                    brackets++;
+                } else if (c == '>' && brackets >= 2) {
+                    appendBrackets(brackets - 2);
+                    return;
+                } else {
+                    appendBrackets(brackets);
+                    brackets = 0;
+                    character((char) c);
+                }
+            }
+        }
+
+        private void appendBrackets(final int brackets) throws UnsupportedXmlException {
+            for (int i = 0; i < brackets; i++) {
+                character(']');
+            }
+        }
+
+        private void processingInstruction() throws IOException, UnsupportedXmlException {
+            final StringBuilder instruction = new StringBuilder();
+            int c = readNonEmpty();
+            while (c != '>' || instruction.length() == 0 || instruction.charAt(instruction.length() - 1) != '?') {
+                instruction.append((char) c);
+                c = readNonEmpty();
+            }
+            if (instruction.length() > 4 && instruction.substring(0, 4).equals("xml ")) {
+                checkEncoding(instruction.toString());
+            }
+        }
+
+        private void checkEncoding(final String declaration) throws UnsupportedXmlException {
+            final int index = declaration.indexOf("encoding");
+            if (index < 0) {
+                return;
+            }
+            int start = declaration.indexOf('"', index);
+            final int single = declaration.indexOf('\'', index);
+            if (start < 0 || (single >= 0 && single < start)) {
+                start = single;
+            }
+            final int end = start < 0 ? -1 : declaration.indexOf(declaration.charAt(start), start + 1);
+            if (end < 0) {
+                throw unsupported("Invalid xml declaration");
+            }
+            final String encoding = declaration.substring(start + 1, end).toUpperCase(Locale.ENGLISH);
+            if (!encoding.equals("UTF-8") && !encoding.equals("UTF8")) {
+                throw unsupported("Unsupported encoding " + encoding);
+            }
+        }
+
+        private void doctype() throws IOException, UnsupportedXmlException {
+            int quote = 0;
+            int c;
+            while ((c = readNonEmpty()) != '>' || quote != 0) {
+                if (quote != 0) {
+                    if (c == quote) {
+                        quote = 0;
+                    }
+                } else if (c == '"' || c == '\'') {
+                    quote = c;
+                } else if (c == '[') {
+                    throw unsupported("Doctype with internal subset");
+                }
+            }
+        }
+
+        private void entity() throws IOException, UnsupportedXmlException {
+            final StringBuilder name = new StringBuilder();
+            int c;
+            while ((c = readNonEmpty()) != ';') {
+                if (name.length() > 8) {
+                    throw unsupported("Invalid entity reference");
+                }
+                name.append((char) c);
+            }
+            final String entity = name.toString();
+            if (entity.equals("amp")) {
+                character('&');
+            } else if (entity.equals("lt")) {
+                character('<');
+            } else if (entity.equals("gt")) {
+                character('>');
+            } else if (entity.equals("quot")) {
+                character('"');
+            } else if (entity.equals("apos")) {
+                character('\'');
+            } else if (entity.length() > 1 && entity.charAt(0) == '#') {
+                characterReference(entity);
+            } else {
+                throw unsupported("Undeclared entity " + entity);
+            }
+        }
+
+        private void characterReference(final String entity) throws UnsupportedXmlException {
+            final int codePoint;
+            try {
+                codePoint = entity.charAt(1) == 'x'
+                        ? Integer.parseInt(entity.substring(2), 16)
+                        : Integer.parseInt(entity.substring(1));
+            } catch (NumberFormatException e) {
+                throw unsupported("Invalid character reference " + entity);
+            }
+            if (!Character.isValidCodePoint(codePoint)) {
+                throw unsupported("Invalid character reference " + entity);
+            }
+            for (char c : Character.toChars(codePoint)) {
+                character(c);
+            }
+        }
+
+        private void character(final char c) throws UnsupportedXmlException {
+            if (openElements.isEmpty()) {
+                if (!isWhitespace(c)) {
+                    throw unsupported("Text outside the root element");
+                }
+                return;
+            }
+            if (skipDepth > 0) {
+                return;
+            }
+            if (isWhitespace(c)) {
+                whitespace();
+            } else {
+                if (separate && !lastWhitespace) {
+                    append(' ');
+                    if (full) {
+                        return;
+                    }
+                }
+                separate = false;
+                lastWhitespace = false;
+                append(c);
+            }
+        }
+
+        private void whitespace() {
+            if (!lastWhitespace) {
+                append(' ');
+            }
+            lastWhitespace = true;
+        }
+
+        private void append(final char c) {
+            text.append(c);
+            if (maxChars > 0 && text.length() > maxChars) {
+                full = true;
+            }
+        }
+
+        private void expect(final String expected) throws IOException, UnsupportedXmlException {
+            for (int i = 0; i < expected.length(); i++) {
+                if (readNonEmpty() != expected.charAt(i)) {
+                    throw unsupported("Expected '" + expected + "'");
+                }
+            }
+        }
+
+        private static boolean isWhitespace(final int c) {
+            return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+        }
+
+        private static String getLocalName(final String name) {
+            final int colon = name.indexOf(':');
+            return colon < 0 ? name : name.substring(colon + 1);
+        }
+    }
+}
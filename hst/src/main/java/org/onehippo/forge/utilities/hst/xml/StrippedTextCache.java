@@ -0,0 +1,193 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.hst.xml;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.jcr.Node;
+import javax.jcr.RepositoryException;
+
+import org.hippoecm.hst.content.beans.standard.HippoHtml;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Optional cache in front of {@link XMLStripper#getHippoHTMLAsText(HippoHtml, int)}, for listing pages that strip
+ * the same documents over and over.
+ * <p>
+ * Texts are kept by the identifier of the html node and the last modification date of the html node or of its
+ * nearest ancestor that has one, so a changed document gets a new entry and its old entry ages out. Html without a
+ * modification date is stripped without caching. The cache is bounded by the total number of characters of its
+ * keys and texts, evicting the least recently used entries first.
+ * </p>
+ * A cache is thread safe and typically shared, for instance as a Spring bean:
+ * <pre>
+ *   private static final StrippedTextCache TEXT_CACHE = new StrippedTextCache(1024 * 1024);
+ *   ...
+ *   String teaser = TEXT_CACHE.getHippoHTMLAsText(document.getBody(), 300);
+ * </pre>
+ */
+public class StrippedTextCache {
+
+    private static Logger log = LoggerFactory.getLogger(StrippedTextCache.class);
+
+    private static final String[] MODIFICATION_PROPERTIES = {"jcr:lastModified", "hippostdpubwf:lastModificationDate"};
+    private static final String HANDLE = "hippo:handle";
+
+    private final long maxWeight;
+    private final Map<String, String> texts = new LinkedHashMap<String, String>(16, 0.75f, true);
+    private long weight;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param maxWeight maximum total number of characters of the cached keys and texts
+     */
+    public StrippedTextCache(final long maxWeight) {
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * Cached variant of {@link XMLStripper#getHippoHTMLAsText(HippoHtml)}.
+     */
+    public String getHippoHTMLAsText(final HippoHtml hippoHtml) {
+        return getHippoHTMLAsText(hippoHtml, 0);
+    }
+
+    /**
+     * Cached variant of {@link XMLStripper#getHippoHTMLAsText(HippoHtml, int)}.
+     */
+    public String getHippoHTMLAsText(final HippoHtml hippoHtml, final int maxChars) {
+        if (hippoHtml == null) {
+            return null;
+        }
+        final String key = createKey(hippoHtml.getNode(), maxChars);
+        if (key == null) {
+            misses.incrementAndGet();
+            return XMLStripper.getHippoHTMLAsText(hippoHtml, maxChars);
+        }
+        final String cached;
+        synchronized (texts) {
+            cached = texts.get(key);
+        }
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        misses.incrementAndGet();
+        // stripped outside the lock, concurrent misses for the same key just strip twice
+        final String text = XMLStripper.getHippoHTMLAsText(hippoHtml, maxChars);
+        if (text != null) {
+            put(key, text);
+        }
+        return text;
+    }
+
+    private void put(final String key, final String text) {
+        final long entryWeight = key.length() + text.length();
+        if (entryWeight > maxWeight) {
+            return;
+        }
+        synchronized (texts) {
+            final String previous = texts.put(key, text);
+            if (previous != null) {
+                weight -= key.length() + previous.length();
+            }
+            weight += entryWeight;
+            final Iterator<Map.Entry<String, String>> eldest = texts.entrySet().iterator();
+            while (weight > maxWeight && eldest.hasNext()) {
+                final Map.Entry<String, String> entry = eldest.next();
+                weight -= entry.getKey().length() + entry.getValue().length();
+                eldest.remove();
+            }
+        }
+    }
+
+    /**
+     * @return the key of the html for the maximum number of characters, or null if it has no modification date
+     */
+    private static String createKey(final Node node, final int maxChars) {
+        if (node == null) {
+            return null;
+        }
+        try {
+            final String modified = getModificationStamp(node);
+            if (modified == null) {
+                return null;
+            }
+            return node.getIdentifier() + '|' + modified + '|' + Math.max(maxChars, 0);
+        } catch (RepositoryException e) {
+            log.warn("Cannot create cache key for html node, it is not cached: {}", e.toString());
+            return null;
+        }
+    }
+
+    private static String getModificationStamp(final Node htmlNode) throws RepositoryException {
+        Node node = htmlNode;
+        while (true) {
+            for (String propertyName : MODIFICATION_PROPERTIES) {
+                if (node.hasProperty(propertyName)) {
+                    return node.getProperty(propertyName).getString();
+                }
+            }
+            if (node.getDepth() == 0 || node.isNodeType(HANDLE)) {
+                return null;
+            }
+            node = node.getParent();
+        }
+    }
+
+    public void clear() {
+        synchronized (texts) {
+            texts.clear();
+            weight = 0;
+        }
+    }
+
+    /**
+     * @return the number of cached texts
+     */
+    public int size() {
+        synchronized (texts) {
+            return texts.size();
+        }
+    }
+
+    /**
+     * @return the total number of characters of the cached keys and texts
+     */
+    public long getWeight() {
+        synchronized (texts) {
+            return weight;
+        }
+    }
+
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+}
@@ -16,21 +16,39 @@
 
 package org.onehippo.forge.utilities.hst.xml;
 
+import java.io.InputStream;
+
 import javax.jcr.Property;
 import javax.jcr.RepositoryException;
-import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParserFactory;
 
 import org.hippoecm.hst.content.beans.standard.HippoHtml;
+import org.onehippo.forge.utilities.commons.HippoUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
 import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
 
 public final class XMLStripper {
 
   private static Logger log = LoggerFactory.getLogger(XMLStripper.class);
 
+  /**
+   * Looking up and configuring a factory is expensive, creating readers from it is less so, so the factory is created
+   * once. It is not thread safe, so readers are created while holding its lock.
+   */
+  private static final SAXParserFactory PARSER_FACTORY = createParserFactory();
+
+  /**
+   * Idle reader per thread, taken while in use so a nested parse on the same thread gets a reader of its own.
+   */
+  private static final ThreadLocal<XMLReader> XML_READERS = new ThreadLocal<XMLReader>();
+
+  private static final DefaultHandler NO_HANDLER = new DefaultHandler();
+
   private XMLStripper() {
   }
 
@@ -42,6 +60,19 @@ public final class XMLStripper {
    * @return text content of a HippoHtml bean or {@literal null} if something goes wrong
    */
   public static String getHippoHTMLAsText(HippoHtml hippoHtml) {
+    return getHippoHTMLAsText(hippoHtml, 0);
+  }
+
+  /**
+   * Get the start of HippoHtml content as text, for instance for a teaser. Parsing stops as soon as the text is
+   * longer than the maximum number of characters, after which it is abbreviated at a word end like
+   * {@link HippoUtil#abbreviateText(String, int)} does.
+   *
+   * @param hippoHtml {@link HippoHtml} bean
+   * @param maxChars  approximate maximum number of characters, zero or less for the full text
+   * @return text content of a HippoHtml bean or {@literal null} if something goes wrong
+   */
+  public static String getHippoHTMLAsText(HippoHtml hippoHtml, int maxChars) {
 
     if (hippoHtml == null) {
       return null;
@@ -53,7 +84,7 @@ public final class XMLStripper {
         return null;
       }
 
-      return getXMLPropertyAsText(hippoHtml.getNode().getProperty("hippostd:content"));
+      return getXMLPropertyAsText(hippoHtml.getNode().getProperty("hippostd:content"), maxChars);
     } catch (RepositoryException e) {
       log.error("RepositoryException parsing xml property as text", e);
     }
@@ -68,22 +99,38 @@ public final class XMLStripper {
    * @return String with the text of a JCR Property or {@literal null} if something goes wrong
    */
   public static String getXMLPropertyAsText(Property property) {
+    return getXMLPropertyAsText(property, 0);
+  }
+
+  /**
+   * Get the start of an XML property as text, parsing only until the text is longer than the maximum number of
+   * characters, and abbreviating it at a word end like {@link HippoUtil#abbreviateText(String, int)} does.
+   *
+   * @param property JCR {@link Property}
+   * @param maxChars approximate maximum number of characters, zero or less for the full text
+   * @return String with the text of a JCR Property or {@literal null} if something goes wrong
+   */
+  public static String getXMLPropertyAsText(Property property, int maxChars) {
     String text = null;
 
     try {
-      SAXParserFactory spf = SAXParserFactory.newInstance();
-      spf.setNamespaceAware(true);
-      SAXParser saxParser = spf.newSAXParser();
+      XMLReader xmlReader = acquireXMLReader();
 
-      XMLReader xmlReader = saxParser.getXMLReader();
-
-      XmlStripperSaxHandler stripXmlHandler = new XmlStripperSaxHandler();
+      XmlStripperSaxHandler stripXmlHandler = new XmlStripperSaxHandler(maxChars);
       xmlReader.setContentHandler(stripXmlHandler);
 
-      InputSource source = new InputSource(property.getBinary().getStream());
-      xmlReader.parse(source);
+      InputStream stream = property.getBinary().getStream();
+      try {
+        xmlReader.parse(new InputSource(stream));
+      } catch (XmlStripperSaxHandler.LimitReachedException e) {
+        // stopped on purpose, the text so far is all that is needed
+      } finally {
+        stream.close();
+      }
 
-      text = stripXmlHandler.getString();
+      text = HippoUtil.abbreviateText(stripXmlHandler.getString(), maxChars);
+      // a reader that failed is not returned, its state is unknown
+      releaseXMLReader(xmlReader);
     } catch (Exception e) {
       try {
         log.error("Could not parse xml property as text, path={}", property.getPath(), e);
@@ -94,4 +141,33 @@ public final class XMLStripper {
 
     return text;
   }
-}
\ No newline at end of file
+
+  private static SAXParserFactory createParserFactory() {
+    SAXParserFactory spf = SAXParserFactory.newInstance();
+    spf.setNamespaceAware(true);
+    return spf;
+  }
+
+  /**
+   * Takes the idle reader of the current thread, or creates one if there is none.
+   */
+  static XMLReader acquireXMLReader() throws ParserConfigurationException, SAXException {
+    XMLReader xmlReader = XML_READERS.get();
+    if (xmlReader != null) {
+      XML_READERS.set(null);
+      return xmlReader;
+    }
+    synchronized (PARSER_FACTORY) {
+      return PARSER_FACTORY.newSAXParser().getXMLReader();
+    }
+  }
+
+  /**
+   * Resets a reader after a successful parse and keeps it as the idle reader of the current thread. The handler of
+   * the last parse is dropped, so its buffer is not retained.
+   */
+  static void releaseXMLReader(XMLReader xmlReader) {
+    xmlReader.setContentHandler(NO_HANDLER);
+    XML_READERS.set(xmlReader);
+  }
+}
@@ -21,18 +21,33 @@ import org.xml.sax.helpers.DefaultHandler;
 
 
 public class XmlStripperSaxHandler extends DefaultHandler {
-    private StringBuffer buffer = null;
+    private StringBuilder buffer = null;
     private boolean isLastCharacterWhitespace = true;
+    private final int maxChars;
+    private boolean limitReached = false;
     
     public XmlStripperSaxHandler() {
+        this(0);
+    }
+
+    /**
+     * Creates a handler that stops parsing by throwing a {@link LimitReachedException} as soon as the text is longer
+     * than a number of characters, so only the start of a large document is parsed.
+     *
+     * @param maxChars number of characters to collect, the text ends after the first character beyond it; zero or
+     *                 less for no limit
+     */
+    public XmlStripperSaxHandler(int maxChars) {
         super();
+        this.maxChars = maxChars;
     }
     
     @Override
     public void startDocument() throws SAXException {
         super.startDocument();
-        buffer = new StringBuffer();
+        buffer = maxChars > 0 ? new StringBuilder(maxChars + 1) : new StringBuilder();
         isLastCharacterWhitespace = true;
+        limitReached = false;
     }
     
     @Override
@@ -47,6 +62,10 @@ public class XmlStripperSaxHandler extends DefaultHandler {
                 isLastCharacterWhitespace = false;
                 addCharacterToBuffer(ch[i]);
             }
+            if (maxChars > 0 && buffer.length() > maxChars) {
+                limitReached = true;
+                throw new LimitReachedException();
+            }
         }
     }
     
@@ -71,4 +90,29 @@ public class XmlStripperSaxHandler extends DefaultHandler {
         }
         return null;
     }
+
+    /**
+     * @return true if parsing stopped because the text got longer than the maximum number of characters
+     */
+    public boolean isLimitReached() {
+        return limitReached;
+    }
+
+    /**
+     * Thrown to stop parsing once the maximum number of characters is exceeded.
+     */
+    public static class LimitReachedException extends SAXException {
+
+        private static final long serialVersionUID = 1L;
+
+        public LimitReachedException() {
+            super("Maximum number of characters reached");
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            // control flow only, a stack trace is of no use
+            return this;
+        }
+    }
 }
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.hst;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.hippoecm.hst.component.support.bean.BaseHstComponent;
+import org.mockito.Mockito;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class CompUtilTest {
+
+    private enum Mode { LIST, GRID }
+
+    @Test
+    public void testTypedParameters() {
+        final BaseHstComponent comp = Mockito.mock(BaseHstComponent.class);
+        Mockito.when(comp.getComponentParameter("size")).thenReturn(" 10 ");
+        Mockito.when(comp.getComponentParameter("bad")).thenReturn("ten");
+        Mockito.when(comp.getComponentParameter("show")).thenReturn("true");
+        Mockito.when(comp.getComponentParameter("mode")).thenReturn("grid");
+        Mockito.when(comp.getComponentParameter("types")).thenReturn("a, b\t,\nc");
+
+        assertEquals(CompUtil.getParameterInt(comp, null, "size", 5), 10);
+        assertEquals(CompUtil.getParameterInt(comp, null, "bad", 5), 5);
+        assertEquals(CompUtil.getParameterInt(comp, null, "missing", 5), 5);
+        assertTrue(CompUtil.getParameterBoolean(comp, null, "show"));
+        assertTrue(CompUtil.getParameterBoolean(comp, null, "missing", true));
+        assertEquals(CompUtil.getParameterEnum(comp, null, "mode", Mode.class, Mode.LIST), Mode.GRID);
+        assertEquals(CompUtil.getParameterEnum(comp, null, "show", Mode.class, Mode.LIST), Mode.LIST);
+        assertEquals(CompUtil.getParameterList(comp, null, "types"), Arrays.asList("a", "b", "c"));
+        assertTrue(CompUtil.getParameterList(comp, null, "missing").isEmpty());
+    }
+
+    @Test
+    public void testParsedOnce() {
+        final BaseHstComponent comp = Mockito.mock(BaseHstComponent.class);
+        Mockito.when(comp.getComponentParameter("types")).thenReturn("a,b");
+        final Object list = ComponentParameterCache.getParameter(comp, "types", false, ComponentParameterCache.LIST);
+        assertSame(ComponentParameterCache.getParameter(comp, "types", false, ComponentParameterCache.LIST), list);
+
+        // shared by components with the same value
+        final BaseHstComponent other = Mockito.mock(BaseHstComponent.class);
+        Mockito.when(other.getComponentLocalParameter("types")).thenReturn("a,b");
+        assertSame(ComponentParameterCache.getParameter(other, "types", true, ComponentParameterCache.LIST), list);
+
+        // a value that depends on the request is parsed again when it changes
+        Mockito.when(comp.getComponentParameter("types")).thenReturn("a,b,c");
+        final Object changed = ComponentParameterCache.getParameter(comp, "types", false,
+                ComponentParameterCache.LIST);
+        assertNotSame(changed, list);
+        assertEquals(((List<?>) changed).size(), 3);
+    }
+
+    @Test
+    public void testModifiableList() {
+        final BaseHstComponent comp = Mockito.mock(BaseHstComponent.class);
+        Mockito.when(comp.getComponentParameter("types")).thenReturn("b,a");
+        final List<String> list = CompUtil.getParameterList(comp, null, "types");
+        Collections.sort(list);
+        list.add("c");
+        assertEquals(list, Arrays.asList("a", "b", "c"));
+        assertEquals(CompUtil.getParameterList(comp, null, "types"), Arrays.asList("b", "a"));
+    }
+
+    @Test
+    public void testLocalParameters() {
+        final BaseHstComponent comp = Mockito.mock(BaseHstComponent.class);
+        Mockito.when(comp.getComponentParameter("size")).thenReturn("10");
+        Mockito.when(comp.getComponentLocalParameter("size")).thenReturn("20");
+        Mockito.when(comp.getComponentLocalParameter("show")).thenReturn("false");
+        assertEquals(CompUtil.getParameterInt(comp, null, "size", 0), 10);
+        assertEquals(CompUtil.getLocalParameterInt(comp, null, "size", 0), 20);
+        assertEquals(CompUtil.getParameterInt(comp, null, "size", 0), 10);
+        assertFalse(CompUtil.getLocalParameterBoolean(comp, null, "show", true));
+    }
+
+    @Test
+    public void testClear() {
+        final BaseHstComponent comp = Mockito.mock(BaseHstComponent.class);
+        Mockito.when(comp.getComponentParameter("mode")).thenReturn("grid");
+        Mockito.when(comp.getComponentParameter("types")).thenReturn("a,b");
+        final Object list = ComponentParameterCache.getParameter(comp, "types", false, ComponentParameterCache.LIST);
+        CompUtil.clearParameterCache();
+        assertNotSame(ComponentParameterCache.getParameter(comp, "types", false, ComponentParameterCache.LIST), list);
+        assertEquals(CompUtil.getParameterEnum(comp, null, "mode", Mode.class, Mode.LIST), Mode.GRID);
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.hst;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.hippoecm.hst.component.support.bean.BaseHstComponent;
+import org.hippoecm.hst.core.component.HstRequest;
+import org.mockito.Mockito;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class ParameterBinderTest {
+
+    enum Sort { DATE, TITLE }
+
+    static class BaseInfo {
+        @BoundParameter("title")
+        private String title;
+    }
+
+    static class ListInfo extends BaseInfo {
+        @BoundParameter(value = "pageSize", defaultValue = "10")
+        private int pageSize;
+        @BoundParameter(value = "showImages", defaultValue = "true")
+        private boolean showImages;
+        @BoundParameter(value = "sort", source = ParameterSource.LOCAL)
+        private Sort sort = Sort.DATE;
+        @BoundParameter("types")
+        private List<String> types;
+        @BoundParameter(value = "page", source = ParameterSource.PUBLIC_REQUEST, defaultValue = "1")
+        private Integer page;
+        @BoundParameter(value = "query", source = ParameterSource.REQUEST)
+        private String query;
+    }
+
+    static class InvalidInfo {
+        @BoundParameter("size")
+        private long size;
+    }
+
+    @Test
+    public void testBind() {
+        final BaseHstComponent comp = Mockito.mock(BaseHstComponent.class);
+        final HstRequest request = Mockito.mock(HstRequest.class);
+        Mockito.when(comp.getComponentParameter("title")).thenReturn(" News ");
+        Mockito.when(comp.getComponentParameter("pageSize")).thenReturn("20");
+        Mockito.when(comp.getComponentParameter("showImages")).thenReturn("false");
+        Mockito.when(comp.getComponentLocalParameter("sort")).thenReturn("title");
+        Mockito.when(comp.getComponentParameter("types")).thenReturn("news, event");
+        Mockito.when(comp.getPublicRequestParameter(request, "page")).thenReturn("3");
+        Mockito.when(request.getParameter("query")).thenReturn("hippo");
+
+        final ListInfo info = ParameterBinder.forClass(ListInfo.class).bind(comp, request);
+        assertEquals(((BaseInfo) info).title, "News");
+        assertEquals(info.pageSize, 20);
+        assertFalse(info.showImages);
+        assertEquals(info.sort, Sort.TITLE);
+        assertEquals(info.types, Arrays.asList("news", "event"));
+        assertEquals(info.page, Integer.valueOf(3));
+        assertEquals(info.query, "hippo");
+
+        // each bound object has its own list
+        info.types.add("blog");
+        assertEquals(ParameterBinder.forClass(ListInfo.class).bind(comp, request).types,
+                Arrays.asList("news", "event"));
+    }
+
+    @Test
+    public void testDefaults() {
+        final BaseHstComponent comp = Mockito.mock(BaseHstComponent.class);
+        final HstRequest request = Mockito.mock(HstRequest.class);
+        Mockito.when(comp.getComponentParameter("pageSize")).thenReturn("many");
+        Mockito.when(comp.getComponentLocalParameter("sort")).thenReturn("unknown");
+
+        final ListInfo info = ParameterBinder.forClass(ListInfo.class).bind(comp, request);
+        assertNull(((BaseInfo) info).title);
+        assertEquals(info.pageSize, 10);
+        assertTrue(info.showImages);
+        assertEquals(info.sort, Sort.DATE);
+        assertNull(info.types);
+        assertEquals(info.page, Integer.valueOf(1));
+        assertNull(info.query);
+    }
+
+    @Test
+    public void testPlanPerClass() {
+        final ParameterBinder<ListInfo> binder = ParameterBinder.forClass(ListInfo.class);
+        assertSame(ParameterBinder.forClass(ListInfo.class), binder);
+        assertEquals(binder.getParameterNames(),
+                Arrays.asList("pageSize", "showImages", "sort", "types", "page", "query", "title"));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testUnsupportedType() {
+        ParameterBinder.forClass(InvalidInfo.class);
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.hst.component;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.hippoecm.hst.core.component.HstRequest;
+import org.hippoecm.hst.core.component.HstResponse;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+
+public class ContainerTest {
+
+    private static class TestContainer extends Container {
+        final Map<String, String> parameters = new HashMap<String, String>();
+        int reads;
+
+        @Override
+        public String getComponentLocalParameter(final String name) {
+            reads++;
+            return parameters.get(name);
+        }
+    }
+
+    private static class CachingContainer extends TestContainer {
+        @Override
+        protected boolean isRenderStateCacheable() {
+            return true;
+        }
+    }
+
+    private static Object render(final Container container, final List<String> childNames,
+                                 final String attribute) {
+        final HstRequest request = Mockito.mock(HstRequest.class);
+        final HstResponse response = Mockito.mock(HstResponse.class);
+        Mockito.when(request.getLocale()).thenReturn(Locale.ENGLISH);
+        Mockito.when(response.getChildContentNames()).thenReturn(childNames);
+        container.doBeforeRender(request, response);
+        final ArgumentCaptor<Object> value = ArgumentCaptor.forClass(Object.class);
+        final ArgumentCaptor<String> name = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(request, Mockito.atLeast(0)).setAttribute(name.capture(), value.capture());
+        for (int i = 0; i < name.getAllValues().size(); i++) {
+            if (name.getAllValues().get(i).equals(attribute)) {
+                return value.getAllValues().get(i);
+            }
+        }
+        return null;
+    }
+
+    @Test
+    public void testCachedIncludes() {
+        final CachingContainer container = new CachingContainer();
+        container.parameters.put("cssclass", "main");
+        final List<String> childNames = Arrays.asList("c", "a", "b");
+
+        final Object includes = render(container, childNames, "includes");
+        assertEquals(includes, Arrays.asList("a", "b", "c"));
+        assertEquals(render(container, childNames, "cssclass"), "main");
+        final int reads = container.reads;
+        assertSame(render(container, Arrays.asList("c", "a", "b"), "includes"), includes);
+        assertEquals(container.reads, reads);
+
+        assertEquals(render(container, Arrays.asList("d", "a"), "includes"), Arrays.asList("a", "d"));
+    }
+
+    @Test
+    public void testRequestDependent() {
+        final TestContainer container = new TestContainer();
+        container.parameters.put("id", "first");
+        assertEquals(render(container, Arrays.asList("b", "a"), "id"), "first");
+        container.parameters.put("id", "second");
+        assertEquals(render(container, Arrays.asList("b", "a"), "id"), "second");
+        final Object includes = render(container, Arrays.asList("b", "a"), "includes");
+        assertEquals(includes, Arrays.asList("a", "b"));
+        container.parameters.put("sorting", "none");
+        assertEquals(render(container, Arrays.asList("b", "a"), "includes"), Arrays.asList("b", "a"));
+        container.parameters.remove("sorting");
+        assertSame(render(container, Arrays.asList("b", "a"), "includes"), includes);
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.hst.paging;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hippoecm.hst.content.beans.standard.HippoBean;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class CountCacheTest {
+
+    private static class ClockCountCache extends DefaultCountCache {
+        private long now;
+
+        ClockCountCache(final int maxEntries, final long timeToLiveMillis) {
+            super(maxEntries, timeToLiveMillis);
+        }
+
+        @Override
+        protected long currentTimeMillis() {
+            return now;
+        }
+    }
+
+    @Test
+    public void testCache() {
+        final ClockCountCache cache = new ClockCountCache(2, 1000);
+        assertEquals(cache.getCount("a"), -1);
+        cache.putCount("a", 10);
+        cache.putCount("b", 20);
+        assertEquals(cache.getCount("a"), 10);
+        cache.putCount("c", 30);
+        assertEquals(cache.size(), 2);
+        assertEquals(cache.getCount("b"), -1);
+        assertEquals(cache.getCount("c"), 30);
+
+        cache.now = 1000;
+        assertEquals(cache.getCount("a"), -1);
+        assertEquals(cache.size(), 1);
+    }
+
+    @Test
+    public void testCachedSize() {
+        final List<HippoBean> beans = new ArrayList<HippoBean>();
+        for (int i = 0; i < 25; i++) {
+            beans.add(HippoBeanIteratorMock.mockBean("id-" + i));
+        }
+        final CountCache cache = new DefaultCountCache(10, 60000);
+        final IterablePagination<HippoBean> first = new IterablePagination<HippoBean>(
+                new HippoBeanIteratorMock(beans), 10, 1, cache, "query");
+        assertEquals(first.getTotal(), 25);
+        assertEquals(cache.getCount("query"), 25);
+
+        // the cached count is used, not the size of the beans
+        cache.putCount("query", 30);
+        final IterablePagination<HippoBean> third = new IterablePagination<HippoBean>(
+                new HippoBeanIteratorMock(beans), 10, 3, cache, "query");
+        assertEquals(third.getTotal(), 30);
+        assertEquals(third.getItems(), beans.subList(20, 25));
+        // the page came up short, so the stale count has been refreshed
+        assertEquals(cache.getCount("query"), 25);
+    }
+
+    @Test
+    public void testStaleCachedSize() {
+        final List<HippoBean> beans = new ArrayList<HippoBean>();
+        for (int i = 0; i < 25; i++) {
+            beans.add(HippoBeanIteratorMock.mockBean("id-" + i));
+        }
+        final CountCache cache = new DefaultCountCache(10, 60000);
+        cache.putCount("query", 40);
+
+        // the results have shrunk below the start of the page
+        final IterablePagination<HippoBean> fourth = new IterablePagination<HippoBean>(
+                new HippoBeanIteratorMock(beans), 10, 4, cache, "query");
+        assertTrue(fourth.getItems().isEmpty());
+        assertEquals(cache.getCount("query"), 25);
+    }
+
+    @Test
+    public void testLimitedTotal() {
+        final long limit = Pageable.getBatchLimit(10, 3, 10);
+        assertEquals(limit, 101);
+        assertEquals(Pageable.getBatchLimit(10, 13, 10), 201);
+
+        final Pageable pageable = new Pageable(limit, 10, 3, 10);
+        assertTrue(pageable.isTotalExact());
+        pageable.setLimitedTotal(limit, limit);
+        assertEquals(pageable.getTotalAccuracy(), TotalAccuracy.LOWER_BOUND);
+        assertFalse(pageable.isTotalExact());
+        assertEquals(pageable.getEndPage(), 10);
+        assertTrue(pageable.isNextBatch());
+
+        pageable.setLimitedTotal(42, limit);
+        assertTrue(pageable.isTotalExact());
+        assertEquals(pageable.getTotalPages(), 5);
+
+        pageable.setTotalAccuracy(TotalAccuracy.ESTIMATE);
+        assertEquals(pageable.getTotalAccuracy(), TotalAccuracy.ESTIMATE);
+    }
+}
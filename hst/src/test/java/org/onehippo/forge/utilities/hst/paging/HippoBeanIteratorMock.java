@@ -0,0 +1,84 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.hst.paging;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.hippoecm.hst.content.beans.standard.HippoBean;
+import org.hippoecm.hst.content.beans.standard.HippoBeanIterator;
+import org.mockito.Mockito;
+
+/**
+ * HippoBeanIteratorMock: iterates a list of beans and counts the beans it has returned.
+ */
+public class HippoBeanIteratorMock implements HippoBeanIterator {
+
+    private final List<HippoBean> beans;
+    private int position;
+    private int returned;
+
+    public HippoBeanIteratorMock(final List<HippoBean> beans) {
+        this.beans = beans;
+    }
+
+    public static HippoBean mockBean(final String identifier) {
+        final HippoBean bean = Mockito.mock(HippoBean.class);
+        Mockito.when(bean.getIdentifier()).thenReturn(identifier);
+        return bean;
+    }
+
+    public HippoBean nextHippoBean() {
+        return next();
+    }
+
+    public void skip(final int skipNum) {
+        if (position + skipNum > beans.size()) {
+            // like a JCR range iterator
+            throw new NoSuchElementException();
+        }
+        position += skipNum;
+    }
+
+    public long getSize() {
+        return beans.size();
+    }
+
+    public long getPosition() {
+        return position;
+    }
+
+    public boolean hasNext() {
+        return position < beans.size();
+    }
+
+    public HippoBean next() {
+        returned++;
+        return beans.get(position++);
+    }
+
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * @return the number of beans returned by next()
+     */
+    public int getReturned() {
+        return returned;
+    }
+}
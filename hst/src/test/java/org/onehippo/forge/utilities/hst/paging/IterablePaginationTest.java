@@ -0,0 +1,152 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.hst.paging;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.hippoecm.hst.content.beans.standard.HippoBean;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class IterablePaginationTest {
+
+    private static List<HippoBean> createBeans(final int count) {
+        final List<HippoBean> beans = new ArrayList<HippoBean>();
+        for (int i = 0; i < count; i++) {
+            beans.add(HippoBeanIteratorMock.mockBean("id-" + i));
+        }
+        return beans;
+    }
+
+    @Test
+    public void testLazyOffset() {
+        final List<HippoBean> beans = createBeans(25);
+        final HippoBeanIteratorMock iterator = new HippoBeanIteratorMock(beans);
+        final IterablePagination<HippoBean> pagination = new IterablePagination<HippoBean>(iterator, 10, 3, true);
+        assertTrue(pagination.isLazy());
+        assertEquals(pagination.getItems().size(), 5);
+        assertEquals(iterator.getPosition(), 0);
+
+        assertSame(pagination.getItems().get(1), beans.get(21));
+        assertEquals(iterator.getReturned(), 2);
+        assertEquals(pagination.getItems(), beans.subList(20, 25));
+        assertEquals(iterator.getReturned(), 5);
+    }
+
+    @Test
+    public void testLazyUnknownSize() {
+        final List<HippoBean> beans = createBeans(7);
+        final HippoBeanIteratorMock iterator = new HippoBeanIteratorMock(beans) {
+            @Override
+            public long getSize() {
+                return -1;
+            }
+        };
+        final IterablePagination<HippoBean> pagination = new IterablePagination<HippoBean>(iterator, 5, 1, true);
+        assertFalse(pagination.getItems().isEmpty());
+        assertEquals(pagination.getItems().size(), 5);
+        assertEquals(pagination.getItems(), beans.subList(0, 5));
+
+        // a page beyond the end of the beans
+        final HippoBeanIteratorMock shortIterator = new HippoBeanIteratorMock(beans);
+        final LazyItemList<HippoBean> skipped = new LazyItemList<HippoBean>(shortIterator, 10, -1, 5) {
+            void skip(final int count) {
+                shortIterator.skip(count);
+            }
+        };
+        assertTrue(skipped.isEmpty());
+    }
+
+    @Test
+    public void testLazyEqualsEager() {
+        final List<HippoBean> beans = createBeans(25);
+        for (int page = 1; page <= 3; page++) {
+            final IterablePagination<HippoBean> eager = new IterablePagination<HippoBean>(
+                    new HippoBeanIteratorMock(beans), 10, page);
+            final IterablePagination<HippoBean> lazy = new IterablePagination<HippoBean>(
+                    new HippoBeanIteratorMock(beans), 10, page, true);
+            assertFalse(eager.isLazy());
+            assertEquals(lazy.getItems().size(), eager.getItems().size());
+            assertEquals(lazy.getItems(), eager.getItems());
+        }
+    }
+
+    @Test
+    public void testLazyPaged() {
+        final List<HippoBean> beans = createBeans(4);
+        beans.set(1, null);
+        final HippoBeanIteratorMock iterator = new HippoBeanIteratorMock(beans);
+        final IterablePagination<HippoBean> pagination = new IterablePagination<HippoBean>(iterator, 40, 4, 2, true);
+        assertEquals(pagination.getItems().size(), 4);
+
+        final List<String> identifiers = pagination.getItemStream().limit(2).map(HippoBean::getIdentifier)
+                .collect(Collectors.toList());
+        assertEquals(identifiers, Arrays.asList("id-0", "id-2"));
+        assertEquals(iterator.getReturned(), 3);
+
+        // the unmapped bean is skipped
+        final List<HippoBean> items = new ArrayList<HippoBean>();
+        pagination.forEachItem(items::add);
+        assertEquals(items, Arrays.asList(beans.get(0), beans.get(2), beans.get(3)));
+        assertEquals(pagination.getItems().size(), 3);
+
+        pagination.addItem(beans.get(0));
+        assertFalse(pagination.isLazy());
+        assertEquals(pagination.getItems().size(), 4);
+    }
+
+    @Test
+    public void testSafeMode() {
+        final List<HippoBean> beans = createBeans(100);
+        IterablePagination.resetCounters();
+        try {
+            IterablePagination.setSafeMode(true);
+            final HippoBeanIteratorMock iterator = new HippoBeanIteratorMock(beans);
+            final IterablePagination<HippoBean> pagination = new IterablePagination<HippoBean>(iterator, 100, 10, 1);
+            assertEquals(pagination.getItems(), beans.subList(0, 10));
+            assertEquals(iterator.getReturned(), 10);
+            assertEquals(pagination.getExcessItems(), 90);
+
+            final IterablePagination<HippoBean> lazy = new IterablePagination<HippoBean>(
+                    new HippoBeanIteratorMock(beans), 100, 10, 1, true);
+            assertEquals(lazy.getItems().size(), 10);
+            assertEquals(lazy.getExcessItems(), 90);
+        } finally {
+            IterablePagination.setSafeMode(false);
+        }
+
+        // without safe mode all beans are taken, but still counted
+        final IterablePagination<HippoBean> unsafe = new IterablePagination<HippoBean>(
+                new HippoBeanIteratorMock(beans), 100, 10, 1);
+        assertEquals(unsafe.getItems().size(), 100);
+        assertEquals(unsafe.getExcessItems(), 90);
+
+        final IterablePagination<HippoBean> limited = new IterablePagination<HippoBean>(
+                new HippoBeanIteratorMock(beans.subList(0, 10)), 100, 10, 1);
+        assertEquals(limited.getExcessItems(), 0);
+
+        assertEquals(IterablePagination.getOversizedPageCount(), 3);
+        assertEquals(IterablePagination.getExcessItemCount(), 270);
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.hst.paging;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.TimeZone;
+
+import org.hippoecm.hst.content.beans.standard.HippoBean;
+import org.mockito.Mockito;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class KeysetPaginationTest {
+
+    private static final String DATE = "myproject:date";
+    private static final String TITLE = "myproject:title";
+
+    @Test
+    public void testToken() {
+        final Calendar date = new GregorianCalendar(TimeZone.getTimeZone("Europe/Amsterdam"));
+        date.setTimeInMillis(1234567890123L);
+        final KeysetCursor cursor = new KeysetCursor(Arrays.asList(date, "title", 5, 1.5F, true, null),
+                Arrays.asList("id-1", "id-2"));
+        final KeysetCursor decoded = KeysetCursor.decode(cursor.encode());
+        assertEquals(decoded, cursor);
+        assertEquals(decoded.getValues(), Arrays.<Object>asList(date, "title", 5L, 1.5D, true, null));
+        assertEquals(decoded.getIdentifiers(), cursor.getIdentifiers());
+        assertTrue(cursor.encode().matches("[A-Za-z0-9_-]+"));
+
+        assertNull(KeysetCursor.decode(null));
+        assertNull(KeysetCursor.decode(""));
+        assertNull(KeysetCursor.decode("not a token"));
+        assertNull(KeysetCursor.decode(cursor.encode().substring(4)));
+        assertNull(KeysetCursor.decode(cursor.encode() + "AA"));
+    }
+
+    @Test
+    public void testTamperedSkipCount() throws IOException {
+        final KeysetCursor cursor = KeysetCursor.decode(token(5L, "id-1", 3));
+        assertEquals(cursor, new KeysetCursor(Arrays.asList(5L), Arrays.asList("id-1"), 3));
+        assertEquals(KeysetCursor.decode(token(5L, "id-1", KeysetCursor.MAX_SKIP_COUNT)).getSkipCount(),
+                KeysetCursor.MAX_SKIP_COUNT);
+
+        assertNull(KeysetCursor.decode(token(5L, "id-1", -1)));
+        assertNull(KeysetCursor.decode(token(5L, "id-1", 0)));
+        assertNull(KeysetCursor.decode(token(5L, "id-1", KeysetCursor.MAX_SKIP_COUNT + 1)));
+        assertNull(KeysetCursor.decode(token(5L, "id-1", Integer.MAX_VALUE)));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testUnsupportedValue() {
+        new KeysetCursor(Arrays.asList(new Object()), new ArrayList<String>());
+    }
+
+    @Test
+    public void testPaging() {
+        // descending on date, with runs of equal dates longer than a page
+        final List<HippoBean> beans = new ArrayList<HippoBean>();
+        final long[] dates = {90, 90, 80, 70, 70, 70, 70, 70, 70, 70, 60, 50, 50, 40, 30, 20, 10, 10};
+        for (int i = 0; i < dates.length; i++) {
+            beans.add(mockBean("id-" + i, dates[i], "title"));
+        }
+
+        final List<HippoBean> seen = new ArrayList<HippoBean>();
+        String token = null;
+        int pages = 0;
+        do {
+            final KeysetCursor cursor = KeysetCursor.decode(token);
+            final List<HippoBean> results = query(beans, cursor, true, KeysetPagination.getQueryLimit(cursor, 3));
+            final KeysetPagination<HippoBean> page = new KeysetPagination<HippoBean>(new HippoBeanIteratorMock(results), 3, cursor,
+                    true, DATE);
+            assertEquals(page.isPrevious(), pages > 0);
+            assertTrue(page.getItems().size() <= 3);
+            seen.addAll(page.getItems());
+            token = page.getNextToken();
+            pages++;
+        } while (token != null);
+
+        assertEquals(seen, beans);
+        assertEquals(pages, 6);
+    }
+
+    @Test
+    public void testMultipleSortProperties() {
+        final List<HippoBean> beans = Arrays.asList(mockBean("a", 1L, "a"), mockBean("b", 1L, "b"),
+                mockBean("c", 1L, "c"), mockBean("d", 2L, "a"));
+        final KeysetPagination<HippoBean> first = new KeysetPagination<HippoBean>(new HippoBeanIteratorMock(beans), 2, null, false,
+                DATE, TITLE);
+        assertEquals(first.getItems(), beans.subList(0, 2));
+        assertEquals(first.getNextCursor().getValues(), Arrays.<Object>asList(1L, "b"));
+        assertEquals(first.getNextCursor().getIdentifiers().size(), 1);
+
+        final KeysetPagination<HippoBean> second = new KeysetPagination<HippoBean>(new HippoBeanIteratorMock(beans), 2,
+                first.getNextCursor(), false, DATE, TITLE);
+        assertEquals(second.getItems(), beans.subList(2, 4));
+        assertFalse(second.isNext());
+    }
+
+    @Test
+    public void testMultipleSortPropertiesWithLimit() {
+        // ascending on date and title, the range constraint of the query is on the date only
+        final List<HippoBean> beans = Arrays.asList(mockBean("1a", 1L, "a"), mockBean("1b", 1L, "b"),
+                mockBean("1c", 1L, "c"), mockBean("1d", 1L, "d"), mockBean("1e", 1L, "e"), mockBean("2a", 2L, "a"),
+                mockBean("2b", 2L, "b"), mockBean("3a", 3L, "a"));
+
+        final List<HippoBean> seen = new ArrayList<HippoBean>();
+        final List<Integer> skipCounts = new ArrayList<Integer>();
+        String token = null;
+        do {
+            final KeysetCursor cursor = KeysetCursor.decode(token);
+            final List<HippoBean> results = query(beans, cursor, false, KeysetPagination.getQueryLimit(cursor, 2));
+            final KeysetPagination<HippoBean> page = new KeysetPagination<HippoBean>(
+                    new HippoBeanIteratorMock(results), 2, cursor, false, DATE, TITLE);
+            seen.addAll(page.getItems());
+            token = page.getNextToken();
+            if (token != null) {
+                assertEquals(page.getNextCursor().getIdentifiers().size(), 1);
+                skipCounts.add(page.getNextCursor().getSkipCount());
+            }
+        } while (token != null);
+
+        assertEquals(seen, beans);
+        assertEquals(skipCounts, Arrays.asList(2, 4, 1));
+    }
+
+    @Test
+    public void testMismatchingCursor() {
+        final List<HippoBean> beans = Arrays.asList(mockBean("a", 1L, "a"), mockBean("b", 2L, "b"));
+        final KeysetCursor cursor = new KeysetCursor(Arrays.asList(1L, "a"), Arrays.asList("a"));
+        final KeysetPagination<HippoBean> page = new KeysetPagination<HippoBean>(new HippoBeanIteratorMock(beans), 10, cursor, false,
+                DATE);
+        assertNull(page.getCursor());
+        assertEquals(page.getItems(), beans);
+    }
+
+    /**
+     * Mimics a query with a range constraint on the date and a limit.
+     */
+    private static List<HippoBean> query(final List<HippoBean> beans, final KeysetCursor cursor,
+                                         final boolean descending, final int limit) {
+        final List<HippoBean> results = new ArrayList<HippoBean>();
+        for (HippoBean bean : beans) {
+            if (results.size() == limit) {
+                break;
+            }
+            final long date = (Long) bean.getSingleProperty(DATE);
+            if (cursor == null || (descending ? date <= (Long) cursor.getValue(0) : date >= (Long) cursor.getValue(0))) {
+                results.add(bean);
+            }
+        }
+        return results;
+    }
+
+    private static HippoBean mockBean(final String identifier, final long date, final String title) {
+        final HippoBean bean = HippoBeanIteratorMock.mockBean(identifier);
+        Mockito.when(bean.getSingleProperty(DATE)).thenReturn(date);
+        Mockito.when(bean.getSingleProperty(TITLE)).thenReturn(title);
+        return bean;
+    }
+
+    private static String token(final long value, final String identifier, final int skipCount) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(1);
+        out.writeByte(1);
+        out.writeByte('L');
+        out.writeLong(value);
+        out.writeShort(1);
+        out.writeUTF(identifier);
+        out.writeInt(skipCount);
+        out.flush();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+}
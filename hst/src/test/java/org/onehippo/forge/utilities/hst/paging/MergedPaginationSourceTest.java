@@ -0,0 +1,125 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.hst.paging;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.hippoecm.hst.content.beans.standard.HippoBean;
+import org.mockito.Mockito;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class MergedPaginationSourceTest {
+
+    private static final Comparator<HippoBean> BY_DATE = new Comparator<HippoBean>() {
+        public int compare(final HippoBean bean, final HippoBean other) {
+            return Long.compare((Long) bean.getSingleProperty("date"), (Long) other.getSingleProperty("date"));
+        }
+    };
+
+    private static HippoBean mockBean(final String identifier, final long date) {
+        final HippoBean bean = HippoBeanIteratorMock.mockBean(identifier);
+        Mockito.when(bean.getSingleProperty("date")).thenReturn(date);
+        return bean;
+    }
+
+    @Test
+    public void testMerge() {
+        final HippoBean a1 = mockBean("a", 1);
+        final HippoBean b2 = mockBean("b", 2);
+        final HippoBean c2 = mockBean("c", 2);
+        final HippoBean d3 = mockBean("d", 3);
+        final List<HippoBean> first = Arrays.asList(a1, b2, d3);
+        final List<HippoBean> second = Arrays.asList(c2, mockBean("b", 2), null, mockBean("d", 3));
+
+        final MergedPaginationSource<HippoBean> merged = new MergedPaginationSource<HippoBean>(BY_DATE, true,
+                Arrays.asList(first, second));
+        assertEquals(merged.getSize(), 7);
+        assertFalse(merged.isSizeExact());
+        assertEquals(merged.getItems(0, 10), Arrays.asList(a1, b2, c2, d3));
+        assertEquals(merged.getItems(1, 2), Arrays.asList(b2, c2));
+        assertTrue(merged.getItems(4, 2).isEmpty());
+
+        final IterablePagination<HippoBean> pagination = new IterablePagination<HippoBean>(merged, 2, 2);
+        assertEquals(pagination.getTotalAccuracy(), TotalAccuracy.ESTIMATE);
+        assertEquals(pagination.getItems(), Arrays.asList(c2, d3));
+
+        final MergedPaginationSource<HippoBean> single = new MergedPaginationSource<HippoBean>(BY_DATE, false,
+                Collections.singletonList(first));
+        assertTrue(single.isSizeExact());
+        assertEquals(single.getItems(2, 5), Arrays.asList(d3));
+        final DefaultPagination<HippoBean> defaultPagination = new DefaultPagination<HippoBean>(single, 2, 1);
+        assertTrue(defaultPagination.isTotalExact());
+        assertEquals(defaultPagination.getItems(), Arrays.asList(a1, b2));
+    }
+
+    @Test
+    public void testRandomMerge() {
+        final Random random = new Random(42);
+        for (int run = 0; run < 50; run++) {
+            final List<List<HippoBean>> lists = new ArrayList<List<HippoBean>>();
+            final Map<String, HippoBean> documents = new LinkedHashMap<String, HippoBean>();
+            for (int i = 0; i < 30; i++) {
+                documents.put("id-" + i, mockBean("id-" + i, random.nextInt(10)));
+            }
+            final List<HippoBean> all = new ArrayList<HippoBean>(documents.values());
+            for (int i = 0; i < 1 + random.nextInt(4); i++) {
+                final List<HippoBean> list = new ArrayList<HippoBean>();
+                for (HippoBean document : all) {
+                    if (random.nextInt(3) == 0) {
+                        list.add(document);
+                    }
+                }
+                Collections.sort(list, BY_DATE);
+                lists.add(list);
+            }
+
+            final List<HippoBean> expected = new ArrayList<HippoBean>();
+            for (List<HippoBean> list : lists) {
+                for (HippoBean bean : list) {
+                    if (!expected.contains(bean)) {
+                        expected.add(bean);
+                    }
+                }
+            }
+            Collections.sort(expected, BY_DATE);
+
+            final MergedPaginationSource<HippoBean> source = new MergedPaginationSource<HippoBean>(BY_DATE, true,
+                    lists);
+            final List<HippoBean> actual = new ArrayList<HippoBean>();
+            for (int offset = 0; offset < source.getSize(); offset += 7) {
+                actual.addAll(source.getItems(offset, 7));
+            }
+            assertEquals(actual.size(), expected.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(BY_DATE.compare(actual.get(i), expected.get(i)), 0);
+            }
+            assertEquals(new HashSet<HippoBean>(actual), new HashSet<HippoBean>(expected));
+        }
+    }
+}
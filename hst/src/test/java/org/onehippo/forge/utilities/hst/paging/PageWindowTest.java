@@ -0,0 +1,76 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.hst.paging;
+
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class PageWindowTest {
+
+    @Test
+    public void testWindow() {
+        final PageWindow window = new PageWindow(3, 7, 5);
+        assertEquals(window.size(), 5);
+        assertTrue(window.contains(3));
+        assertFalse(window.contains(8));
+        assertEquals(window.toArray(), new int[]{3, 4, 5, 6, 7});
+        assertEquals(window.asList(), Arrays.asList(3L, 4L, 5L, 6L, 7L));
+        assertEquals(window.asList().indexOf(6L), 3);
+
+        long sum = 0;
+        final PrimitiveIterator.OfLong iterator = window.iterator();
+        while (iterator.hasNext()) {
+            sum += iterator.nextLong();
+        }
+        assertEquals(sum, 25);
+
+        final PageWindow empty = new PageWindow(1, 0, 0);
+        assertTrue(empty.isEmpty());
+        assertEquals(empty.size(), 0);
+        assertTrue(empty.asList().isEmpty());
+        assertFalse(empty.iterator().hasNext());
+    }
+
+    @Test
+    public void testMemoized() {
+        final Pageable pageable = new Pageable(1014, 10, 15, 10);
+        final PageWindow window = pageable.getPageWindow();
+        assertEquals(window, new PageWindow(11, 20, 15));
+        assertSame(pageable.getPageWindow(), window);
+        assertSame(pageable.getPageNumbersArray(), window.asList());
+
+        pageable.setPageNumber(25);
+        assertEquals(pageable.getPageWindow(), new PageWindow(21, 30, 25));
+        pageable.setTotal(215);
+        assertEquals(pageable.getPageWindow(), new PageWindow(21, 22, 25));
+
+        final DefaultPagination<Object> pagination = new DefaultPagination<Object>(1014);
+        pagination.setPageNumber(10);
+        final PageWindow range = pagination.getPageWindowWithFill(10, DefaultPagination.DEFAULT_PAGE_FILL);
+        assertSame(pagination.getPageWindowWithFill(10, DefaultPagination.DEFAULT_PAGE_FILL), range);
+        assertSame(pagination.getCurrentRange(), range.asList());
+        assertNotSame(pagination.getPageWindowWithFill(10, 2), range);
+    }
+}
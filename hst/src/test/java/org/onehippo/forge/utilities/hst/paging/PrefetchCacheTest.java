@@ -0,0 +1,174 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.hst.paging;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+
+import org.hippoecm.hst.content.beans.ObjectBeanManagerException;
+import org.hippoecm.hst.content.beans.manager.ObjectBeanManager;
+import org.hippoecm.hst.content.beans.standard.HippoBean;
+import org.hippoecm.hst.content.beans.standard.HippoDocumentIterator;
+import org.mockito.Mockito;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+
+public class PrefetchCacheTest {
+
+    private static class ClockPrefetchCache extends PrefetchCache {
+        private long now;
+
+        ClockPrefetchCache(final int maxEntries, final long timeToLiveMillis) {
+            super(maxEntries, timeToLiveMillis);
+        }
+
+        @Override
+        protected long currentTimeMillis() {
+            return now;
+        }
+    }
+
+    @Test
+    public void testPrefetch() throws Exception {
+        final List<HippoBean> beans = new ArrayList<HippoBean>();
+        final List<HippoBean> reloaded = new ArrayList<HippoBean>();
+        final ObjectBeanManager objectBeanManager = Mockito.mock(ObjectBeanManager.class);
+        for (int i = 0; i < 25; i++) {
+            beans.add(HippoBeanIteratorMock.mockBean("id-" + i));
+            reloaded.add(HippoBeanIteratorMock.mockBean("id-" + i));
+            Mockito.when(objectBeanManager.getObjectByUuid("id-" + i)).thenReturn(reloaded.get(i));
+        }
+        final ClockPrefetchCache cache = new ClockPrefetchCache(4, 1000);
+        assertNull(IterablePagination.<HippoBean>getPrefetched(cache, "query", 10, 1, objectBeanManager));
+
+        final HippoDocumentIterator<HippoBean> first = iterator(beans);
+        final IterablePagination<HippoBean> page1 = new IterablePagination<HippoBean>(first, 25, 10, 1, cache,
+                "query");
+        assertEquals(page1.getItems(), beans.subList(0, 10));
+        assertEquals(first.getPosition(), 20);
+
+        // the beans of the prefetched page are loaded by the object bean manager of the next request
+        final IterablePagination<HippoBean> page2 = IterablePagination.getPrefetched(cache, "query", 10, 2,
+                objectBeanManager);
+        assertEquals(page2.getItems(), reloaded.subList(10, 20));
+        assertEquals(page2.getTotal(), 25);
+        assertEquals(page2.getCurrentPage(), 2);
+        assertNull(IterablePagination.<HippoBean>getPrefetched(cache, "other", 10, 2, objectBeanManager));
+        assertNull(IterablePagination.<HippoBean>getPrefetched(cache, "query", 5, 2, objectBeanManager));
+        assertNull(IterablePagination.<HippoBean>getPrefetched(cache, "query", 10, 2, null));
+
+        // the last page has no next page to prefetch
+        final IterablePagination<HippoBean> page3 = new IterablePagination<HippoBean>(iterator(beans), 25, 10, 3,
+                cache, "query");
+        assertEquals(page3.getItems(), beans.subList(20, 25));
+        assertEquals(cache.size(), 1);
+
+        cache.now = 1000;
+        assertNull(IterablePagination.<HippoBean>getPrefetched(cache, "query", 10, 2, objectBeanManager));
+        assertEquals(cache.size(), 0);
+    }
+
+    @Test
+    public void testRemovedDocument() throws Exception {
+        final List<HippoBean> beans = new ArrayList<HippoBean>();
+        final ObjectBeanManager objectBeanManager = Mockito.mock(ObjectBeanManager.class);
+        for (int i = 0; i < 20; i++) {
+            beans.add(HippoBeanIteratorMock.mockBean("id-" + i));
+            Mockito.when(objectBeanManager.getObjectByUuid("id-" + i)).thenReturn(beans.get(i));
+        }
+        final PrefetchCache cache = new PrefetchCache(4, 1000);
+        new IterablePagination<HippoBean>(iterator(beans), 20, 10, 1, cache, "query");
+
+        Mockito.when(objectBeanManager.getObjectByUuid("id-12")).thenReturn(null);
+        assertNull(IterablePagination.<HippoBean>getPrefetched(cache, "query", 10, 2, objectBeanManager));
+
+        new IterablePagination<HippoBean>(iterator(beans), 20, 10, 1, cache, "query");
+        Mockito.when(objectBeanManager.getObjectByUuid("id-12")).thenThrow(new ObjectBeanManagerException());
+        assertNull(IterablePagination.<HippoBean>getPrefetched(cache, "query", 10, 2, objectBeanManager));
+    }
+
+    @Test
+    public void testSerializable() throws Exception {
+        final List<HippoBean> beans = new ArrayList<HippoBean>();
+        for (int i = 0; i < 20; i++) {
+            beans.add(HippoBeanIteratorMock.mockBean("id-" + i));
+        }
+        final PrefetchCache cache = new PrefetchCache(4, 1000);
+        new IterablePagination<HippoBean>(iterator(beans), 20, 10, 1, cache, "query");
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(cache);
+        out.close();
+        final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        final PrefetchCache copy = (PrefetchCache) in.readObject();
+        assertEquals(copy.size(), 1);
+        assertEquals(copy.getPage("query", 10, 2).getIdentifiers().get(0), "id-10");
+    }
+
+    @Test
+    public void testSessionCache() {
+        final HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+        assertNull(PrefetchCache.getSessionCache(request, false));
+
+        final HttpSession session = Mockito.mock(HttpSession.class);
+        Mockito.when(request.getSession(true)).thenReturn(session);
+        final PrefetchCache cache = PrefetchCache.getSessionCache(request, true);
+        Mockito.verify(session).setAttribute(PrefetchCache.SESSION_ATTRIBUTE, cache);
+        Mockito.when(session.getAttribute(PrefetchCache.SESSION_ATTRIBUTE)).thenReturn(cache);
+        assertSame(PrefetchCache.getSessionCache(request, true), cache);
+    }
+
+    private static HippoDocumentIterator<HippoBean> iterator(final List<HippoBean> beans) {
+        final HippoBeanIteratorMock iterator = new HippoBeanIteratorMock(beans);
+        return new HippoDocumentIterator<HippoBean>() {
+            public void skip(final int skipNum) {
+                iterator.skip(skipNum);
+            }
+
+            public long getSize() {
+                return iterator.getSize();
+            }
+
+            public long getPosition() {
+                return iterator.getPosition();
+            }
+
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            public HippoBean next() {
+                return iterator.next();
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+}
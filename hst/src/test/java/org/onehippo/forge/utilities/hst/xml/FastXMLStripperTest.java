@@ -0,0 +1,140 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.hst.xml;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import javax.jcr.Binary;
+import javax.jcr.Property;
+import javax.jcr.RepositoryException;
+
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.onehippo.forge.utilities.commons.HippoUtil;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.fail;
+
+public class FastXMLStripperTest {
+
+    private static final String HTML = "<html><body><p>Hello\n   <b>world</b></p>\t<p>again</p></body></html>";
+
+    @Test
+    public void testStripText() throws Exception {
+        assertEquals(strip(HTML), "Hello world again");
+        assertEquals(strip("<html><body> x </body></html>"), "x ");
+        assertEquals(strip("<div><p>one</p><p>two</p><ul><li>three</li><li>four<br/>five</li></ul></div>"),
+                "one two three four five");
+        assertEquals(strip("<p>a&amp;b &lt;&gt;&quot;&apos; &#65;&#x42;&#x1F600;</p>"), "a&b <>\"' AB\uD83D\uDE00");
+        assertEquals(strip("<p><![CDATA[a <b>]] ]]]></p>"), "a <b>]] ]");
+        assertEquals(strip("<html><head><style>p { color: red; }</style><script>var a = 1;</script></head>"
+                + "<body><!-- no -- more -->te<!---->xt</body></html>"), "text");
+        assertEquals(strip("\uFEFF<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<!DOCTYPE html PUBLIC \"-//W3C//DTD XHTML 1.0 Strict//EN\" \"xhtml1-strict.dtd\">\n"
+                + "<html xmlns=\"http://www.w3.org/1999/xhtml\"><body class = \"a > b\" id='x'>ok</body></html>\n"),
+                "ok");
+        assertEquals(strip("<h:p xmlns:h=\"http://www.w3.org/1999/xhtml\"><h:span>one</h:span><h:p>two</h:p></h:p>"),
+                "one two");
+    }
+
+    @Test
+    public void testUnsupported() throws IOException {
+        final String[] unsupported = {
+                "<html><body>unclosed</html>",
+                "<p>one</p><p>two</p>",
+                "text",
+                "",
+                "<p>&nbsp;</p>",
+                "<p>&#xZZ;</p>",
+                "<p a=b>x</p>",
+                "<p a=\"1\"b=\"2\">x</p>",
+                "<p><!-- unterminated</p>",
+                "<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?><p>x</p>",
+                "<!DOCTYPE p [<!ENTITY e \"x\">]><p>&e;</p>"};
+        for (String xml : unsupported) {
+            try {
+                strip(xml);
+                fail("Expected unsupported: " + xml);
+            } catch (FastXMLStripper.UnsupportedXmlException e) {
+                // expected
+            }
+        }
+        try {
+            // latin-1 instead of UTF-8
+            FastXMLStripper.stripText(new ByteArrayInputStream(new byte[] {'<', 'p', '>', (byte) 0xE9, '<', '/', 'p', '>'}), 0);
+            fail("Expected invalid UTF-8");
+        } catch (FastXMLStripper.UnsupportedXmlException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testFallback() throws RepositoryException {
+        // not read by the scanner, SAX handles the declared encoding
+        assertEquals(FastXMLStripper.getXMLPropertyAsText(mockProperty(
+                "<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?><p>caf\u00e9</p>", StandardCharsets.ISO_8859_1)),
+                "caf\u00e9");
+        assertNull(FastXMLStripper.getXMLPropertyAsText(mockProperty("<html><body>unclosed</html>",
+                StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testMaxChars() throws Exception {
+        final String text = FastXMLStripper.getXMLPropertyAsText(mockProperty(HTML, StandardCharsets.UTF_8));
+        assertEquals(text, XMLStripper.getXMLPropertyAsText(mockProperty(HTML, StandardCharsets.UTF_8)));
+        for (int maxChars = 1; maxChars < 20; maxChars++) {
+            assertEquals(FastXMLStripper.getXMLPropertyAsText(mockProperty(HTML, StandardCharsets.UTF_8), maxChars),
+                    HippoUtil.abbreviateText(text, maxChars), "maxChars " + maxChars);
+        }
+
+        // the malformed end is never reached
+        final StringBuilder xml = new StringBuilder("<p>");
+        for (int i = 0; i < 10000; i++) {
+            xml.append("word ");
+        }
+        xml.append("<<");
+        assertEquals(FastXMLStripper.stripText(toStream(xml.toString()), 12), "word word wor");
+    }
+
+    private static String strip(final String xml) throws IOException, FastXMLStripper.UnsupportedXmlException {
+        return FastXMLStripper.stripText(toStream(xml), 0);
+    }
+
+    private static InputStream toStream(final String xml) {
+        return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Property mockProperty(final String xml, final Charset charset) throws RepositoryException {
+        final Binary binary = Mockito.mock(Binary.class);
+        Mockito.when(binary.getStream()).thenAnswer(new Answer<InputStream>() {
+            public InputStream answer(final InvocationOnMock invocation) {
+                return new ByteArrayInputStream(xml.getBytes(charset));
+            }
+        });
+        final Property property = Mockito.mock(Property.class);
+        Mockito.when(property.getBinary()).thenReturn(binary);
+        Mockito.when(property.getPath()).thenReturn("/content/html/hippostd:content");
+        return property;
+    }
+}
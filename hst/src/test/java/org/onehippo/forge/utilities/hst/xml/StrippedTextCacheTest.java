@@ -0,0 +1,132 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.hst.xml;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import javax.jcr.Binary;
+import javax.jcr.Node;
+import javax.jcr.Property;
+import javax.jcr.RepositoryException;
+
+import org.hippoecm.hst.content.beans.standard.HippoHtml;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class StrippedTextCacheTest {
+
+    @Test
+    public void testHit() throws RepositoryException {
+        final StrippedTextCache cache = new StrippedTextCache(1000);
+        final HippoHtml html = mockHtml("id1", "<p>first text</p>", "2026-01-01T00:00:00.000Z");
+
+        assertEquals(cache.getHippoHTMLAsText(html), "first text");
+        assertEquals(cache.getHippoHTMLAsText(html), "first text");
+        assertEquals(cache.getHits(), 1L);
+        assertEquals(cache.getMisses(), 1L);
+        Mockito.verify(html.getNode(), Mockito.times(1)).getProperty("hippostd:content");
+
+        // another length is another entry
+        assertEquals(cache.getHippoHTMLAsText(html, 6), "first ...");
+        assertEquals(cache.size(), 2);
+    }
+
+    @Test
+    public void testModified() throws RepositoryException {
+        final StrippedTextCache cache = new StrippedTextCache(1000);
+        assertEquals(cache.getHippoHTMLAsText(mockHtml("id1", "<p>old</p>", "2026-01-01T00:00:00.000Z")), "old");
+        assertEquals(cache.getHippoHTMLAsText(mockHtml("id1", "<p>new</p>", "2026-01-02T00:00:00.000Z")), "new");
+        assertEquals(cache.getMisses(), 2L);
+    }
+
+    @Test
+    public void testNotModifiable() throws RepositoryException {
+        final StrippedTextCache cache = new StrippedTextCache(1000);
+        final HippoHtml html = mockHtml("id1", "<p>text</p>", null);
+        assertEquals(cache.getHippoHTMLAsText(html), "text");
+        assertEquals(cache.getHippoHTMLAsText(html), "text");
+        assertEquals(cache.size(), 0);
+        assertEquals(cache.getHits(), 0L);
+    }
+
+    @Test
+    public void testEviction() throws RepositoryException {
+        // room for two entries of 3 + 1 + 24 + 2 + 10 characters
+        final StrippedTextCache cache = new StrippedTextCache(80);
+        final HippoHtml html1 = mockHtml("id1", "<p>0123456789</p>", "2026-01-01T00:00:00.000Z");
+        final HippoHtml html2 = mockHtml("id2", "<p>0123456789</p>", "2026-01-01T00:00:00.000Z");
+        final HippoHtml html3 = mockHtml("id3", "<p>0123456789</p>", "2026-01-01T00:00:00.000Z");
+        cache.getHippoHTMLAsText(html1);
+        cache.getHippoHTMLAsText(html2);
+        // html1 becomes most recently used
+        cache.getHippoHTMLAsText(html1);
+        cache.getHippoHTMLAsText(html3);
+
+        assertEquals(cache.size(), 2);
+        assertTrue(cache.getWeight() <= cache.getMaxWeight());
+        cache.getHippoHTMLAsText(html1);
+        assertEquals(cache.getHits(), 2L);
+        cache.getHippoHTMLAsText(html2);
+        assertEquals(cache.getMisses(), 4L);
+
+        cache.clear();
+        assertEquals(cache.getWeight(), 0L);
+    }
+
+    /**
+     * Html node below a document node with the modification date.
+     */
+    private static HippoHtml mockHtml(final String id, final String content, final String lastModified)
+            throws RepositoryException {
+        final Node document = Mockito.mock(Node.class);
+        Mockito.when(document.hasProperty("hippostdpubwf:lastModificationDate")).thenReturn(lastModified != null);
+        if (lastModified != null) {
+            final Property modified = Mockito.mock(Property.class);
+            Mockito.when(modified.getString()).thenReturn(lastModified);
+            Mockito.when(document.getProperty("hippostdpubwf:lastModificationDate")).thenReturn(modified);
+        }
+        Mockito.when(document.isNodeType("hippo:handle")).thenReturn(false);
+        Mockito.when(document.getDepth()).thenReturn(0);
+
+        final Binary binary = Mockito.mock(Binary.class);
+        Mockito.when(binary.getStream()).thenAnswer(new Answer<InputStream>() {
+            public InputStream answer(final InvocationOnMock invocation) {
+                return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+            }
+        });
+        final Property property = Mockito.mock(Property.class);
+        Mockito.when(property.getBinary()).thenReturn(binary);
+
+        final Node node = Mockito.mock(Node.class);
+        Mockito.when(node.getIdentifier()).thenReturn(id);
+        Mockito.when(node.getDepth()).thenReturn(1);
+        Mockito.when(node.getParent()).thenReturn(document);
+        Mockito.when(node.hasProperty("hippostd:content")).thenReturn(true);
+        Mockito.when(node.getProperty("hippostd:content")).thenReturn(property);
+
+        final HippoHtml html = Mockito.mock(HippoHtml.class);
+        Mockito.when(html.getNode()).thenReturn(node);
+        return html;
+    }
+}
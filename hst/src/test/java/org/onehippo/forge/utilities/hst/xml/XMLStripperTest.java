@@ -0,0 +1,136 @@
+/*
+ * Copyright 2026 Bloomreach
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onehippo.forge.utilities.hst.xml;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import javax.jcr.Binary;
+import javax.jcr.Property;
+import javax.jcr.RepositoryException;
+
+import org.mockito.Mockito;
+import org.onehippo.forge.utilities.commons.HippoUtil;
+import org.testng.annotations.Test;
+import org.xml.sax.XMLReader;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class XMLStripperTest {
+
+    private static final String HTML = "<html><body><p>Hello\n   <b>world</b></p>\t<p>again</p></body></html>";
+
+    @Test
+    public void testGetXMLPropertyAsText() throws RepositoryException {
+        assertEquals(XMLStripper.getXMLPropertyAsText(mockProperty(HTML)), "Hello world again");
+        assertEquals(XMLStripper.getXMLPropertyAsText(mockProperty("<html><body> x </body></html>")), "x ");
+    }
+
+    @Test
+    public void testInvalidXml() throws RepositoryException {
+        assertNull(XMLStripper.getXMLPropertyAsText(mockProperty("<html><body>unclosed</html>")));
+        // the failed reader is not reused
+        assertEquals(XMLStripper.getXMLPropertyAsText(mockProperty(HTML)), "Hello world again");
+    }
+
+    @Test
+    public void testReaderReused() throws Exception {
+        final XMLReader first = XMLStripper.acquireXMLReader();
+        // taken while in use
+        final XMLReader nested = XMLStripper.acquireXMLReader();
+        assertNotSame(nested, first);
+        XMLStripper.releaseXMLReader(first);
+        assertSame(XMLStripper.acquireXMLReader(), first);
+        XMLStripper.releaseXMLReader(first);
+    }
+
+    @Test
+    public void testMaxChars() throws RepositoryException {
+        final String text = XMLStripper.getXMLPropertyAsText(mockProperty(HTML));
+        for (int maxChars = 1; maxChars < 20; maxChars++) {
+            assertEquals(XMLStripper.getXMLPropertyAsText(mockProperty(HTML), maxChars),
+                    HippoUtil.abbreviateText(text, maxChars), "maxChars " + maxChars);
+        }
+        assertEquals(XMLStripper.getXMLPropertyAsText(mockProperty(HTML), 3), " ...");
+        assertEquals(XMLStripper.getXMLPropertyAsText(mockProperty(HTML), 8), "Hello ...");
+        assertEquals(XMLStripper.getXMLPropertyAsText(mockProperty(HTML), 0), text);
+    }
+
+    @Test
+    public void testMaxCharsStopsParsing() throws RepositoryException {
+        final CountingStream stream = new CountingStream(1024 * 1024);
+        final Binary binary = Mockito.mock(Binary.class);
+        Mockito.when(binary.getStream()).thenReturn(stream);
+        final Property property = Mockito.mock(Property.class);
+        Mockito.when(property.getBinary()).thenReturn(binary);
+
+        assertEquals(XMLStripper.getXMLPropertyAsText(property, 12), "word word ...");
+        assertTrue(stream.count < 64 * 1024, "read " + stream.count + " bytes");
+    }
+
+    @Test(threadPoolSize = 4, invocationCount = 16)
+    public void testParallel() throws RepositoryException {
+        for (int i = 0; i < 50; i++) {
+            assertEquals(XMLStripper.getXMLPropertyAsText(mockProperty("<p>item " + i + "</p>")), "item " + i);
+        }
+    }
+
+    /**
+     * A paragraph of repeated words.
+     */
+    private static class CountingStream extends InputStream {
+        private static final byte[] START = "<p>".getBytes(StandardCharsets.US_ASCII);
+        private static final byte[] WORD = "word ".getBytes(StandardCharsets.US_ASCII);
+        private static final byte[] END = "</p>".getBytes(StandardCharsets.US_ASCII);
+        private final int length;
+        private int count;
+
+        CountingStream(final int length) {
+            this.length = length;
+        }
+
+        @Override
+        public int read() {
+            final int position = count;
+            if (position >= length + START.length + END.length) {
+                return -1;
+            }
+            count++;
+            if (position < START.length) {
+                return START[position];
+            }
+            if (position >= START.length + length) {
+                return END[position - START.length - length];
+            }
+            return WORD[(position - START.length) % WORD.length];
+        }
+    }
+
+    private static Property mockProperty(final String xml) throws RepositoryException {
+        final Binary binary = Mockito.mock(Binary.class);
+        Mockito.when(binary.getStream()).thenReturn(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+        final Property property = Mockito.mock(Property.class);
+        Mockito.when(property.getBinary()).thenReturn(binary);
+        Mockito.when(property.getPath()).thenReturn("/content/html/hippostd:content");
+        return property;
+    }
+}